@@ -0,0 +1,66 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.benchmark;
+
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link SolutionBenchmarks} inside the OSGi test runtime that tycho-surefire starts (mvn -Pbenchmark verify).
+ * The benchmarks run in this vm (no forks) because the model classes need the OSGi runtime and a workspace.
+ *
+ * @since 2021.12
+ */
+public class SolutionBenchmarkRunner
+{
+	@Test
+	public void runBenchmarks() throws RunnerException
+	{
+		Options options = new OptionsBuilder() //
+			.include(SolutionBenchmarks.class.getName()) //
+			.forks(0) //
+			.param("forms", System.getProperty("benchmark.forms", "200")) //
+			.param("elementsPerForm", System.getProperty("benchmark.elements", "30")) //
+			.param("scriptsPerForm", System.getProperty("benchmark.scripts", "20")) //
+			.resultFormat(ResultFormatType.JSON) //
+			.result(System.getProperty("benchmark.result", "jmh-result.json")) //
+			.build();
+
+		// jmh loads the generated benchmark classes through the context class loader, that must be the one of this bundle
+		Thread thread = Thread.currentThread();
+		ClassLoader contextClassLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(SolutionBenchmarkRunner.class.getClassLoader());
+		try
+		{
+			Collection<RunResult> results = new Runner(options).run();
+			Assert.assertFalse("No benchmarks were run", results.isEmpty());
+		}
+		finally
+		{
+			thread.setContextClassLoader(contextClassLoader);
+		}
+	}
+}
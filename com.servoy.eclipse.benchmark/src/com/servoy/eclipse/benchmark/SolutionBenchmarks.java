@@ -0,0 +1,195 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.benchmark;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.servoy.eclipse.model.DeveloperFlattenedSolution;
+import com.servoy.eclipse.model.repository.EclipseRepository;
+import com.servoy.eclipse.model.repository.SolutionDeserializer;
+import com.servoy.eclipse.model.repository.SolutionSerializer;
+import com.servoy.j2db.AbstractActiveSolutionHandler;
+import com.servoy.j2db.persistence.Form;
+import com.servoy.j2db.persistence.IPersist;
+import com.servoy.j2db.persistence.IPersistVisitor;
+import com.servoy.j2db.persistence.IRepository;
+import com.servoy.j2db.persistence.IScriptElement;
+import com.servoy.j2db.persistence.RepositoryException;
+import com.servoy.j2db.persistence.RootObjectMetaData;
+import com.servoy.j2db.persistence.Solution;
+import com.servoy.j2db.persistence.SolutionMetaData;
+
+/**
+ * Benchmarks of loading a solution from disk, reloading a single changed form, serializing a solution and creating the flattened solution of it.
+ * The solution is generated by {@link SyntheticSolutionGenerator}, its size is set by the forms, elementsPerForm and scriptsPerForm params.
+ *
+ * @since 2021.12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SolutionBenchmarks
+{
+	private static final String SOLUTION_NAME = "benchmark_solution";
+
+	@Param("200")
+	public int forms;
+
+	@Param("30")
+	public int elementsPerForm;
+
+	@Param("20")
+	public int scriptsPerForm;
+
+	private EclipseRepository repository;
+	private File workDir;
+	private File solutionDir;
+	private SolutionMetaData metaData;
+	private Solution solution;
+	private List<File> singleFormFiles;
+
+	@Setup(Level.Trial)
+	public void generateSolution() throws Exception
+	{
+		repository = new EclipseRepository(null, new Properties());
+		workDir = Files.createTempDirectory("servoy_benchmark").toFile();
+		SyntheticSolutionGenerator generator = new SyntheticSolutionGenerator(repository);
+		solutionDir = generator.write(generator.generate(SOLUTION_NAME, forms, elementsPerForm, scriptsPerForm), workDir);
+		metaData = SolutionDeserializer.deserializeRootMetaData(repository, solutionDir, SOLUTION_NAME);
+		solution = readSolution();
+
+		File formsDir = new File(solutionDir, SolutionSerializer.FORMS_DIR);
+		String formName = SyntheticSolutionGenerator.getFormName(forms / 2);
+		singleFormFiles = Arrays.asList(new File(formsDir, formName + SolutionSerializer.FORM_FILE_EXTENSION),
+			new File(formsDir, formName + SolutionSerializer.JS_FILE_EXTENSION));
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteSolution()
+	{
+		FileUtils.deleteQuietly(workDir);
+	}
+
+	/**
+	 * Full load of the solution, the way a solution project is read when it is opened or activated.
+	 */
+	@Benchmark
+	public Solution readSolution() throws RepositoryException
+	{
+		return new SolutionDeserializer(repository, null).readSolution(solutionDir, metaData, null, false);
+	}
+
+	/**
+	 * Reload of the .frm and .js file of one form, the way a change on disk (a save, a team update) is read into a loaded solution.
+	 */
+	@Benchmark
+	public List<File> reloadSingleForm() throws RepositoryException
+	{
+		return new SolutionDeserializer(repository, null).updateSolution(solutionDir, solution, singleFormFiles, null, false, false, false);
+	}
+
+	/**
+	 * Serialization of all forms to json and of their scripts to the script files, what a save of all forms writes.
+	 */
+	@Benchmark
+	public void serializeSolution(Blackhole blackhole) throws RepositoryException
+	{
+		solution.acceptVisitor(new IPersistVisitor()
+		{
+			public Object visit(IPersist o)
+			{
+				if (o instanceof Form)
+				{
+					try
+					{
+						blackhole.consume(SolutionSerializer.generateJSONObject(o, true, false, repository, false, null));
+					}
+					catch (RepositoryException e)
+					{
+						throw new RuntimeException(e);
+					}
+					blackhole.consume(SolutionSerializer.generateScriptFile((Form)o, SolutionSerializer.getScriptPath(o, false), repository, null));
+				}
+				else if (o instanceof IScriptElement)
+				{
+					blackhole.consume(SolutionSerializer.serializePersist(o, false, repository, null));
+				}
+				return o instanceof Solution || o instanceof Form ? IPersistVisitor.CONTINUE_TRAVERSAL : IPersistVisitor.CONTINUE_TRAVERSAL_BUT_DONT_GO_DEEPER;
+			}
+		});
+	}
+
+	/**
+	 * Creation of the flattened solution and the flattened forms of it, what the model does for the active solution after a load.
+	 */
+	@Benchmark
+	public void flattenSolution(Blackhole blackhole) throws RemoteException, RepositoryException
+	{
+		DeveloperFlattenedSolution flattenedSolution = new DeveloperFlattenedSolution(true);
+		flattenedSolution.setSolution(solution.getSolutionMetaData(), false, true, new AbstractActiveSolutionHandler(null)
+		{
+			@Override
+			public IRepository getRepository()
+			{
+				return repository;
+			}
+
+			@Override
+			protected Solution loadSolution(RootObjectMetaData solutionDef)
+			{
+				return solution;
+			}
+
+			@Override
+			protected Solution loadLoginSolution(SolutionMetaData mainSolutionDef, SolutionMetaData loginSolutionDef)
+			{
+				return null;
+			}
+		});
+		Iterator<Form> it = flattenedSolution.getForms(false);
+		while (it.hasNext())
+		{
+			blackhole.consume(flattenedSolution.getFlattenedForm(it.next()));
+		}
+		flattenedSolution.close(null);
+	}
+}
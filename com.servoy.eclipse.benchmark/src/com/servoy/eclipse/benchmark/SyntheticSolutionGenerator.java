@@ -0,0 +1,144 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.benchmark;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.io.File;
+
+import com.servoy.eclipse.core.IOFileAccess;
+import com.servoy.eclipse.model.repository.EclipseRepository;
+import com.servoy.eclipse.model.repository.SolutionSerializer;
+import com.servoy.j2db.persistence.Field;
+import com.servoy.j2db.persistence.Form;
+import com.servoy.j2db.persistence.GraphicalComponent;
+import com.servoy.j2db.persistence.IColumnTypes;
+import com.servoy.j2db.persistence.IRepository;
+import com.servoy.j2db.persistence.RepositoryException;
+import com.servoy.j2db.persistence.ScriptMethod;
+import com.servoy.j2db.persistence.ScriptNameValidator;
+import com.servoy.j2db.persistence.ScriptVariable;
+import com.servoy.j2db.persistence.Solution;
+
+/**
+ * Generates a solution of a given size and writes it to disk, the same way the developer writes a solution into a workspace project.
+ * Every form gets labels and fields, variables and methods with a jsdoc so the script files look like real ones.
+ *
+ * @since 2021.12
+ */
+public class SyntheticSolutionGenerator
+{
+	private final EclipseRepository repository;
+
+	public SyntheticSolutionGenerator(EclipseRepository repository)
+	{
+		this.repository = repository;
+	}
+
+	/**
+	 * Create the solution in memory.
+	 *
+	 * @param forms number of forms
+	 * @param elementsPerForm number of elements of each form, half of them labels and half fields
+	 * @param scriptsPerForm number of methods of each form, every form also gets a variable per 4 methods
+	 */
+	public Solution generate(String name, int forms, int elementsPerForm, int scriptsPerForm) throws RepositoryException
+	{
+		ScriptNameValidator validator = new ScriptNameValidator();
+		Solution solution = (Solution)repository.createNewRootObject(name, IRepository.SOLUTIONS);
+		for (int f = 0; f < forms; f++)
+		{
+			Form form = solution.createNewForm(validator, null, getFormName(f), null, true, new Dimension(640, 480));
+			for (int e = 0; e < elementsPerForm; e++)
+			{
+				Point location = new Point(10 + (e % 2) * 200, 10 + (e / 2) * 25);
+				if (e % 2 == 0)
+				{
+					GraphicalComponent label = form.createNewGraphicalComponent(location);
+					label.setName("label_" + e);
+					label.setText("Label " + e);
+					label.setSize(new Dimension(180, 20));
+				}
+				else
+				{
+					Field field = form.createNewField(location);
+					field.setName("field_" + e);
+					field.setDataProviderID("variable_" + (e % Math.max(1, scriptsPerForm / 4)));
+					field.setSize(new Dimension(180, 20));
+				}
+			}
+			for (int v = 0; v < Math.max(1, scriptsPerForm / 4); v++)
+			{
+				ScriptVariable variable = form.createNewScriptVariable(validator, "variable_" + v, IColumnTypes.TEXT);
+				variable.setDefaultValue("'value " + v + "'");
+			}
+			for (int s = 0; s < scriptsPerForm; s++)
+			{
+				ScriptMethod method = form.createNewScriptMethod(validator, "method_" + s);
+				method.setDeclaration(getMethodDeclaration(method, s));
+			}
+		}
+		return solution;
+	}
+
+	/**
+	 * Write the solution to a dir named after the solution in the parent dir.
+	 * @return the dir of the solution
+	 */
+	public File write(Solution solution, File parentDir) throws RepositoryException
+	{
+		SolutionSerializer.writePersist(solution, new IOFileAccess(parentDir), repository, true, false, true);
+		return new File(parentDir, solution.getName());
+	}
+
+	public static String getFormName(int index)
+	{
+		return "form_" + index;
+	}
+
+	private static String getMethodDeclaration(ScriptMethod method, int index)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("/**\n");
+		sb.append(" * Synthetic method ").append(index).append(".\n");
+		sb.append(" *\n");
+		sb.append(" * @param {JSEvent} event the event that triggered the action\n");
+		sb.append(" * @param {Number} [count]\n");
+		sb.append(" *\n");
+		sb.append(" * @return {String}\n");
+		sb.append(" *\n");
+		sb.append(" * @properties={typeid:24,uuid:\"").append(method.getUUID()).append("\"}\n");
+		sb.append(" */\n");
+		sb.append("function ").append(method.getName()).append("(event, count) {\n");
+		sb.append("\tvar result = '';\n");
+		sb.append("\tfor (var i = 0; i < (count || 10); i++) {\n");
+		sb.append("\t\tif (i % 2 == 0) result += variable_0 + i;\n");
+		sb.append("\t\telse result += event ? event.getElementName() : 'none';\n");
+		sb.append("\t}\n");
+		if (index > 0)
+		{
+			sb.append("\treturn method_").append(index - 1).append("(event, 1) + result;\n");
+		}
+		else
+		{
+			sb.append("\treturn result;\n");
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+}
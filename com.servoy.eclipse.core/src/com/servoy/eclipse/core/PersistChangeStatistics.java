@@ -0,0 +1,116 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+package com.servoy.eclipse.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+import com.servoy.j2db.persistence.IPersistChangeListener;
+
+/**
+ * Counters of the persist change events that the {@link ServoyModel} fires: the number of batches and persists,
+ * and per listener class the number of calls and the time spent in them.
+ *
+ * @since 2021.12
+ */
+public final class PersistChangeStatistics
+{
+	// a single listener call that takes longer is logged
+	private static final long SLOW_LISTENER_MILLIS = 1000;
+
+	private static final class ListenerCounter
+	{
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong nanos = new AtomicLong();
+	}
+
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong persists = new AtomicLong();
+	private final Map<String, ListenerCounter> listeners = new ConcurrentHashMap<>();
+
+	void batchFired(int size)
+	{
+		batches.incrementAndGet();
+		persists.addAndGet(size);
+	}
+
+	void listenerCalled(IPersistChangeListener listener, long nanos, int size)
+	{
+		String name = listener.getClass().getName();
+		ListenerCounter counter = listeners.computeIfAbsent(name, key -> new ListenerCounter());
+		counter.calls.incrementAndGet();
+		counter.nanos.addAndGet(nanos);
+		long millis = nanos / 1000000;
+		if (millis > SLOW_LISTENER_MILLIS)
+		{
+			ServoyLog.logInfo("Persist change listener " + name + " took " + millis + "ms for " + size + " changed persists");
+		}
+	}
+
+	public long getBatchCount()
+	{
+		return batches.get();
+	}
+
+	public long getPersistCount()
+	{
+		return persists.get();
+	}
+
+	/**
+	 * @return the number of calls of the listeners of the class
+	 */
+	public long getListenerCallCount(String listenerClassName)
+	{
+		ListenerCounter counter = listeners.get(listenerClassName);
+		return counter != null ? counter.calls.get() : 0;
+	}
+
+	/**
+	 * @return the time in ms spent in the listeners of the class
+	 */
+	public long getListenerTime(String listenerClassName)
+	{
+		ListenerCounter counter = listeners.get(listenerClassName);
+		return counter != null ? counter.nanos.get() / 1000000 : 0;
+	}
+
+	public void reset()
+	{
+		batches.set(0);
+		persists.set(0);
+		listeners.clear();
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("Persist changes: ").append(batches.get()).append(" batches, ").append(persists.get()).append(" persists");
+		List<Map.Entry<String, ListenerCounter>> entries = new ArrayList<>(listeners.entrySet());
+		entries.sort((e1, e2) -> Long.compare(e2.getValue().nanos.get(), e1.getValue().nanos.get()));
+		for (Map.Entry<String, ListenerCounter> entry : entries)
+		{
+			sb.append('\n').append(entry.getKey()).append(": ").append(entry.getValue().calls.get()).append(" calls, ").append(
+				entry.getValue().nanos.get() / 1000000).append("ms");
+		}
+		return sb.toString();
+	}
+}
@@ -25,15 +25,18 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
 import java.rmi.RemoteException;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -138,6 +141,8 @@ import com.servoy.eclipse.model.repository.SolutionDeserializer;
 import com.servoy.eclipse.model.repository.SolutionSerializer;
 import com.servoy.eclipse.model.repository.StringResourceDeserializer;
 import com.servoy.eclipse.model.repository.WorkspaceUserManager;
+import com.servoy.eclipse.model.repository.WrittenFileHashes;
+import com.servoy.eclipse.model.repository.WrittenFileHashes.WrittenFile;
 import com.servoy.eclipse.model.util.AtomicIntegerWithListener;
 import com.servoy.eclipse.model.util.AvoidMultipleExecutionsWorkspaceJob;
 import com.servoy.eclipse.model.util.IFileAccess;
@@ -224,7 +229,9 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 	private final List<IFormComponentListener> formComponentListeners;
 
 	private final Job fireRealPersistchangesJob;
-	private List<IPersist> realOutstandingChanges;
+	// the changes of the real solution that are fired together by the fireRealPersistchangesJob
+	private Set<IPersist> realOutstandingChanges;
+	private final PersistChangeStatistics persistChangeStatistics = new PersistChangeStatistics();
 
 	private TeamShareMonitor teamShareMonitor;
 
@@ -289,7 +296,7 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 		// unfortunately there isn't currently a possibility to limit the scope of a filter to a workingSet via extension point - only the user can do it
 		PlatformUI.getPreferenceStore().setValue(IWorkbenchPreferenceConstants.USE_WINDOW_WORKING_SET_BY_DEFAULT, true);
 
-		realOutstandingChanges = new ArrayList<IPersist>();
+		realOutstandingChanges = new LinkedHashSet<IPersist>();
 
 		// the in-process repository is only meant to work by itself - so all servoy related projects in the workspace should
 		// either not be attached to team or attached to the in-process repository (because database information
@@ -1927,29 +1934,29 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 	 */
 	public void firePersistChanged(boolean realSolution, Object obj, boolean recursive)
 	{
-		flushFlattenedFormCache(realSolution); // looking up elements in firePersistChangedInternal may use out-of-date flattened forms
-		firePersistChangedInternal(realSolution, obj, recursive, new HashSet<Integer>());
+		flushFlattenedFormCache(realSolution); // looking up elements in collectChangedPersists may use out-of-date flattened forms
+		Set<IPersist> changed = new LinkedHashSet<IPersist>();
+		collectChangedPersists(realSolution, obj, recursive, changed, new HashSet<Integer>());
+		// the object and all inheriting forms are fired in one batch, so listeners and the flattened form cache flush are called once
+		firePersistsChanged(realSolution, changed);
 	}
 
-	private void firePersistChangedInternal(boolean realSolution, Object obj, boolean recursive, Set<Integer> visited)
+	private void collectChangedPersists(boolean realSolution, Object obj, boolean recursive, Set<IPersist> changed, Set<Integer> visited)
 	{
 		// Protect against cycle in form extends relation.
-		if (obj instanceof IPersist && !visited.add(new Integer(((IPersist)obj).getID())))
+		if (obj instanceof IPersist && !visited.add(Integer.valueOf(((IPersist)obj).getID())))
 		{
 			return;
 		}
 
-		List<IPersist> changed;
 		if (recursive)
 		{
-			changed = new ArrayList<IPersist>();
-
-			List<Object> toAdd = new ArrayList<Object>();
+			Deque<Object> toAdd = new ArrayDeque<Object>();
 			toAdd.add(obj);
 			Iterator< ? > elementsIte;
 			while (toAdd.size() > 0)
 			{
-				Object element = toAdd.remove(0);
+				Object element = toAdd.poll();
 				if (element instanceof IPersist)
 				{
 					changed.add((IPersist)element);
@@ -1975,7 +1982,6 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 		}
 		else if (obj instanceof IPersist)
 		{
-			changed = new ArrayList<IPersist>(1);
 			changed.add((IPersist)obj);
 		}
 		else
@@ -1983,14 +1989,12 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 			return;
 		}
 
-		firePersistsChanged(realSolution, changed);
-
 		if (obj instanceof Form) // all inheriting Forms has been changed
 		{
 			FlattenedSolution fs = realSolution ? getFlattenedSolution() : getEditingFlattenedSolution((Form)obj);
 			for (Form form : fs.getDirectlyInheritingForms((Form)obj))
 			{
-				firePersistChangedInternal(realSolution, form, recursive, visited);
+				collectChangedPersists(realSolution, form, recursive, changed, visited);
 			}
 		}
 	}
@@ -2011,10 +2015,10 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 			@Override
 			public IStatus run(IProgressMonitor monitor)
 			{
-				List<IPersist> changes = getOutstandingRealPersistChanges();
+				Set<IPersist> changes = getOutstandingRealPersistChanges();
 				if (changes.size() > 0)
 				{
-					firePersistsChangedEx(true, new HashSet<IPersist>(changes));
+					firePersistsChangedEx(true, changes);
 				}
 				return Status.OK_STATUS;
 			}
@@ -2077,7 +2081,7 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 
 	private final int[] isCollectingPersistChanges = new int[] { 0, 0 };
 	@SuppressWarnings("unchecked")
-	private final List<IPersist>[] collectedPersistChanges = new List[] { new ArrayList<IPersist>(), new ArrayList<IPersist>() };
+	private final Set<IPersist>[] collectedPersistChanges = new Set[] { new LinkedHashSet<IPersist>(), new LinkedHashSet<IPersist>() };
 
 	public void startCollectingPersistChanges(boolean realSolution)
 	{
@@ -2095,14 +2099,7 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 			{
 				return false;
 			}
-			List<IPersist> collected = collectedPersistChanges[realSolution ? 0 : 1];
-			for (IPersist persist : changes)
-			{
-				if (!collected.contains(persist))
-				{
-					collected.add(persist);
-				}
-			}
+			collectedPersistChanges[realSolution ? 0 : 1].addAll(changes);
 			return true;
 		}
 	}
@@ -2117,7 +2114,7 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 				return;
 			}
 			collected = collectedPersistChanges[realSolution ? 0 : 1];
-			collectedPersistChanges[realSolution ? 0 : 1] = new ArrayList<IPersist>();
+			collectedPersistChanges[realSolution ? 0 : 1] = new LinkedHashSet<IPersist>();
 		}
 		firePersistsChanged(realSolution, collected);
 	}
@@ -2158,8 +2155,10 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 	private void firePersistsChangedEx(boolean realSolution, Collection<IPersist> changes)
 	{
 		List<IPersistChangeListener> listeners = realSolution ? realPersistChangeListeners : editingPersistChangeListeners;
+		persistChangeStatistics.batchFired(changes.size());
 		for (IPersistChangeListener listener : listeners.toArray(new IPersistChangeListener[listeners.size()]))
 		{
+			long time = System.nanoTime();
 			try
 			{
 				listener.persistChanges(changes);
@@ -2168,6 +2167,7 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 			{
 				ServoyLog.logError(ex);
 			}
+			persistChangeStatistics.listenerCalled(listener, System.nanoTime() - time, changes.size());
 		}
 	}
 
@@ -2203,17 +2203,25 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 		}
 	}
 
-	private List<IPersist> getOutstandingRealPersistChanges()
+	private Set<IPersist> getOutstandingRealPersistChanges()
 	{
-		List<IPersist> outstandingChanges;
+		Set<IPersist> outstandingChanges;
 		synchronized (fireRealPersistchangesJob)
 		{
 			outstandingChanges = realOutstandingChanges;
-			realOutstandingChanges = new ArrayList<IPersist>();
+			realOutstandingChanges = new LinkedHashSet<IPersist>();
 		}
 		return outstandingChanges;
 	}
 
+	/**
+	 * @return the counters of the fired persist changes and of the time spent in the persist change listeners
+	 */
+	public PersistChangeStatistics getPersistChangeStatistics()
+	{
+		return persistChangeStatistics;
+	}
+
 	public void addPersistChangeListener(boolean realSolution, IPersistChangeListener listener)
 	{
 		(realSolution ? realPersistChangeListeners : editingPersistChangeListeners).add(listener);
@@ -2708,6 +2716,7 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 
 		changedFiles.removeAll(ignoreOnceFiles);
 		ignoreOnceFiles.clear();
+		updateSavedPersists(solution, changedFiles);
 		if (changedFiles.size() > 0)
 		{
 			final ServoyProject servoyProject = getServoyProject(solution.getName());
@@ -2826,6 +2835,88 @@ public class ServoyModel extends AbstractServoyModel implements IDeveloperServoy
 		}
 	}
 
+	/**
+	 * Update the real solution from the in-memory editing solution for the changed files that were written when saving the editing solution
+	 * and still have that content on disk. Those files are removed from changedFiles, the other files must still be deserialized.
+	 *
+	 * @param solution
+	 * @param changedFiles
+	 */
+	private void updateSavedPersists(Solution solution, List<File> changedFiles)
+	{
+		ServoyProject servoyProject = getServoyProject(solution.getName());
+		if (servoyProject == null) return;
+
+		WrittenFileHashes writtenFileHashes = ((EclipseRepository)ApplicationServerRegistry.get().getDeveloperRepository()).getWrittenFileHashes();
+		Map<IPersist, List<File>> savedFiles = new LinkedHashMap<IPersist, List<File>>();
+		Map<IPersist, Boolean> savedRecursive = new HashMap<IPersist, Boolean>();
+		for (File file : changedFiles)
+		{
+			WrittenFile write = writtenFileHashes.takeUnchangedWrite(file);
+			if (write != null)
+			{
+				IPersist savedPersist = write.getSavedPersist();
+				// same as when the deserialized persist is pushed to the editing solution, the items in the file of a composite are copied as well
+				boolean recursive = write.isRecursive() || SolutionSerializer.isCompositeWithItems(savedPersist);
+				// when the persist was changed again after the save, the editing solution no longer has the content of the file
+				if (servoyProject.isSavedEditingPersist(savedPersist, recursive))
+				{
+					List<File> files = savedFiles.get(savedPersist);
+					if (files == null)
+					{
+						files = new ArrayList<File>();
+						savedFiles.put(savedPersist, files);
+					}
+					files.add(file);
+					savedRecursive.put(savedPersist, Boolean.valueOf(recursive || Boolean.TRUE.equals(savedRecursive.get(savedPersist))));
+				}
+			}
+		}
+		if (savedFiles.isEmpty()) return;
+
+		final LinkedHashMap<UUID, IPersist> changed = new LinkedHashMap<UUID, IPersist>();
+		final LinkedHashMap<UUID, IPersist> changedEditing = new LinkedHashMap<UUID, IPersist>();
+		for (Entry<IPersist, List<File>> entry : savedFiles.entrySet())
+		{
+			IPersist editingPersist = entry.getKey();
+			final boolean recursive = savedRecursive.get(editingPersist).booleanValue();
+			IPersist persist;
+			try
+			{
+				persist = servoyProject.updateRealPersist(editingPersist, recursive);
+			}
+			catch (RepositoryException e)
+			{
+				// the files of this persist are deserialized instead
+				ServoyLog.logError(e);
+				continue;
+			}
+			if (persist == null) continue;
+			changedFiles.removeAll(entry.getValue());
+
+			persist.acceptVisitor(new IPersistVisitor()
+			{
+				public Object visit(IPersist o)
+				{
+					changed.put(o.getUUID(), o);
+					if (o instanceof TableNode && DataSourceUtils.getInmemDataSourceName(((TableNode)o).getDataSource()) != null)
+					{
+						servoyProject.getMemServer().loadTable((TableNode)o);
+					}
+					return recursive ? IPersistVisitor.CONTINUE_TRAVERSAL : IPersistVisitor.CONTINUE_TRAVERSAL_BUT_DONT_GO_DEEPER;
+				}
+			});
+			changedEditing.put(editingPersist.getUUID(), editingPersist);
+		}
+		if (changed.isEmpty()) return;
+
+		// update the last modified time for the web client.
+		solution.updateLastModifiedTime();
+
+		firePersistsChanged(true, changed.values());
+		firePersistsChanged(false, changedEditing.values());
+	}
+
 	/**
 	 * @param project
 	 * @param solution
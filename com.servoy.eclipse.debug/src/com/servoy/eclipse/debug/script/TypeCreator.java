@@ -36,8 +36,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.Icon;
 import javax.swing.SwingUtilities;
@@ -195,6 +197,7 @@ import com.servoy.j2db.persistence.ScriptCalculation;
 import com.servoy.j2db.persistence.Solution;
 import com.servoy.j2db.persistence.StaticContentSpecLoader;
 import com.servoy.j2db.persistence.Table;
+import com.servoy.j2db.persistence.TableNode;
 import com.servoy.j2db.plugins.IClientPlugin;
 import com.servoy.j2db.plugins.IClientPluginAccess;
 import com.servoy.j2db.plugins.IIconProvider;
@@ -290,6 +293,7 @@ import com.servoy.j2db.util.Debug;
 import com.servoy.j2db.util.HtmlUtils;
 import com.servoy.j2db.util.Pair;
 import com.servoy.j2db.util.ServoyException;
+import com.servoy.j2db.util.UUID;
 import com.servoy.j2db.util.Utils;
 
 /**
@@ -355,6 +359,7 @@ public class TypeCreator extends TypeCache
 	public static final String RESOURCE = "servoy.RESOURCE";
 	public static final String VALUECOLLECTION = "servoy.VALUECOLLECTION";
 	public static final String LAZY_VALUECOLLECTION = "servoy.LAZY_VALUECOLLECTION";
+	private static final String CACHE_GENERATION = "servoy.CACHE_GENERATION";
 
 	public final static Set<String> BASE_TYPES = new HashSet<String>(128);
 
@@ -764,6 +769,11 @@ public class TypeCreator extends TypeCache
 				servoyStaticTypeSystem.reset();
 				clear(null);
 				flushCache();
+				// all the types are gone, so nothing is stale anymore
+				invalidatedTypes.clear();
+				cachedTypeNames.clear();
+				replacedTypes.clear();
+				recordNames();
 				docCache.clear();
 				return Status.OK_STATUS;
 			}
@@ -874,6 +884,7 @@ public class TypeCreator extends TypeCache
 			if (!initialized)
 			{
 				initialized = true;
+				recordNames();
 				if (servoyModel instanceof ServoyModel)
 				{
 					((ServoyModel)servoyModel).addPersistChangeListener(true, new IPersistChangeListener()
@@ -881,13 +892,54 @@ public class TypeCreator extends TypeCache
 
 						public void persistChanges(Collection<IPersist> changes)
 						{
+							// only the types of the changed forms, tables and relations have to be created again, for other changes flush all the solution types
+							final Set<String> formNames = new HashSet<String>();
+							final Set<String> dataSources = new HashSet<String>();
+							final Set<Relation> relations = new HashSet<Relation>();
+							// the types of a renamed form or relation are cached under the old name, those can't be found by config
+							boolean flushAll = false;
+							for (IPersist persist : changes)
+							{
+								if (recordName(persist)) flushAll = true;
+							}
+							for (IPersist persist : changes)
+							{
+								if (flushAll) break;
+								IPersist form = persist.getAncestor(IRepository.FORMS);
+								IPersist tableNode = persist.getAncestor(IRepository.TABLENODES);
+								if (form instanceof Form)
+								{
+									formNames.add(((Form)form).getName());
+								}
+								else if (persist instanceof Relation && !((Relation)persist).isGlobal())
+								{
+									relations.add((Relation)persist);
+								}
+								else if (tableNode instanceof TableNode && ((TableNode)tableNode).getDataSource() != null)
+								{
+									dataSources.add(((TableNode)tableNode).getDataSource());
+								}
+								else
+								{
+									flushAll = true;
+									break;
+								}
+							}
+							final boolean flush = flushAll;
 							Job job = new Job("clearing cache")
 							{
 
 								@Override
 								public IStatus run(IProgressMonitor monitor)
 								{
-									flushCache();
+									if (flush)
+									{
+										flushCache();
+									}
+									else
+									{
+										invalidateTypes(formNames, dataSources, relations);
+									}
 									return Status.OK_STATUS;
 								}
 							};
@@ -938,19 +990,32 @@ public class TypeCreator extends TypeCache
 					@Override
 					public void tablesAdded(IServerInternal server, String[] tableNames)
 					{
-						runClearCacheJob();
+						Set<String> dataSources = new HashSet<String>();
+						// the server type lists its tables
+						dataSources.add(DataSourceUtils.createDBTableDataSource(server.getName(), null));
+						for (String tableName : tableNames)
+						{
+							dataSources.add(DataSourceUtils.createDBTableDataSource(server.getName(), tableName));
+						}
+						runInvalidateTypesJob(dataSources);
 					}
 
 					@Override
 					public void hiddenTableChanged(IServerInternal server, ITable table)
 					{
-						runClearCacheJob();
+						runInvalidateTypesJob(Collections.singleton(table.getDataSource()));
 					}
 
 					@Override
 					public void tablesRemoved(IServerInternal server, ITable[] tables, boolean deleted)
 					{
-						runClearCacheJob();
+						Set<String> dataSources = new HashSet<String>();
+						dataSources.add(DataSourceUtils.createDBTableDataSource(server.getName(), null));
+						for (ITable table : tables)
+						{
+							dataSources.add(table.getDataSource());
+						}
+						runInvalidateTypesJob(dataSources);
 					}
 				};
 				// add listeners to initial server list
@@ -2078,12 +2143,29 @@ public class TypeCreator extends TypeCache
 
 	private final ConcurrentMap<String, String> buckets = new ConcurrentHashMap<String, String>();
 
+	/**
+	 * The generation of the cache when a type name was invalidated, a cached type that was added before that is stale.
+	 */
+	private final ConcurrentMap<String, Long> invalidatedTypes = new ConcurrentHashMap<String, Long>();
+	private final ConcurrentMap<String, Boolean> cachedTypeNames = new ConcurrentHashMap<String, Boolean>();
+	/**
+	 * The stale types that are still in a bucket of the cache (it doesn't replace a type it already has) with the types that replace them.
+	 */
+	private final Map<Type, Type> replacedTypes = Collections.synchronizedMap(new WeakHashMap<Type, Type>());
+	/**
+	 * The names of the forms and relations by uuid, to see that a changed form or relation was renamed.
+	 */
+	private final ConcurrentMap<UUID, String> persistNames = new ConcurrentHashMap<UUID, String>();
+	private final AtomicLong cacheGeneration = new AtomicLong();
+	private final AtomicLong cacheHits = new AtomicLong();
+	private final AtomicLong cacheMisses = new AtomicLong();
+	private final AtomicLong cacheEvictions = new AtomicLong();
+
 	/**
 	 *
 	 */
 	protected void flushCache()
 	{
-		// TODO, maybe only flush solution buckets and SCOPE_TABLES only when a table change?
 		for (String bucket : buckets.keySet())
 		{
 			clear(bucket);
@@ -2091,6 +2173,191 @@ public class TypeCreator extends TypeCache
 		relationCache.clear();
 	}
 
+	@Override
+	public Type findType(String context, String typeName)
+	{
+		Type type = super.findType(context, typeName);
+		if (type != null && isStale(type))
+		{
+			Type replacement = replacedTypes.get(type);
+			type = replacement != null && !isStale(replacement) ? replacement : null;
+		}
+		if (type != null) cacheHits.incrementAndGet();
+		else cacheMisses.incrementAndGet();
+		return type;
+	}
+
+	private boolean isStale(Type type)
+	{
+		Long invalidated = invalidatedTypes.get(type.getName());
+		if (invalidated == null) return false;
+		Object generation = type.getAttribute(CACHE_GENERATION);
+		return !(generation instanceof Long) || ((Long)generation).longValue() < invalidated.longValue();
+	}
+
+	/**
+	 * Record the names of the forms and relations of the active solution, see {@link #recordName(IPersist)}.
+	 */
+	private void recordNames()
+	{
+		persistNames.clear();
+		FlattenedSolution fs = ServoyModelFinder.getServoyModel().getFlattenedSolution();
+		if (fs == null) return;
+		Iterator<Form> forms = fs.getForms(false);
+		while (forms.hasNext())
+		{
+			recordName(forms.next());
+		}
+		try
+		{
+			Iterator<Relation> relations = fs.getRelations(false);
+			while (relations.hasNext())
+			{
+				recordName(relations.next());
+			}
+		}
+		catch (RepositoryException e)
+		{
+			ServoyLog.logError(e);
+		}
+	}
+
+	/**
+	 * @return true if the persist is a form or relation that had another name when it was recorded before
+	 */
+	private boolean recordName(IPersist persist)
+	{
+		String name;
+		if (persist instanceof Form) name = ((Form)persist).getName();
+		else if (persist instanceof Relation) name = ((Relation)persist).getName();
+		else return false;
+		if (name == null) return false;
+		String previous = persistNames.put(persist.getUUID(), name);
+		return previous != null && !previous.equals(name);
+	}
+
+	/**
+	 * @return the hit and miss counts of the type lookups and the number of evicted types, for tracing
+	 */
+	public String getCacheStatistics()
+	{
+		return "types cache hits: " + cacheHits.get() + ", misses: " + cacheMisses.get() + ", evicted: " + cacheEvictions.get();
+	}
+
+	/**
+	 * Evicts only the types that depend on the changed forms, tables and relations instead of flushing all the types of the solution.
+	 * A form evicts its own types (Form, RuntimeForm, Elements, ...) and those of its subforms, a table evicts the types that have the datasource
+	 * as config (JSFoundSet, JSRecord, ...), the relations on that datasource and the forms that are based on it. A type with a relation path as config
+	 * (JSFoundSet&lt;rel_a.rel_b&gt;) is evicted when any relation of the path is evicted.
+	 */
+	protected void invalidateTypes(Set<String> formNames, Set<String> dataSources, Set<Relation> relations)
+	{
+		Set<String> configs = new HashSet<String>();
+		Set<String> formComponentConfigs = new HashSet<String>();
+		FlattenedSolution fs = ServoyModelFinder.getServoyModel().getFlattenedSolution();
+		Set<String> allDataSources = new HashSet<String>(dataSources);
+		for (Relation relation : relations)
+		{
+			configs.add(relation.getName());
+			if (relation.getPrimaryDataSource() != null) allDataSources.add(relation.getPrimaryDataSource());
+			relationCache.remove(relation);
+		}
+		Set<String> allFormNames = new HashSet<String>(formNames);
+		if (allDataSources.size() > 0)
+		{
+			configs.addAll(allDataSources);
+			for (Relation relation : relationCache.keySet())
+			{
+				if (allDataSources.contains(relation.getPrimaryDataSource()) || allDataSources.contains(relation.getForeignDataSource()))
+				{
+					relationCache.remove(relation);
+				}
+			}
+			if (fs != null)
+			{
+				try
+				{
+					Iterator<Relation> it = fs.getRelations(false);
+					while (it.hasNext())
+					{
+						Relation relation = it.next();
+						if (allDataSources.contains(relation.getPrimaryDataSource()) || allDataSources.contains(relation.getForeignDataSource()))
+						{
+							configs.add(relation.getName());
+						}
+					}
+				}
+				catch (RepositoryException e)
+				{
+					ServoyLog.logError(e);
+				}
+				Iterator<Form> forms = fs.getForms(false);
+				while (forms.hasNext())
+				{
+					Form form = forms.next();
+					if (allDataSources.contains(form.getDataSource())) allFormNames.add(form.getName());
+				}
+			}
+		}
+		if (allFormNames.size() > 0)
+		{
+			List<String> toVisit = new ArrayList<String>(allFormNames);
+			while (toVisit.size() > 0)
+			{
+				String formName = toVisit.remove(toVisit.size() - 1);
+				configs.add(formName);
+				// form components include the form in the config of the component type
+				formComponentConfigs.add(':' + formName + ',');
+				Form form = fs != null ? fs.getForm(formName) : null;
+				if (form != null)
+				{
+					for (Form subForm : fs.getDirectlyInheritingForms(form))
+					{
+						if (allFormNames.add(subForm.getName())) toVisit.add(subForm.getName());
+					}
+				}
+			}
+		}
+
+		long generation = cacheGeneration.incrementAndGet();
+		int evicted = 0;
+		for (String typeName : cachedTypeNames.keySet())
+		{
+			boolean evict = allFormNames.size() > 0 && typeName.startsWith("Forms<");
+			int index = typeName.indexOf('<');
+			if (!evict && index != -1 && typeName.endsWith(">"))
+			{
+				String config = typeName.substring(index + 1, typeName.length() - 1);
+				evict = configs.contains(config);
+				if (!evict && config.indexOf('.') != -1)
+				{
+					for (String segment : config.split("\\."))
+					{
+						if (configs.contains(segment))
+						{
+							evict = true;
+							break;
+						}
+					}
+				}
+				for (Iterator<String> it = formComponentConfigs.iterator(); !evict && it.hasNext();)
+				{
+					evict = config.contains(it.next());
+				}
+			}
+			if (evict)
+			{
+				invalidatedTypes.put(typeName, Long.valueOf(generation));
+				evicted++;
+			}
+		}
+		cacheEvictions.addAndGet(evicted);
+		if (Debug.tracing())
+		{
+			Debug.trace("Evicted " + evicted + " types for forms " + allFormNames + " and datasources " + allDataSources + ", " + getCacheStatistics());
+		}
+	}
+
 //	final Set<String> staticTypes = Collections.synchronizedSet(new TreeSet<String>());
 //	final Set<String> javaTypes = Collections.synchronizedSet(new TreeSet<String>());
 //	final ConcurrentHashMap<String, Set<String>> dynamicTypes = new ConcurrentHashMap<String, Set<String>>();
@@ -2137,7 +2404,16 @@ public class TypeCreator extends TypeCache
 			ClientSupport csp = typesClientSupport.get(properTypeName);
 			if (!(csp == null ? ClientSupport.Default : csp).hasSupport(clientType)) type.setVisible(false);
 		}
-		return super.addType(bucket, type);
+		type.setAttribute(CACHE_GENERATION, Long.valueOf(cacheGeneration.get()));
+		cachedTypeNames.put(type.getName(), Boolean.TRUE);
+		Type added = super.addType(bucket, type);
+		if (added != type && isStale(added))
+		{
+			// the stale type was not replaced in its bucket, only that type is replaced instead of clearing the whole bucket
+			replacedTypes.put(added, type);
+			added = type;
+		}
+		return added;
 	}
 
 //	private void log()
@@ -5230,6 +5506,22 @@ public class TypeCreator extends TypeCache
 	}
 
 
+	private void runInvalidateTypesJob(final Set<String> dataSources)
+	{
+		Job job = new Job("clearing cache")
+		{
+
+			@Override
+			public IStatus run(IProgressMonitor monitor)
+			{
+				invalidateTypes(Collections.<String> emptySet(), dataSources, Collections.<Relation> emptySet());
+				return Status.OK_STATUS;
+			}
+		};
+		job.setRule(ResourcesPlugin.getWorkspace().getRoot());
+		job.schedule();
+	}
+
 	private void runClearCacheJob()
 	{
 		Job job = new Job("clearing cache")
@@ -0,0 +1,147 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.designer.editor.rfb;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sablo.specification.SpecProviderState;
+import org.sablo.specification.WebComponentSpecProvider;
+
+import com.servoy.eclipse.core.I18NChangeListener;
+import com.servoy.j2db.FlattenedSolution;
+import com.servoy.j2db.persistence.IPersist;
+import com.servoy.j2db.persistence.IPersistChangeListener;
+import com.servoy.j2db.persistence.IRepository;
+import com.servoy.j2db.util.UUID;
+
+/**
+ * Cache of the serialized json of the base components of the form of one designer session, by persist uuid.
+ * <p>
+ * The cache is registered as persist and i18n listener of the editing solution. A changed component of the form only removes its own entry,
+ * any other change (the form itself, a parent form, a form component, a valuelist, a relation, media or styles, i18n messages) can change the json
+ * of every component, so it moves the cache to a new version that drops all entries. The whole cache is also cleared when the editing flattened
+ * solution or the loaded specs are not the ones the entries were created with, or when the editor content must be fully refreshed.
+ * <p>
+ * An entry is only stored for the version in which its creation started, so json that was created while a change came in is not kept.
+ *
+ * @since 2021.12
+ */
+final class ComponentJSONCache implements IPersistChangeListener, I18NChangeListener
+{
+	static final class Entry
+	{
+		final String key;
+		final String templateJSON;
+		final Map<String, String> formComponentTemplates;
+		// only there when the ng2 json was also asked for
+		final String ng2JSON;
+
+		Entry(String key, String templateJSON, Map<String, String> formComponentTemplates, String ng2JSON)
+		{
+			this.key = key;
+			this.templateJSON = templateJSON;
+			this.formComponentTemplates = formComponentTemplates;
+			this.ng2JSON = ng2JSON;
+		}
+	}
+
+	private final UUID formUUID;
+	private final Map<UUID, Entry> entries = new HashMap<>();
+	private FlattenedSolution flattenedSolution;
+	private SpecProviderState specProviderState;
+	private long version;
+
+	ComponentJSONCache(UUID formUUID)
+	{
+		this.formUUID = formUUID;
+	}
+
+	/**
+	 * Clears the cache if it was filled for another flattened solution or other specs.
+	 *
+	 * @return the version to create new entries with, see {@link #put(UUID, Entry, long)}
+	 */
+	synchronized long checkVersion(FlattenedSolution fs)
+	{
+		SpecProviderState state = WebComponentSpecProvider.getSpecProviderState();
+		if (fs != flattenedSolution || state != specProviderState)
+		{
+			invalidate();
+			flattenedSolution = fs;
+			specProviderState = state;
+		}
+		return version;
+	}
+
+	synchronized Entry get(UUID uuid)
+	{
+		return entries.get(uuid);
+	}
+
+	/**
+	 * @param entryVersion the version returned by {@link #checkVersion(FlattenedSolution)} before the entry was created
+	 */
+	synchronized void put(UUID uuid, Entry entry, long entryVersion)
+	{
+		if (entryVersion == version) entries.put(uuid, entry);
+	}
+
+	synchronized void remove(UUID uuid)
+	{
+		entries.remove(uuid);
+	}
+
+	synchronized void clear()
+	{
+		invalidate();
+	}
+
+	private void invalidate()
+	{
+		entries.clear();
+		version++;
+	}
+
+	@Override
+	public synchronized void persistChanges(Collection<IPersist> changes)
+	{
+		for (IPersist persist : changes)
+		{
+			IPersist changedForm = persist.getAncestor(IRepository.FORMS);
+			if (changedForm == null || changedForm == persist || !formUUID.equals(changedForm.getUUID()))
+			{
+				invalidate();
+				return;
+			}
+			// a component of this form, or a child (like a custom type) of one
+			for (IPersist p = persist; p != changedForm; p = p.getParent())
+			{
+				entries.remove(p.getUUID());
+			}
+			version++;
+		}
+	}
+
+	@Override
+	public synchronized void i18nChanged()
+	{
+		invalidate();
+	}
+}
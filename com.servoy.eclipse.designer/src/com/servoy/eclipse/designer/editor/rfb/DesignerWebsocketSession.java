@@ -35,6 +35,7 @@ import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.json.JSONObject;
+import org.json.JSONString;
 import org.json.JSONStringer;
 import org.json.JSONWriter;
 import org.sablo.specification.Package.IPackageReader;
@@ -51,6 +52,8 @@ import org.sablo.websocket.IServerService;
 import org.sablo.websocket.WebsocketSessionKey;
 import org.sablo.websocket.impl.ClientService;
 
+import com.servoy.eclipse.core.IDeveloperServoyModel;
+import com.servoy.eclipse.core.ServoyModelManager;
 import com.servoy.eclipse.designer.editor.BaseVisualFormEditor;
 import com.servoy.eclipse.model.ServoyModelFinder;
 import com.servoy.eclipse.model.nature.ServoyProject;
@@ -107,6 +110,8 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 
 	private final BaseVisualFormEditor editor;
 
+	private final ComponentJSONCache componentJSONCache;
+
 	/**
 	 * @param uuid
 	 */
@@ -115,6 +120,7 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 		super(sessionKey);
 		this.form = editor.getForm();
 		this.editor = editor;
+		this.componentJSONCache = new ComponentJSONCache(form.getUUID());
 		registerServerService("$editor", this);
 	}
 
@@ -174,12 +180,15 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 	@Override
 	public Object executeMethod(String methodName, JSONObject args) throws Exception
 	{
+		if ("getStyleSheets".equals(methodName))
+		{
+			return getStyleSheets();
+		}
+
 		ServoyProject servoyProject = ServoyModelFinder.getServoyModel().getServoyProject(form.getSolution().getName());
 		FlattenedSolution fs = servoyProject.getEditingFlattenedSolution();
 		Form flattenedForm = fs.getFlattenedForm(form);
 
-		ServoyDataConverterContext context = new ServoyDataConverterContext(fs);
-		FormWrapper wrapper = new FormWrapper(flattenedForm, flattenedForm.getName(), false, context, true, null);
 		switch (methodName)
 		{
 			case "getData" :
@@ -191,6 +200,10 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 				}
 				else
 				{
+					long time = System.currentTimeMillis();
+					long cacheVersion = componentJSONCache.checkVersion(fs);
+					ServoyDataConverterContext context = new ServoyDataConverterContext(fs);
+					FormWrapper wrapper = new FormWrapper(flattenedForm, flattenedForm.getName(), false, context, true, null);
 					JSONWriter writer = new JSONStringer();
 					writer.object();
 					writer.key("formProperties");
@@ -199,7 +212,7 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 					writer.value(form.extendsForm != null ? form.extendsForm.getUUID() : null);
 					Collection<IFormElement> baseComponents = new ArrayList<IFormElement>(wrapper.getBaseComponents());
 					Collection<IFormElement> deleted = Collections.emptyList();
-					sendComponents(fs, writer, baseComponents, deleted, false);
+					int cached = sendComponents(fs, writer, baseComponents, deleted, false, true, cacheVersion);
 					writer.key("solutionProperties");
 					writer.object();
 					writer.key("styleSheets");
@@ -207,11 +220,19 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 					writer.endObject();
 					generateParts(flattenedForm, context, writer, wrapper.getParts());
 					writer.endObject();
-					return writer.toString();
+					String data = writer.toString();
+					if (Debug.tracing())
+					{
+						Debug.trace("Designer data of form " + form.getName() + ": " + baseComponents.size() + " components (" + cached + " cached), " +
+							data.length() + " chars in " + (System.currentTimeMillis() - time) + "ms");
+					}
+					return data;
 				}
 			}
 			case "getTemplate" :
 			{
+				ServoyDataConverterContext context = new ServoyDataConverterContext(fs);
+				FormWrapper wrapper = new FormWrapper(flattenedForm, flattenedForm.getName(), false, context, true, null);
 				String name = args.optString("name", null);
 				StringWriter htmlTemplate = new StringWriter(512);
 				PrintWriter w = new PrintWriter(htmlTemplate);
@@ -296,10 +317,6 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 				writer.endObject();
 				return writer.toString();
 			}
-			case "getStyleSheets" :
-			{
-				return getStyleSheets();
-			}
 		}
 		return null;
 	}
@@ -493,8 +510,35 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 		return ghost;
 	}
 
+	/**
+	 * Clear the cached json of the components, for when the editor content must be fully refreshed.
+	 */
+	public void clearComponentsCache()
+	{
+		componentJSONCache.clear();
+	}
+
+	/**
+	 * Let the cached json of the components follow the changes of the editing solution, must be stopped with {@link #stopComponentsCacheTracking()}.
+	 */
+	public void startComponentsCacheTracking()
+	{
+		IDeveloperServoyModel servoyModel = ServoyModelManager.getServoyModelManager().getServoyModel();
+		servoyModel.addPersistChangeListener(false, componentJSONCache);
+		servoyModel.addI18NChangeListener(componentJSONCache);
+	}
+
+	public void stopComponentsCacheTracking()
+	{
+		IDeveloperServoyModel servoyModel = ServoyModelManager.getServoyModelManager().getServoyModel();
+		servoyModel.removePersistChangeListener(false, componentJSONCache);
+		servoyModel.removeI18NChangeListener(componentJSONCache);
+		componentJSONCache.clear();
+	}
+
 	public String getComponentsJSON(FlattenedSolution fs, Set<IPersist> persists)
 	{
+		long time = System.currentTimeMillis();
 		Set<IFormElement> baseComponents = new HashSet<>();
 		Set<IFormElement> refreshTemplate = new HashSet<>();
 		Set<IFormElement> deletedComponents = new HashSet<>();
@@ -579,7 +623,9 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 
 		JSONWriter writer = new JSONStringer();
 		writer.object();
-		sendComponents(fs, writer, baseComponents, deletedComponents, true);
+		long cacheVersion = componentJSONCache.checkVersion(fs);
+		// the changed components are always created again, that also updates their cached json for the next getData
+		sendComponents(fs, writer, baseComponents, deletedComponents, true, false, cacheVersion);
 
 		if (formComponentsComponents.size() > 0)
 		{
@@ -779,7 +825,13 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 		}
 
 		writer.endObject();
-		return writer.toString();
+		String json = writer.toString();
+		if (Debug.tracing())
+		{
+			Debug.trace("Designer update of form " + form.getName() + ": " + baseComponents.size() + " changed and " + deletedComponents.size() +
+				" deleted components, " + json.length() + " chars in " + (System.currentTimeMillis() - time) + "ms");
+		}
+		return json;
 	}
 
 	private void checkFormComponents(Set<String> updatedFormComponentsDesignId, Set<IFormElement> formComponentsComponents, FormElement formElement,
@@ -863,58 +915,56 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 		return fixedFormElementName.replace('-', '_');
 	}
 
-	private void sendComponents(FlattenedSolution fs, JSONWriter writer, Collection<IFormElement> baseComponents, Collection<IFormElement> deletedComponents,
-		boolean writeNG2)
+	/**
+	 * @param useCache when false all components are created again and replace their cache entries
+	 * @param cacheVersion the version of the cache from before the components were collected
+	 * @return the number of components that were taken from the cache
+	 */
+	private int sendComponents(FlattenedSolution fs, JSONWriter writer, Collection<IFormElement> baseComponents,
+		Collection<IFormElement> deletedComponents, boolean writeNG2, boolean useCache, long cacheVersion)
 	{
+		int cached = 0;
 		if (baseComponents.size() > 0)
 		{
 			Map<String, String> formComponentTemplates = new HashMap<String, String>();
 			List<IFormElement> components = new ArrayList<IFormElement>(baseComponents);
 			Collections.sort(components, PositionComparator.XY_PERSIST_COMPARATOR);
 			Collections.reverse(components);
-			writer.key("components");
-			writer.object();
-			// TODO is this really all the data? or are there properties that would normally go through the webcomponents..
+			List<ComponentJSONCache.Entry> entries = new ArrayList<>(components.size());
+			ServoyDataConverterContext designContext = new ServoyDataConverterContext(ServoyModelFinder.getServoyModel().getFlattenedSolution(),
+				ServoyModelFinder.getServoyModel().getMessagesManager());
+			ServoyDataConverterContext ng2Context = writeNG2 ? new ServoyDataConverterContext(fs) : null;
 			for (IFormElement baseComponent : components)
 			{
-				FormElement fe = FormElementHelper.INSTANCE.getFormElement(baseComponent, fs, null, true);
-				if (fe.getDesignId() != null)
+				ComponentJSONCache.Entry entry = useCache ? componentJSONCache.get(baseComponent.getUUID()) : null;
+				if (entry != null && (!writeNG2 || entry.ng2JSON != null))
 				{
-					writer.key(fe.getDesignId());
+					cached++;
 				}
 				else
 				{
-					writer.key(fe.getName());
-				}
-				fe.propertiesAsTemplateJSON(writer,
-					new FormElementContext(fe, new ServoyDataConverterContext(ServoyModelFinder.getServoyModel().getFlattenedSolution(),
-						ServoyModelFinder.getServoyModel().getMessagesManager()), null),
-					true);
-
-				Collection<PropertyDescription> properties = fe.getProperties(FormComponentPropertyType.INSTANCE);
-				if (properties.size() > 0)
-				{
-					for (PropertyDescription pd : properties)
-					{
-						Object propertyValue = fe.getPropertyValue(pd.getName());
-						Form frm = FormComponentPropertyType.INSTANCE.getForm(propertyValue, fs);
-						if (frm == null) continue;
-						FormComponentCache cache = FormElementHelper.INSTANCE.getFormComponentCache(fe, pd, (JSONObject)propertyValue, frm, fs);
-						formComponentTemplates.put(cache.getHtmlTemplateUUIDForAngular(), cache.getTemplate());
-					}
+					entry = createComponentJSON(fs, baseComponent, designContext, ng2Context);
+					componentJSONCache.put(baseComponent.getUUID(), entry, cacheVersion);
 				}
+				entries.add(entry);
+			}
+			writer.key("components");
+			writer.object();
+			// TODO is this really all the data? or are there properties that would normally go through the webcomponents..
+			for (ComponentJSONCache.Entry entry : entries)
+			{
+				writer.key(entry.key);
+				writer.value(rawJSON(entry.templateJSON));
+				formComponentTemplates.putAll(entry.formComponentTemplates);
 			}
 			writer.endObject();
 			if (writeNG2)
 			{
 				writer.key("ng2components");
 				writer.array();
-				for (IFormElement baseComponent : components)
+				for (ComponentJSONCache.Entry entry : entries)
 				{
-					writer.object();
-					FormElement fe = FormElementHelper.INSTANCE.getFormElement(baseComponent, fs, null, true);
-					ChildrenJSONGenerator.writeFormElement(writer, baseComponent, form, fe, null, new ServoyDataConverterContext(fs), true);
-					writer.endObject();
+					writer.value(rawJSON(entry.ng2JSON));
 				}
 				writer.endArray();
 			}
@@ -936,11 +986,57 @@ public class DesignerWebsocketSession extends BaseWebsocketSession implements IS
 			writer.array();
 			for (IFormElement baseComponent : deletedComponents)
 			{
+				componentJSONCache.remove(baseComponent.getUUID());
 				FormElement fe = FormElementHelper.INSTANCE.getFormElement(baseComponent, fs, null, true);
 				writer.value(FormLayoutGenerator.getDesignId(fe));
 			}
 			writer.endArray();
 		}
+		return cached;
+	}
 
+	/**
+	 * @param ng2Context when not null the ng2 json is also created
+	 */
+	private ComponentJSONCache.Entry createComponentJSON(FlattenedSolution fs, IFormElement baseComponent, ServoyDataConverterContext designContext,
+		ServoyDataConverterContext ng2Context)
+	{
+		FormElement fe = FormElementHelper.INSTANCE.getFormElement(baseComponent, fs, null, true);
+		JSONWriter templateWriter = new JSONStringer();
+		fe.propertiesAsTemplateJSON(templateWriter, new FormElementContext(fe, designContext, null), true);
+
+		Map<String, String> formComponentTemplates = new HashMap<String, String>();
+		Collection<PropertyDescription> properties = fe.getProperties(FormComponentPropertyType.INSTANCE);
+		if (properties.size() > 0)
+		{
+			for (PropertyDescription pd : properties)
+			{
+				Object propertyValue = fe.getPropertyValue(pd.getName());
+				Form frm = FormComponentPropertyType.INSTANCE.getForm(propertyValue, fs);
+				if (frm == null) continue;
+				FormComponentCache cache = FormElementHelper.INSTANCE.getFormComponentCache(fe, pd, (JSONObject)propertyValue, frm, fs);
+				formComponentTemplates.put(cache.getHtmlTemplateUUIDForAngular(), cache.getTemplate());
+			}
+		}
+
+		String ng2JSON = null;
+		if (ng2Context != null)
+		{
+			JSONWriter ng2Writer = new JSONStringer();
+			ng2Writer.object();
+			ChildrenJSONGenerator.writeFormElement(ng2Writer, baseComponent, form, fe, null, ng2Context, true);
+			ng2Writer.endObject();
+			ng2JSON = ng2Writer.toString();
+		}
+		return new ComponentJSONCache.Entry(fe.getDesignId() != null ? fe.getDesignId() : fe.getName(), templateWriter.toString(), formComponentTemplates,
+			ng2JSON);
+	}
+
+	/**
+	 * @return the already serialized json as a value that a {@link JSONWriter} writes as is
+	 */
+	private static JSONString rawJSON(String json)
+	{
+		return () -> json;
 	}
 }
@@ -175,6 +175,7 @@ public abstract class RfbVisualFormEditorDesignPage extends BaseVisualFormEditor
 
 		WebsocketSessionManager.addSession(editorWebsocketSession = new EditorWebsocketSession(editorKey));
 		WebsocketSessionManager.addSession(designerWebsocketSession = new DesignerWebsocketSession(clientKey, editorPart));
+		designerWebsocketSession.startComponentsCacheTracking();
 		selectionListener = new RfbSelectionListener(editorPart.getForm(), editorWebsocketSession);
 		getSite().setSelectionProvider(selectionProvider);
 		getSite().getWorkbenchWindow().getSelectionService().addSelectionListener(selectionListener);
@@ -320,6 +321,7 @@ public abstract class RfbVisualFormEditorDesignPage extends BaseVisualFormEditor
 		getSite().getPage().removePartListener(partListener);
 		WebsocketSessionManager.removeSession(editorWebsocketSession.getSessionKey());
 		WebsocketSessionManager.removeSession(designerWebsocketSession.getSessionKey());
+		designerWebsocketSession.stopComponentsCacheTracking();
 		ServoyModelFinder.getServoyModel().getNGPackageManager().removeLoadedNGPackagesListener(partListener);
 		ServoyModelFinder.getServoyModel().removeFormComponentListener(partListener);
 		designerPreferences.removePreferenceChangeListener(partListener);
@@ -625,6 +627,7 @@ public abstract class RfbVisualFormEditorDesignPage extends BaseVisualFormEditor
 
 		private void refreshEntireForm()
 		{
+			designerWebsocketSession.clearComponentsCache();
 			Display.getDefault().asyncExec(new Runnable()
 			{
 				@Override
@@ -637,6 +640,8 @@ public abstract class RfbVisualFormEditorDesignPage extends BaseVisualFormEditor
 
 		public void formComponentChanged()
 		{
+			// the json of the components that use the form component is changed
+			designerWebsocketSession.clearComponentsCache();
 			if (!hidden)
 			{
 				refresh();
@@ -17,11 +17,13 @@
 
 package com.servoy.eclipse.exporter.apps.common;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.servoy.j2db.dataprocessing.IDataServerInternal;
 import com.servoy.j2db.util.ILogLevel;
+import com.servoy.j2db.util.Utils;
 
 /**
  * Stores and provides the export-app-relevant arguments (reads arguments from eclipse app. arguments).
@@ -41,6 +43,8 @@ public abstract class AbstractArgumentChest implements IArgumentChest
 	private boolean exportUsingDbiFileInfoOnly = false;
 	private boolean ignoreBuildErrors = false;
 	private boolean skipBuild = false;
+	private String daemonSpoolDir = null;
+	private Map<String, String> arguments = Collections.emptyMap();
 	protected String MANDATORY_ARGS_INDENT = "   ";
 
 
@@ -52,9 +56,13 @@ public abstract class AbstractArgumentChest implements IArgumentChest
 		else
 		{
 			HashMap<String, String> argsMap = getArgsAsMap(args);
+			arguments = argsMap;
 			if (argsMap.containsKey("help") || argsMap.containsKey("?")) mustShowHelp = true;
-			solutionNames = parseArg("s", "Solution name(s) was(were) not specified after '-s' argument.", argsMap, true);
-			exportFilePath = parseArg("o", "Export file path was not specified after '-o' argument.", argsMap, true);
+			daemonSpoolDir = parseArg("daemon", "Spool directory was not specified after '-daemon' argument.", argsMap, false);
+			// a daemon can be started without an export of its own, the exports are then only the jobs that are put in the spool directory
+			boolean exportArgumentsRequired = daemonSpoolDir == null || argsMap.containsKey("s");
+			solutionNames = parseArg("s", "Solution name(s) was(were) not specified after '-s' argument.", argsMap, exportArgumentsRequired);
+			exportFilePath = parseArg("o", "Export file path was not specified after '-o' argument.", argsMap, exportArgumentsRequired);
 			if (argsMap.containsKey("verbose")) verbose = true;
 			settingsFile = parseArg("p", "Properties file was not specified after '-p' argument.", argsMap, false);
 			if (argsMap.containsKey("as"))
@@ -66,10 +74,10 @@ public abstract class AbstractArgumentChest implements IArgumentChest
 			if (argsMap.containsKey("ie")) ignoreBuildErrors = true;
 			if (argsMap.containsKey("sb")) skipBuild = true;
 
-			if (!mustShowHelp) parseArguments(argsMap);
+			if (!mustShowHelp && exportArgumentsRequired) parseArguments(argsMap);
 
 			// check that the required arguments are provided
-			if (!mustShowHelp && !invalidArguments)
+			if (!mustShowHelp && !invalidArguments && exportArgumentsRequired)
 			{
 				if (solutionNames.split(",").length == 0)
 				{
@@ -200,6 +208,13 @@ public abstract class AbstractArgumentChest implements IArgumentChest
 			"        -ie ignore build errors.  CAUTION! the use of this flag is discouraged; it can cause\n" +
 			"             invalid solutions to be exported.\n" + "        -sb skip build. No build markers will be generated. This can greatly decrease\n" +
 			"             export time. CAUTION! the use of this flag is discouraged;\n" + "             it can cause invalid solutions to be exported.\n" +
+			"        -daemon <spool_dir> ... keep the workspace loaded after the export and export the jobs\n" +
+			"             that are put in the spool directory, until a file named 'stop' is put there.\n" +
+			"             A job is a '<name>.args' file with the arguments of an export (without -data,\n" +
+			"             -p, -as, -pl, -dbi and -pluginLocations, those are taken from the daemon; a job\n" +
+			"             that gives one of them with another value fails). When the job is done\n" +
+			"             '<name>.log' has its output and '<name>.done' its exit code. -s and -o are\n" +
+			"             not required for the daemon itself.\n" +
 			getHelpMessageDbi();
 		// @formatter:on
 	}
@@ -238,6 +253,39 @@ public abstract class AbstractArgumentChest implements IArgumentChest
 		invalidArguments = true;
 	}
 
+	/**
+	 * @return the value of the argument as it was given, "" for a flag, or null if it was not given
+	 */
+	protected String getArgument(String argName)
+	{
+		return arguments.get(argName);
+	}
+
+	public void useDaemonArguments(IArgumentChest daemonConfiguration)
+	{
+		checkDaemonArgument("p", settingsFile, daemonConfiguration.getSettingsFileName());
+		checkDaemonArgument("as", appServerDir, daemonConfiguration.getAppServerDir());
+		checkDaemonArgument("pl", Boolean.valueOf(aggregateWorkspace), Boolean.valueOf(daemonConfiguration.shouldAggregateWorkspace()));
+		checkDaemonArgument("dbi", Boolean.valueOf(exportUsingDbiFileInfoOnly), Boolean.valueOf(daemonConfiguration.shouldExportUsingDbiFileInfoOnly()));
+		checkDaemonArgument("dbd", Boolean.valueOf(exportUsingDbiFileInfoOnly), Boolean.valueOf(daemonConfiguration.shouldExportUsingDbiFileInfoOnly()));
+		settingsFile = daemonConfiguration.getSettingsFileName();
+		appServerDir = daemonConfiguration.getAppServerDir();
+		aggregateWorkspace = daemonConfiguration.shouldAggregateWorkspace();
+		exportUsingDbiFileInfoOnly = daemonConfiguration.shouldExportUsingDbiFileInfoOnly();
+	}
+
+	/**
+	 * Marks the job invalid when it gave the argument with another value than the daemon has.
+	 */
+	protected void checkDaemonArgument(String argName, Object value, Object daemonValue)
+	{
+		if (arguments.containsKey(argName) && !Utils.equalObjects(value, daemonValue))
+		{
+			info("Argument '-" + argName + "' of an export job must be left out or have the value of the daemon: " + daemonValue, ILogLevel.ERROR);
+			markInvalid();
+		}
+	}
+
 	public String getAppServerDir()
 	{
 		return appServerDir;
@@ -288,6 +336,11 @@ public abstract class AbstractArgumentChest implements IArgumentChest
 		return exportUsingDbiFileInfoOnly;
 	}
 
+	public String getDaemonSpoolDir()
+	{
+		return daemonSpoolDir;
+	}
+
 	public void info(String message, int priority)
 	{
 		if (priority > ILogLevel.WARNING || verbose)
@@ -19,8 +19,11 @@ package com.servoy.eclipse.exporter.apps.common;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
@@ -29,6 +32,9 @@ import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IWorkspaceDescription;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -87,6 +93,11 @@ public abstract class AbstractWorkspaceExporter<T extends IArgumentChest> implem
 
 	private boolean initialAutoBuild = false;
 
+	// the solution the markers in the workspace are of, a daemon does not build it again when nothing changed
+	private String lastBuiltSolution;
+	// the log of the export job a daemon is running
+	private PrintStream jobLog;
+
 	public Object start(IApplicationContext context)
 	{
 		Activator.getDefault().addBundleStopListener(this);
@@ -223,6 +234,11 @@ public abstract class AbstractWorkspaceExporter<T extends IArgumentChest> implem
 
 	protected abstract T createArgumentChest(IApplicationContext context);
 
+	/**
+	 * Create the configuration of an export job of a daemon.
+	 */
+	protected abstract T createArgumentChest(String[] args);
+
 	public void bundleStopping(BundleContext context)
 	{
 		restoreAutoBuildIfNeeded();
@@ -256,159 +272,311 @@ public abstract class AbstractWorkspaceExporter<T extends IArgumentChest> implem
 		List<IProject> existingClosedProjects = new ArrayList<IProject>();
 		try
 		{
-			outputExtra("Importing existing projects into workspace and opening closed ones if needed. " +
-				(configuration.shouldAggregateWorkspace() ? "(checking child folders for projects as well)" : ""));
-			IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
-			File wr = workspaceRoot.getLocation().toFile();
-			importExistingAndOpenClosedProjects(wr, workspaceRoot, importedProjects, existingClosedProjects);
+			importAndRefreshProjects(configuration, importedProjects, existingClosedProjects);
 
-			if (configuration.shouldAggregateWorkspace())
+			if (configuration.getSolutionNamesAsString() != null)
+			{
+				exportSolutions(configuration);
+			}
+			if (configuration.getDaemonSpoolDir() != null)
+			{
+				runExportJobs(configuration, importedProjects, existingClosedProjects);
+			}
+		}
+		finally
+		{
+			outputExtra("Restoring closed projects if needed.");
+			for (IProject p : existingClosedProjects)
 			{
-				// also import existing projects in subfolders
-				for (File f : FileUtils.listFilesAndDirs(wr, FalseFileFilter.INSTANCE, DirectoryFileFilter.DIRECTORY))
+				try
 				{
-					if (f.getAbsolutePath().contains(".metadata")) continue;
-					importExistingAndOpenClosedProjects(f, workspaceRoot, importedProjects, existingClosedProjects);
+					p.close(null);
 				}
+				catch (CoreException e)
+				{
+					ServoyLog.logError(e);
+					outputError("Cannot restore project '" + p.getName() + "' to it's closed state after export. Check workspace log.");
+				}
+			}
+			outputExtra("Removing imported projects from workspace (without removing content) if needed.");
+			for (IProject p : importedProjects)
+			{
+				try
+				{
+					p.delete(false, true, null);
+				}
+				catch (CoreException e)
+				{
+					ServoyLog.logError(e);
+					outputError("Cannot remove project (not content) '" + p.getName() + "' from workspace after export. Check workspace log.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Import the projects that are not yet in the workspace, open the closed ones and refresh them all.
+	 *
+	 * @return the names of the projects that had changed files, only filled when the projects are refreshed again by a running daemon
+	 */
+	private Set<String> importAndRefreshProjects(T configuration, List<IProject> importedProjects, List<IProject> existingClosedProjects)
+	{
+		outputExtra("Importing existing projects into workspace and opening closed ones if needed. " +
+			(configuration.shouldAggregateWorkspace() ? "(checking child folders for projects as well)" : ""));
+		IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		File wr = workspaceRoot.getLocation().toFile();
+		int alreadyImported = importedProjects.size();
+		int alreadyOpened = existingClosedProjects.size();
+		importExistingAndOpenClosedProjects(wr, workspaceRoot, importedProjects, existingClosedProjects);
+
+		if (configuration.shouldAggregateWorkspace())
+		{
+			// also import existing projects in subfolders
+			for (File f : FileUtils.listFilesAndDirs(wr, FalseFileFilter.INSTANCE, DirectoryFileFilter.DIRECTORY))
+			{
+				if (f.getAbsolutePath().contains(".metadata")) continue;
+				importExistingAndOpenClosedProjects(f, workspaceRoot, importedProjects, existingClosedProjects);
 			}
+		}
 
-			outputExtra("Refreshing projects.");
-			IProject[] prjs = workspaceRoot.getProjects();
+		outputExtra("Refreshing projects.");
+		Set<String> changedProjects = new HashSet<String>();
+		// only file changes count, the builder markers of the previous export also give deltas
+		IResourceChangeListener changeCollector = event -> {
+			if (event.getDelta() == null) return;
 			try
 			{
-				for (IProject p : prjs)
-				{
-					if (p.isOpen() && p.exists())
+				event.getDelta().accept(delta -> {
+					if (delta.getResource().getType() == IResource.FILE && (delta.getKind() != IResourceDelta.CHANGED ||
+						(delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO)) != 0))
 					{
-						p.refreshLocal(IResource.DEPTH_INFINITE, null);
+						changedProjects.add(delta.getResource().getProject().getName());
 					}
-				}
+					return true;
+				});
 			}
 			catch (CoreException e)
 			{
 				ServoyLog.logError(e);
-				outputError("Refresh project roots encountered a problem. Check workspace log.");
 			}
+		};
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(changeCollector, IResourceChangeEvent.POST_CHANGE);
+		IProject[] prjs = workspaceRoot.getProjects();
+		try
+		{
+			for (IProject p : prjs)
+			{
+				if (p.isOpen() && p.exists())
+				{
+					p.refreshLocal(IResource.DEPTH_INFINITE, null);
+				}
+			}
+		}
+		catch (CoreException e)
+		{
+			ServoyLog.logError(e);
+			outputError("Refresh project roots encountered a problem. Check workspace log.");
+		}
+		finally
+		{
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(changeCollector);
+		}
+		// projects that are imported or opened by this call are not loaded yet
+		importedProjects.subList(alreadyImported, importedProjects.size()).forEach(p -> changedProjects.add(p.getName()));
+		existingClosedProjects.subList(alreadyOpened, existingClosedProjects.size()).forEach(p -> changedProjects.add(p.getName()));
+		return changedProjects;
+	}
 
-			ExportServoyModel sm = ServoyModelProvider.getModel();
+	/**
+	 * Called before the solutions of an export are activated and exported, can be overridden to prepare the workspace for the export.
+	 */
+	protected void prepareExport(T configuration)
+	{
+	}
 
-			String[] solutionNames = configuration.getSolutionNames();
-			for (int i = 0; i < solutionNames.length && exitCode == EXIT_OK; i++)
-			{
-				String solutionName = solutionNames[i];
+	protected void exportSolutions(T configuration)
+	{
+		prepareExport(configuration);
+
+		ExportServoyModel sm = ServoyModelProvider.getModel();
+
+		String[] solutionNames = configuration.getSolutionNames();
+		for (int i = 0; i < solutionNames.length && exitCode == EXIT_OK; i++)
+		{
+			String solutionName = solutionNames[i];
 
-				outputExtra("Refreshing and loading projects used by solution " + solutionName + ".");
-				sm.initialize(solutionName); // the actual refresh of solution projects happens in the modified EclipseRepository load; this just loads all modules (because it reloads all form security info)
+			outputExtra("Refreshing and loading projects used by solution " + solutionName + ".");
+			sm.initialize(solutionName); // the actual refresh of solution projects happens in the modified EclipseRepository load; this just loads all modules (because it reloads all form security info)
 
-				if (!mustStop)
+			if (!mustStop)
+			{
+				if (sm.getActiveProject() != null && sm.getActiveResourcesProject() != null)
 				{
-					if (sm.getActiveProject() != null && sm.getActiveResourcesProject() != null)
-					{
-						ServoyProject[] modules = sm.getModulesOfActiveProject();
+					ServoyProject[] modules = sm.getModulesOfActiveProject();
 
-						if (!mustStop)
+					if (!mustStop)
+					{
+						// check project markers
+						// for solution and/or (some) modules
+						List<IMarker> errors = new ArrayList<IMarker>();
+						List<IMarker> warnings = new ArrayList<IMarker>();
+						if (configuration.skipBuild())
 						{
-							// check project markers
-							// for solution and/or (some) modules
-							List<IMarker> errors = new ArrayList<IMarker>();
-							List<IMarker> warnings = new ArrayList<IMarker>();
-							if (configuration.skipBuild())
+							outputExtra("Servoy build is skipped due to given configuration; make sure your solution is correct when using this option.");
+						}
+						else
+						{
+							outputExtra("Checking for problem markers");
+							if (solutionName.equals(lastBuiltSolution))
 							{
-								outputExtra("Servoy build is skipped due to given configuration; make sure your solution is correct when using this option.");
+								// a daemon that exports the same solution again without changes in between, the markers of that build are still there
+								outputExtra("Solution " + solutionName + " did not change since its last build, using the markers of that build.");
 							}
 							else
 							{
-								outputExtra("Checking for problem markers");
+								// a build deletes all markers, so the markers of another solution are gone
+								lastBuiltSolution = null;
 								sm.buildActiveProjects(null, true);
+								lastBuiltSolution = solutionName;
+							}
 
-								checkProjectMarkers(modules, errors, warnings, configuration);
+							checkProjectMarkers(modules, errors, warnings, configuration);
 
-								// for resources project
-								splitMarkers(sm.getActiveResourcesProject().getProject(), errors, warnings);
-							}
+							// for resources project
+							splitMarkers(sm.getActiveResourcesProject().getProject(), errors, warnings);
+						}
 
-							if (errors.size() > 0)
-							{
-								output("Found error markers in solution " + solutionName);
+						if (errors.size() > 0)
+						{
+							output("Found error markers in solution " + solutionName);
 
-								if (configuration.shouldIgnoreBuildErrors())
+							if (configuration.shouldIgnoreBuildErrors())
+							{
+								for (IMarker marker : errors)
 								{
-									for (IMarker marker : errors)
-									{
-										outputExtra("    -" + marker.getAttribute(IMarker.MESSAGE, "Unknown marker message."));
-									}
-									output("Ignoring error markers. ('-ie' was used)");
-									if (!verbose) output("(use -verbose for more information)");
+									outputExtra("    -" + marker.getAttribute(IMarker.MESSAGE, "Unknown marker message."));
 								}
-								else
+								output("Ignoring error markers. ('-ie' was used)");
+								if (!verbose) output("(use -verbose for more information)");
+							}
+							else
+							{
+								for (IMarker marker : errors)
 								{
-									for (IMarker marker : errors)
-									{
-										output("    -" + marker.getAttribute(IMarker.MESSAGE, "Unknown marker message."));
-									}
-									outputError("EXPORT FAILED. Solution '" + solutionName + "' will NOT be exported. It has error markers.");
-									exitCode = EXIT_EXPORT_FAILED;
-									return;
+									output("    -" + marker.getAttribute(IMarker.MESSAGE, "Unknown marker message."));
 								}
+								outputError("EXPORT FAILED. Solution '" + solutionName + "' will NOT be exported. It has error markers.");
+								exitCode = EXIT_EXPORT_FAILED;
+								return;
 							}
+						}
 
-							if (!mustStop)
-							{
+						if (!mustStop)
+						{
 
-								if (warnings.size() > 0)
+							if (warnings.size() > 0)
+							{
+								output("Found warning markers in projects for solution " + solutionName);
+								if (verbose)
 								{
-									output("Found warning markers in projects for solution " + solutionName);
-									if (verbose)
+									for (IMarker marker : warnings)
 									{
-										for (IMarker marker : warnings)
-										{
-											outputExtra("    -" + marker.getAttribute(IMarker.MESSAGE, "Unknown marker message."));
-										}
+										outputExtra("    -" + marker.getAttribute(IMarker.MESSAGE, "Unknown marker message."));
 									}
 								}
-
-								// now we really export
-								exportActiveSolution(configuration);
 							}
+
+							// now we really export
+							exportActiveSolution(configuration);
 						}
 					}
-					else
-					{
-						outputError("EXPORT FAILED. Solution '" + solutionName + "' will NOT be exported. It cannot be activated.");
-						exitCode = EXIT_EXPORT_FAILED;
-					}
+				}
+				else
+				{
+					outputError("EXPORT FAILED. Solution '" + solutionName + "' will NOT be exported. It cannot be activated.");
+					exitCode = EXIT_EXPORT_FAILED;
 				}
 			}
 		}
-		finally
+	}
+
+	/**
+	 * Keep the workspace, app. server and servoy model loaded and export the jobs that are put in the spool directory, until a stop is requested.
+	 * Before every job the projects are refreshed, only the changed ones are read again.
+	 */
+	private void runExportJobs(T configuration, List<IProject> importedProjects, List<IProject> existingClosedProjects)
+	{
+		Integer initialExitCode = exitCode;
+		boolean daemonVerbose = verbose;
+		try (ExportSpoolDirectory spoolDirectory = new ExportSpoolDirectory(new File(configuration.getDaemonSpoolDir())))
 		{
-			outputExtra("Restoring closed projects if needed.");
-			for (IProject p : existingClosedProjects)
+			output("Waiting for export jobs in " + spoolDirectory.getDirectory().getAbsolutePath());
+			while (!mustStop && !spoolDirectory.isStopRequested())
 			{
-				try
+				ExportSpoolDirectory.ExportJob job = spoolDirectory.nextJob(1000);
+				if (job == null) continue;
+
+				exitCode = EXIT_OK;
+				try (PrintStream log = job.createLog())
 				{
-					p.close(null);
+					jobLog = log;
+					output("Starting export job " + job.getName());
+					T jobConfiguration = createArgumentChest(job.readArguments());
+					jobConfiguration.useDaemonArguments(configuration);
+					if (jobConfiguration.isInvalid() || jobConfiguration.mustShowHelp() || jobConfiguration.getSolutionNamesAsString() == null)
+					{
+						outputError(jobConfiguration.getHelpMessage());
+						exitCode = EXIT_INVALID_ARGS;
+					}
+					else
+					{
+						verbose = daemonVerbose || jobConfiguration.isVerbose();
+						Set<String> changedProjects = importAndRefreshProjects(configuration, importedProjects, existingClosedProjects);
+						if (changedProjects.size() > 0)
+						{
+							outputExtra("Changed projects: " + changedProjects);
+							lastBuiltSolution = null;
+							ServoyModelProvider.getModel().reloadChangedProjects(changedProjects);
+						}
+						exportSolutions(jobConfiguration);
+					}
 				}
-				catch (CoreException e)
+				catch (IOException | RuntimeException e)
 				{
 					ServoyLog.logError(e);
-					outputError("Cannot restore project '" + p.getName() + "' to it's closed state after export. Check workspace log.");
+					outputError("EXPORT FAILED. Export job " + job.getName() + " could not be run: " + e.getMessage() + ". Check workspace log.");
+					exitCode = EXIT_EXPORT_FAILED;
 				}
-			}
-			outputExtra("Removing imported projects from workspace (without removing content) if needed.");
-			for (IProject p : importedProjects)
-			{
+				finally
+				{
+					jobLog = null;
+					verbose = daemonVerbose;
+				}
+				if (!mustStop) output("Export job " + job.getName() + (exitCode.equals(EXIT_OK) ? " DONE." : " FAILED."));
 				try
 				{
-					p.delete(false, true, null);
+					job.finish(exitCode.intValue());
 				}
-				catch (CoreException e)
+				catch (IOException e)
 				{
 					ServoyLog.logError(e);
-					outputError("Cannot remove project (not content) '" + p.getName() + "' from workspace after export. Check workspace log.");
+					outputError("Cannot write the result of export job " + job.getName() + ". Check workspace log.");
 				}
 			}
+			spoolDirectory.clearStopRequest();
+			output("Export daemon stopped.");
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError(e);
+			outputError("Cannot watch spool directory '" + configuration.getDaemonSpoolDir() + "'. Check workspace log.");
+			initialExitCode = EXIT_INVALID_ARGS;
+		}
+		catch (InterruptedException e)
+		{
+			ServoyLog.logWarning("Interrupted while waiting for export jobs.", e);
 		}
+		if (!mustStop) exitCode = initialExitCode;
 	}
 
 
@@ -604,16 +772,20 @@ public abstract class AbstractWorkspaceExporter<T extends IArgumentChest> implem
 
 	public void outputExtra(String msg)
 	{
-		if (verbose) System.out.println(msg);
+		if (verbose) output(msg);
 	}
 
 	public void output(String msg)
 	{
 		System.out.println(msg);
+		PrintStream log = jobLog;
+		if (log != null) log.println(msg);
 	}
 
 	public void outputError(String msg)
 	{
 		System.err.println(msg);
+		PrintStream log = jobLog;
+		if (log != null) log.println(msg);
 	}
 }
@@ -17,6 +17,8 @@
 
 package com.servoy.eclipse.exporter.apps.common;
 
+import java.util.Set;
+
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.runtime.CoreException;
@@ -24,6 +26,7 @@ import org.eclipse.core.runtime.CoreException;
 import com.servoy.eclipse.model.IFormComponentListener;
 import com.servoy.eclipse.model.extensions.AbstractServoyModel;
 import com.servoy.eclipse.model.extensions.IServoyModel;
+import com.servoy.eclipse.model.nature.ServoyProject;
 import com.servoy.eclipse.model.nature.ServoyResourcesProject;
 import com.servoy.eclipse.model.ngpackages.BaseNGPackageManager;
 import com.servoy.eclipse.model.ngpackages.ILoadedNGPackagesListener;
@@ -34,6 +37,7 @@ import com.servoy.eclipse.model.repository.WorkspaceUserManager;
 import com.servoy.eclipse.model.util.ServoyLog;
 import com.servoy.j2db.persistence.IRepository;
 import com.servoy.j2db.persistence.IServerManagerInternal;
+import com.servoy.j2db.persistence.RepositoryException;
 import com.servoy.j2db.server.shared.ApplicationServerRegistry;
 
 /**
@@ -77,6 +81,49 @@ public class ExportServoyModel extends AbstractServoyModel implements IServoyMod
 		getNGPackageManager().reloadAllNGPackages(ILoadedNGPackagesListener.CHANGE_REASON.RELOAD, null);
 	}
 
+	/**
+	 * Make sure the changed projects are read again from disk, for an exporter that keeps running between exports.
+	 * Solutions that did not change stay loaded, so the modules that are shared by the exported solutions are only read once.
+	 */
+	public void reloadChangedProjects(Set<String> changedProjectNames)
+	{
+		if (changedProjectNames.isEmpty()) return;
+
+		refreshServoyProjects();
+		EclipseRepository repository = (EclipseRepository)ApplicationServerRegistry.get().getDeveloperRepository();
+		for (String projectName : changedProjectNames)
+		{
+			try
+			{
+				if (repository.isSolutionMetaDataLoaded(projectName))
+				{
+					repository.removeRootObject(repository.getRootObjectMetaData(projectName, IRepository.SOLUTIONS).getRootObjectId());
+				}
+				ServoyProject servoyProject = getServoyProject(projectName);
+				if (servoyProject != null)
+				{
+					repository.registerSolutionMetaData(projectName);
+					servoyProject.resetEditingSolution();
+				}
+			}
+			catch (RepositoryException e)
+			{
+				ServoyLog.logError(e);
+			}
+			if (activeResourcesProject != null && activeResourcesProject.getProject().getName().equals(projectName))
+			{
+				// the next initialize will then load the dbi files, security info, styles and templates again
+				activeResourcesProject = null;
+			}
+		}
+
+		// the flattened solutions of the other projects can contain a module that was read again
+		for (ServoyProject servoyProject : getServoyProjects())
+		{
+			servoyProject.closeFlattenedSolutions();
+		}
+	}
+
 	private void setActiveResourcesProject(ServoyResourcesProject servoyResourcesProject)
 	{
 		activeResourcesProject = servoyResourcesProject;
@@ -0,0 +1,172 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.exporter.apps.common;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The directory in which the export jobs for an exporter that runs as daemon are put.
+ * <p>
+ * A job is a '&lt;name&gt;.args' file with the arguments of one export, one or more arguments per line. It should be written under another name
+ * and then renamed, so it is never picked up half written. The daemon renames it to '&lt;name&gt;.running' when it starts the export, writes the output
+ * to '&lt;name&gt;.log' and writes the exit code to '&lt;name&gt;.done' when the export is finished. Jobs are run in the order of their names.
+ * A file named 'stop' stops the daemon.
+ *
+ * @since 2021.12
+ */
+final class ExportSpoolDirectory implements Closeable
+{
+	static final String JOB_EXTENSION = ".args";
+	static final String RUNNING_EXTENSION = ".running";
+	static final String LOG_EXTENSION = ".log";
+	static final String DONE_EXTENSION = ".done";
+	static final String STOP_FILE = "stop";
+
+	private final File directory;
+	private final WatchService watchService;
+
+	ExportSpoolDirectory(File directory) throws IOException
+	{
+		this.directory = directory;
+		Files.createDirectories(directory.toPath());
+		watchService = FileSystems.getDefault().newWatchService();
+		directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+	}
+
+	File getDirectory()
+	{
+		return directory;
+	}
+
+	/**
+	 * Wait for the next job.
+	 *
+	 * @return the job or null if there was none within the timeout or a stop is requested
+	 */
+	ExportJob nextJob(long timeoutMillis) throws InterruptedException
+	{
+		ExportJob job = claimJob();
+		if (job == null && !isStopRequested())
+		{
+			// the directory is checked again anyway, so the events themselves don't matter
+			WatchKey key = watchService.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+			if (key != null)
+			{
+				key.pollEvents();
+				key.reset();
+			}
+			job = claimJob();
+		}
+		return job;
+	}
+
+	boolean isStopRequested()
+	{
+		return new File(directory, STOP_FILE).exists();
+	}
+
+	/**
+	 * Remove the stop file, so a next daemon on this directory does not stop right away.
+	 */
+	void clearStopRequest()
+	{
+		new File(directory, STOP_FILE).delete();
+	}
+
+	private ExportJob claimJob()
+	{
+		File[] jobFiles = directory.listFiles((dir, name) -> name.endsWith(JOB_EXTENSION));
+		if (jobFiles == null || jobFiles.length == 0 || isStopRequested()) return null;
+		Arrays.sort(jobFiles);
+		for (File jobFile : jobFiles)
+		{
+			String name = jobFile.getName().substring(0, jobFile.getName().length() - JOB_EXTENSION.length());
+			File runningFile = new File(directory, name + RUNNING_EXTENSION);
+			// the rename claims the job, it fails when the file is gone or still open for writing on some platforms
+			if (jobFile.renameTo(runningFile))
+			{
+				return new ExportJob(name, runningFile);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		watchService.close();
+	}
+
+	final class ExportJob
+	{
+		private final String name;
+		private final File runningFile;
+
+		private ExportJob(String name, File runningFile)
+		{
+			this.name = name;
+			this.runningFile = runningFile;
+		}
+
+		String getName()
+		{
+			return name;
+		}
+
+		String[] readArguments() throws IOException
+		{
+			List<String> arguments = new ArrayList<String>();
+			for (String line : Files.readAllLines(runningFile.toPath(), StandardCharsets.UTF_8))
+			{
+				if (line.trim().length() > 0) arguments.add(line.trim());
+			}
+			return arguments.toArray(new String[arguments.size()]);
+		}
+
+		PrintStream createLog() throws IOException
+		{
+			return new PrintStream(new FileOutputStream(new File(directory, name + LOG_EXTENSION)), true, "UTF-8");
+		}
+
+		/**
+		 * Write the exit code, the done file is written under a temporary name first so it is complete when it appears.
+		 */
+		void finish(int exitCode) throws IOException
+		{
+			File tmp = new File(directory, name + DONE_EXTENSION + ".tmp");
+			Files.write(tmp.toPath(), String.valueOf(exitCode).getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp.toPath(), new File(directory, name + DONE_EXTENSION).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			runningFile.delete();
+		}
+	}
+}
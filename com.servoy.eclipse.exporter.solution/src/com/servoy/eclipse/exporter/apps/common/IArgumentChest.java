@@ -52,4 +52,15 @@ public interface IArgumentChest
 	public String getExportFilePath();
 
 	public boolean skipBuild();
+
+	/**
+	 * @return the directory in which export jobs are put when the exporter must keep running, null for a single export
+	 */
+	public String getDaemonSpoolDir();
+
+	/**
+	 * Take the arguments that a running daemon was started with (the settings file, app. server, workspace and dbi arguments) for an export job,
+	 * the job is marked invalid when it gave one of them with another value.
+	 */
+	public void useDaemonArguments(IArgumentChest daemonConfiguration);
 }
\ No newline at end of file
@@ -42,6 +42,12 @@ public class MobileWorkspaceExporter extends AbstractWorkspaceExporter<MobileArg
 		return new MobileArgumentChest((String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
 	}
 
+	@Override
+	protected MobileArgumentChest createArgumentChest(String[] args)
+	{
+		return new MobileArgumentChest(args);
+	}
+
 	@Override
 	protected void exportActiveSolution(MobileArgumentChest configuration)
 	{
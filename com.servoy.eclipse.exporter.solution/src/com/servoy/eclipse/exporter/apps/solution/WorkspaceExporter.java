@@ -59,6 +59,12 @@ public class WorkspaceExporter extends AbstractWorkspaceExporter<ArgumentChest>
 		return new ArgumentChest((String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
 	}
 
+	@Override
+	protected ArgumentChest createArgumentChest(String[] args)
+	{
+		return new ArgumentChest(args);
+	}
+
 	@Override
 	protected void exportActiveSolution(ArgumentChest configuration)
 	{
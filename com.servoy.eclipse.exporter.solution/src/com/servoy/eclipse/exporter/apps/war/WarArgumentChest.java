@@ -25,6 +25,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.servoy.eclipse.exporter.apps.common.AbstractArgumentChest;
+import com.servoy.eclipse.exporter.apps.common.IArgumentChest;
 import com.servoy.eclipse.model.export.IExportSolutionModel;
 import com.servoy.eclipse.model.util.ServoyLog;
 import com.servoy.eclipse.model.war.exporter.AbstractWarExportModel.License;
@@ -72,6 +73,8 @@ public class WarArgumentChest extends AbstractArgumentChest
 	private static final String insertNewI18NKeysOnly = "insertNewI18NKeysOnly";// inserts NewI18NKeysOnly \n"
 	private static final String allowDataModelChanges = "allowDataModelChanges";// allow data model changes \n"
 	private static final String skipDatabaseViewsUpdate = "skipDatabaseViewsUpdate";// skip database views update \n"
+	private static final String streamingExport = "streamingExport";// write the war without copying everything to a temp dir first \n"
+	private static final String exportCache = "exportCache";// dir of the cache of the grouped resources, compiled less and packages \n"
 
 	private static final String importUserPolicy = "importUserPolicy";// int \n"
 	private static final String addUsersToAdminGroup = "addUsersToAdminGroup";// adds Users To Admin Group \n"
@@ -79,6 +82,7 @@ public class WarArgumentChest extends AbstractArgumentChest
 	private static final String upgradeRepository = "upgradeRepository";
 
 	private static final String contextFileName = "contextFileName";
+	private static final String DEFAULT_PLUGIN_LOCATIONS = "../plugins";
 	private static final String createTomcatContextXML = "createTomcatContextXML";
 	private static final String antiResourceLocking = "antiResourceLocking";
 	private static final String clearReferencesStatic = "clearReferencesStatic";
@@ -276,6 +280,12 @@ public class WarArgumentChest extends AbstractArgumentChest
 			+ "        -" + webXmlFileName + " ... a path to a web.xml  that should be included instead  of default\n"
 			+ "             one; it should be a web.xml file previously generated via a Servoy WAR export.\n"
 			+  "        -ng2 export ng2 binaries\n"
+			+ "        -" + streamingExport + " ... write  the  libraries,  plugins,  beans,  lafs  and  drivers straight\n"
+			+ "             into the war file instead of copying them to a temp dir first; already compressed\n"
+			+ "             files (jars, images) are stored instead of compressed again.\n"
+			+ "        -" + exportCache + " <dir> ... a dir where the grouped and minified  js/css, the compiled\n"
+			+ "             less files and the extracted NG packages are cached; exports with the same inputs\n"
+			+ "             reuse those instead of computing them again.\n"
 			+ getHelpMessageExitCodes();
 		// @formatter:on
 	}
@@ -298,7 +308,7 @@ public class WarArgumentChest extends AbstractArgumentChest
 		isNG2Export = false;
 		if (argsMap.containsKey("ng2") && !Utils.getAsBoolean(argsMap.get("active"))) isNG2Export = true;
 		pluginLocations = parseArg("pluginLocations", null, argsMap, false);
-		if (pluginLocations == null) pluginLocations = "../plugins";
+		if (pluginLocations == null) pluginLocations = DEFAULT_PLUGIN_LOCATIONS;
 		selectedComponents = parseComponentsArg("crefs", argsMap);
 		selectedServices = parseComponentsArg("srefs", argsMap);
 		excludedComponentPackages = parseComponentsArg("excludeComponentPkgs", argsMap);
@@ -513,6 +523,20 @@ public class WarArgumentChest extends AbstractArgumentChest
 		return pluginLocations;
 	}
 
+	@Override
+	public void useDaemonArguments(IArgumentChest daemonConfiguration)
+	{
+		super.useDaemonArguments(daemonConfiguration);
+		if (daemonConfiguration instanceof WarArgumentChest)
+		{
+			// a daemon without an export of its own did not parse the export arguments
+			String daemonPluginLocations = ((WarArgumentChest)daemonConfiguration).getArgument("pluginLocations");
+			if (daemonPluginLocations == null) daemonPluginLocations = DEFAULT_PLUGIN_LOCATIONS;
+			checkDaemonArgument("pluginLocations", pluginLocations, daemonPluginLocations);
+			pluginLocations = daemonPluginLocations;
+		}
+	}
+
 	public String getSelectedComponents()
 	{
 		return selectedComponents;
@@ -730,4 +754,14 @@ public class WarArgumentChest extends AbstractArgumentChest
 	{
 		return argumentsMap.containsKey(skipDatabaseViewsUpdate);
 	}
+
+	public boolean isStreamingExport()
+	{
+		return argumentsMap.containsKey(streamingExport);
+	}
+
+	public String getExportCacheDir()
+	{
+		return argumentsMap.get(exportCache);
+	}
 }
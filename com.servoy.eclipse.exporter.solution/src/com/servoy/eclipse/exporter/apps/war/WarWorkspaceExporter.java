@@ -58,6 +58,8 @@ import com.servoy.j2db.util.Utils;
 public class WarWorkspaceExporter extends AbstractWorkspaceExporter<WarArgumentChest>
 {
 
+	private boolean ng2Prepared = false;
+
 	private final class CommandLineWarExportModel extends AbstractWarExportModel
 	{
 		private final WarArgumentChest configuration;
@@ -518,6 +520,18 @@ public class WarWorkspaceExporter extends AbstractWorkspaceExporter<WarArgumentC
 			return configuration.skipDatabaseViewsUpdate();
 		}
 
+		@Override
+		public boolean isStreamingExport()
+		{
+			return configuration.isStreamingExport();
+		}
+
+		@Override
+		public String getExportCacheDir()
+		{
+			return configuration.getExportCacheDir();
+		}
+
 		@Override
 		public Set<String> getExportedPackages()
 		{
@@ -543,6 +557,12 @@ public class WarWorkspaceExporter extends AbstractWorkspaceExporter<WarArgumentC
 		return new WarArgumentChest((String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
 	}
 
+	@Override
+	protected WarArgumentChest createArgumentChest(String[] args)
+	{
+		return new WarArgumentChest(args);
+	}
+
 	private void checkAndAutoUpgradeLicenses(CommandLineWarExportModel exportModel) throws ExportException
 	{
 		IApplicationServerSingleton server = ApplicationServerRegistry.get();
@@ -591,10 +611,12 @@ public class WarWorkspaceExporter extends AbstractWorkspaceExporter<WarArgumentC
 	}
 
 	@Override
-	protected void checkAndExportSolutions(WarArgumentChest configuration)
+	protected void prepareExport(WarArgumentChest configuration)
 	{
-		if (configuration.isNG2Export())
+		// a daemon can export multiple times, the node folder only has to be set up once
+		if (configuration.isNG2Export() && !ng2Prepared)
 		{
+			ng2Prepared = true;
 			WebPackagesListener.setIgnore(true);
 			Activator.getInstance().setConsole(() -> new StringOutputStream()
 			{
@@ -611,7 +633,6 @@ public class WarWorkspaceExporter extends AbstractWorkspaceExporter<WarArgumentC
 			});
 			Activator.getInstance().copyNodeFolder();
 		}
-		super.checkAndExportSolutions(configuration);
 	}
 
 	@Override
@@ -168,6 +168,8 @@ public class ExportWarModel extends AbstractWarExportModel
 		servoyPropertiesFileName = settings.get("export.servoyPropertiesFileName");
 		exportActiveSolution = Utils.getAsBoolean(settings.get("export.exportActiveSolution"));
 		exportNG2 = Utils.getAsBoolean(settings.get("export.ng2"));
+		setStreamingExport(Utils.getAsBoolean(settings.get("export.streaming")));
+		setExportCacheDir(settings.get("export.cacheDir"));
 		exportNoneActiveSolutions = Utils.getAsBoolean(settings.get("export.exportNoneActiveSolutions"));
 		if (settings.get("export.startRMIPort") != null) startRMIPort = settings.get("export.startRMIPort");
 		if (settings.get("export.startRMI") != null) startRMI = Utils.getAsBoolean(settings.get("export.startRMI"));
@@ -363,6 +365,8 @@ public class ExportWarModel extends AbstractWarExportModel
 
 		settings.put("export.warfilename", warFileName);
 		settings.put("export.ng2", isExportNG2());
+		settings.put("export.streaming", isStreamingExport());
+		if (getExportCacheDir() != null) settings.put("export.cacheDir", getExportCacheDir());
 		settings.put("export.userHome", getUserHome());
 		settings.put("export.webxmlfilename", webXMLFileName);
 		settings.put("export.log4jConfigurationFile", log4jConfigurationFile);
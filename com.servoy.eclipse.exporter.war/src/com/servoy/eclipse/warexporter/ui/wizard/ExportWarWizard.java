@@ -616,6 +616,8 @@ public class ExportWarWizard extends DirtySaveExportWizard implements IExportWiz
 		appendToBuilder(sb, " -allowSQLKeywords", exportModel.isExportSampleData());
 		appendToBuilder(sb, " -allowDataModelChanges ", exportModel.getAllowDataModelChanges());
 		appendToBuilder(sb, " -skipDatabaseViewsUpdate", exportModel.isSkipDatabaseViewsUpdate());
+		appendToBuilder(sb, " -streamingExport", exportModel.isStreamingExport());
+		appendToBuilder(sb, " -exportCache ", exportModel.getExportCacheDir());
 		appendToBuilder(sb, " -overrideSequenceTypes", exportModel.isOverrideSequenceTypes());
 		appendToBuilder(sb, " -overrideDefaultValues", exportModel.isOverrideDefaultValues());
 		appendToBuilder(sb, " -insertNewI18NKeysOnly", exportModel.isInsertNewI18NKeysOnly());
@@ -17,8 +17,11 @@
 
 package com.servoy.eclipse.jsunit.launch;
 
+import java.io.File;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
@@ -32,7 +35,9 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.PlatformUI;
 
 import com.servoy.eclipse.core.util.UIUtils;
+import com.servoy.eclipse.jsunit.Activator;
 import com.servoy.eclipse.jsunit.scriptunit.JSUnitTestingEngine;
+import com.servoy.eclipse.jsunit.scriptunit.RunShardedJSUnitTests;
 import com.servoy.eclipse.jsunit.smart.RunSmartClientTests;
 import com.servoy.eclipse.model.ServoyModelFinder;
 import com.servoy.eclipse.model.nature.ServoyProject;
@@ -55,6 +60,18 @@ public class JSUnitLaunchConfigurationDelegate extends LaunchConfigurationDelega
 	public static final String LAUNCH_CONFIGURATION_TYPE_ID = "com.servoy.eclipse.jsunit.launch";
 	public static final String LAUNCH_CONFIG_INSTANCE = "com.servoy.eclipse.jsunit.launch.configurationInstance";
 	public static final int MAX_CONFIG_INSTANCES = 10;
+	/**
+	 * The number of headless test clients that each run a part of the tests, with 1 the tests run in the debug smart client.
+	 */
+	public static final String SHARD_COUNT = "com.servoy.eclipse.jsunit.launch.shardCount";
+	/**
+	 * The command line that starts a headless test client of the active solution for a shard, see {@link RunShardedJSUnitTests}.
+	 */
+	public static final String SHARD_COMMAND = "com.servoy.eclipse.jsunit.launch.shardCommand";
+	/**
+	 * The file the JUnit XML report of the shards is written to.
+	 */
+	public static final String SHARD_REPORT_FILE = "com.servoy.eclipse.jsunit.launch.shardReportFile";
 	private static ILaunch currentLaunch = null;
 
 	private static int counter = 1;
@@ -108,7 +125,23 @@ public class JSUnitLaunchConfigurationDelegate extends LaunchConfigurationDelega
 	{
 		TestTarget testTarget = prepareForLaunch(configuration, launch);
 
-		new RunSmartClientTests(testTarget, launch, monitor, !"run".equals(mode)).run();
+		int shardCount = configuration.getAttribute(SHARD_COUNT, 1);
+		String shardCommand = configuration.getAttribute(SHARD_COMMAND, "").trim();
+		if (shardCount > 1 && shardCommand.length() > 0)
+		{
+			String reportFile = configuration.getAttribute(SHARD_REPORT_FILE, "").trim();
+			new RunShardedJSUnitTests(testTarget, launch, monitor, shardCount, DebugPlugin.parseArguments(shardCommand),
+				new File(reportFile.length() > 0 ? reportFile : getDefaultShardReportFile())).run();
+		}
+		else
+		{
+			new RunSmartClientTests(testTarget, launch, monitor, !"run".equals(mode)).run();
+		}
+	}
+
+	public static String getDefaultShardReportFile()
+	{
+		return Activator.getDefault().getStateLocation().append("jsunit-report.xml").toOSString();
 	}
 
 	public static void prepareLaunchConfigForTesting(ILaunchConfigurationWorkingCopy workingCopy)
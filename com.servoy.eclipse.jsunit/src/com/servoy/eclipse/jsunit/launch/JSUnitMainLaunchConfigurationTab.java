@@ -22,8 +22,14 @@ import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.ui.AbstractLaunchConfigurationTab;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.Text;
 
 import com.servoy.eclipse.model.test.TestTarget;
@@ -38,6 +44,9 @@ public class JSUnitMainLaunchConfigurationTab extends AbstractLaunchConfiguratio
 	// CONFIG_INVALID is only used in this view , it should not be possible to create an invalid launch configuration from solex view.
 	private static final String CONFIG_INVALID = "servoy.jsunit.launchconfig.invalid";
 	Text textArea = null;
+	Spinner shardCount = null;
+	Text shardCommand = null;
+	Text shardReportFile = null;
 
 	@Override
 	public void createControl(Composite parent)
@@ -51,6 +60,43 @@ public class JSUnitMainLaunchConfigurationTab extends AbstractLaunchConfiguratio
 
 		textArea = new Text(comp, SWT.MULTI | SWT.BORDER | SWT.WRAP | SWT.READ_ONLY);
 		textArea.setBounds(30, 30, 300, 50);
+
+		Group shardsGroup = new Group(comp, SWT.NONE);
+		shardsGroup.setText("Shards");
+		shardsGroup.setLayoutData(new GridData(SWT.FILL, SWT.TOP, true, false));
+		shardsGroup.setLayout(new GridLayout(2, false));
+
+		Label description = new Label(shardsGroup, SWT.WRAP);
+		description.setText(
+			"With more than one shard the tests are split over that number of headless test clients that run at the same time. The command must start a headless test client of the active solution, it gets the shard to run as system properties in the JAVA_TOOL_OPTIONS environment variable.");
+		GridData descriptionData = new GridData(SWT.FILL, SWT.TOP, true, false, 2, 1);
+		descriptionData.widthHint = 400;
+		description.setLayoutData(descriptionData);
+
+		ModifyListener modifyListener = new ModifyListener()
+		{
+			@Override
+			public void modifyText(ModifyEvent e)
+			{
+				updateLaunchConfigurationDialog();
+			}
+		};
+
+		new Label(shardsGroup, SWT.NONE).setText("Number of shards:");
+		shardCount = new Spinner(shardsGroup, SWT.BORDER);
+		shardCount.setValues(1, 1, 64, 0, 1, 4);
+		shardCount.addModifyListener(modifyListener);
+
+		new Label(shardsGroup, SWT.NONE).setText("Test client command:");
+		shardCommand = new Text(shardsGroup, SWT.BORDER);
+		shardCommand.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		shardCommand.addModifyListener(modifyListener);
+
+		new Label(shardsGroup, SWT.NONE).setText("JUnit report file:");
+		shardReportFile = new Text(shardsGroup, SWT.BORDER);
+		shardReportFile.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		shardReportFile.setMessage(JSUnitLaunchConfigurationDelegate.getDefaultShardReportFile());
+		shardReportFile.addModifyListener(modifyListener);
 	}
 
 
@@ -77,6 +123,9 @@ public class JSUnitMainLaunchConfigurationTab extends AbstractLaunchConfiguratio
 					TestTarget.activeProjectTarget().convertToString()));
 				textArea.setText(JSUnitLaunchConfigurationDelegate.generateLaunchConfigName(target));
 			}
+			shardCount.setSelection(configuration.getAttribute(JSUnitLaunchConfigurationDelegate.SHARD_COUNT, 1));
+			shardCommand.setText(configuration.getAttribute(JSUnitLaunchConfigurationDelegate.SHARD_COMMAND, ""));
+			shardReportFile.setText(configuration.getAttribute(JSUnitLaunchConfigurationDelegate.SHARD_REPORT_FILE, ""));
 		}
 		catch (CoreException e)
 		{
@@ -88,8 +137,9 @@ public class JSUnitMainLaunchConfigurationTab extends AbstractLaunchConfiguratio
 	@Override
 	public void performApply(ILaunchConfigurationWorkingCopy configuration)
 	{
-		// TODO Auto-generated method stub
-
+		configuration.setAttribute(JSUnitLaunchConfigurationDelegate.SHARD_COUNT, shardCount.getSelection());
+		configuration.setAttribute(JSUnitLaunchConfigurationDelegate.SHARD_COMMAND, shardCommand.getText().trim());
+		configuration.setAttribute(JSUnitLaunchConfigurationDelegate.SHARD_REPORT_FILE, shardReportFile.getText().trim());
 	}
 
 
@@ -114,6 +164,12 @@ public class JSUnitMainLaunchConfigurationTab extends AbstractLaunchConfiguratio
 			ServoyLog.logError(e);
 		}
 
+		if (shardCount != null && shardCount.getSelection() > 1 && shardCommand.getText().trim().length() == 0)
+		{
+			setErrorMessage("A test client command is needed to run the tests in shards.");
+			return false;
+		}
+		setErrorMessage(null);
 		return true;
 	}
 
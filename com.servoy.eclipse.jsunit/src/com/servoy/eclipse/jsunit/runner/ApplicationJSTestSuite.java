@@ -24,6 +24,10 @@ import javax.swing.SwingUtilities;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Scriptable;
 
+import com.servoy.eclipse.model.test.IJSUnitTestSelector;
+import com.servoy.eclipse.model.test.JSUnitAffectedTestSelector;
+import com.servoy.eclipse.model.test.JSUnitShard;
+import com.servoy.eclipse.model.test.JSUnitTestDurations;
 import com.servoy.eclipse.model.test.SolutionJSUnitSuiteCodeBuilder;
 import com.servoy.eclipse.model.test.TestTarget;
 import com.servoy.j2db.IApplication;
@@ -39,6 +43,12 @@ import junit.framework.TestResult;
 
 /**
  * This class generates a javascript test suite from an existing initialized Servoy application, with a loaded Servoy solution.
+ * <p>
+ * When the {@link JSUnitShard#SHARD_PROPERTY} system property is set only the test cases of that shard are run, so several test clients can each run a part of the
+ * tests at the same time. With the {@link JSUnitTestDurations#DURATIONS_PROPERTY} system property the durations of the test cases are recorded, so the next
+ * runs split the test cases by duration instead of by number of tests; the shards each write their own durations, which are merged after the run.
+ * With the {@link JSUnitShardReporter#REPORT_PROPERTY} system property the results of the shard are sent to the developer that launched the shards.
+ * With the {@link JSUnitAffectedTestSelector#AFFECTED_PROPERTY} system property only the test cases that depend on the changed files are run.
  * @author acostescu
  */
 public class ApplicationJSTestSuite extends JSUnitSuite
@@ -49,6 +59,9 @@ public class ApplicationJSTestSuite extends JSUnitSuite
 	protected static TestTarget staticTarget;
 
 	private String jsTestCode;
+	private SolutionJSUnitSuiteCodeBuilder solutionSuiteBuilder;
+	private JSUnitTestDurations durations;
+	private IJSUnitTestSelector testSelector;
 
 	/**
 	 * Creates a new application test Suite.
@@ -99,10 +112,20 @@ public class ApplicationJSTestSuite extends JSUnitSuite
 			{
 				application.getRuntimeProperties().put("JSUnit", Boolean.TRUE);
 				SolutionJSUnitSuiteCodeBuilder suiteBuilder = new SolutionJSUnitSuiteCodeBuilder();
+				JSUnitShard shard = JSUnitShard.fromSystemProperties();
+				durations = JSUnitTestDurations.fromSystemProperties(shard);
+				if (shard != null)
+				{
+					Debug.log("Running jsunit test shard " + shard);
+					suiteBuilder.setShard(shard, durations);
+				}
+				testSelector = JSUnitAffectedTestSelector.fromSystemProperties(shard);
+				suiteBuilder.setTestSelector(testSelector);
 				suiteBuilder.initializeWithSolution(application.getSolution(), application.getFlattenedSolution(), target,
 					spamInTestNamesAsFullTreePathsForDumbToolsThatAreUnAwareOfTestSuiteHierarchy);
 				Scriptable scope = initScope(application);
 				jsTestCode = suiteBuilder.getCode();
+				solutionSuiteBuilder = suiteBuilder;
 				super.init(new StringReader(jsTestCode), suiteBuilder.getRootTestClassName(), SOLUTION_TEST_JS_NAME, scope, scope != null, isDebugModeOn());
 			}
 			catch (NoClassDefFoundError e)
@@ -189,6 +212,14 @@ public class ApplicationJSTestSuite extends JSUnitSuite
 	@Override
 	public void run(final TestResult result)
 	{
+		JSUnitTestDurationRecorder durationRecorder = null;
+		if (durations != null && solutionSuiteBuilder != null)
+		{
+			durationRecorder = new JSUnitTestDurationRecorder(this, solutionSuiteBuilder, durations);
+			result.addListener(durationRecorder);
+		}
+		JSUnitShardReporter shardReporter = JSUnitShardReporter.fromSystemProperties(this);
+		if (shardReporter != null) result.addListener(shardReporter);
 		// temporary set global app to jsunit app while running the unit tests
 		IServiceProvider prevServiceProvider = J2DBGlobals.setSingletonServiceProvider(staticSuiteApplication);
 		IServiceProvider threadLocal = J2DBGlobals.getThreadServiceProvider();
@@ -226,6 +257,20 @@ public class ApplicationJSTestSuite extends JSUnitSuite
 		{
 			J2DBGlobals.setSingletonServiceProvider(prevServiceProvider);
 			J2DBGlobals.setServiceProvider(threadLocal);
+			if (durationRecorder != null)
+			{
+				result.removeListener(durationRecorder);
+				durationRecorder.save();
+			}
+			if (shardReporter != null)
+			{
+				result.removeListener(shardReporter);
+				shardReporter.close();
+			}
+			if (testSelector != null)
+			{
+				testSelector.testRunFinished(result.wasSuccessful() && !result.shouldStop());
+			}
 		}
 	}
 
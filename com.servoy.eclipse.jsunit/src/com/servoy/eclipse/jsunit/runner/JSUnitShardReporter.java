@@ -0,0 +1,344 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.jsunit.runner;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.servoy.eclipse.model.test.JSUnitShard;
+import com.servoy.j2db.util.Debug;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestListener;
+import junit.framework.TestSuite;
+
+/**
+ * Test listener of a {@link JSUnitShard} test client that sends the test tree and the test events of the shard to the developer that launched the shards,
+ * which combines the shards into one test run.
+ * <p>
+ * The test tree is sent as the tests in their sequential order, each with its name, whether it is a suite and the index of its parent suite; the events
+ * refer to the tests by that index and have the time of the shard at which they happened, the developer replays them later.
+ *
+ * @since 2021.12
+ */
+public class JSUnitShardReporter implements TestListener
+{
+	/**
+	 * System property with the "host:port" that the results of the shard are sent to.
+	 */
+	public static final String REPORT_PROPERTY = "servoy.jsunit.shard.report";
+
+	public static final byte START_TEST = 1;
+	public static final byte END_TEST = 2;
+	public static final byte FAILURE = 3;
+	public static final byte ERROR = 4;
+	public static final byte DONE = 5;
+
+	// writeUTF can write at most 64k bytes
+	private static final int MAX_STRING_LENGTH = 16000;
+
+	private final Socket socket;
+	private final Map<Test, Integer> testIndexes = new IdentityHashMap<Test, Integer>();
+	private DataOutputStream out;
+
+	private JSUnitShardReporter(Socket socket) throws IOException
+	{
+		this.socket = socket;
+		this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	}
+
+	/**
+	 * Connect to the address of the {@link #REPORT_PROPERTY} system property and send the test tree of the suite.
+	 *
+	 * @return the reporter, or null if the property is not set or the connection failed
+	 */
+	public static JSUnitShardReporter fromSystemProperties(TestSuite rootSuite)
+	{
+		String address = System.getProperty(REPORT_PROPERTY);
+		if (address == null || address.trim().length() == 0) return null;
+
+		address = address.trim();
+		int colon = address.lastIndexOf(':');
+		try
+		{
+			JSUnitShardReporter reporter = new JSUnitShardReporter(
+				new Socket(colon > 0 ? address.substring(0, colon) : "127.0.0.1", Integer.parseInt(address.substring(colon + 1))));
+			JSUnitShard shard = JSUnitShard.fromSystemProperties();
+			reporter.sendTestTree(shard != null ? shard.getIndex() : 1, rootSuite);
+			return reporter;
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			Debug.error("Cannot report the jsunit shard results to " + address, e);
+			return null;
+		}
+	}
+
+	private void sendTestTree(int shardIndex, TestSuite rootSuite) throws IOException
+	{
+		List<Test> tests = new ArrayList<Test>();
+		List<Integer> parents = new ArrayList<Integer>();
+		tests.add(rootSuite);
+		parents.add(Integer.valueOf(-1));
+		collectTests(rootSuite, 0, tests, parents);
+
+		out.writeInt(shardIndex);
+		out.writeInt(tests.size());
+		for (int i = 0; i < tests.size(); i++)
+		{
+			Test test = tests.get(i);
+			testIndexes.put(test, Integer.valueOf(i));
+			writeString(getTestName(test));
+			out.writeBoolean(test instanceof TestSuite);
+			out.writeInt(parents.get(i).intValue());
+		}
+		out.flush();
+	}
+
+	// same order as TestTreeHandler.fillTestListSequencialOrder
+	private static void collectTests(TestSuite suite, int suiteIndex, List<Test> tests, List<Integer> parents)
+	{
+		Enumeration<Test> children = suite.tests();
+		while (children.hasMoreElements())
+		{
+			Test child = children.nextElement();
+			int childIndex = tests.size();
+			tests.add(child);
+			parents.add(Integer.valueOf(suiteIndex));
+			if (child instanceof TestSuite)
+			{
+				collectTests((TestSuite)child, childIndex, tests, parents);
+			}
+		}
+	}
+
+	private static String getTestName(Test test)
+	{
+		if (test instanceof TestCase) return ((TestCase)test).getName();
+		if (test instanceof TestSuite) return ((TestSuite)test).getName();
+		return test.toString();
+	}
+
+	@Override
+	public synchronized void startTest(Test test)
+	{
+		try
+		{
+			if (out != null) writeEvent(START_TEST, test);
+		}
+		catch (IOException e)
+		{
+			reportFailed(e);
+		}
+	}
+
+	@Override
+	public synchronized void endTest(Test test)
+	{
+		try
+		{
+			if (out != null)
+			{
+				writeEvent(END_TEST, test);
+				out.flush();
+			}
+		}
+		catch (IOException e)
+		{
+			reportFailed(e);
+		}
+	}
+
+	@Override
+	public synchronized void addFailure(Test test, AssertionFailedError t)
+	{
+		addProblem(FAILURE, test, t);
+	}
+
+	@Override
+	public synchronized void addError(Test test, Throwable t)
+	{
+		addProblem(ERROR, test, t);
+	}
+
+	private void addProblem(byte event, Test test, Throwable t)
+	{
+		try
+		{
+			if (out != null)
+			{
+				writeEvent(event, test);
+				writeThrowable(t);
+			}
+		}
+		catch (IOException e)
+		{
+			reportFailed(e);
+		}
+	}
+
+	/**
+	 * Tell the developer that the shard is done and close the connection, must be called after the durations of the shard are saved.
+	 */
+	public synchronized void close()
+	{
+		try
+		{
+			if (out != null)
+			{
+				out.writeByte(DONE);
+				out.flush();
+			}
+		}
+		catch (IOException e)
+		{
+			reportFailed(e);
+		}
+		finally
+		{
+			out = null;
+			try
+			{
+				socket.close();
+			}
+			catch (IOException e)
+			{
+				Debug.log(e);
+			}
+		}
+	}
+
+	private void writeEvent(byte event, Test test) throws IOException
+	{
+		Integer index = testIndexes.get(test);
+		out.writeByte(event);
+		out.writeInt(index != null ? index.intValue() : -1);
+		writeString(getTestName(test));
+		out.writeLong(System.currentTimeMillis());
+	}
+
+	private void writeThrowable(Throwable t) throws IOException
+	{
+		writeString(t.getClass().getName());
+		writeString(t.getMessage());
+		boolean servoyAssertion = t instanceof ServoyAssertionFailedError;
+		out.writeBoolean(servoyAssertion);
+		if (servoyAssertion)
+		{
+			writeString(((ServoyAssertionFailedError)t).getExpected());
+			writeString(((ServoyAssertionFailedError)t).getActual());
+		}
+		StackTraceElement[] stackTrace = t.getStackTrace();
+		out.writeInt(stackTrace.length);
+		for (StackTraceElement element : stackTrace)
+		{
+			writeString(element.getClassName());
+			writeString(element.getMethodName());
+			writeString(element.getFileName());
+			out.writeInt(element.getLineNumber());
+		}
+	}
+
+	private void writeString(String s) throws IOException
+	{
+		out.writeBoolean(s != null);
+		if (s != null) out.writeUTF(s.length() > MAX_STRING_LENGTH ? s.substring(0, MAX_STRING_LENGTH) : s);
+	}
+
+	/**
+	 * Read a string written by this reporter.
+	 */
+	public static String readString(DataInputStream in) throws IOException
+	{
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * Read a failure or error written by this reporter.
+	 *
+	 * @param failure true for a {@link #FAILURE} event, it is read as an {@link AssertionFailedError}
+	 */
+	public static Throwable readThrowable(DataInputStream in, boolean failure) throws IOException
+	{
+		String className = readString(in);
+		String message = readString(in);
+		Throwable t;
+		if (in.readBoolean())
+		{
+			String expected = readString(in);
+			String actual = readString(in);
+			t = new ServoyAssertionFailedError(message, actual, expected);
+		}
+		else if (failure)
+		{
+			t = new AssertionFailedError(message);
+		}
+		else
+		{
+			t = new ShardThrowable(className, message);
+		}
+		StackTraceElement[] stackTrace = new StackTraceElement[in.readInt()];
+		for (int i = 0; i < stackTrace.length; i++)
+		{
+			String declaringClass = readString(in);
+			String methodName = readString(in);
+			String fileName = readString(in);
+			stackTrace[i] = new StackTraceElement(declaringClass, methodName, fileName, in.readInt());
+		}
+		t.setStackTrace(stackTrace);
+		return t;
+	}
+
+	private void reportFailed(IOException e)
+	{
+		// the shard keeps running its tests, the developer reports the shard as ended too early
+		Debug.error("Cannot report the jsunit shard results anymore", e);
+		out = null;
+	}
+
+	/**
+	 * An error of a shard, shown with the class name of the error that the shard got.
+	 */
+	private static class ShardThrowable extends Throwable
+	{
+		private final String className;
+
+		ShardThrowable(String className, String message)
+		{
+			super(message);
+			this.className = className;
+		}
+
+		@Override
+		public String toString()
+		{
+			String message = getLocalizedMessage();
+			return message != null ? className + ": " + message : className;
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.jsunit.runner;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.servoy.eclipse.model.test.JSUnitTestDurations;
+import com.servoy.eclipse.model.test.SolutionJSUnitSuiteCodeBuilder;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestListener;
+import junit.framework.TestSuite;
+
+/**
+ * Test listener that measures the duration of the test cases (the test methods of one form or one scope) of a generated solution suite, so the next
+ * sharded run can split them better.
+ *
+ * @since 2021.12
+ */
+public class JSUnitTestDurationRecorder implements TestListener
+{
+	private final JSUnitTestDurations durations;
+	private final Map<Test, String> testCaseKeys = new HashMap<Test, String>();
+	private final Map<String, Integer> testsToRun = new HashMap<String, Integer>();
+	private final Map<String, Long> nanosByTestCase = new HashMap<String, Long>();
+	private final Map<String, Integer> testsEnded = new HashMap<String, Integer>();
+	private final Map<Test, Long> startedTests = new HashMap<Test, Long>();
+
+	/**
+	 * @param rootSuite the java test tree of the generated suite
+	 */
+	public JSUnitTestDurationRecorder(TestSuite rootSuite, SolutionJSUnitSuiteCodeBuilder suiteBuilder, JSUnitTestDurations durations)
+	{
+		this.durations = durations;
+		collectTestCases(rootSuite, suiteBuilder, suiteBuilder.getTestCaseKeys(rootSuite.getName()));
+	}
+
+	private void collectTestCases(TestSuite suite, SolutionJSUnitSuiteCodeBuilder suiteBuilder, Map<String, String> solutionTestCaseKeys)
+	{
+		Enumeration<Test> children = suite.tests();
+		while (children.hasMoreElements())
+		{
+			Test child = children.nextElement();
+			if (child instanceof TestSuite)
+			{
+				String name = ((TestSuite)child).getName();
+				String testCaseKey = solutionTestCaseKeys != null ? solutionTestCaseKeys.get(name) : null;
+				if (testCaseKey != null)
+				{
+					Enumeration<Test> tests = ((TestSuite)child).tests();
+					while (tests.hasMoreElements())
+					{
+						testCaseKeys.put(tests.nextElement(), testCaseKey);
+						testsToRun.merge(testCaseKey, Integer.valueOf(1), Integer::sum);
+					}
+				}
+				else
+				{
+					// a module has its own solution suite
+					Map<String, String> moduleTestCaseKeys = suiteBuilder.getTestCaseKeys(name);
+					collectTestCases((TestSuite)child, suiteBuilder, moduleTestCaseKeys != null ? moduleTestCaseKeys : solutionTestCaseKeys);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void startTest(Test test)
+	{
+		if (testCaseKeys.containsKey(test)) startedTests.put(test, Long.valueOf(System.nanoTime()));
+	}
+
+	@Override
+	public void endTest(Test test)
+	{
+		Long started = startedTests.remove(test);
+		if (started != null)
+		{
+			String testCaseKey = testCaseKeys.get(test);
+			nanosByTestCase.merge(testCaseKey, Long.valueOf(System.nanoTime() - started.longValue()), Long::sum);
+			testsEnded.merge(testCaseKey, Integer.valueOf(1), Integer::sum);
+		}
+	}
+
+	@Override
+	public void addError(Test test, Throwable t)
+	{
+	}
+
+	@Override
+	public void addFailure(Test test, AssertionFailedError t)
+	{
+	}
+
+	/**
+	 * Record the durations of the test cases of which all tests ran, and save them.
+	 */
+	public void save()
+	{
+		for (Map.Entry<String, Long> entry : nanosByTestCase.entrySet())
+		{
+			if (testsEnded.get(entry.getKey()).equals(testsToRun.get(entry.getKey())))
+			{
+				durations.record(entry.getKey(), entry.getValue().longValue() / 1000000);
+			}
+		}
+		durations.save();
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.jsunit.scriptunit;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.servoy.eclipse.jsunit.mobile.SuiteBridge.ICancelMonitor;
+import com.servoy.eclipse.jsunit.runner.JSUnitShardReporter;
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * Receives the test trees and test events that the shard test clients send with their {@link JSUnitShardReporter}.
+ * <p>
+ * Every shard is read on its own thread. The events of one test are queued together when the test ends, so the tests of the shards that run at the same
+ * time are not mixed up when they are replayed on one test result.
+ *
+ * @since 2021.12
+ */
+public class JSUnitShardCollector
+{
+	/**
+	 * The test tree of a shard, as sent by {@link JSUnitShardReporter}.
+	 */
+	public static class ShardTestTree
+	{
+		public final List<String> names = new ArrayList<String>();
+		public final List<Boolean> suites = new ArrayList<Boolean>();
+		public final List<Integer> parents = new ArrayList<Integer>();
+	}
+
+	/**
+	 * An event of a shard: {@link JSUnitShardReporter#START_TEST}, {@link JSUnitShardReporter#END_TEST}, {@link JSUnitShardReporter#FAILURE},
+	 * {@link JSUnitShardReporter#ERROR} or {@link JSUnitShardReporter#DONE}.
+	 */
+	public static class ShardEvent
+	{
+		public final int shardIndex;
+		public final byte type;
+		public final int testIndex;
+		public final String testName;
+		public final long time;
+		public final Throwable throwable;
+
+		ShardEvent(int shardIndex, byte type, int testIndex, String testName, long time, Throwable throwable)
+		{
+			this.shardIndex = shardIndex;
+			this.type = type;
+			this.testIndex = testIndex;
+			this.testName = testName;
+			this.time = time;
+			this.throwable = throwable;
+		}
+	}
+
+	private final int shardCount;
+	private final ServerSocket serverSocket;
+	private final Map<Integer, ShardTestTree> testTrees = new HashMap<Integer, ShardTestTree>();
+	private final Set<Integer> doneShards = new HashSet<Integer>();
+	private final BlockingQueue<List<ShardEvent>> events = new LinkedBlockingQueue<List<ShardEvent>>();
+	private final List<Socket> sockets = new ArrayList<Socket>();
+
+	public JSUnitShardCollector(int shardCount) throws IOException
+	{
+		this.shardCount = shardCount;
+		serverSocket = new ServerSocket(0, shardCount, InetAddress.getLoopbackAddress());
+		Thread acceptThread = new Thread("JSUnit shard collector")
+		{
+			@Override
+			public void run()
+			{
+				acceptShards();
+			}
+		};
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+	}
+
+	/**
+	 * @return the "host:port" the shards report to, see {@link JSUnitShardReporter#REPORT_PROPERTY}
+	 */
+	public String getAddress()
+	{
+		return serverSocket.getInetAddress().getHostAddress() + ':' + serverSocket.getLocalPort();
+	}
+
+	private void acceptShards()
+	{
+		while (!serverSocket.isClosed())
+		{
+			try
+			{
+				final Socket socket = serverSocket.accept();
+				synchronized (this)
+				{
+					sockets.add(socket);
+				}
+				Thread readThread = new Thread("JSUnit shard reader")
+				{
+					@Override
+					public void run()
+					{
+						readShard(socket);
+					}
+				};
+				readThread.setDaemon(true);
+				readThread.start();
+			}
+			catch (IOException e)
+			{
+				if (!serverSocket.isClosed()) ServoyLog.logError("Cannot accept a jsunit shard connection", e);
+			}
+		}
+	}
+
+	private void readShard(Socket socket)
+	{
+		int shardIndex = -1;
+		List<ShardEvent> testEvents = new ArrayList<ShardEvent>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream())))
+		{
+			shardIndex = in.readInt();
+			ShardTestTree testTree = new ShardTestTree();
+			int size = in.readInt();
+			for (int i = 0; i < size; i++)
+			{
+				testTree.names.add(JSUnitShardReporter.readString(in));
+				testTree.suites.add(Boolean.valueOf(in.readBoolean()));
+				testTree.parents.add(Integer.valueOf(in.readInt()));
+			}
+			synchronized (this)
+			{
+				testTrees.put(Integer.valueOf(shardIndex), testTree);
+				notifyAll();
+			}
+
+			while (true)
+			{
+				byte type = in.readByte();
+				if (type == JSUnitShardReporter.DONE) break;
+
+				int testIndex = in.readInt();
+				String testName = JSUnitShardReporter.readString(in);
+				long time = in.readLong();
+				Throwable throwable = null;
+				if (type == JSUnitShardReporter.FAILURE || type == JSUnitShardReporter.ERROR)
+				{
+					throwable = JSUnitShardReporter.readThrowable(in, type == JSUnitShardReporter.FAILURE);
+				}
+				testEvents.add(new ShardEvent(shardIndex, type, testIndex, testName, time, throwable));
+				if (type == JSUnitShardReporter.END_TEST)
+				{
+					events.add(testEvents);
+					testEvents = new ArrayList<ShardEvent>();
+				}
+			}
+		}
+		catch (EOFException e)
+		{
+			// the test client stopped before it was done
+			if (shardIndex != -1) testEvents.add(stoppedTooEarly(shardIndex, testEvents));
+		}
+		catch (IOException e)
+		{
+			if (!serverSocket.isClosed()) ServoyLog.logError("Cannot read the results of jsunit shard " + shardIndex, e);
+			if (shardIndex != -1) testEvents.add(stoppedTooEarly(shardIndex, testEvents));
+		}
+		finally
+		{
+			if (shardIndex != -1)
+			{
+				// the events of a test that did not end yet are still reported
+				testEvents.add(new ShardEvent(shardIndex, JSUnitShardReporter.DONE, -1, null, System.currentTimeMillis(), null));
+				events.add(testEvents);
+			}
+			synchronized (this)
+			{
+				doneShards.add(Integer.valueOf(shardIndex));
+				sockets.remove(socket);
+				notifyAll();
+			}
+		}
+	}
+
+	private static ShardEvent stoppedTooEarly(int shardIndex, List<ShardEvent> testEvents)
+	{
+		ShardEvent started = testEvents.size() > 0 ? testEvents.get(0) : null;
+		Exception e = new Exception("The test client of shard " + shardIndex + " stopped before its tests were done");
+		e.setStackTrace(new StackTraceElement[0]);
+		return new ShardEvent(shardIndex, JSUnitShardReporter.ERROR, started != null ? started.testIndex : -1,
+			started != null ? started.testName : "Shard " + shardIndex, System.currentTimeMillis(), e);
+	}
+
+	/**
+	 * Wait until all shards sent their test tree.
+	 *
+	 * @param timeout the time to wait in ms
+	 * @param cancelMonitor stops the wait when the launch is canceled
+	 *
+	 * @return true if all shards sent their test tree
+	 */
+	public synchronized boolean waitForTestTrees(long timeout, ICancelMonitor cancelMonitor)
+	{
+		long start = System.currentTimeMillis();
+		while (testTrees.size() < shardCount && System.currentTimeMillis() - start < timeout && !cancelMonitor.isCanceled())
+		{
+			try
+			{
+				wait(1000);
+			}
+			catch (InterruptedException e)
+			{
+				ServoyLog.logError(e);
+				break;
+			}
+		}
+		return testTrees.size() == shardCount;
+	}
+
+	/**
+	 * @param shardIndex the 1 based index of the shard
+	 * @return the test tree of the shard, null if it was not sent
+	 */
+	public synchronized ShardTestTree getTestTree(int shardIndex)
+	{
+		return testTrees.get(Integer.valueOf(shardIndex));
+	}
+
+	/**
+	 * @return true when all shards that sent their test tree are done and all their events are taken
+	 */
+	public synchronized boolean isDone()
+	{
+		return doneShards.containsAll(testTrees.keySet()) && events.isEmpty();
+	}
+
+	/**
+	 * Take the events of the next test that ended, they are in the order in which the shard sent them.
+	 *
+	 * @return the events, null if no test ended in the given time
+	 */
+	public List<ShardEvent> nextTestEvents(long timeout) throws InterruptedException
+	{
+		return events.poll(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop receiving results, also from the shards that are still running.
+	 */
+	public void close()
+	{
+		try
+		{
+			serverSocket.close();
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError(e);
+		}
+		List<Socket> openSockets;
+		synchronized (this)
+		{
+			openSockets = new ArrayList<Socket>(sockets);
+		}
+		for (Socket socket : openSockets)
+		{
+			try
+			{
+				socket.close();
+			}
+			catch (IOException e)
+			{
+				ServoyLog.logError(e);
+			}
+		}
+	}
+}
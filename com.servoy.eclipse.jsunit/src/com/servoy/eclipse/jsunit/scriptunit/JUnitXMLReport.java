@@ -0,0 +1,219 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.jsunit.scriptunit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestListener;
+import junit.framework.TestSuite;
+
+/**
+ * Test listener that writes the results of a test run as a JUnit XML report, with a testsuite element for every suite that directly contains tests.
+ *
+ * @since 2021.12
+ */
+public class JUnitXMLReport implements TestListener
+{
+	private static class TestCaseResult
+	{
+		final TestCase test;
+		final long start = System.currentTimeMillis();
+		long millis;
+		Throwable problem;
+		boolean failure;
+
+		TestCaseResult(TestCase test)
+		{
+			this.test = test;
+		}
+	}
+
+	private final TestSuite rootSuite;
+	private final Map<Test, TestSuite> parents = new IdentityHashMap<Test, TestSuite>();
+	private final Map<Test, TestCaseResult> results = new IdentityHashMap<Test, TestCaseResult>();
+	private final List<TestCaseResult> ended = new ArrayList<TestCaseResult>();
+	private final Map<Test, TestCaseResult> lastEnded = new IdentityHashMap<Test, TestCaseResult>();
+
+	public JUnitXMLReport(TestSuite rootSuite)
+	{
+		this.rootSuite = rootSuite;
+		collectParents(rootSuite);
+	}
+
+	private void collectParents(TestSuite suite)
+	{
+		Enumeration<Test> children = suite.tests();
+		while (children.hasMoreElements())
+		{
+			Test child = children.nextElement();
+			parents.put(child, suite);
+			if (child instanceof TestSuite) collectParents((TestSuite)child);
+		}
+	}
+
+	@Override
+	public synchronized void startTest(Test test)
+	{
+		if (test instanceof TestCase) results.put(test, new TestCaseResult((TestCase)test));
+	}
+
+	@Override
+	public synchronized void addError(Test test, Throwable t)
+	{
+		addProblem(test, t, false);
+	}
+
+	@Override
+	public synchronized void addFailure(Test test, AssertionFailedError t)
+	{
+		addProblem(test, t, true);
+	}
+
+	private void addProblem(Test test, Throwable t, boolean failure)
+	{
+		TestCaseResult result = results.get(test);
+		if (result != null && result.problem == null)
+		{
+			result.problem = t;
+			result.failure = failure;
+		}
+	}
+
+	@Override
+	public synchronized void endTest(Test test)
+	{
+		TestCaseResult result = results.remove(test);
+		if (result != null)
+		{
+			result.millis = System.currentTimeMillis() - result.start;
+			ended.add(result);
+			lastEnded.put(test, result);
+		}
+	}
+
+	/**
+	 * Set the duration of a test that ended, for tests that ran somewhere else and of which only the results are given to this listener.
+	 */
+	public synchronized void setDuration(Test test, long millis)
+	{
+		TestCaseResult result = lastEnded.get(test);
+		if (result != null) result.millis = millis;
+	}
+
+	/**
+	 * Write the report of the tests that ended.
+	 */
+	public synchronized void write(File file)
+	{
+		Map<TestSuite, List<TestCaseResult>> bySuite = new LinkedHashMap<TestSuite, List<TestCaseResult>>();
+		for (TestCaseResult result : ended)
+		{
+			TestSuite suite = parents.get(result.test);
+			bySuite.computeIfAbsent(suite != null ? suite : rootSuite, s -> new ArrayList<TestCaseResult>()).add(result);
+		}
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) parent.mkdirs();
+		try (OutputStream os = new FileOutputStream(file))
+		{
+			XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(os, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement("testsuites");
+			writer.writeAttribute("name", String.valueOf(rootSuite.getName()));
+			writeCounts(writer, ended);
+			for (Map.Entry<TestSuite, List<TestCaseResult>> entry : bySuite.entrySet())
+			{
+				writer.writeStartElement("testsuite");
+				writer.writeAttribute("name", String.valueOf(entry.getKey().getName()));
+				writeCounts(writer, entry.getValue());
+				for (TestCaseResult result : entry.getValue())
+				{
+					writer.writeStartElement("testcase");
+					writer.writeAttribute("classname", String.valueOf(entry.getKey().getName()));
+					writer.writeAttribute("name", String.valueOf(result.test.getName()));
+					writer.writeAttribute("time", seconds(result.millis));
+					if (result.problem != null)
+					{
+						writer.writeStartElement(result.failure ? "failure" : "error");
+						if (result.problem.getMessage() != null) writer.writeAttribute("message", result.problem.getMessage());
+						writer.writeAttribute("type", result.problem.getClass().getName());
+						StringWriter stackTrace = new StringWriter();
+						result.problem.printStackTrace(new PrintWriter(stackTrace));
+						writer.writeCharacters(stackTrace.toString());
+						writer.writeEndElement();
+					}
+					writer.writeEndElement();
+				}
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.close();
+		}
+		catch (IOException | XMLStreamException e)
+		{
+			ServoyLog.logError("Cannot write the JUnit report " + file, e);
+		}
+	}
+
+	private static void writeCounts(XMLStreamWriter writer, List<TestCaseResult> results) throws XMLStreamException
+	{
+		int failures = 0;
+		int errors = 0;
+		long millis = 0;
+		for (TestCaseResult result : results)
+		{
+			if (result.problem != null)
+			{
+				if (result.failure) failures++;
+				else errors++;
+			}
+			millis += result.millis;
+		}
+		writer.writeAttribute("tests", String.valueOf(results.size()));
+		writer.writeAttribute("failures", String.valueOf(failures));
+		writer.writeAttribute("errors", String.valueOf(errors));
+		writer.writeAttribute("time", seconds(millis));
+	}
+
+	private static String seconds(long millis)
+	{
+		return String.format(Locale.ROOT, "%.3f", Double.valueOf(millis / 1000d));
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.jsunit.scriptunit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.ILaunch;
+
+import com.servoy.eclipse.jsunit.Activator;
+import com.servoy.eclipse.jsunit.runner.JSUnitShardReporter;
+import com.servoy.eclipse.model.test.JSUnitShard;
+import com.servoy.eclipse.model.test.JSUnitTestDurations;
+import com.servoy.eclipse.model.test.TestTarget;
+import com.servoy.eclipse.model.util.ServoyLog;
+import com.servoy.eclipse.ui.preferences.DesignerPreferences;
+
+/**
+ * Runs the unit tests of the active solution in a number of headless test clients at the same time, each running one {@link JSUnitShard} of the tests.
+ * <p>
+ * Every test client is started with the configured command, which must start a headless test client of the active solution that runs the
+ * ApplicationJSTestSuite. The shard, the address to report the results to and the durations file are given to it as system properties in the
+ * JAVA_TOOL_OPTIONS environment variable. The results of all shards are shown as one test run and written to one JUnit XML report; the durations that the
+ * shards recorded are merged when they are done, so the next run splits the tests by duration.
+ *
+ * @since 2021.12
+ */
+public class RunShardedJSUnitTests extends RunJSUnitTests
+{
+	private static final String JAVA_TOOL_OPTIONS = "JAVA_TOOL_OPTIONS";
+	// the time the shards get to save their durations and stop after the test run
+	private static final int SHARD_EXIT_TIMEOUT = 10;
+
+	private final int shardCount;
+	private final String[] command;
+	private final File reportFile;
+	private final File durationsFile;
+	private final List<Process> processes = new ArrayList<Process>();
+	private JSUnitShardCollector collector;
+
+	/**
+	 * @param shardCount the number of test clients to start
+	 * @param command the command line that starts a headless test client
+	 * @param reportFile the file the JUnit XML report of all shards is written to
+	 */
+	public RunShardedJSUnitTests(TestTarget testTarget, ILaunch launch, IProgressMonitor monitor, int shardCount, String[] command, File reportFile)
+	{
+		super(testTarget, launch, monitor, false);
+		this.shardCount = shardCount;
+		this.command = command;
+		this.reportFile = reportFile;
+		this.durationsFile = new File(getStateLocation(), "jsunit-durations.properties");
+	}
+
+	private static File getStateLocation()
+	{
+		return Activator.getDefault().getStateLocation().toFile();
+	}
+
+	/**
+	 * @return the file the output of the test client of the shard is written to
+	 */
+	public static File getShardLogFile(int shardIndex)
+	{
+		return new File(getStateLocation(), "jsunit-shard" + shardIndex + ".log");
+	}
+
+	private File getShardDurationsFile(int shardIndex)
+	{
+		// the default output of a shard, see JSUnitTestDurations.fromSystemProperties
+		return new File(durationsFile.getPath() + ".shard" + shardIndex);
+	}
+
+	@Override
+	protected void prepareForTesting()
+	{
+		try
+		{
+			collector = new JSUnitShardCollector(shardCount);
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError("Cannot receive the results of the jsunit shards", e);
+			if (getLaunchMonitor() != null) getLaunchMonitor().setCanceled(true);
+			return;
+		}
+
+		String javaToolOptions = System.getenv(JAVA_TOOL_OPTIONS);
+		for (int shardIndex = 1; shardIndex <= shardCount; shardIndex++)
+		{
+			getShardDurationsFile(shardIndex).delete();
+
+			StringBuilder options = new StringBuilder(javaToolOptions != null ? javaToolOptions : "");
+			appendSystemProperty(options, JSUnitShard.SHARD_PROPERTY, shardIndex + "/" + shardCount);
+			appendSystemProperty(options, JSUnitShardReporter.REPORT_PROPERTY, collector.getAddress());
+			appendSystemProperty(options, JSUnitTestDurations.DURATIONS_PROPERTY, durationsFile.getAbsolutePath());
+
+			ProcessBuilder builder = new ProcessBuilder(command);
+			builder.environment().put(JAVA_TOOL_OPTIONS, options.toString());
+			builder.redirectErrorStream(true);
+			builder.redirectOutput(getShardLogFile(shardIndex));
+			try
+			{
+				processes.add(builder.start());
+			}
+			catch (IOException e)
+			{
+				// the shard is reported as not connected
+				ServoyLog.logError("Cannot start the test client of jsunit shard " + shardIndex, e);
+			}
+		}
+	}
+
+	private static void appendSystemProperty(StringBuilder options, String name, String value)
+	{
+		if (options.length() > 0) options.append(' ');
+		// the java 9+ launcher supports quoted values in JAVA_TOOL_OPTIONS
+		if (value.indexOf(' ') != -1 || value.indexOf('\t') != -1) options.append("\"-D").append(name).append('=').append(value).append('"');
+		else options.append("-D").append(name).append('=').append(value);
+	}
+
+	@Override
+	protected void initializeAndRun(int port)
+	{
+		try
+		{
+			long connectTimeout = Math.max(new DesignerPreferences().getTestClientLoadTimeout(), 5) * 1000L; // getTestClientLoadTimeout is in seconds
+			ShardedTestSuite.prepare(collector, shardCount, connectTimeout, reportFile, getScriptUnitRunnerClient(), getLaunchMonitor());
+			runJUnitClass(port, ShardedTestSuite.class);
+		}
+		finally
+		{
+			cleanUpAfterPrepare();
+		}
+	}
+
+	@Override
+	protected void cleanUpAfterPrepare()
+	{
+		long exitTimeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(SHARD_EXIT_TIMEOUT);
+		for (Process process : processes)
+		{
+			try
+			{
+				if (!process.waitFor(Math.max(exitTimeout - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS))
+				{
+					process.destroyForcibly();
+				}
+			}
+			catch (InterruptedException e)
+			{
+				ServoyLog.logError(e);
+				process.destroyForcibly();
+			}
+		}
+		processes.clear();
+		if (collector != null)
+		{
+			collector.close();
+			collector = null;
+
+			List<File> shardDurationsFiles = new ArrayList<File>();
+			for (int shardIndex = 1; shardIndex <= shardCount; shardIndex++)
+			{
+				shardDurationsFiles.add(getShardDurationsFile(shardIndex));
+			}
+			JSUnitTestDurations.merge(durationsFile, shardDurationsFiles);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.jsunit.scriptunit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.servoy.eclipse.jsunit.mobile.SuiteBridge.ICancelMonitor;
+import com.servoy.eclipse.jsunit.runner.DummyTestCase;
+import com.servoy.eclipse.jsunit.runner.JSUnitShardReporter;
+import com.servoy.eclipse.jsunit.runner.TestTreeHandler;
+import com.servoy.eclipse.jsunit.scriptunit.JSUnitShardCollector.ShardEvent;
+import com.servoy.eclipse.jsunit.scriptunit.JSUnitShardCollector.ShardTestTree;
+import com.servoy.eclipse.model.util.ServoyLog;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestResult;
+import junit.framework.TestSuite;
+
+/**
+ * Test suite of the shard test clients started by {@link RunShardedJSUnitTests}, it has the test tree of every shard as a child suite and replays the
+ * results that the shards send on the test result of the run.
+ *
+ * @since 2021.12
+ */
+public class ShardedTestSuite extends TestSuite
+{
+	private static JSUnitShardCollector staticCollector;
+	private static int staticShardCount;
+	private static long staticConnectTimeout;
+	private static File staticReportFile;
+	private static RemoteScriptUnitRunnerClient staticRemoteScriptUnitRunnerClient;
+	private static IProgressMonitor staticLaunchMonitor;
+
+	private final JSUnitShardCollector collector;
+	private final File reportFile;
+	private final RemoteScriptUnitRunnerClient remoteScriptUnitRunnerClient;
+	private final List<Test> testList = new ArrayList<Test>();
+	private final Map<Integer, List<Test>> shardTestLists = new HashMap<Integer, List<Test>>();
+	private final Map<Test, Integer> notConnected = new HashMap<Test, Integer>();
+
+	public ShardedTestSuite(JSUnitShardCollector collector, int shardCount, long connectTimeout, File reportFile,
+		RemoteScriptUnitRunnerClient remoteScriptUnitRunnerClient)
+	{
+		super("JSUnit shards");
+		this.collector = collector;
+		this.reportFile = reportFile;
+		this.remoteScriptUnitRunnerClient = remoteScriptUnitRunnerClient;
+
+		collector.waitForTestTrees(connectTimeout, new ICancelMonitor()
+		{
+			@Override
+			public boolean isCanceled()
+			{
+				return staticLaunchMonitor != null && staticLaunchMonitor.isCanceled();
+			}
+		});
+		for (int shardIndex = 1; shardIndex <= shardCount; shardIndex++)
+		{
+			ShardTestTree testTree = collector.getTestTree(shardIndex);
+			if (testTree != null)
+			{
+				shardTestLists.put(Integer.valueOf(shardIndex), createShardTests(shardIndex, shardCount, testTree));
+			}
+			else
+			{
+				TestSuite shardSuite = new TestSuite("Shard " + shardIndex + '/' + shardCount);
+				Test test = new DummyTestCase("Test client did not connect");
+				shardSuite.addTest(test);
+				addTest(shardSuite);
+				notConnected.put(test, Integer.valueOf(shardIndex));
+			}
+		}
+		testList.add(this);
+		new TestTreeHandler(null, this).fillTestListSequencialOrder(testList);
+	}
+
+	private List<Test> createShardTests(int shardIndex, int shardCount, ShardTestTree testTree)
+	{
+		// the tests are in sequential order, so a parent suite is always created before its children
+		List<Test> tests = new ArrayList<Test>(testTree.names.size());
+		for (int i = 0; i < testTree.names.size(); i++)
+		{
+			String name = testTree.names.get(i);
+			Test test;
+			if (i == 0)
+			{
+				test = new TestSuite(name + " (shard " + shardIndex + '/' + shardCount + ')');
+				addTest(test);
+			}
+			else
+			{
+				test = testTree.suites.get(i).booleanValue() ? new TestSuite(name) : new DummyTestCase(name);
+				((TestSuite)tests.get(testTree.parents.get(i).intValue())).addTest(test);
+			}
+			tests.add(test);
+		}
+		return tests;
+	}
+
+	public static void prepare(JSUnitShardCollector collector, int shardCount, long connectTimeout, File reportFile,
+		RemoteScriptUnitRunnerClient remoteScriptUnitRunnerClient, IProgressMonitor launchMonitor)
+	{
+		staticCollector = collector;
+		staticShardCount = shardCount;
+		staticConnectTimeout = connectTimeout;
+		staticReportFile = reportFile;
+		staticRemoteScriptUnitRunnerClient = remoteScriptUnitRunnerClient;
+		staticLaunchMonitor = launchMonitor;
+	}
+
+	public static Test suite()
+	{
+		return new ShardedTestSuite(staticCollector, staticShardCount, staticConnectTimeout, staticReportFile, staticRemoteScriptUnitRunnerClient);
+	}
+
+	@Override
+	public void run(TestResult result)
+	{
+		// so a stop from the ui also stops the wait for the shards
+		if (remoteScriptUnitRunnerClient != null) remoteScriptUnitRunnerClient.setTestResultReference(result);
+
+		result.addListener(new ScriptUnitTestRunNotifier(testList, result));
+		JUnitXMLReport report = new JUnitXMLReport(this);
+		result.addListener(report);
+		try
+		{
+			for (Map.Entry<Test, Integer> entry : notConnected.entrySet())
+			{
+				Test test = entry.getKey();
+				Exception e = new Exception(
+					"The test client of this shard did not connect, see " + RunShardedJSUnitTests.getShardLogFile(entry.getValue().intValue()));
+				e.setStackTrace(new StackTraceElement[0]);
+				result.startTest(test);
+				result.addError(test, e);
+				result.endTest(test);
+			}
+
+			while (!collector.isDone() && !result.shouldStop())
+			{
+				List<ShardEvent> testEvents = collector.nextTestEvents(1000);
+				if (testEvents != null) replay(testEvents, result, report);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			ServoyLog.logError(e);
+		}
+		finally
+		{
+			report.write(reportFile);
+		}
+	}
+
+	private void replay(List<ShardEvent> testEvents, TestResult result, JUnitXMLReport report)
+	{
+		List<Test> shardTests = testEvents.isEmpty() ? null : shardTestLists.get(Integer.valueOf(testEvents.get(0).shardIndex));
+		// a shard that connected after the wait for the test trees is not part of this run
+		if (shardTests == null) return;
+
+		Test started = null;
+		long startTime = 0;
+		for (ShardEvent event : testEvents)
+		{
+			if (event.type == JSUnitShardReporter.DONE)
+			{
+				if (started != null) result.endTest(started);
+				break;
+			}
+
+			Test test = event.testIndex >= 0 && event.testIndex < shardTests.size() ? shardTests.get(event.testIndex) : new DummyTestCase(event.testName);
+			if (event.type == JSUnitShardReporter.START_TEST)
+			{
+				started = test;
+				startTime = event.time;
+				result.startTest(test);
+			}
+			else if (event.type == JSUnitShardReporter.END_TEST)
+			{
+				result.endTest(test);
+				if (test == started) report.setDuration(test, event.time - startTime);
+				started = null;
+			}
+			else
+			{
+				if (started == null)
+				{
+					// a problem outside of a test, like the shard that stopped between two tests
+					result.startTest(test);
+					started = test;
+					startTime = event.time;
+				}
+				if (event.type == JSUnitShardReporter.FAILURE && event.throwable instanceof AssertionFailedError)
+				{
+					result.addFailure(test, (AssertionFailedError)event.throwable);
+				}
+				else
+				{
+					result.addError(test, event.throwable);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.builder;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.junit.Test;
+
+import com.servoy.eclipse.model.repository.SolutionSerializer;
+
+/**
+ * Tests which resource deltas the builder can check with {@link ServoyBuilderUtils.IncrementalChanges} instead of checking the changed resources one by one.
+ * The resources are only handles, the check only looks at their paths.
+ *
+ * @since 2021.12
+ */
+public class IncrementalChangesTest
+{
+	private final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject("solution");
+
+	private static List<IResource> resources(IResource... resources)
+	{
+		return Arrays.asList(resources);
+	}
+
+	@Test
+	public void persistFilesAreIncremental()
+	{
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(resources(project.getFile(SolutionSerializer.FORMS_DIR + "/orders" + SolutionSerializer.FORM_FILE_EXTENSION))));
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(resources(project.getFile(SolutionSerializer.FORMS_DIR + "/orders" + SolutionSerializer.JS_FILE_EXTENSION))));
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(resources(project.getFile(SolutionSerializer.MEDIAS_DIR + "/logo.png"))));
+		assertTrue(
+			ServoyBuilderUtils.isIncrementalDelta(resources(project.getFile(SolutionSerializer.VALUELISTS_DIR + "/countries" + SolutionSerializer.VALUELIST_FILE_EXTENSION))));
+		assertTrue(
+			ServoyBuilderUtils.isIncrementalDelta(resources(project.getFile(SolutionSerializer.RELATIONS_DIR + "/orders_to_customers" + SolutionSerializer.RELATION_FILE_EXTENSION))));
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(resources(project.getFile("globals" + SolutionSerializer.JS_FILE_EXTENSION))));
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(
+			resources(project.getFile(SolutionSerializer.DATASOURCES_DIR_NAME + "/example_data/orders" + SolutionSerializer.TABLENODE_FILE_EXTENSION))));
+	}
+
+	@Test
+	public void parentFoldersOfPersistFilesAreIncremental()
+	{
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(resources(project, project.getFolder(SolutionSerializer.FORMS_DIR),
+			project.getFile(SolutionSerializer.FORMS_DIR + "/orders" + SolutionSerializer.FORM_FILE_EXTENSION))));
+		assertTrue(ServoyBuilderUtils.isIncrementalDelta(resources(project.getFolder(SolutionSerializer.DATASOURCES_DIR_NAME),
+			project.getFolder(SolutionSerializer.DATASOURCES_DIR_NAME + "/example_data"),
+			project.getFile(SolutionSerializer.DATASOURCES_DIR_NAME + "/example_data/orders" + SolutionSerializer.TABLENODE_FILE_EXTENSION))));
+	}
+
+	@Test
+	public void deltaWithoutFilesIsNotIncremental()
+	{
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources(project, project.getFolder(SolutionSerializer.FORMS_DIR))));
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources()));
+	}
+
+	@Test
+	public void otherFilesAreNotIncremental()
+	{
+		IResource form = project.getFile(SolutionSerializer.FORMS_DIR + "/orders" + SolutionSerializer.FORM_FILE_EXTENSION);
+		// one other file makes the whole delta not incremental
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources(form, project.getFile(SolutionSerializer.ROOT_METADATA))));
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources(form, project.getFile(SolutionSerializer.FORMS_DIR + "/orders.txt"))));
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources(form, project.getFile("resources/orders" + SolutionSerializer.FORM_FILE_EXTENSION))));
+		assertFalse(
+			ServoyBuilderUtils.isIncrementalDelta(resources(form, project.getFile(SolutionSerializer.FORMS_DIR + "/sub/orders" + SolutionSerializer.FORM_FILE_EXTENSION))));
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources(form, project.getFolder("resources"))));
+		assertFalse(ServoyBuilderUtils.isIncrementalDelta(resources(form, project.getFolder(SolutionSerializer.FORMS_DIR + "/sub"))));
+	}
+
+	@Test
+	public void notIncrementalDeltaHasNoIncrementalChanges()
+	{
+		assertNull(ServoyBuilderUtils.getIncrementalChanges(resources(project.getFile(SolutionSerializer.ROOT_METADATA))));
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the diff that a {@link MarkerBuffer} makes between the markers it deletes and the markers it creates.
+ *
+ * @since 2021.12
+ */
+public class MarkerBufferTest
+{
+	private IProject project;
+	private IFile file;
+
+	@Before
+	public void createProject() throws CoreException
+	{
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("MarkerBufferTest");
+		project.create(null);
+		project.open(null);
+		file = project.getFile("form.frm");
+		file.create(new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), true, null);
+	}
+
+	@After
+	public void deleteProject() throws CoreException
+	{
+		MarkerBuffer.stop();
+		project.delete(true, true, null);
+	}
+
+	private IMarker createProblem(IResource resource, String message, int severity) throws CoreException
+	{
+		IMarker marker = resource.createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.MESSAGE, message);
+		marker.setAttribute(IMarker.SEVERITY, severity);
+		return marker;
+	}
+
+	private IMarker createBufferedProblem(MarkerBuffer buffer, IResource resource, String message, int severity) throws CoreException
+	{
+		IMarker marker = buffer.createMarker(resource, IMarker.PROBLEM);
+		marker.setAttribute(IMarker.MESSAGE, message);
+		marker.setAttribute(IMarker.SEVERITY, severity);
+		return marker;
+	}
+
+	private IMarker findProblem(IResource resource, String message) throws CoreException
+	{
+		for (IMarker marker : resource.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_ZERO))
+		{
+			if (message.equals(marker.getAttribute(IMarker.MESSAGE))) return marker;
+		}
+		return null;
+	}
+
+	@Test
+	public void keepsDeletesAndCreatesOnlyTheDifferences() throws CoreException
+	{
+		IMarker same = createProblem(file, "same problem", IMarker.SEVERITY_ERROR);
+		IMarker fixed = createProblem(file, "fixed problem", IMarker.SEVERITY_ERROR);
+		IMarker otherSeverity = createProblem(file, "severity changed", IMarker.SEVERITY_WARNING);
+
+		MarkerBuffer buffer = MarkerBuffer.start();
+		assertSame(buffer, MarkerBuffer.getCurrent());
+		buffer.deleteMarkers(project, IMarker.PROBLEM);
+		createBufferedProblem(buffer, file, "same problem", IMarker.SEVERITY_ERROR);
+		createBufferedProblem(buffer, file, "severity changed", IMarker.SEVERITY_ERROR);
+		createBufferedProblem(buffer, file, "new problem", IMarker.SEVERITY_ERROR);
+
+		// nothing changes in the workspace before the buffer is applied
+		assertTrue(fixed.exists());
+		assertNull(findProblem(file, "new problem"));
+
+		buffer.apply();
+
+		assertTrue("an equal marker is kept", same.exists());
+		assertEquals(same.getId(), findProblem(file, "same problem").getId());
+		assertFalse("a marker that is not created again is deleted", fixed.exists());
+		assertFalse("a marker with another severity is another problem", otherSeverity.exists());
+		assertEquals(Integer.valueOf(IMarker.SEVERITY_ERROR), findProblem(file, "severity changed").getAttribute(IMarker.SEVERITY));
+		assertNotEquals(otherSeverity.getId(), findProblem(file, "severity changed").getId());
+		assertTrue(findProblem(file, "new problem").exists());
+		assertEquals(3, file.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_ZERO).length);
+	}
+
+	@Test
+	public void deleteDropsTheBufferedMarkersOfTheResourceAndItsMembers() throws CoreException
+	{
+		MarkerBuffer buffer = MarkerBuffer.start();
+		createBufferedProblem(buffer, file, "file problem", IMarker.SEVERITY_ERROR);
+		createBufferedProblem(buffer, project, "project problem", IMarker.SEVERITY_ERROR);
+		buffer.deleteMarkers(file, IMarker.PROBLEM);
+		buffer.apply();
+
+		assertNull(findProblem(file, "file problem"));
+		assertTrue(findProblem(project, "project problem").exists());
+	}
+
+	@Test
+	public void deletedBufferedMarkerIsNotCreated() throws CoreException
+	{
+		MarkerBuffer buffer = MarkerBuffer.start();
+		createBufferedProblem(buffer, file, "deleted problem", IMarker.SEVERITY_ERROR).delete();
+		buffer.apply();
+
+		assertNull(findProblem(file, "deleted problem"));
+	}
+
+	@Test
+	public void subtypesAreDeletedWithTheirSuperType()
+	{
+		assertTrue(MarkerBuffer.isSubtypeOf(IMarker.PROBLEM, IMarker.PROBLEM));
+		assertTrue(MarkerBuffer.isSubtypeOf(IMarker.PROBLEM, IMarker.MARKER));
+		assertFalse(MarkerBuffer.isSubtypeOf(IMarker.MARKER, IMarker.PROBLEM));
+		assertFalse(MarkerBuffer.isSubtypeOf(IMarker.TASK, IMarker.PROBLEM));
+	}
+}
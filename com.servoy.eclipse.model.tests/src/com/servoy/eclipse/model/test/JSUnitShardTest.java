@@ -0,0 +1,146 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests how {@link JSUnitShard} splits the test cases of a solution.
+ *
+ * @since 2021.12
+ */
+public class JSUnitShardTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private JSUnitTestDurations durations(String... lines) throws IOException
+	{
+		File file = folder.newFile("durations.properties");
+		Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+		return new JSUnitTestDurations(file, new File(folder.getRoot(), "durations.properties.shard1"));
+	}
+
+	private static Map<String, Integer> testCases(Object... keysAndTests)
+	{
+		Map<String, Integer> testCases = new LinkedHashMap<String, Integer>();
+		for (int i = 0; i < keysAndTests.length; i += 2)
+		{
+			testCases.put((String)keysAndTests[i], (Integer)keysAndTests[i + 1]);
+		}
+		return testCases;
+	}
+
+	private static Set<String> set(String... keys)
+	{
+		return new HashSet<String>(Arrays.asList(keys));
+	}
+
+	@Test
+	public void parse()
+	{
+		JSUnitShard shard = JSUnitShard.parse(" 2 / 4 ");
+		assertEquals(2, shard.getIndex());
+		assertEquals(4, shard.getCount());
+		assertEquals("2/4", shard.toString());
+
+		for (String invalid : new String[] { "2", "/4", "0/2", "3/2", "1/0", "a/b" })
+		{
+			try
+			{
+				JSUnitShard.parse(invalid);
+				fail("'" + invalid + "' is not a valid shard");
+			}
+			catch (IllegalArgumentException e)
+			{
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void shardsSplitAllTestCasesOnce()
+	{
+		Map<String, Integer> testCases = testCases("forms.a", 3, "forms.b", 1, "forms.c", 7, "scopes.globals", 2, "scopes.util", 2, "forms.d", 5,
+			"forms.e", 1);
+		Set<String> all = new HashSet<String>();
+		int selectedCount = 0;
+		for (int index = 1; index <= 3; index++)
+		{
+			Set<String> selected = new JSUnitShard(index, 3).selectTestCases(testCases, null);
+			assertTrue("Shard " + index + " has no test cases", !selected.isEmpty());
+			all.addAll(selected);
+			selectedCount += selected.size();
+		}
+		assertEquals(testCases.keySet(), all);
+		assertEquals("A test case is selected by more than one shard", testCases.size(), selectedCount);
+	}
+
+	@Test
+	public void withoutDurationsTheNumberOfTestsIsTheWork()
+	{
+		// longest first to the shard with the least work: c(7) -> 1, a(3) -> 2, b(2) -> 2, d(1) -> 2
+		Map<String, Integer> testCases = testCases("a", 3, "b", 2, "c", 7, "d", 1);
+		assertEquals(set("c"), new JSUnitShard(1, 2).selectTestCases(testCases, null));
+		assertEquals(set("a", "b", "d"), new JSUnitShard(2, 2).selectTestCases(testCases, null));
+	}
+
+	@Test
+	public void recordedDurationsAreTheWork() throws IOException
+	{
+		// a(100) -> 1, b(60) -> 2, c(50) -> 2, d(10) -> 1
+		JSUnitTestDurations durations = durations("a=100", "b=60", "c=50", "d=10");
+		Map<String, Integer> testCases = testCases("a", 1, "b", 1, "c", 10, "d", 10);
+		assertEquals(set("a", "d"), new JSUnitShard(1, 2).selectTestCases(testCases, durations));
+		assertEquals(set("b", "c"), new JSUnitShard(2, 2).selectTestCases(testCases, durations));
+	}
+
+	@Test
+	public void testCaseWithoutDurationUsesTheAverageTestDuration() throws IOException
+	{
+		// the average of the test cases of the suite is 19ms per test, so new(10 tests) is 190: new -> 1, a(150) -> 2, b(40) -> 2
+		JSUnitTestDurations durations = durations("a=150", "b=40", "removed=10");
+		Map<String, Integer> testCases = testCases("a", 5, "b", 5, "new", 10);
+		assertEquals(set("new"), new JSUnitShard(1, 2).selectTestCases(testCases, durations));
+		assertEquals(set("a", "b"), new JSUnitShard(2, 2).selectTestCases(testCases, durations));
+	}
+
+	@Test
+	public void equalWorkIsOrderedByKey()
+	{
+		Map<String, Integer> testCases = testCases("b", 1, "a", 1);
+		assertEquals(set("a"), new JSUnitShard(1, 2).selectTestCases(testCases, null));
+		assertEquals(set("b"), new JSUnitShard(2, 2).selectTestCases(testCases, null));
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.war.exporter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.junit.Test;
+
+/**
+ * Tests the order in which {@link WarExportStages} runs the stages of a war export.
+ *
+ * @since 2021.12
+ */
+public class WarExportStagesTest
+{
+	private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+	private WarExportStages.StageAction record(String name)
+	{
+		return monitor -> {
+			events.add("start " + name);
+			events.add("end " + name);
+		};
+	}
+
+	private void assertBefore(String first, String second)
+	{
+		assertTrue(first + " should be before " + second + " in " + events, events.indexOf(first) != -1 && events.indexOf(first) < events.indexOf(second));
+	}
+
+	private static SubMonitor monitor()
+	{
+		return SubMonitor.convert(new NullProgressMonitor());
+	}
+
+	@Test
+	public void stageStartsAfterItsDependencies() throws ExportException
+	{
+		WarExportStages stages = new WarExportStages();
+		stages.add("copy", 1, record("copy"));
+		stages.add("plugins", 1, record("plugins"));
+		stages.add("web.xml", 1, record("web.xml"), "copy");
+		stages.add("zip", 1, record("zip"), "copy", "plugins", "web.xml");
+		stages.run(monitor(), 4);
+
+		assertEquals(8, events.size());
+		assertBefore("end copy", "start web.xml");
+		assertBefore("end copy", "start zip");
+		assertBefore("end plugins", "start zip");
+		assertBefore("end web.xml", "start zip");
+	}
+
+	@Test
+	public void independentStagesRunAtTheSameTime() throws ExportException
+	{
+		// each stage waits for the other one to start, that only finishes when they run in parallel
+		CountDownLatch started = new CountDownLatch(2);
+		WarExportStages.StageAction waitForOther = monitor -> {
+			started.countDown();
+			try
+			{
+				if (!started.await(10, TimeUnit.SECONDS)) throw new ExportException("The other stage did not start");
+			}
+			catch (InterruptedException e)
+			{
+				throw new ExportException("Interrupted", e);
+			}
+		};
+		WarExportStages stages = new WarExportStages();
+		stages.add("first", 1, waitForOther);
+		stages.add("second", 1, waitForOther);
+		stages.run(monitor(), 2);
+	}
+
+	@Test
+	public void dependencyThatIsNotAddedIsIgnored() throws ExportException
+	{
+		WarExportStages stages = new WarExportStages();
+		stages.add("zip", 1, record("zip"), "not part of this export");
+		stages.run(monitor(), 2);
+
+		assertEquals(Arrays.asList("start zip", "end zip"), events);
+	}
+
+	@Test
+	public void failedStageStopsItsDependents()
+	{
+		ExportException failure = new ExportException("copy failed");
+		WarExportStages stages = new WarExportStages();
+		stages.add("copy", 1, monitor -> {
+			throw failure;
+		});
+		stages.add("plugins", 1, record("plugins"));
+		stages.add("zip", 1, record("zip"), "copy", "plugins");
+		try
+		{
+			stages.run(monitor(), 2);
+			fail("The failure of the copy stage should be thrown");
+		}
+		catch (ExportException e)
+		{
+			assertSame(failure, e);
+		}
+		assertFalse(events.contains("start zip"));
+	}
+
+	@Test
+	public void otherExceptionIsWrapped()
+	{
+		WarExportStages stages = new WarExportStages();
+		stages.add("copy", 1, monitor -> {
+			throw new IllegalStateException("no disk space");
+		});
+		try
+		{
+			stages.run(monitor(), 1);
+			fail("The failure of the copy stage should be thrown");
+		}
+		catch (ExportException e)
+		{
+			assertTrue(e.getMessage(), e.getMessage().contains("'copy'"));
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void currentStageIndexIsTheAddOrder() throws ExportException
+	{
+		int[] indexes = new int[2];
+		WarExportStages stages = new WarExportStages();
+		stages.add("first", 1, monitor -> indexes[0] = WarExportStages.getCurrentStageIndex());
+		stages.add("second", 1, monitor -> indexes[1] = WarExportStages.getCurrentStageIndex(), "first");
+		stages.run(monitor(), 2);
+
+		assertEquals(0, indexes[0]);
+		assertEquals(1, indexes[1]);
+		assertEquals(Integer.MAX_VALUE, WarExportStages.getCurrentStageIndex());
+	}
+}
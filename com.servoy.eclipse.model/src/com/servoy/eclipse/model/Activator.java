@@ -26,6 +26,7 @@ import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.osgi.framework.BundleContext;
 
+import com.servoy.eclipse.model.builder.BuilderDependencies;
 import com.servoy.eclipse.model.util.ServoyLog;
 import com.servoy.j2db.IApplication;
 
@@ -65,6 +66,14 @@ public class Activator extends Plugin
 	@Override
 	public void stop(BundleContext context) throws Exception
 	{
+		try
+		{
+			BuilderDependencies.getInstance().save();
+		}
+		catch (Exception e)
+		{
+			ServoyLog.logError(e);
+		}
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,177 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.model.builder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A marker that is not yet created on its resource, it only keeps the attributes that are set on it.
+ * Used by the {@link MarkerBuffer} when the problems are collected before the markers of the workspace are changed.
+ */
+class BufferedMarker implements IMarker
+{
+	private final IResource resource;
+	private final String type;
+	private final long creationTime = System.currentTimeMillis();
+	private final Map<String, Object> attributes = new HashMap<String, Object>();
+	private boolean deleted;
+
+	BufferedMarker(IResource resource, String type)
+	{
+		this.resource = resource;
+		this.type = type;
+	}
+
+	public <T> T getAdapter(Class<T> adapter)
+	{
+		return null;
+	}
+
+	public void delete() throws CoreException
+	{
+		deleted = true;
+	}
+
+	boolean isDeleted()
+	{
+		return deleted;
+	}
+
+	public boolean exists()
+	{
+		return false;
+	}
+
+	public Object getAttribute(String attributeName) throws CoreException
+	{
+		return attributes.get(attributeName);
+	}
+
+	public int getAttribute(String attributeName, int defaultValue)
+	{
+		Object value = attributes.get(attributeName);
+		return value instanceof Integer ? ((Integer)value).intValue() : defaultValue;
+	}
+
+	public String getAttribute(String attributeName, String defaultValue)
+	{
+		Object value = attributes.get(attributeName);
+		return value instanceof String ? (String)value : defaultValue;
+	}
+
+	public boolean getAttribute(String attributeName, boolean defaultValue)
+	{
+		Object value = attributes.get(attributeName);
+		return value instanceof Boolean ? ((Boolean)value).booleanValue() : defaultValue;
+	}
+
+	public Map<String, Object> getAttributes() throws CoreException
+	{
+		return new HashMap<String, Object>(attributes);
+	}
+
+	public Object[] getAttributes(String[] attributeNames) throws CoreException
+	{
+		Object[] values = new Object[attributeNames.length];
+		for (int i = 0; i < attributeNames.length; i++)
+		{
+			values[i] = attributes.get(attributeNames[i]);
+		}
+		return values;
+	}
+
+	public long getCreationTime() throws CoreException
+	{
+		return creationTime;
+	}
+
+	public long getId()
+	{
+		return -1;
+	}
+
+	public IResource getResource()
+	{
+		return resource;
+	}
+
+	public String getType() throws CoreException
+	{
+		return type;
+	}
+
+	String getMarkerType()
+	{
+		return type;
+	}
+
+	Map<String, Object> getBufferedAttributes()
+	{
+		return attributes;
+	}
+
+	public boolean isSubtypeOf(String superType) throws CoreException
+	{
+		return MarkerBuffer.isSubtypeOf(type, superType);
+	}
+
+	public void setAttribute(String attributeName, int value) throws CoreException
+	{
+		attributes.put(attributeName, Integer.valueOf(value));
+	}
+
+	public void setAttribute(String attributeName, Object value) throws CoreException
+	{
+		if (value == null) attributes.remove(attributeName);
+		else attributes.put(attributeName, value);
+	}
+
+	public void setAttribute(String attributeName, boolean value) throws CoreException
+	{
+		attributes.put(attributeName, Boolean.valueOf(value));
+	}
+
+	public void setAttributes(String[] attributeNames, Object[] values) throws CoreException
+	{
+		for (int i = 0; i < attributeNames.length; i++)
+		{
+			setAttribute(attributeNames[i], values[i]);
+		}
+	}
+
+	public void setAttributes(Map<String, ? extends Object> map) throws CoreException
+	{
+		attributes.clear();
+		if (map != null) attributes.putAll(map);
+	}
+
+	/**
+	 * Create the real marker, must be called in a workspace operation.
+	 */
+	IMarker create() throws CoreException
+	{
+		IMarker marker = resource.createMarker(type);
+		marker.setAttributes(attributes);
+		return marker;
+	}
+}
@@ -17,17 +17,39 @@
 
 package com.servoy.eclipse.model.builder;
 
+import java.io.File;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
+import java.util.function.Function;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.servoy.eclipse.model.Activator;
+import com.servoy.eclipse.model.ServoyModelFinder;
+import com.servoy.eclipse.model.extensions.IServoyModel;
+import com.servoy.eclipse.model.nature.ServoyProject;
+import com.servoy.eclipse.model.util.ServoyLog;
 import com.servoy.j2db.persistence.Form;
 import com.servoy.j2db.persistence.IPersist;
+import com.servoy.j2db.persistence.IPersistVisitor;
 import com.servoy.j2db.persistence.Media;
 import com.servoy.j2db.persistence.Relation;
+import com.servoy.j2db.persistence.Solution;
 import com.servoy.j2db.persistence.ValueList;
+import com.servoy.j2db.util.Utils;
 
 /**
  * @author lvostinar
@@ -46,6 +68,16 @@ public class BuilderDependencies
 	private Map<String, List<IPersist>> scopeToPersists;
 	private Map<String, List<IPersist>> datasourceToPersists;
 
+
+	// version of the on disk format, snapshots with another version are ignored
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final String SNAPSHOT_FILE = "builder_dependencies.json";
+	private static final long SAVE_DELAY = 5 * 60 * 1000;
+
+	// set when the dependencies changed since they were last saved or loaded
+	private volatile boolean dirty;
+	private WorkspaceJob saveJob;
+
 	private BuilderDependencies()
 	{
 	}
@@ -55,15 +87,126 @@ public class BuilderDependencies
 		return me;
 	}
 
-	// same as settings, load/save from disk
-	public void save()
+	/**
+	 * Writes the dependencies of the active solution to the state location of the plugin, together with a fingerprint of the active solution and its modules.
+	 * When the dependencies are not initialized the snapshot is removed so that a next startup will do a full build.
+	 */
+	public synchronized void save()
 	{
-		//TODO
+		File snapshotFile = getSnapshotFile();
+		if (snapshotFile == null) return;
+		if (!isInitialized())
+		{
+			if (snapshotFile.exists()) snapshotFile.delete();
+			dirty = false;
+			return;
+		}
+		if (!dirty && snapshotFile.exists()) return;
+		String fingerprint = getFingerprint();
+		if (fingerprint == null)
+		{
+			if (snapshotFile.exists()) snapshotFile.delete();
+			return;
+		}
+		try
+		{
+			JSONObject snapshot = new JSONObject();
+			snapshot.put("version", SNAPSHOT_VERSION);
+			snapshot.put("fingerprint", fingerprint);
+			snapshot.put("mediaToForms", toJSON(mediaToForms, (media) -> media.getUUID().toString()));
+			snapshot.put("valuelistToForms", toJSON(valuelistToForms, (valuelist) -> valuelist.getUUID().toString()));
+			snapshot.put("relationToPersists", toJSON(relationToPersists, (relation) -> relation.getUUID().toString()));
+			snapshot.put("formDependencies", toJSON(formDependencies, (form) -> form.getUUID().toString()));
+			snapshot.put("formToFormsDependencies", toJSON(formToFormsDependencies, (form) -> form.getUUID().toString()));
+			snapshot.put("scopeToPersists", toJSON(scopeToPersists, (scopeName) -> scopeName));
+			snapshot.put("datasourceToPersists", toJSON(datasourceToPersists, (datasource) -> datasource));
+			// write to a temp file first so a crash during the save doesn't leave a half written snapshot
+			File tmpFile = new File(snapshotFile.getParentFile(), SNAPSHOT_FILE + ".tmp");
+			Utils.writeTXTFile(tmpFile, snapshot.toString(), Charset.forName("UTF8"));
+			if (snapshotFile.exists()) snapshotFile.delete();
+			if (tmpFile.renameTo(snapshotFile))
+			{
+				dirty = false;
+			}
+		}
+		catch (Exception e)
+		{
+			ServoyLog.logError("Could not save the builder dependencies", e);
+		}
 	}
 
-	public void load()
+	/**
+	 * Reads the dependencies that were saved by {@link #save()}. The snapshot is only used when it has the current version and when the fingerprint of the active solution
+	 * and its modules is still the same, otherwise the dependencies stay uninitialized (and a full build will be done).
+	 */
+	public synchronized void load()
 	{
-		//TODO
+		File snapshotFile = getSnapshotFile();
+		if (snapshotFile == null || !snapshotFile.exists()) return;
+		try
+		{
+			JSONObject snapshot = new JSONObject(Utils.getTXTFileContent(snapshotFile, Charset.forName("UTF8")));
+			if (snapshot.optInt("version") != SNAPSHOT_VERSION) return;
+			String fingerprint = getFingerprint();
+			if (fingerprint == null || !fingerprint.equals(snapshot.optString("fingerprint"))) return;
+
+			Map<String, IPersist> persists = getPersistsByUUID();
+			Map<Media, List<Form>> loadedMediaToForms = fromJSON(snapshot.optJSONObject("mediaToForms"), persists, Media.class, Form.class);
+			Map<ValueList, List<Form>> loadedValuelistToForms = fromJSON(snapshot.optJSONObject("valuelistToForms"), persists, ValueList.class, Form.class);
+			Map<Relation, List<IPersist>> loadedRelationToPersists = fromJSON(snapshot.optJSONObject("relationToPersists"), persists, Relation.class,
+				IPersist.class);
+			Map<Form, List<IPersist>> loadedFormDependencies = fromJSON(snapshot.optJSONObject("formDependencies"), persists, Form.class, IPersist.class);
+			Map<Form, List<Form>> loadedFormToFormsDependencies = fromJSON(snapshot.optJSONObject("formToFormsDependencies"), persists, Form.class,
+				Form.class);
+			Map<String, List<IPersist>> loadedScopeToPersists = fromJSON(snapshot.optJSONObject("scopeToPersists"), persists, String.class, IPersist.class);
+			Map<String, List<IPersist>> loadedDatasourceToPersists = fromJSON(snapshot.optJSONObject("datasourceToPersists"), persists, String.class,
+				IPersist.class);
+			if (loadedMediaToForms == null || loadedValuelistToForms == null || loadedRelationToPersists == null || loadedFormDependencies == null ||
+				loadedFormToFormsDependencies == null || loadedScopeToPersists == null || loadedDatasourceToPersists == null)
+			{
+				// a persist of the snapshot doesn't exist anymore, don't trust it
+				return;
+			}
+			mediaToForms = loadedMediaToForms;
+			valuelistToForms = loadedValuelistToForms;
+			relationToPersists = loadedRelationToPersists;
+			formDependencies = loadedFormDependencies;
+			formToFormsDependencies = loadedFormToFormsDependencies;
+			scopeToPersists = loadedScopeToPersists;
+			datasourceToPersists = loadedDatasourceToPersists;
+			dirty = false;
+		}
+		catch (Exception e)
+		{
+			ServoyLog.logError("Could not load the builder dependencies, a full build will be done", e);
+		}
+	}
+
+	/**
+	 * Saves the dependencies a while after a build, multiple builds in that time result in one save.
+	 */
+	public synchronized void scheduleSave()
+	{
+		if (!dirty || !isInitialized()) return;
+		if (saveJob == null)
+		{
+			saveJob = new WorkspaceJob("Saving builder dependencies")
+			{
+				@Override
+				public IStatus runInWorkspace(IProgressMonitor monitor)
+				{
+					save();
+					return Status.OK_STATUS;
+				}
+			};
+			saveJob.setSystem(true);
+			// don't run at the same time as a build, that one changes the dependencies
+			saveJob.setRule(ResourcesPlugin.getWorkspace().getRoot());
+		}
+		if (saveJob.getState() == WorkspaceJob.NONE)
+		{
+			saveJob.schedule(SAVE_DELAY);
+		}
 	}
 
 	public void clear()
@@ -75,6 +218,147 @@ public class BuilderDependencies
 		scopeToPersists = null;
 		formToFormsDependencies = null;
 		datasourceToPersists = null;
+		dirty = true;
+	}
+
+	private static File getSnapshotFile()
+	{
+		Activator activator = Activator.getDefault();
+		if (activator == null) return null;
+		return new File(activator.getStateLocation().toFile(), SNAPSHOT_FILE);
+	}
+
+	/**
+	 * A hash over the active solution, its modules, the resources project and the size and modification time of all the files in those projects.
+	 */
+	private static String getFingerprint()
+	{
+		IServoyModel servoyModel = ServoyModelFinder.getServoyModel();
+		if (servoyModel == null || servoyModel.getActiveProject() == null) return null;
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(("v" + SNAPSHOT_VERSION + ";" + servoyModel.getActiveProject().getProject().getName()).getBytes("UTF8"));
+			ServoyProject[] modules = servoyModel.getModulesOfActiveProject();
+			List<File> projectDirs = new ArrayList<File>();
+			for (ServoyProject module : modules)
+			{
+				projectDirs.add(module.getProject().getLocation().toFile());
+			}
+			if (servoyModel.getActiveResourcesProject() != null)
+			{
+				projectDirs.add(servoyModel.getActiveResourcesProject().getProject().getLocation().toFile());
+			}
+			projectDirs.sort((dir1, dir2) -> dir1.getName().compareTo(dir2.getName()));
+			for (File projectDir : projectDirs)
+			{
+				digest.update((";" + projectDir.getName()).getBytes("UTF8"));
+				updateFingerprint(digest, projectDir, "");
+			}
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest.digest())
+			{
+				sb.append(String.format("%02x", Byte.valueOf(b)));
+			}
+			return sb.toString();
+		}
+		catch (Exception e)
+		{
+			ServoyLog.logError(e);
+			return null;
+		}
+	}
+
+	private static void updateFingerprint(MessageDigest digest, File dir, String path) throws Exception
+	{
+		File[] files = dir.listFiles();
+		if (files == null) return;
+		Arrays.sort(files);
+		for (File file : files)
+		{
+			// skip things like .git, .svn and .settings
+			if (file.getName().startsWith(".") && file.isDirectory()) continue;
+			String filePath = path + '/' + file.getName();
+			if (file.isDirectory())
+			{
+				updateFingerprint(digest, file, filePath);
+			}
+			else
+			{
+				digest.update((filePath + ':' + file.length() + ':' + file.lastModified() + ';').getBytes("UTF8"));
+			}
+		}
+	}
+
+	private static Map<String, IPersist> getPersistsByUUID()
+	{
+		final Map<String, IPersist> persists = new HashMap<String, IPersist>();
+		for (ServoyProject module : ServoyModelFinder.getServoyModel().getModulesOfActiveProject())
+		{
+			Solution solution = module.getSolution();
+			if (solution != null)
+			{
+				solution.acceptVisitor(new IPersistVisitor()
+				{
+					public Object visit(IPersist o)
+					{
+						persists.put(o.getUUID().toString(), o);
+						return IPersistVisitor.CONTINUE_TRAVERSAL;
+					}
+				});
+			}
+		}
+		return persists;
+	}
+
+	private static <K, V extends IPersist> JSONObject toJSON(Map<K, List<V>> map, Function<K, String> keyConverter) throws JSONException
+	{
+		JSONObject json = new JSONObject();
+		if (map != null)
+		{
+			for (Map.Entry<K, List<V>> entry : map.entrySet())
+			{
+				JSONArray uuids = new JSONArray();
+				for (V persist : entry.getValue())
+				{
+					uuids.put(persist.getUUID().toString());
+				}
+				json.put(keyConverter.apply(entry.getKey()), uuids);
+			}
+		}
+		return json;
+	}
+
+	/**
+	 * @return null if a uuid of the json could not be resolved to a persist of the expected type.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Map<K, List<V>> fromJSON(JSONObject json, Map<String, IPersist> persists, Class<K> keyType, Class<V> valueType)
+		throws JSONException
+	{
+		Map<K, List<V>> map = new HashMap<K, List<V>>();
+		if (json == null) return map;
+		Iterator<String> keys = json.keys();
+		while (keys.hasNext())
+		{
+			String key = keys.next();
+			Object mapKey = key;
+			if (keyType != String.class)
+			{
+				mapKey = persists.get(key);
+				if (!keyType.isInstance(mapKey)) return null;
+			}
+			JSONArray uuids = json.getJSONArray(key);
+			List<V> values = new ArrayList<V>(uuids.length());
+			for (int i = 0; i < uuids.length(); i++)
+			{
+				IPersist persist = persists.get(uuids.getString(i));
+				if (!valueType.isInstance(persist)) return null;
+				values.add((V)persist);
+			}
+			map.put((K)mapKey, values);
+		}
+		return map;
 	}
 
 	public boolean isInitialized()
@@ -85,10 +369,12 @@ public class BuilderDependencies
 	public void initialize()
 	{
 		mediaToForms = new HashMap<Media, List<Form>>();
+		dirty = true;
 	}
 
 	public void removeForm(Form form)
 	{
+		dirty = true;
 		if (formDependencies != null)
 		{
 			List<IPersist> dependencies = formDependencies.remove(form);
@@ -158,6 +444,7 @@ public class BuilderDependencies
 
 	public void addDependency(Form form, ValueList valuelist)
 	{
+		dirty = true;
 		if (valuelistToForms == null)
 		{
 			valuelistToForms = new HashMap<>();
@@ -185,6 +472,7 @@ public class BuilderDependencies
 
 	public void addDependency(IPersist persist, Relation relation)
 	{
+		dirty = true;
 		if (relationToPersists == null)
 		{
 			relationToPersists = new HashMap<>();
@@ -215,6 +503,7 @@ public class BuilderDependencies
 
 	public void addDependency(Form form, Media media)
 	{
+		dirty = true;
 		if (mediaToForms == null)
 		{
 			mediaToForms = new HashMap<>();
@@ -242,6 +531,7 @@ public class BuilderDependencies
 
 	public void addDependency(String scopeName, IPersist persist)
 	{
+		dirty = true;
 		if (scopeName != null)
 		{
 			if (scopeToPersists == null)
@@ -260,6 +550,7 @@ public class BuilderDependencies
 
 	public void addDatasourceDependency(String datasource, IPersist persist)
 	{
+		dirty = true;
 		if (datasource != null)
 		{
 			if (datasourceToPersists == null)
@@ -278,6 +569,7 @@ public class BuilderDependencies
 
 	public void addDependency(Form source, Form destination)
 	{
+		dirty = true;
 		if (formToFormsDependencies == null)
 		{
 			formToFormsDependencies = new HashMap<>();
@@ -305,11 +597,13 @@ public class BuilderDependencies
 
 	public void removeScopeDependencies(String scopeName)
 	{
+		dirty = true;
 		if (scopeToPersists != null) scopeToPersists.remove(scopeName);
 	}
 
 	public void removeDatasourceDependencies(String datasource)
 	{
+		dirty = true;
 		if (datasourceToPersists != null) datasourceToPersists.remove(datasource);
 	}
 
@@ -0,0 +1,311 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.model.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Platform;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+import com.servoy.j2db.util.Debug;
+import com.servoy.j2db.util.Pair;
+
+/**
+ * Collects the marker changes that the builder makes on the current thread, instead of changing the markers of the workspace directly.
+ * <p>
+ * When the buffer of a build is applied the new markers are compared with the existing markers that were deleted,
+ * markers that are the same (type, message, location, severity and position) are kept so only the real differences are changed in the workspace
+ * in one operation (instead of a marker delta for every delete and create).
+ * <p>
+ * The deletes are only done when the buffer is applied, so markers of the builder types must not be created directly on the resources while a buffer
+ * is active, they should all be created through {@link ServoyBuilder#createMarker(IResource, String)}.
+ */
+class MarkerBuffer
+{
+	private static final ThreadLocal<MarkerBuffer> currentBuffer = new ThreadLocal<MarkerBuffer>();
+
+	private static Map<String, Set<String>> markerSuperTypes;
+
+	private final Set<Pair<IResource, String>> deletedMarkers = new LinkedHashSet<Pair<IResource, String>>();
+	// the created markers by the full path of their resource and by their type
+	private final TreeMap<String, Map<String, List<BufferedMarker>>> createdMarkers = new TreeMap<String, Map<String, List<BufferedMarker>>>();
+
+	/**
+	 * @return the buffer of the current thread, null if markers should be changed directly.
+	 */
+	static MarkerBuffer getCurrent()
+	{
+		return currentBuffer.get();
+	}
+
+	/**
+	 * Start buffering the marker changes of the current thread.
+	 */
+	static MarkerBuffer start()
+	{
+		MarkerBuffer buffer = new MarkerBuffer();
+		currentBuffer.set(buffer);
+		return buffer;
+	}
+
+	/**
+	 * Stop buffering the marker changes of the current thread.
+	 */
+	static void stop()
+	{
+		currentBuffer.remove();
+	}
+
+	IMarker createMarker(IResource resource, String type)
+	{
+		BufferedMarker marker = new BufferedMarker(resource, type);
+		Map<String, List<BufferedMarker>> resourceMarkers = createdMarkers.get(resource.getFullPath().toString());
+		if (resourceMarkers == null)
+		{
+			resourceMarkers = new LinkedHashMap<String, List<BufferedMarker>>();
+			createdMarkers.put(resource.getFullPath().toString(), resourceMarkers);
+		}
+		List<BufferedMarker> markers = resourceMarkers.get(type);
+		if (markers == null)
+		{
+			markers = new ArrayList<BufferedMarker>();
+			resourceMarkers.put(type, markers);
+		}
+		markers.add(marker);
+		return marker;
+	}
+
+	/**
+	 * Record the delete of the markers of the given type on the resource (and its members), markers that were buffered before for that are dropped.
+	 */
+	void deleteMarkers(IResource resource, String type)
+	{
+		deletedMarkers.add(new Pair<IResource, String>(resource, type));
+		String path = resource.getFullPath().toString();
+		if (resource.getFullPath().segmentCount() == 0)
+		{
+			// the workspace root
+			deleteMarkers(createdMarkers, type);
+		}
+		else
+		{
+			deleteMarkers(createdMarkers.subMap(path, true, path, true), type);
+			// the members of the resource, '0' is the character after '/'
+			deleteMarkers(createdMarkers.subMap(path + '/', path + '0'), type);
+		}
+	}
+
+	private static void deleteMarkers(SortedMap<String, Map<String, List<BufferedMarker>>> markersByPath, String type)
+	{
+		Iterator<Map<String, List<BufferedMarker>>> paths = markersByPath.values().iterator();
+		while (paths.hasNext())
+		{
+			Map<String, List<BufferedMarker>> resourceMarkers = paths.next();
+			Iterator<String> types = resourceMarkers.keySet().iterator();
+			while (types.hasNext())
+			{
+				if (isSubtypeOf(types.next(), type)) types.remove();
+			}
+			if (resourceMarkers.isEmpty()) paths.remove();
+		}
+	}
+
+	boolean isEmpty()
+	{
+		return createdMarkers.isEmpty() && deletedMarkers.isEmpty();
+	}
+
+	/**
+	 * Apply the changes of this buffer in one workspace operation.
+	 * The existing markers that should be deleted are matched with the new markers, only the ones that don't match are deleted and
+	 * only the new markers that have no match are created.
+	 */
+	void apply() throws CoreException
+	{
+		if (isEmpty()) return;
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable()
+		{
+			public void run(IProgressMonitor monitor) throws CoreException
+			{
+				long time = System.currentTimeMillis();
+				Map<List<Object>, List<IMarker>> existingMarkers = new HashMap<List<Object>, List<IMarker>>();
+				Set<IMarker> foundMarkers = new HashSet<IMarker>();
+				for (Pair<IResource, String> deleted : deletedMarkers)
+				{
+					IResource resource = deleted.getLeft();
+					if (!resource.exists() || !resource.getProject().isOpen()) continue;
+					for (IMarker marker : resource.findMarkers(deleted.getRight(), true, IResource.DEPTH_INFINITE))
+					{
+						if (foundMarkers.add(marker))
+						{
+							List<Object> key = getKey(marker.getResource(), marker.getType(), marker.getAttributes());
+							List<IMarker> markers = existingMarkers.get(key);
+							if (markers == null)
+							{
+								markers = new ArrayList<IMarker>(1);
+								existingMarkers.put(key, markers);
+							}
+							markers.add(marker);
+						}
+					}
+				}
+
+				int kept = 0;
+				int updated = 0;
+				List<BufferedMarker> newMarkers = new ArrayList<BufferedMarker>();
+				for (BufferedMarker marker : getCreatedMarkers())
+				{
+					if (marker.isDeleted()) continue;
+					List<IMarker> markers = existingMarkers.get(getKey(marker.getResource(), marker.getMarkerType(), marker.getBufferedAttributes()));
+					if (markers != null && markers.size() > 0)
+					{
+						IMarker existing = markers.remove(markers.size() - 1);
+						if (!marker.getBufferedAttributes().equals(existing.getAttributes()))
+						{
+							existing.setAttributes(marker.getBufferedAttributes());
+							updated++;
+						}
+						else
+						{
+							kept++;
+						}
+					}
+					else
+					{
+						newMarkers.add(marker);
+					}
+				}
+
+				List<IMarker> obsoleteMarkers = new ArrayList<IMarker>();
+				for (List<IMarker> markers : existingMarkers.values())
+				{
+					obsoleteMarkers.addAll(markers);
+				}
+				if (obsoleteMarkers.size() > 0)
+				{
+					ResourcesPlugin.getWorkspace().deleteMarkers(obsoleteMarkers.toArray(new IMarker[obsoleteMarkers.size()]));
+				}
+				for (BufferedMarker marker : newMarkers)
+				{
+					try
+					{
+						if (marker.getResource().exists()) marker.create();
+					}
+					catch (CoreException e)
+					{
+						ServoyLog.logWarning("Cannot create problem marker", e);
+					}
+				}
+				if (Debug.tracing())
+				{
+					Debug.trace("Builder markers applied in " + (System.currentTimeMillis() - time) + "ms: " + kept + " kept, " + updated + " updated, " +
+						newMarkers.size() + " created, " + obsoleteMarkers.size() + " deleted");
+				}
+			}
+		}, ResourcesPlugin.getWorkspace().getRoot(), 0, null);
+	}
+
+	private List<BufferedMarker> getCreatedMarkers()
+	{
+		List<BufferedMarker> markers = new ArrayList<BufferedMarker>();
+		for (Map<String, List<BufferedMarker>> resourceMarkers : createdMarkers.values())
+		{
+			for (List<BufferedMarker> typeMarkers : resourceMarkers.values())
+			{
+				markers.addAll(typeMarkers);
+			}
+		}
+		return markers;
+	}
+
+	/**
+	 * The identity of a marker for the diff, 2 markers with the same key describe the same problem.
+	 */
+	private static List<Object> getKey(IResource resource, String type, Map<String, Object> attributes)
+	{
+		if (attributes == null) attributes = new HashMap<String, Object>();
+		return Arrays.asList(resource.getFullPath(), type, attributes.get(IMarker.MESSAGE), attributes.get(IMarker.LOCATION),
+			attributes.get(IMarker.SEVERITY), attributes.get(IMarker.LINE_NUMBER), attributes.get(IMarker.CHAR_START), attributes.get(IMarker.CHAR_END));
+	}
+
+	/**
+	 * Checks the marker type hierarchy as declared in the org.eclipse.core.resources.markers extensions (that is what IResource.deleteMarkers uses as well).
+	 */
+	static boolean isSubtypeOf(String type, String superType)
+	{
+		if (type.equals(superType)) return true;
+		Set<String> superTypes = getMarkerSuperTypes().get(type);
+		return superTypes != null && superTypes.contains(superType);
+	}
+
+	private static synchronized Map<String, Set<String>> getMarkerSuperTypes()
+	{
+		if (markerSuperTypes == null)
+		{
+			Map<String, Set<String>> directSuperTypes = new HashMap<String, Set<String>>();
+			IExtensionPoint extensionPoint = Platform.getExtensionRegistry() != null
+				? Platform.getExtensionRegistry().getExtensionPoint(ResourcesPlugin.PI_RESOURCES, ResourcesPlugin.PT_MARKERS) : null;
+			if (extensionPoint != null)
+			{
+				for (IExtension extension : extensionPoint.getExtensions())
+				{
+					Set<String> superTypes = new HashSet<String>();
+					for (IConfigurationElement element : extension.getConfigurationElements())
+					{
+						if ("super".equals(element.getName()) && element.getAttribute("type") != null) superTypes.add(element.getAttribute("type"));
+					}
+					directSuperTypes.put(extension.getUniqueIdentifier(), superTypes);
+				}
+			}
+			Map<String, Set<String>> allSuperTypes = new HashMap<String, Set<String>>();
+			for (String type : directSuperTypes.keySet())
+			{
+				Set<String> superTypes = new HashSet<String>();
+				List<String> toVisit = new ArrayList<String>(directSuperTypes.get(type));
+				while (toVisit.size() > 0)
+				{
+					String superType = toVisit.remove(toVisit.size() - 1);
+					if (superTypes.add(superType) && directSuperTypes.containsKey(superType)) toVisit.addAll(directSuperTypes.get(superType));
+				}
+				allSuperTypes.put(type, superTypes);
+			}
+			markerSuperTypes = allSuperTypes;
+		}
+		return markerSuperTypes;
+	}
+}
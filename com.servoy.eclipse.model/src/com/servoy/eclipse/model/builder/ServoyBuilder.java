@@ -713,78 +713,103 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 			}
 			monitoredProjects = referencedProjects;
 		}
-		if (!BuilderDependencies.getInstance().isInitialized() && servoyModel.getActiveProject() != null)
+		// collect all the markers of this build, so only the differences with the existing markers are applied in one operation at the end
+		MarkerBuffer markerBuffer = MarkerBuffer.getCurrent() == null ? MarkerBuffer.start() : null;
+		try
 		{
-			// cache is empty we need a full build on all active solutions
-			// this will also delete all markers and create them on accurate file
-			BuilderDependencies.getInstance().initialize();
-			for (ServoyProject project : servoyModel.getModulesOfActiveProject())
+			if (!BuilderDependencies.getInstance().isInitialized() && servoyModel.getActiveProject() != null)
 			{
-				fullBuild(project.getProject(), progressMonitor);
+				// try the dependencies that were saved in a previous session, if those are still valid an incremental build is enough
+				BuilderDependencies.getInstance().load();
 			}
-		}
-		else if (kind == FULL_BUILD)
-		{
-			fullBuild(getProject(), progressMonitor);
-		}
-		else
-		{
-			try
+			if (!BuilderDependencies.getInstance().isInitialized() && servoyModel.getActiveProject() != null)
+			{
+				// cache is empty we need a full build on all active solutions
+				// this will also delete all markers and create them on accurate file
+				BuilderDependencies.getInstance().initialize();
+				for (ServoyProject project : servoyModel.getModulesOfActiveProject())
+				{
+					fullBuild(project.getProject(), progressMonitor);
+				}
+			}
+			else if (kind == FULL_BUILD)
+			{
+				fullBuild(getProject(), progressMonitor);
+			}
+			else
 			{
-				boolean needFullBuild = false;
-				IResourceDelta resourcesProjectDelta = null;
-				for (IProject p : monitoredProjects)
+				try
 				{
-					/*
-					 * If you have a reference to a project and then you close or delete that project it will not do a build. That is why p.exists() and
-					 * p.isOpen() is commented.
-					 */
-					if (/* p.exists() && p.isOpen() && */ !needFullBuild)
+					boolean needFullBuild = false;
+					ServoyBuilderUtils.IncrementalChanges resourcesProjectChanges = null;
+					for (IProject p : monitoredProjects)
 					{
-						IResourceDelta delta = getDelta(p);
-						if (delta != null)
+						/*
+						 * If you have a reference to a project and then you close or delete that project it will not do a build. That is why p.exists() and
+						 * p.isOpen() is commented.
+						 */
+						if (/* p.exists() && p.isOpen() && */ !needFullBuild)
 						{
-							ServoyDeltaVisitor visitor = new ServoyDeltaVisitor();
-							delta.accept(visitor);
-							if (visitor.resources.size() > 0 && !ServoyBuilderUtils.canBuildIncremental(visitor.resources))
-							{
-								// if a module/resources project is changed and we cannot handle the change via the new incremental build we have to fully build the main project in order to make sure all markers are fine
-								needFullBuild = true;
-							}
-							else if (visitor.resources.size() > 0 && p.hasNature(ServoyResourcesProject.NATURE_ID))
+							IResourceDelta delta = getDelta(p);
+							if (delta != null)
 							{
-								resourcesProjectDelta = delta;
+								ServoyDeltaVisitor visitor = new ServoyDeltaVisitor();
+								delta.accept(visitor);
+								if (visitor.resources.size() > 0)
+								{
+									ServoyBuilderUtils.IncrementalChanges changes = ServoyBuilderUtils.getIncrementalChanges(visitor.resources);
+									if (changes == null || changes.needsFullBuild())
+									{
+										// if a module/resources project is changed and we cannot handle the change via the new incremental build we have to fully build the main project in order to make sure all markers are fine
+										needFullBuild = true;
+									}
+									else if (p.hasNature(ServoyResourcesProject.NATURE_ID))
+									{
+										resourcesProjectChanges = changes;
+									}
+								}
 							}
 						}
 					}
-				}
-				if (needFullBuild)
-				{
-					fullBuild(getProject(), progressMonitor);
-				}
-				else
-				{
-					IResourceDelta delta = getDelta(getProject());
-					if (delta != null)
+					if (needFullBuild)
 					{
-						incrementalBuild(delta, progressMonitor);
+						fullBuild(getProject(), progressMonitor);
 					}
-					// servoy builder is not called on resources project, so, if we can do an incremental build, do it when main active project is checked
-					if (resourcesProjectDelta != null)
+					else
 					{
-						ServoyProject activeProject = getServoyModel().getActiveProject();
-						if (activeProject != null && activeProject.getProject().getName().equals(getProject().getName()))
+						IResourceDelta delta = getDelta(getProject());
+						if (delta != null)
+						{
+							incrementalBuild(delta, progressMonitor);
+						}
+						// servoy builder is not called on resources project, so, if we can do an incremental build, do it when main active project is checked
+						if (resourcesProjectChanges != null)
 						{
-							incrementalBuild(resourcesProjectDelta, progressMonitor);
+							ServoyProject activeProject = getServoyModel().getActiveProject();
+							if (activeProject != null && activeProject.getProject().getName().equals(getProject().getName()))
+							{
+								this.monitor = progressMonitor;
+								resourcesProjectChanges.check();
+								this.monitor = null;
+							}
 						}
 					}
 				}
+				catch (Exception e)
+				{
+					ServoyLog.logError(e);
+				}
 			}
-			catch (Exception e)
+		}
+		finally
+		{
+			if (markerBuffer != null)
 			{
-				ServoyLog.logError(e);
+				MarkerBuffer.stop();
+				markerBuffer.apply();
 			}
 		}
+		BuilderDependencies.getInstance().scheduleSave();
 		return monitoredProjects;
 	}
 
@@ -793,6 +818,8 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 	{
 		getProject().deleteMarkers(SERVOY_BUILDER_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
 		BuilderDependencies.getInstance().clear();
+		// also remove the saved dependencies
+		BuilderDependencies.getInstance().save();
 	}
 
 	void checkResource(IResource resource)
@@ -3260,18 +3287,18 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 				}
 				if (file.exists())
 				{
-					marker = file.createMarker(type);
+					marker = createMarker(file, type);
 				}
 				else if (persist.getParent() instanceof WebComponent)
 				{
 					pathPair = SolutionSerializer.getFilePath(persist.getParent(), true);
 					path = new Path(pathPair.getLeft() + pathPair.getRight());
 					file = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
-					marker = file.exists() ? file.createMarker(type) : resource.createMarker(type);
+					marker = createMarker(file.exists() ? file : resource, type);
 				}
 				else
 				{
-					marker = resource.createMarker(type);
+					marker = createMarker(resource, type);
 				}
 				if (location == null)
 				{
@@ -3280,7 +3307,7 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 			}
 			else
 			{
-				marker = resource.createMarker(type);
+				marker = createMarker(resource, type);
 			}
 			marker.setAttribute(IMarker.MESSAGE, message);
 			marker.setAttribute(IMarker.SEVERITY, severity);
@@ -3378,7 +3405,7 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 	{
 		try
 		{
-			IMarker marker = resource.createMarker(type);
+			IMarker marker = createMarker(resource, type);
 			marker.setAttribute(IMarker.MESSAGE, message);
 			marker.setAttribute(IMarker.SEVERITY, severity);
 			marker.setAttribute(IMarker.PRIORITY, priority);
@@ -3404,8 +3431,24 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 		return null;
 	}
 
+	/**
+	 * Creates a marker on the resource, or a buffered marker if the current thread collects its markers in a {@link MarkerBuffer}.
+	 */
+	public static IMarker createMarker(IResource resource, String type) throws CoreException
+	{
+		MarkerBuffer buffer = MarkerBuffer.getCurrent();
+		if (buffer != null) return buffer.createMarker(resource, type);
+		return resource.createMarker(type);
+	}
+
 	public static void deleteMarkers(IResource file, String type)
 	{
+		MarkerBuffer buffer = MarkerBuffer.getCurrent();
+		if (buffer != null)
+		{
+			buffer.deleteMarkers(file, type);
+			return;
+		}
 		try
 		{
 			if (file.getProject().isOpen()) file.deleteMarkers(type, true, IResource.DEPTH_INFINITE);
@@ -3418,6 +3461,12 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 
 	public static void deleteAllMarkers(IResource file)
 	{
+		MarkerBuffer buffer = MarkerBuffer.getCurrent();
+		if (buffer != null)
+		{
+			buffer.deleteMarkers(file, IMarker.PROBLEM);
+			return;
+		}
 		try
 		{
 			file.deleteMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
@@ -3470,13 +3519,22 @@ public class ServoyBuilder extends IncrementalProjectBuilder
 
 		ServoyDeltaVisitor visitor = new ServoyDeltaVisitor();
 		delta.accept(visitor);
-		if (!ServoyBuilderUtils.checkIncrementalBuild(visitor.resources))
+		ServoyBuilderUtils.IncrementalChanges changes = ServoyBuilderUtils.getIncrementalChanges(visitor.resources);
+		if (changes == null)
 		{
 			for (IResource resource : visitor.resources)
 			{
 				checkResource(resource);
 			}
 		}
+		else if (changes.needsFullBuild())
+		{
+			fullBuild(getProject(), progressMonitor);
+		}
+		else
+		{
+			changes.check();
+		}
 		this.monitor = null;
 	}
 
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +34,7 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.dltk.compiler.problem.ProblemSeverity;
 
@@ -39,6 +42,7 @@ import com.servoy.eclipse.model.ServoyModelFinder;
 import com.servoy.eclipse.model.builder.MarkerMessages.ServoyMarker;
 import com.servoy.eclipse.model.extensions.IServoyModel;
 import com.servoy.eclipse.model.nature.ServoyProject;
+import com.servoy.eclipse.model.preferences.BuilderPreferences;
 import com.servoy.eclipse.model.repository.SolutionSerializer;
 import com.servoy.eclipse.model.util.ResourcesUtils;
 import com.servoy.eclipse.model.util.ServoyLog;
@@ -51,6 +55,7 @@ import com.servoy.j2db.persistence.IPersist;
 import com.servoy.j2db.persistence.IRepository;
 import com.servoy.j2db.persistence.IScriptProvider;
 import com.servoy.j2db.persistence.ISupportName;
+import com.servoy.j2db.persistence.Media;
 import com.servoy.j2db.persistence.MethodArgument;
 import com.servoy.j2db.persistence.Relation;
 import com.servoy.j2db.persistence.RepositoryHelper;
@@ -73,221 +78,303 @@ import com.servoy.j2db.util.keyword.Ident;
 public class ServoyBuilderUtils
 {
 
-	public static boolean canBuildIncremental(List<IResource> resources)
+	private static final int FORM_FILE = 1;
+	private static final int MEDIA_FILE = 2;
+	private static final int VALUELIST_FILE = 3;
+	private static final int RELATION_FILE = 4;
+	private static final int SCOPE_FILE = 5;
+	private static final int DATASOURCE_FILE = 6;
+
+	/**
+	 * Collects the persists that have to be rechecked for the changed resources of a project delta, this is the union of the changed persists and the persists
+	 * that depend on them according to the {@link BuilderDependencies}.
+	 *
+	 * @return null if not all the changed files are form, media, valuelist, relation, scope or datasource files, the changed resources should then be checked
+	 *         one by one.
+	 */
+	public static IncrementalChanges getIncrementalChanges(List<IResource> resources)
+	{
+		if (!isIncrementalDelta(resources)) return null;
+		return IncrementalChanges.collect(resources, new BuilderPreferences().getIncrementalBuildThreshold());
+	}
+
+	static boolean isIncrementalDelta(List<IResource> resources)
 	{
-		if (resources.size() == 3 && resources.get(0) instanceof IProject && resources.get(1) instanceof IFolder && resources.get(2) instanceof IFile)
+		boolean hasFiles = false;
+		for (IResource resource : resources)
 		{
-			IFolder folder = (IFolder)resources.get(1);
-			IFile file = (IFile)resources.get(2);
-			if (folder.getName().equals(SolutionSerializer.FORMS_DIR) &&
-				(file.getFileExtension().equals(SolutionSerializer.JS_FILE_EXTENSION_WITHOUT_DOT) ||
-					file.getName().endsWith(SolutionSerializer.FORM_FILE_EXTENSION)))
+			if (resource instanceof IFile)
 			{
-				return true;
+				if (getIncrementalFileType((IFile)resource) == 0) return false;
+				hasFiles = true;
+			}
+			else if (resource instanceof IFolder)
+			{
+				IPath path = resource.getProjectRelativePath();
+				String folderName = path.segment(0);
+				if (path.segmentCount() == 1)
+				{
+					if (!folderName.equals(SolutionSerializer.FORMS_DIR) && !folderName.equals(SolutionSerializer.MEDIAS_DIR) &&
+						!folderName.equals(SolutionSerializer.VALUELISTS_DIR) && !folderName.equals(SolutionSerializer.RELATIONS_DIR) &&
+						!folderName.equals(SolutionSerializer.DATASOURCES_DIR_NAME))
+					{
+						return false;
+					}
+				}
+				else if (path.segmentCount() != 2 || !folderName.equals(SolutionSerializer.DATASOURCES_DIR_NAME))
+				{
+					return false;
+				}
 			}
-			if (folder.getName().equals(SolutionSerializer.MEDIAS_DIR) || folder.getName().equals(SolutionSerializer.VALUELISTS_DIR) ||
-				folder.getName().equals(SolutionSerializer.RELATIONS_DIR))
+			else if (!(resource instanceof IProject))
 			{
-				return true;
+				return false;
 			}
 		}
-		if (resources.size() == 2 && resources.get(0) instanceof IProject && resources.get(1) instanceof IFile &&
-			resources.get(1).getFileExtension().equals(SolutionSerializer.JS_FILE_EXTENSION_WITHOUT_DOT))
+		return hasFiles;
+	}
+
+	private static int getIncrementalFileType(IFile file)
+	{
+		IPath path = file.getProjectRelativePath();
+		if (path.segmentCount() == 1)
 		{
-			return true;
+			return SolutionSerializer.JS_FILE_EXTENSION_WITHOUT_DOT.equals(file.getFileExtension()) ? SCOPE_FILE : 0;
 		}
-		if (resources.size() == 4 && resources.get(0) instanceof IProject && resources.get(1) instanceof IFolder &&
-			resources.get(1).getName().equals(SolutionSerializer.DATASOURCES_DIR_NAME) && resources.get(2) instanceof IFolder &&
-			resources.get(3) instanceof IFile)
+		if (path.segmentCount() == 2)
 		{
-			return true;
+			String folderName = path.segment(0);
+			if (folderName.equals(SolutionSerializer.FORMS_DIR) && (SolutionSerializer.JS_FILE_EXTENSION_WITHOUT_DOT.equals(file.getFileExtension()) ||
+				file.getName().endsWith(SolutionSerializer.FORM_FILE_EXTENSION)))
+			{
+				return FORM_FILE;
+			}
+			if (folderName.equals(SolutionSerializer.MEDIAS_DIR)) return MEDIA_FILE;
+			if (folderName.equals(SolutionSerializer.VALUELISTS_DIR)) return VALUELIST_FILE;
+			if (folderName.equals(SolutionSerializer.RELATIONS_DIR)) return RELATION_FILE;
+		}
+		if (path.segmentCount() == 3 && path.segment(0).equals(SolutionSerializer.DATASOURCES_DIR_NAME))
+		{
+			return DATASOURCE_FILE;
 		}
-		return false;
+		return 0;
 	}
 
-	public static boolean checkIncrementalBuild(List<IResource> resources)
+	/**
+	 * The persists that have to be rechecked for a set of changed files.
+	 */
+	public static class IncrementalChanges
 	{
-		IServoyModel servoyModel = ServoyModelFinder.getServoyModel();
-		if (resources.size() == 3 && resources.get(0) instanceof IProject && resources.get(1) instanceof IFolder && resources.get(2) instanceof IFile)
+		private final IServoyModel servoyModel = ServoyModelFinder.getServoyModel();
+		private final Set<ServoyProject> formProjects = new LinkedHashSet<ServoyProject>();
+		private final Map<IFile, String> scopeFiles = new LinkedHashMap<IFile, String>();
+		private final Set<String> datasources = new LinkedHashSet<String>();
+		private final Set<Form> changedForms = new LinkedHashSet<Form>();
+		private final Set<Form> forms = new LinkedHashSet<Form>();
+		private final Set<ValueList> valuelists = new LinkedHashSet<ValueList>();
+		private final Set<Relation> relations = new LinkedHashSet<Relation>();
+		private final Set<Media> medias = new LinkedHashSet<Media>();
+		private boolean needsFullBuild;
+
+		private static IncrementalChanges collect(List<IResource> resources, int threshold)
 		{
-			IProject project = (IProject)resources.get(0);
-			IFolder folder = (IFolder)resources.get(1);
-			IFile file = (IFile)resources.get(2);
-			if (folder.getName().equals(SolutionSerializer.FORMS_DIR) &&
-				(file.getFileExtension().equals(SolutionSerializer.JS_FILE_EXTENSION_WITHOUT_DOT) ||
-					file.getName().endsWith(SolutionSerializer.FORM_FILE_EXTENSION)) &&
-				servoyModel.isSolutionActive(project.getName()))
-			{
-				// form js file is changed
-				// get form
-				// get child forms
-				ServoyProject servoyProject = servoyModel.getServoyProject(project.getName());
-				FlattenedSolution fs = getReferenceFlattenedSolution(servoyProject.getSolution());
-
-				checkServiceSolutionMustAuthenticate(servoyModel, servoyProject.getSolution(), project);
-				ServoyBuilder.checkPersistDuplicateName();
-				ServoyBuilder.checkPersistDuplicateUUID();
-				String formName = file.getName().substring(0, file.getName().length() - file.getFileExtension().length() - 1);
-				Form form = fs.getForm(formName);
-				if (form != null)
+			IncrementalChanges changes = new IncrementalChanges();
+			for (IResource resource : resources)
+			{
+				if (resource instanceof IFile && !changes.add((IFile)resource))
 				{
-					List<Form> affectedForms = new ArrayList<Form>();
-					List<Form> formDependencies = BuilderDependencies.getInstance().getFormDependencies(form);
-					if (formDependencies != null)
-					{
-						affectedForms.addAll(formDependencies);
-						for (Form dependency : formDependencies.toArray(new Form[0]))
-						{
-							ServoyFormBuilder.deleteMarkers(dependency);
-							BuilderDependencies.getInstance().removeForm(dependency);
-						}
-					}
-					affectedForms.add(form);
-					ServoyFormBuilder.deleteMarkers(form);
-					BuilderDependencies.getInstance().removeForm(form);
-					Iterator<Form> it = fs.getForms(false);
-					while (it.hasNext())
-					{
-						Form currentForm = it.next();
-						Form parentForm = currentForm.getExtendsForm();
-						while (parentForm != null)
-						{
-							if (parentForm == form)
-							{
-								if (!affectedForms.contains(currentForm)) affectedForms.add(currentForm);
-								ServoyFormBuilder.deleteMarkers(currentForm);
-								BuilderDependencies.getInstance().removeForm(currentForm);
-							}
-							parentForm = parentForm.getExtendsForm();
-						}
-					}
-					Set<UUID> methodsParsed = new HashSet<UUID>();
-					Map<Form, Boolean> formsAbstractChecked = new HashMap<Form, Boolean>();
-					for (Form currentForm : affectedForms)
-					{
-						ServoyFormBuilder.addFormMarkers(servoyProject, currentForm, methodsParsed, formsAbstractChecked);
-					}
-					return true;
+					// one of the changed files could not be mapped on a persist of an active solution
+					changes.needsFullBuild = true;
+					return changes;
 				}
-
-			}
-			if (folder.getName().equals(SolutionSerializer.MEDIAS_DIR) &&
-				servoyModel.isSolutionActive(project.getName()))
-			{
-				return ServoyMediaBuilder.addMediaMarkers(project, file);
 			}
-			if (folder.getName().equals(SolutionSerializer.VALUELISTS_DIR) &&
-				servoyModel.isSolutionActive(project.getName()))
+			changes.addSubForms();
+			// a changed valuelist also affects the forms that use it
+			for (ValueList valuelist : changes.valuelists)
 			{
-				return ServoyValuelistBuilder.addValuelistMarkers(project, file);
-			}
-			if (folder.getName().equals(SolutionSerializer.RELATIONS_DIR) &&
-				servoyModel.isSolutionActive(project.getName()))
-			{
-				return ServoyRelationBuilder.addRelationMarkers(project, file);
+				List<Form> valuelistForms = BuilderDependencies.getInstance().getValuelistDependencies(valuelist);
+				if (valuelistForms != null) changes.forms.addAll(valuelistForms);
 			}
+			changes.needsFullBuild = changes.size() > threshold;
+			return changes;
 		}
-		if (resources.size() == 2 && resources.get(0) instanceof IProject && resources.get(1) instanceof IFile &&
-			resources.get(1).getFileExtension().equals(SolutionSerializer.JS_FILE_EXTENSION_WITHOUT_DOT) &&
-			servoyModel.isSolutionActive(resources.get(0).getName()))
+
+		private int size()
 		{
-			IProject project = (IProject)resources.get(0);
-			IFile file = (IFile)resources.get(1);
-			ServoyProject servoyProject = servoyModel.getServoyProject(project.getName());
-			String scopeName = file.getName().substring(0, file.getName().length() - SolutionSerializer.JS_FILE_EXTENSION.length());
-			List<IPersist> persists = BuilderDependencies.getInstance().getScopeDependency(scopeName);
-			BuilderDependencies.getInstance().removeScopeDependencies(scopeName);
-			ServoyBuilder.checkPersistDuplicateName();
-			ServoyBuilder.checkPersistDuplicateUUID();
-			ServoyBuilder.checkDuplicateScopes(file);
+			return forms.size() + valuelists.size() + relations.size() + medias.size() + scopeFiles.size();
+		}
 
-			try
+		/**
+		 * @return true if the changes could not be mapped on persists or affect more persists than the incremental build threshold, the project should then
+		 *         be fully built instead of calling {@link #check()}.
+		 */
+		public boolean needsFullBuild()
+		{
+			return needsFullBuild;
+		}
+
+		private boolean add(IFile file)
+		{
+			IProject project = file.getProject();
+			if (!servoyModel.isSolutionActive(project.getName())) return false;
+			ServoyProject servoyProject = servoyModel.getServoyProject(project.getName());
+			if (servoyProject == null || servoyProject.getSolution() == null) return false;
+			FlattenedSolution fs = getReferenceFlattenedSolution(servoyProject.getSolution());
+			String fileName = file.getName();
+			switch (getIncrementalFileType(file))
 			{
-				file.deleteMarkers(ServoyBuilder.SCRIPT_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
+				case FORM_FILE :
+				{
+					Form form = fs.getForm(fileName.substring(0, fileName.length() - file.getFileExtension().length() - 1));
+					if (form == null) return false;
+					formProjects.add(servoyProject);
+					changedForms.add(form);
+					forms.add(form);
+					List<Form> formDependencies = BuilderDependencies.getInstance().getFormDependencies(form);
+					if (formDependencies != null) forms.addAll(formDependencies);
+					return true;
+				}
+				case MEDIA_FILE :
+				{
+					Media media = fs.getMedia(fileName);
+					if (media == null) return false;
+					medias.add(media);
+					List<Form> mediaForms = BuilderDependencies.getInstance().getMediaDependencies(media);
+					if (mediaForms != null) forms.addAll(mediaForms);
+					return true;
+				}
+				case VALUELIST_FILE :
+				{
+					ValueList valuelist = fs.getValueList(fileName.substring(0, fileName.length() - SolutionSerializer.VALUELIST_FILE_EXTENSION.length()));
+					if (valuelist == null) return false;
+					valuelists.add(valuelist);
+					return true;
+				}
+				case RELATION_FILE :
+				{
+					Relation relation = fs.getRelation(fileName.substring(0, fileName.length() - SolutionSerializer.RELATION_FILE_EXTENSION.length()));
+					if (relation == null) return false;
+					relations.add(relation);
+					addDependentPersists(BuilderDependencies.getInstance().getRelationDependencies(relation));
+					return true;
+				}
+				case SCOPE_FILE :
+				{
+					String scopeName = fileName.substring(0, fileName.length() - SolutionSerializer.JS_FILE_EXTENSION.length());
+					scopeFiles.put(file, scopeName);
+					addDependentPersists(BuilderDependencies.getInstance().getScopeDependency(scopeName));
+					return true;
+				}
+				case DATASOURCE_FILE :
+				{
+					String datasource = ResourcesUtils.getParentDatasource(file, false);
+					if (datasource == null) return false;
+					datasources.add(datasource);
+					addDependentPersists(BuilderDependencies.getInstance().getDatasourceDependency(datasource));
+					return true;
+				}
 			}
-			catch (CoreException e)
+			return false;
+		}
+
+		private void addDependentPersists(List<IPersist> persists)
+		{
+			if (persists != null)
 			{
-				ServoyLog.logError(e);
+				for (IPersist persist : persists)
+				{
+					if (persist instanceof Form) forms.add((Form)persist);
+					else if (persist instanceof ValueList) valuelists.add((ValueList)persist);
+					else if (persist instanceof Relation) relations.add((Relation)persist);
+				}
 			}
-			Iterator<ScriptMethod> it = servoyModel.getFlattenedSolution().getScriptMethods(scopeName, false);
+		}
+
+		private void addSubForms()
+		{
+			if (changedForms.isEmpty()) return;
+			Iterator<Form> it = servoyModel.getFlattenedSolution().getForms(false);
 			while (it.hasNext())
 			{
-				ScriptMethod scriptMethod = it.next();
-				addScriptMethodErrorMarkers(file, scriptMethod);
-			}
-			if (persists != null)
-			{
-				Set<UUID> methodsParsed = new HashSet<UUID>();
-				Map<Form, Boolean> formsAbstractChecked = new HashMap<Form, Boolean>();
-				for (IPersist persist : persists)
+				Form currentForm = it.next();
+				Form parentForm = currentForm.getExtendsForm();
+				while (parentForm != null)
 				{
-					if (persist instanceof Form)
-					{
-						ServoyFormBuilder.deleteMarkers((Form)persist);
-						ServoyFormBuilder.addFormMarkers(servoyProject, (Form)persist, methodsParsed, formsAbstractChecked);
-					}
-					if (persist instanceof ValueList)
+					if (changedForms.contains(parentForm))
 					{
-						ServoyValuelistBuilder.addValuelistMarkers(servoyProject, (ValueList)persist, servoyModel.getFlattenedSolution());
-					}
-					if (persist instanceof Relation)
-					{
-						ServoyRelationBuilder.addRelationMarkers(servoyProject, (Relation)persist);
+						forms.add(currentForm);
+						break;
 					}
+					parentForm = parentForm.getExtendsForm();
 				}
 			}
-			return true;
 		}
-		if (resources.size() == 4 && resources.get(0) instanceof IProject && resources.get(1) instanceof IFolder &&
-			resources.get(1).getName().equals(SolutionSerializer.DATASOURCES_DIR_NAME) && resources.get(2) instanceof IFolder &&
-			resources.get(3) instanceof IFile)
+
+		/**
+		 * Rechecks only the persists that are affected by the changes.
+		 */
+		public void check()
 		{
-			String datasource = ResourcesUtils.getParentDatasource((IFile)resources.get(3), false);
-			if (datasource != null)
+			ServoyBuilder.checkPersistDuplicateName();
+			ServoyBuilder.checkPersistDuplicateUUID();
+			for (ServoyProject servoyProject : formProjects)
+			{
+				checkServiceSolutionMustAuthenticate(servoyModel, servoyProject.getSolution(), servoyProject.getProject());
+			}
+
+			// remove the old dependencies, they are added again by the checks below
+			for (Form form : forms)
+			{
+				ServoyFormBuilder.deleteMarkers(form);
+				BuilderDependencies.getInstance().removeForm(form);
+			}
+			for (String scopeName : scopeFiles.values())
+			{
+				BuilderDependencies.getInstance().removeScopeDependencies(scopeName);
+			}
+			for (String datasource : datasources)
 			{
-				List<IPersist> persists = BuilderDependencies.getInstance().getDatasourceDependency(datasource);
 				BuilderDependencies.getInstance().removeDatasourceDependencies(datasource);
-				ServoyBuilder.checkPersistDuplicateName();
-				ServoyBuilder.checkPersistDuplicateUUID();
+			}
 
-				if (persists != null)
+			for (Map.Entry<IFile, String> entry : scopeFiles.entrySet())
+			{
+				IFile file = entry.getKey();
+				ServoyBuilder.checkDuplicateScopes(file);
+				ServoyBuilder.deleteMarkers(file, ServoyBuilder.SCRIPT_MARKER_TYPE);
+				Iterator<ScriptMethod> it = servoyModel.getFlattenedSolution().getScriptMethods(entry.getValue(), false);
+				while (it.hasNext())
 				{
-					Set<UUID> methodsParsed = new HashSet<UUID>();
-					Map<Form, Boolean> formsAbstractChecked = new HashMap<Form, Boolean>();
-					for (IPersist persist : persists)
-					{
-						ServoyProject servoyProject = servoyModel.getServoyProject(persist.getRootObject().getName());
-						if (persist instanceof Form)
-						{
-							ServoyFormBuilder.deleteMarkers((Form)persist);
-							ServoyFormBuilder.addFormMarkers(servoyProject, (Form)persist, methodsParsed, formsAbstractChecked);
-						}
-						if (persist instanceof ValueList)
-						{
-							ServoyValuelistBuilder.addValuelistMarkers(servoyProject, (ValueList)persist, servoyModel.getFlattenedSolution());
-						}
-						if (persist instanceof Relation)
-						{
-							ServoyRelationBuilder.addRelationMarkers(servoyProject, (Relation)persist);
-						}
-					}
+					addScriptMethodErrorMarkers(file, it.next());
 				}
-				return true;
+			}
+			for (Media media : medias)
+			{
+				ServoyMediaBuilder.deleteMarkers(media);
+				ServoyMediaBuilder.checkMedia(media);
+			}
+			for (Relation relation : relations)
+			{
+				ServoyRelationBuilder.deleteMarkers(relation);
+				ServoyRelationBuilder.checkRelation(relation);
+			}
+			for (ValueList valuelist : valuelists)
+			{
+				ServoyValuelistBuilder.checkValuelistMarkers(valuelist, servoyModel.getFlattenedSolution());
+			}
+			Set<UUID> methodsParsed = new HashSet<UUID>();
+			Map<Form, Boolean> formsAbstractChecked = new HashMap<Form, Boolean>();
+			for (Form form : forms)
+			{
+				ServoyProject servoyProject = servoyModel.getServoyProject(form.getRootObject().getName());
+				if (servoyProject != null) ServoyFormBuilder.addFormMarkers(servoyProject, form, methodsParsed, formsAbstractChecked);
 			}
 		}
-		return false;
 	}
 
 	public static void checkServiceSolutionMustAuthenticate(IServoyModel servoyModel, Solution solution, IProject project)
 	{
-		try
-		{
-			project.deleteMarkers(ServoyBuilder.SERVICE_MUST_AUTHENTICATE_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-		}
-		catch (CoreException e)
-		{
-			ServoyLog.logError(e);
-		}
+		ServoyBuilder.deleteMarkers(project, ServoyBuilder.SERVICE_MUST_AUTHENTICATE_MARKER_TYPE);
 		if (servoyModel.getActiveProject().getSolution().getName().equals(solution.getName()))
 		{
 			//skipping modules when checking for web service solutions
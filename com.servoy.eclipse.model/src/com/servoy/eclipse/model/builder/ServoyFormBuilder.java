@@ -2356,60 +2356,46 @@ public class ServoyFormBuilder
 	public static void deleteMarkers(Form form)
 	{
 		IResource markerResource = ServoyBuilderUtils.getPersistResource(form);
-		try
-		{
-			if (markerResource.exists())
-			{
-				markerResource.deleteMarkers(ServoyBuilder.PROJECT_FORM_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_SCRIPT_ELEMENT_USAGE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.EVENT_METHOD_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.MULTIPLE_METHODS_ON_SAME_ELEMENT, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.METHOD_NUMBER_OF_ARGUMENTS_MISMATCH_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.PARAMETERS_MISMATCH, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.INVALID_DATAPROVIDERID, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.INVALID_EVENT_METHOD, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.SOLUTION_PROBLEM_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.HIDDEN_TABLE_STILL_IN_USE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.INVALID_SORT_OPTION, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.FORM_DUPLICATE_PART_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.UNRESOLVED_RELATION_UUID, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.PORTAL_DIFFERENT_RELATION_NAME_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.LABEL_FOR_ELEMENT_NOT_FOUND_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.MEDIA_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.MISSING_SPEC, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_SPEC, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.OBSOLETE_ELEMENT, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_ELEMENT_USAGE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_PROPERTY_USAGE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.ELEMENT_EXTENDS_DELETED_ELEMENT_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.MISSING_STYLE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.FORM_WITH_DATASOURCE_IN_LOGIN_SOLUTION, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.NAMED_FOUNDSET_DATASOURCE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.DUPLICATE_SIBLING_UUID, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.METHOD_OVERRIDE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.WRONG_OVERRIDE_PARENT, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.DUPLICATE_NAME_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.SUPERFORM_PROBLEM_TYPE, true, IResource.DEPTH_INFINITE);
-			}
-		}
-		catch (CoreException e)
+		if (markerResource.exists())
 		{
-			ServoyLog.logError(e);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.PROJECT_FORM_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_SCRIPT_ELEMENT_USAGE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.EVENT_METHOD_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.MULTIPLE_METHODS_ON_SAME_ELEMENT);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.METHOD_NUMBER_OF_ARGUMENTS_MISMATCH_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.PARAMETERS_MISMATCH);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.INVALID_DATAPROVIDERID);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.INVALID_EVENT_METHOD);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.SOLUTION_PROBLEM_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.HIDDEN_TABLE_STILL_IN_USE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.INVALID_SORT_OPTION);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.FORM_DUPLICATE_PART_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.UNRESOLVED_RELATION_UUID);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.PORTAL_DIFFERENT_RELATION_NAME_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.LABEL_FOR_ELEMENT_NOT_FOUND_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.MEDIA_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.MISSING_SPEC);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_SPEC);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.OBSOLETE_ELEMENT);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_ELEMENT_USAGE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_PROPERTY_USAGE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.ELEMENT_EXTENDS_DELETED_ELEMENT_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.MISSING_STYLE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.FORM_WITH_DATASOURCE_IN_LOGIN_SOLUTION);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.NAMED_FOUNDSET_DATASOURCE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DUPLICATE_SIBLING_UUID);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.METHOD_OVERRIDE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.WRONG_OVERRIDE_PARENT);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DUPLICATE_NAME_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.SUPERFORM_PROBLEM_TYPE);
 		}
 		markerResource = ResourcesPlugin.getWorkspace().getRoot()
 			.getFile(new Path(SolutionSerializer.getScriptPath(form, false)));
-		try
-		{
-			if (markerResource.exists())
-			{
-				markerResource.deleteMarkers(ServoyBuilder.RESERVED_WINDOW_OBJECT_USAGE_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.PROJECT_FORM_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-				markerResource.deleteMarkers(ServoyBuilder.SCRIPT_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-			}
-		}
-		catch (CoreException e)
+		if (markerResource.exists())
 		{
-			ServoyLog.logError(e);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.RESERVED_WINDOW_OBJECT_USAGE_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.PROJECT_FORM_MARKER_TYPE);
+			ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.SCRIPT_MARKER_TYPE);
 		}
 
 	}
@@ -28,7 +28,6 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
-import org.eclipse.core.runtime.CoreException;
 
 import com.servoy.base.persistence.IBaseColumn;
 import com.servoy.eclipse.model.ServoyModelFinder;
@@ -111,18 +110,11 @@ public class ServoyRelationBuilder
 	public static void deleteMarkers(Relation relation)
 	{
 		IResource markerResource = ServoyBuilderUtils.getPersistResource(relation);
-		try
-		{
-			markerResource.deleteMarkers(ServoyBuilder.PROJECT_RELATION_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_ELEMENT_USAGE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_SCRIPT_ELEMENT_USAGE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.HIDDEN_TABLE_STILL_IN_USE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.INVALID_SORT_OPTION, true, IResource.DEPTH_INFINITE);
-		}
-		catch (CoreException e)
-		{
-			ServoyLog.logError(e);
-		}
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.PROJECT_RELATION_MARKER_TYPE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_ELEMENT_USAGE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_SCRIPT_ELEMENT_USAGE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.HIDDEN_TABLE_STILL_IN_USE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.INVALID_SORT_OPTION);
 
 	}
 
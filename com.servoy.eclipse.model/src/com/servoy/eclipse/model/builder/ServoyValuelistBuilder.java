@@ -29,7 +29,6 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
-import org.eclipse.core.runtime.CoreException;
 import org.eclipse.dltk.compiler.problem.ProblemSeverity;
 
 import com.servoy.base.persistence.constants.IValueListConstants;
@@ -81,11 +80,7 @@ public class ServoyValuelistBuilder
 	{
 		if (valuelist != null)
 		{
-			deleteMarkers(valuelist);
-			ServoyBuilder.addMarkers(ServoyBuilderUtils.getPersistResource(valuelist),
-				ServoyValuelistBuilder.checkValuelist(valuelist, ServoyBuilder.getPersistFlattenedSolution(valuelist, fs),
-					ApplicationServerRegistry.get().getServerManager(), false),
-				valuelist);
+			checkValuelistMarkers(valuelist, fs);
 
 			List<Form> forms = BuilderDependencies.getInstance().getValuelistDependencies(valuelist);
 			if (forms != null)
@@ -101,21 +96,26 @@ public class ServoyValuelistBuilder
 		}
 	}
 
+	/**
+	 * Recreates the markers of the valuelist itself, without checking the forms that use it.
+	 */
+	public static void checkValuelistMarkers(ValueList valuelist, FlattenedSolution fs)
+	{
+		deleteMarkers(valuelist);
+		ServoyBuilder.addMarkers(ServoyBuilderUtils.getPersistResource(valuelist),
+			ServoyValuelistBuilder.checkValuelist(valuelist, ServoyBuilder.getPersistFlattenedSolution(valuelist, fs),
+				ApplicationServerRegistry.get().getServerManager(), false),
+			valuelist);
+	}
+
 	public static void deleteMarkers(ValueList valuelist)
 	{
 		IResource markerResource = ServoyBuilderUtils.getPersistResource(valuelist);
-		try
-		{
-			markerResource.deleteMarkers(ServoyBuilder.PROJECT_VALUELIST_MARKER_TYPE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_ELEMENT_USAGE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.DEPRECATED_SCRIPT_ELEMENT_USAGE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.HIDDEN_TABLE_STILL_IN_USE, true, IResource.DEPTH_INFINITE);
-			markerResource.deleteMarkers(ServoyBuilder.INVALID_SORT_OPTION, true, IResource.DEPTH_INFINITE);
-		}
-		catch (CoreException e)
-		{
-			ServoyLog.logError(e);
-		}
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.PROJECT_VALUELIST_MARKER_TYPE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_ELEMENT_USAGE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.DEPRECATED_SCRIPT_ELEMENT_USAGE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.HIDDEN_TABLE_STILL_IN_USE);
+		ServoyBuilder.deleteMarkers(markerResource, ServoyBuilder.INVALID_SORT_OPTION);
 
 	}
 
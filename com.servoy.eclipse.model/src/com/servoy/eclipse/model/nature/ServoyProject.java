@@ -23,7 +23,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IFile;
@@ -81,6 +83,8 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 
 	private IProject project;
 	private Solution editingSolution;// working copy for editing
+	// uuid -> persist of the editing solution, filled when persists are copied into it and by lookups, validated on every hit
+	private final Map<UUID, IPersist> editingPersists = new ConcurrentHashMap<UUID, IPersist>();
 	private FlattenedSolution editingFlattenedSolution;
 	// only use for hooks, servoy model FS does not contain the references
 	private FlattenedSolution flattenedSolution;
@@ -258,7 +262,9 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 			{
 				if (getSolution() != null)
 				{
+					editingPersists.clear();
 					editingSolution = ((AbstractRepository)getSolution().getRepository()).createSolutionCopy(getSolution());
+					editingPersists.put(editingSolution.getUUID(), editingSolution);
 					copyNodeToEditingSolution(getSolution(), true);
 				}
 			}
@@ -282,7 +288,15 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 	 */
 	protected IPersist copyNodeToEditingSolution(IPersist srcNode, final boolean recursive) throws RepositoryException
 	{
-		IPersist destNode = AbstractRepository.searchPersist(editingSolution, srcNode);
+		return copyNodeToSolution(srcNode, editingSolution, recursive);
+	}
+
+	/**
+	 * Copy the node into the destination solution, this is the editing solution or, for a node that was saved from the editing solution, the real solution.
+	 */
+	private IPersist copyNodeToSolution(IPersist srcNode, final Solution destSolution, final boolean recursive) throws RepositoryException
+	{
+		IPersist destNode = AbstractRepository.searchPersist(destSolution, srcNode);
 		if (destNode == null)
 		{
 			// the node to save was a new node, add the parent first
@@ -291,9 +305,9 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 				throw new RepositoryException("Object to save not found in solution");
 			}
 			// copy the parent over if needed
-			if (AbstractRepository.searchPersist(editingSolution, srcNode.getParent()) == null)
+			if (AbstractRepository.searchPersist(destSolution, srcNode.getParent()) == null)
 			{
-				copyNodeToEditingSolution(srcNode.getParent(), false);// recursive=false, we do not want to save all siblings of node
+				copyNodeToSolution(srcNode.getParent(), destSolution, false);// recursive=false, we do not want to save all siblings of node
 			}
 		}
 
@@ -301,7 +315,7 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 		{
 			srcNode.acceptVisitor(new IPersistVisitor()
 			{
-				private ISupportChilds parent = editingSolution;
+				private ISupportChilds parent = destSolution;
 				private final boolean hasChilds = parent.getAllObjects().hasNext();
 
 				public Object visit(IPersist src)
@@ -317,7 +331,7 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 					IPersist dest;
 					try
 					{
-						dest = ((AbstractRepository)editingSolution.getRepository()).copyPersistIntoSolution(src, currentParent, hasChilds);
+						dest = ((AbstractRepository)destSolution.getRepository()).copyPersistIntoSolution(src, currentParent, hasChilds);
 					}
 					catch (RepositoryException e)
 					{
@@ -339,7 +353,11 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 					{
 						((ScriptVariable)dest).setComment(((ScriptVariable)src).getComment());
 					}
-					editingSolution.clearEditingState(dest);
+					destSolution.clearEditingState(dest);
+					if (destSolution == editingSolution)
+					{
+						editingPersists.put(dest.getUUID(), dest);
+					}
 
 					if (goDeeperInItems)
 					{
@@ -347,7 +365,7 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 						parent = (ISupportChilds)dest;
 						if (!(dest instanceof AbstractBase && ((AbstractBase)dest).getAllObjectsAsList().size() == 0))
 						{
-							// remove the children that are in editing persist and not in real one.
+							// remove the children that are in the destination persist and not in the source one.
 							Iterator<IPersist> srcChildren = ((ISupportChilds)src).getAllObjects();
 							Set<UUID> uuids = new HashSet<UUID>();
 							while (srcChildren.hasNext())
@@ -384,7 +402,7 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 		}
 		if (destNode == null)
 		{
-			destNode = AbstractRepository.searchPersist(editingSolution, srcNode);
+			destNode = AbstractRepository.searchPersist(destSolution, srcNode);
 		}
 		return destNode;
 	}
@@ -516,6 +534,7 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 			{
 				// persist is deleted.
 				parent.removeChild(editingPersist);
+				editingPersists.remove(editingPersist.getUUID());
 			}
 		}
 		else
@@ -525,11 +544,89 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 		return editingPersist;
 	}
 
+	/**
+	 * Push the saved version of the persist in the in-memory editing solution to the real solution, for when the files that were written on save
+	 * do not have to be deserialized again.
+	 *
+	 * @param editingPersist
+	 * @param recursive
+	 * @return the persist in the real solution
+	 * @throws RepositoryException
+	 */
+	public IPersist updateRealPersist(IPersist editingPersist, boolean recursive) throws RepositoryException
+	{
+		if (getSolution() == null) return null;
+		return copyNodeToSolution(editingPersist, getSolution(), recursive);
+	}
+
+	/**
+	 * Check if the persist is still in the editing solution as it was saved, so without changes or deleted children that are not saved yet.
+	 *
+	 * @param editingPersist
+	 * @param recursive
+	 * @return
+	 */
+	public boolean isSavedEditingPersist(IPersist editingPersist, boolean recursive)
+	{
+		Solution solution = getEditingSolution();
+		if (solution == null || getEditingPersist(editingPersist.getUUID()) != editingPersist) return false;
+
+		Iterator<IPersist> removed = solution.getRegisteredRemovedObjects();
+		while (removed.hasNext())
+		{
+			IPersist ancestor = removed.next();
+			while (ancestor != null && ancestor != editingPersist)
+			{
+				ancestor = ancestor.getParent();
+			}
+			if (ancestor != null) return false;
+		}
+
+		if (!recursive) return !editingPersist.isChanged();
+		return editingPersist.acceptVisitor(new IPersistVisitor()
+		{
+			public Object visit(IPersist o)
+			{
+				return o.isChanged() ? o : IPersistVisitor.CONTINUE_TRAVERSAL;
+			}
+		}) == null;
+	}
+
 	public IPersist getEditingPersist(UUID uuid)
 	{
-		if (getEditingSolution() == null) return null;
+		Solution solution = getEditingSolution();
+		if (solution == null || uuid == null) return null;
+
+		IPersist persist = editingPersists.get(uuid);
+		if (persist != null && isInEditingSolution(persist, solution)) return persist;
+
+		// not indexed yet (created directly in the editing solution) or removed/moved since
+		persist = AbstractRepository.searchPersist(solution, uuid);
+		if (persist != null)
+		{
+			editingPersists.put(uuid, persist);
+		}
+		else
+		{
+			editingPersists.remove(uuid);
+		}
+		return persist;
+	}
 
-		return AbstractRepository.searchPersist(getEditingSolution(), uuid);
+	/**
+	 * Check that the persist is still part of the editing solution, every parent up to the solution must still have it as child.
+	 * Editors add, remove and move the persists of the editing solution directly, so an indexed persist can be gone.
+	 */
+	private static boolean isInEditingSolution(IPersist persist, Solution solution)
+	{
+		IPersist child = persist;
+		while (child != solution)
+		{
+			ISupportChilds parent = child.getParent();
+			if (parent == null || parent.getChild(child.getUUID()) != child) return false;
+			child = parent;
+		}
+		return true;
 	}
 
 	public synchronized FlattenedSolution getEditingFlattenedSolution(boolean loadMainSolution)
@@ -648,6 +745,25 @@ public class ServoyProject implements IProjectNature, ErrorKeeper<File, String>,
 		return getEditingFlattenedSolution(true);
 	}
 
+	/**
+	 * Drop the working copy of the solution, for when the solution is read again from disk. It is created again when it is asked for.
+	 */
+	public synchronized void resetEditingSolution()
+	{
+		editingSolution = null;
+		editingPersists.clear();
+		closeFlattenedSolutions();
+	}
+
+	/**
+	 * Close the flattened solutions of this project, they are filled again when they are used. Needed when a module of the solution is read again.
+	 */
+	public synchronized void closeFlattenedSolutions()
+	{
+		if (editingFlattenedSolution != null) editingFlattenedSolution.close(null);
+		if (flattenedSolution != null) flattenedSolution.close(null);
+	}
+
 	public synchronized void resetFlattenedSolution(boolean loadMainSolution)
 	{
 		if (this.editingFlattenedSolution != null)
@@ -0,0 +1,68 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.model.preferences;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.osgi.service.prefs.BackingStoreException;
+
+import com.servoy.eclipse.model.Activator;
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * Preferences of the servoy builder.
+ */
+public class BuilderPreferences
+{
+	public static final String INCREMENTAL_BUILD_THRESHOLD_SETTING = "builder.incrementalThreshold";
+
+	/**
+	 * When more persists than this are affected by a change the changed projects are fully checked instead.
+	 */
+	public static final int INCREMENTAL_BUILD_THRESHOLD_DEFAULT = 500;
+
+	private final IEclipsePreferences eclipsePreferences;
+
+	public BuilderPreferences()
+	{
+		eclipsePreferences = Activator.getDefault() != null ? Activator.getDefault().getEclipsePreferences() : null;
+	}
+
+	public int getIncrementalBuildThreshold()
+	{
+		return eclipsePreferences != null ? eclipsePreferences.getInt(INCREMENTAL_BUILD_THRESHOLD_SETTING, INCREMENTAL_BUILD_THRESHOLD_DEFAULT)
+			: INCREMENTAL_BUILD_THRESHOLD_DEFAULT;
+	}
+
+	public void setIncrementalBuildThreshold(int threshold)
+	{
+		if (eclipsePreferences != null) eclipsePreferences.putInt(INCREMENTAL_BUILD_THRESHOLD_SETTING, threshold);
+	}
+
+	public void save()
+	{
+		if (eclipsePreferences == null) return;
+		try
+		{
+			eclipsePreferences.flush();
+		}
+		catch (BackingStoreException e)
+		{
+			ServoyLog.logError(e);
+		}
+	}
+}
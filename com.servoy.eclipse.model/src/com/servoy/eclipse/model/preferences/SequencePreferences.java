@@ -0,0 +1,87 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+package com.servoy.eclipse.model.preferences;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.osgi.service.prefs.BackingStoreException;
+
+import com.servoy.eclipse.model.Activator;
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * Preferences of the servoy sequences that the developer hands out for the developer databases.
+ *
+ * @since 2021.12
+ */
+public class SequencePreferences
+{
+	public static final String BLOCK_ALLOCATION_SETTING = "sequence.blockAllocation";
+	public static final String BLOCK_SIZE_SETTING = "sequence.blockSize";
+
+	/**
+	 * Block allocation is opt-in, with a block a value that is inserted by someone else is only seen when the next block is reserved.
+	 */
+	public static final boolean BLOCK_ALLOCATION_DEFAULT = false;
+	public static final int BLOCK_SIZE_DEFAULT = 100;
+
+	private final IEclipsePreferences eclipsePreferences;
+
+	public SequencePreferences()
+	{
+		eclipsePreferences = Activator.getDefault() != null ? Activator.getDefault().getEclipsePreferences() : null;
+	}
+
+	/**
+	 * When true a block of sequence values is reserved per column with one query, otherwise the max of the column is queried for every value.
+	 */
+	public boolean isBlockAllocation()
+	{
+		return eclipsePreferences != null ? eclipsePreferences.getBoolean(BLOCK_ALLOCATION_SETTING, BLOCK_ALLOCATION_DEFAULT) : BLOCK_ALLOCATION_DEFAULT;
+	}
+
+	public void setBlockAllocation(boolean blockAllocation)
+	{
+		if (eclipsePreferences != null) eclipsePreferences.putBoolean(BLOCK_ALLOCATION_SETTING, blockAllocation);
+	}
+
+	/**
+	 * The number of values that is reserved at once, always at least 1.
+	 */
+	public int getBlockSize()
+	{
+		int size = eclipsePreferences != null ? eclipsePreferences.getInt(BLOCK_SIZE_SETTING, BLOCK_SIZE_DEFAULT) : BLOCK_SIZE_DEFAULT;
+		return Math.max(1, size);
+	}
+
+	public void setBlockSize(int size)
+	{
+		if (eclipsePreferences != null) eclipsePreferences.putInt(BLOCK_SIZE_SETTING, size);
+	}
+
+	public void save()
+	{
+		if (eclipsePreferences == null) return;
+		try
+		{
+			eclipsePreferences.flush();
+		}
+		catch (BackingStoreException e)
+		{
+			ServoyLog.logError(e);
+		}
+	}
+}
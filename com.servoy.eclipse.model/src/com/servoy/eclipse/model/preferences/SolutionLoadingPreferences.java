@@ -0,0 +1,84 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.model.preferences;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.osgi.service.prefs.BackingStoreException;
+
+import com.servoy.eclipse.model.Activator;
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * Preferences that control how solutions are read from the workspace.
+ */
+public class SolutionLoadingPreferences
+{
+	public static final String PARALLEL_LOADING_SETTING = "solutionLoading.parallel";
+	public static final String LOADING_THREADS_SETTING = "solutionLoading.threads";
+
+	public static final boolean PARALLEL_LOADING_DEFAULT = true;
+	/**
+	 * 0 means use the number of available processors.
+	 */
+	public static final int LOADING_THREADS_DEFAULT = 0;
+
+	private final IEclipsePreferences eclipsePreferences;
+
+	public SolutionLoadingPreferences()
+	{
+		eclipsePreferences = Activator.getDefault() != null ? Activator.getDefault().getEclipsePreferences() : null;
+	}
+
+	public boolean isParallelLoading()
+	{
+		return eclipsePreferences != null ? eclipsePreferences.getBoolean(PARALLEL_LOADING_SETTING, PARALLEL_LOADING_DEFAULT) : PARALLEL_LOADING_DEFAULT;
+	}
+
+	public void setParallelLoading(boolean parallel)
+	{
+		if (eclipsePreferences != null) eclipsePreferences.putBoolean(PARALLEL_LOADING_SETTING, parallel);
+	}
+
+	/**
+	 * The number of threads that are used to read and parse solution files, always at least 1.
+	 */
+	public int getLoadingThreads()
+	{
+		int threads = eclipsePreferences != null ? eclipsePreferences.getInt(LOADING_THREADS_SETTING, LOADING_THREADS_DEFAULT) : LOADING_THREADS_DEFAULT;
+		if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+		return Math.max(1, threads);
+	}
+
+	public void setLoadingThreads(int threads)
+	{
+		if (eclipsePreferences != null) eclipsePreferences.putInt(LOADING_THREADS_SETTING, threads);
+	}
+
+	public void save()
+	{
+		if (eclipsePreferences == null) return;
+		try
+		{
+			eclipsePreferences.flush();
+		}
+		catch (BackingStoreException e)
+		{
+			ServoyLog.logError(e);
+		}
+	}
+}
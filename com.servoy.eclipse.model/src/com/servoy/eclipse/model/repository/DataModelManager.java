@@ -173,7 +173,7 @@ public class DataModelManager implements IColumnInfoManager
 								if (!customSeverity.equals(ProblemSeverity.IGNORE.name()))
 								{
 									ServoyMarker mk = MarkerMessages.ColumnUUIDFlagNotSet.fill(t.getName(), column.getName());
-									IMarker marker = dbiFile.createMarker(mk.getType());
+									IMarker marker = ServoyBuilder.createMarker(dbiFile, mk.getType());
 									marker.setAttribute(IMarker.MESSAGE, mk.getText());
 									marker.setAttribute(IMarker.SEVERITY,
 										ServoyBuilder.getTranslatedSeverity(customSeverity, ServoyBuilder.COLUMN_UUID_FLAG_NOT_SET.getRight()));
@@ -1115,7 +1115,7 @@ public class DataModelManager implements IColumnInfoManager
 
 						if (!hiddenInDeveloper)
 						{
-							IMarker marker = resource.createMarker(ServoyBuilder.DATABASE_INFORMATION_MARKER_TYPE);
+							IMarker marker = ServoyBuilder.createMarker(resource, ServoyBuilder.DATABASE_INFORMATION_MARKER_TYPE);
 							marker.setAttribute(IMarker.MESSAGE, columnDifference.getUserFriendlyMessage());
 //						int adjustedSeverity = severity;
 //						if (adjustedSeverity == IMarker.SEVERITY_ERROR)
@@ -19,6 +19,7 @@ package com.servoy.eclipse.model.repository;
 import java.beans.IntrospectionException;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,6 +40,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
@@ -96,6 +98,7 @@ public class EclipseRepository extends AbstractRepository implements IRepository
 	private final List<ActivityMonitor> monitors = new ArrayList<ActivityMonitor>();
 	private final Properties settings;
 	private final IFileAccess wsa;
+	private final WrittenFileHashes writtenFileHashes = new WrittenFileHashes();
 	private String resourcesProjectName;
 
 	public EclipseRepository(IServerManagerInternal sm, Properties settings)
@@ -105,6 +108,14 @@ public class EclipseRepository extends AbstractRepository implements IRepository
 		this.settings = settings;
 	}
 
+	/**
+	 * The hashes of the files this repository wrote when saving the editing solution, a resource delta of a file that still has that content does not have to be deserialized.
+	 */
+	public WrittenFileHashes getWrittenFileHashes()
+	{
+		return writtenFileHashes;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -797,7 +808,9 @@ public class EclipseRepository extends AbstractRepository implements IRepository
 		}
 		else if (!nodeDeleted || node instanceof Media) // deleted Media, have to rewrite medias.obj
 		{
-			SolutionSerializer.writePersist(node, wsa, repository, true, true, recursive);
+			// the solution and media files are handled separately when they change on disk, always deserialize those
+			IFileAccess fileAccess = nodeDeleted || node instanceof Solution || node instanceof Media ? wsa : new SavedPersistFileAccess(node, recursive);
+			SolutionSerializer.writePersist(node, fileAccess, repository, true, true, recursive);
 		}
 
 		// regenerate the script files for parents that have deleted scripts
@@ -902,4 +915,40 @@ public class EclipseRepository extends AbstractRepository implements IRepository
 
 		return repositoryUUID;
 	}
+
+	/**
+	 * File access that records the files written for a saved persist of the editing solution in the {@link WrittenFileHashes}.
+	 */
+	private class SavedPersistFileAccess extends WorkspaceFileAccess
+	{
+		private final IPersist savedPersist;
+		private final boolean recursive;
+
+		private SavedPersistFileAccess(IPersist savedPersist, boolean recursive)
+		{
+			super(ResourcesPlugin.getWorkspace());
+			this.savedPersist = savedPersist;
+			this.recursive = recursive;
+		}
+
+		@Override
+		public void setUTF8Contents(String relativeFilePath, String contents) throws IOException
+		{
+			recordWrite(relativeFilePath, contents.getBytes(StandardCharsets.UTF_8));
+			super.setUTF8Contents(relativeFilePath, contents);
+		}
+
+		@Override
+		public void setContents(String relativeFilePath, byte[] contents) throws IOException
+		{
+			recordWrite(relativeFilePath, contents);
+			super.setContents(relativeFilePath, contents);
+		}
+
+		private void recordWrite(String relativeFilePath, byte[] contents)
+		{
+			IPath location = workspaceRoot.getFile(new Path(relativeFilePath)).getLocation();
+			if (location != null) writtenFileHashes.recordWrite(location.toFile(), contents, savedPersist, recursive);
+		}
+	}
 }
\ No newline at end of file
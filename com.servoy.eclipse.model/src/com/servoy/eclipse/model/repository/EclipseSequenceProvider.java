@@ -24,7 +24,10 @@ import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.servoy.eclipse.model.preferences.SequencePreferences;
 import com.servoy.eclipse.model.util.ServoyLog;
 import com.servoy.j2db.IServiceProvider;
 import com.servoy.j2db.J2DBGlobals;
@@ -49,16 +52,67 @@ import com.servoy.j2db.util.ServoyException;
 import com.servoy.j2db.util.Utils;
 
 /**
- * Sequence provider that always looks in the db when computing next sequence. Has no ties to the repository db. Only uses column info manager to update column
+ * Sequence provider that looks in the db when computing next sequence. Has no ties to the repository db. Only uses column info manager to update column
  * info & the column infos from the Column itself + SQL queries to compute next sequence.
+ * <p>
+ * When block allocation is turned on a block of values is reserved per column with one max query and handed out from memory, see {@link SequencePreferences}.
  *
  * @author acostescu
  */
 public class EclipseSequenceProvider implements ISequenceProvider
 {
 
+	/**
+	 * A block of sequence values of a column that can be handed out without a query.
+	 */
+	private static final class SequenceBlock
+	{
+		private static final long EMPTY = Long.MIN_VALUE;
+
+		private final int stepSize;
+		private final long end;
+		private final long validUntil;
+		private final AtomicLong next;
+
+		private SequenceBlock(long first, int stepSize, int size, long validUntil)
+		{
+			this.stepSize = stepSize;
+			this.end = first + (long)stepSize * size;
+			this.validUntil = validUntil;
+			this.next = new AtomicLong(first);
+		}
+
+		/**
+		 * @return the next value, or {@link #EMPTY} when the block is used up, expired or closed
+		 */
+		private long take()
+		{
+			if (System.currentTimeMillis() > validUntil) return EMPTY;
+			long value = next.getAndAdd(stepSize);
+			return value < end ? value : EMPTY;
+		}
+
+		/**
+		 * No values are handed out anymore after this.
+		 * @return the first value that was not handed out
+		 */
+		private long close()
+		{
+			return Math.min(next.getAndSet(end), end);
+		}
+	}
+
+	// a reserved block is used at most this long, so an insert by an external writer is seen after at most this time
+	private static final long BLOCK_VALIDITY_MILLIS = 10000;
+
 	private final Map<IColumn, ColumnInfoSequence> columnInfoSeqCache;
 
+	// the blocks per datasource.column; reserving a new block only locks the stripe of the column
+	private final Map<String, SequenceBlock> sequenceBlocks = new ConcurrentHashMap<String, SequenceBlock>();
+	private final Object[] locks = new Object[16];
+
+	private final SequencePreferences sequencePreferences = new SequencePreferences();
+
 	private final IColumnInfoManager columnInfoManager;
 
 	/**
@@ -70,124 +124,210 @@ public class EclipseSequenceProvider implements ISequenceProvider
 	{
 		this.columnInfoManager = columnInfoManager;
 		columnInfoSeqCache = Collections.synchronizedMap(new HashMap<IColumn, ColumnInfoSequence>());
+		for (int i = 0; i < locks.length; i++)
+		{
+			locks[i] = new Object();
+		}
 	}
 
-	public synchronized Object getNextSequence(Column column, boolean update) throws RepositoryException
+	public Object getNextSequence(Column column, boolean update) throws RepositoryException
 	{
 		if (column == null) throw new RepositoryException("Invalid column");
 
-		String preSequenceChars = null;
-		String postSequenceChars = null;
-		int seq_cache_size = 1;
-		long nextSequence = 1;
-		ColumnInfoSequence s = null;
+		ColumnInfo ci = column.getColumnInfo();
+		if (ci == null)
+		{
+			ServoyLog.logError("Cannot calculate next sequence because of null column info - " + column, null);
+			return Long.valueOf(1);
+		}
+		if (ci.getAutoEnterType() != ColumnInfo.SEQUENCE_AUTO_ENTER)
+		{
+			columnInfoSeqCache.remove(column);
+			sequenceBlocks.remove(getSequenceKey(column));
+			throw new RepositoryException("Cannot get sequence for column without sequence settings");
+		}
 
-		IDataServer dataServer = ApplicationServerRegistry.get().getDataServer();
-		IDataSet rs = null;
-		try
+		long nextSequence;
+		if (!update)
+		{
+			nextSequence = queryNextSequence(column, ci.getSequenceStepSize(), false);
+		}
+		else if (sequencePreferences.isBlockAllocation())
+		{
+			nextSequence = getNextBlockSequence(column, ci.getSequenceStepSize());
+		}
+		else
+		{
+			nextSequence = getNextCachedSequence(column, ci.getSequenceStepSize());
+		}
+
+		//make return value
+		String preSequenceChars = ci.getPreSequenceChars();
+		String postSequenceChars = ci.getPostSequenceChars();
+		boolean preSequenceEmpty = (preSequenceChars == null || preSequenceChars.trim().length() == 0);
+		boolean postSequenceEmpty = (postSequenceChars == null || postSequenceChars.trim().length() == 0);
+
+		if (preSequenceEmpty && postSequenceEmpty)
+		{
+			return Long.valueOf(nextSequence);
+		}
+
+		StringBuilder sb = new StringBuilder();
+		if (!preSequenceEmpty)
+		{
+			sb.append(preSequenceChars);
+		}
+		sb.append(nextSequence);
+		if (!postSequenceEmpty)
 		{
-			ColumnInfo ci = column.getColumnInfo();
-			if (ci != null)
+			sb.append(postSequenceChars);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Take the next value from the reserved block of the column, when that is used up or expired a new block is reserved with one max query.
+	 * Only the threads that ask for a sequence of the same lock stripe wait for that query.
+	 * <p>
+	 * A new block starts at the max in the table plus the step, or after the last value handed out when that is higher; so the values of a column
+	 * only go up and a value that is inserted by someone else is picked up at the next block or at the latest after {@link #BLOCK_VALIDITY_MILLIS}.
+	 */
+	private long getNextBlockSequence(Column column, int sequenceStepSize) throws RepositoryException
+	{
+		String key = getSequenceKey(column);
+		SequenceBlock block = sequenceBlocks.get(key);
+		if (block != null && block.stepSize == sequenceStepSize)
+		{
+			long value = block.take();
+			if (value != SequenceBlock.EMPTY) return value;
+		}
+
+		synchronized (locks[(key.hashCode() & Integer.MAX_VALUE) % locks.length])
+		{
+			SequenceBlock current = sequenceBlocks.get(key);
+			if (current != null && current != block && current.stepSize == sequenceStepSize)
+			{
+				// another thread reserved a new block while this one waited for the lock
+				long value = current.take();
+				if (value != SequenceBlock.EMPTY) return value;
+			}
+
+			long first = queryNextSequence(column, sequenceStepSize, true);
+			if (current != null)
 			{
-				preSequenceChars = ci.getPreSequenceChars();
-				postSequenceChars = ci.getPostSequenceChars();
-				int sequenceStepSize = ci.getSequenceStepSize();
+				// values of the old block that were not handed out can be used again, but never values before the last handed out one
+				long unused = current.close();
+				if (current.stepSize == sequenceStepSize && unused > first) first = unused;
+			}
+			SequenceBlock newBlock = new SequenceBlock(first, sequenceStepSize, sequencePreferences.getBlockSize(),
+				System.currentTimeMillis() + BLOCK_VALIDITY_MILLIS);
+			long value = newBlock.take();
+			sequenceBlocks.put(key, newBlock);
+			return value;
+		}
+	}
 
-				if (ci.getAutoEnterType() != ColumnInfo.SEQUENCE_AUTO_ENTER)
+	/**
+	 * The sequence when block allocation is disabled: the max is queried for every value, values that were handed out but not yet inserted are
+	 * remembered in a {@link ColumnInfoSequence}.
+	 */
+	private synchronized long getNextCachedSequence(Column column, int sequenceStepSize) throws RepositoryException
+	{
+		int seq_cache_size = 1;
+		long nextSequence = queryNextSequence(column, sequenceStepSize, true);
+
+		ColumnInfoSequence s = columnInfoSeqCache.get(column);
+		if (s != null)
+		{
+			long retval = s.getNextVal();
+			if (retval == -1 || s.getSequenceStepSize() != sequenceStepSize)
+			{
+				columnInfoSeqCache.remove(column);
+				if (s.getCreationTime() + 9000 > System.currentTimeMillis())//if empty within 9 seconds
 				{
-					columnInfoSeqCache.remove(column);
-					throw new RepositoryException("Cannot get sequence for column without sequence settings");
+					seq_cache_size = (s.getTotalSeqSize() + 2) * 2; //double capacity for next time
 				}
+				columnInfoSeqCache.put(column,
+					new ColumnInfoSequence(s.getLastReturnedVal() + 2 * sequenceStepSize, sequenceStepSize, seq_cache_size - 1, System.currentTimeMillis()));
+				retval = s.getLastReturnedVal() + sequenceStepSize;
+			}
 
-				IServerInternal tableServer = (IServerInternal)ApplicationServerRegistry.get().getServerManager().getServer(column.getTable().getServerName(),
-					false, true);
+			if (retval >= nextSequence)
+			{
+				nextSequence = retval;
+			}
+			else
+			{
+				columnInfoSeqCache.put(column,
+					new ColumnInfoSequence(nextSequence + sequenceStepSize, sequenceStepSize, seq_cache_size - 1, System.currentTimeMillis()));
+			}
+		}
+		else
+		{
+			columnInfoSeqCache.put(column,
+				new ColumnInfoSequence(nextSequence + sequenceStepSize, sequenceStepSize, seq_cache_size - 1, System.currentTimeMillis()));
+		}
+		return nextSequence;
+	}
 
-				QuerySelect select = SQLGenerator.createAggregateSelect(QueryAggregate.MAX, column.getTable(), column);
+	/**
+	 * @return the max of the column in the table plus the step size, 1 for an empty table
+	 */
+	private static long queryNextSequence(Column column, int sequenceStepSize, boolean update) throws RepositoryException
+	{
+		long nextSequence = 1;
+		IDataServer dataServer = ApplicationServerRegistry.get().getDataServer();
+		try
+		{
+			IServerInternal tableServer = (IServerInternal)ApplicationServerRegistry.get().getServerManager().getServer(column.getTable().getServerName(),
+				false, true);
 
-				QuerySet querySet = tableServer.getSQLQuerySet(select, null, 0, -1, false, false);
-				String maxSeqSelect = querySet.getSelect().getSql();
+			QuerySelect select = SQLGenerator.createAggregateSelect(QueryAggregate.MAX, column.getTable(), column);
 
-				// in case one of the debug clients has a transaction started on this server, execute the query inside that transaction
-				// (otherwise the query will block)
+			QuerySet querySet = tableServer.getSQLQuerySet(select, null, 0, -1, false, false);
+			String maxSeqSelect = querySet.getSelect().getSql();
 
-				String clientId = ApplicationServerRegistry.get().getClientId();
-				String tid = null;
-				IServiceProvider client = J2DBGlobals.getServiceProvider();
+			// in case one of the debug clients has a transaction started on this server, execute the query inside that transaction
+			// (otherwise the query will block)
 
-				if (client != null && client.getFoundSetManager() != null)
-				{
-					// in case switchServer was called tableServer will be new_server because DataServerProxy was called
-					String possibleMappedServerName = update && (client.getDataServer() instanceof DataServerProxy)
-						? ((DataServerProxy)client.getDataServer()).getReverseMappedServerNames(tableServer.getName()).iterator().next()
-						: tableServer.getName();
-					tid = client.getFoundSetManager().getTransactionID(possibleMappedServerName);
-					clientId = client.getClientID();
-				}
+			String clientId = ApplicationServerRegistry.get().getClientId();
+			String tid = null;
+			IServiceProvider client = J2DBGlobals.getServiceProvider();
 
-				rs = dataServer.performCustomQuery(clientId, column.getTable().getServerName(), column.getTable().getName(), tid,
-					new QueryCustomSelect(maxSeqSelect), null, 0, -1);
-				String val = null;
-				if (rs.getRowCount() == 1 && rs.getRow(0)[0] != null)
-				{
-					val = rs.getRow(0)[0].toString();//doing string lookup, can be other thing than long type in table
-				}
+			if (client != null && client.getFoundSetManager() != null)
+			{
+				// in case switchServer was called tableServer will be new_server because DataServerProxy was called
+				String possibleMappedServerName = update && (client.getDataServer() instanceof DataServerProxy)
+					? ((DataServerProxy)client.getDataServer()).getReverseMappedServerNames(tableServer.getName()).iterator().next()
+					: tableServer.getName();
+				tid = client.getFoundSetManager().getTransactionID(possibleMappedServerName);
+				clientId = client.getClientID();
+			}
 
-				if (val != null)
-				{
-					String last = Utils.findLastNumber(val);
-					if (last != null)
-					{
-						int index = val.indexOf(last);
-						if (index > 0)
-						{
-							nextSequence = Utils.getAsLong(last) + sequenceStepSize;
-						}
-						else
-						{
-							nextSequence = Utils.getAsLong(val) + sequenceStepSize;
-						}
-					}
-				}
+			IDataSet rs = dataServer.performCustomQuery(clientId, column.getTable().getServerName(), column.getTable().getName(), tid,
+				new QueryCustomSelect(maxSeqSelect), null, 0, -1);
+			String val = null;
+			if (rs.getRowCount() == 1 && rs.getRow(0)[0] != null)
+			{
+				val = rs.getRow(0)[0].toString();//doing string lookup, can be other thing than long type in table
+			}
 
-				if (update)
+			if (val != null)
+			{
+				String last = Utils.findLastNumber(val);
+				if (last != null)
 				{
-					s = columnInfoSeqCache.get(column);
-					if (s != null)
+					int index = val.indexOf(last);
+					if (index > 0)
 					{
-						long retval = s.getNextVal();
-						if (retval == -1 || s.getSequenceStepSize() != sequenceStepSize)
-						{
-							columnInfoSeqCache.remove(column);
-							if (s.getCreationTime() + 9000 > System.currentTimeMillis())//if empty within 9 seconds
-							{
-								seq_cache_size = (s.getTotalSeqSize() + 2) * 2; //double capacity for next time
-							}
-							columnInfoSeqCache.put(column, new ColumnInfoSequence(s.getLastReturnedVal() + 2 * sequenceStepSize, sequenceStepSize,
-								seq_cache_size - 1, System.currentTimeMillis()));
-							retval = s.getLastReturnedVal() + sequenceStepSize;
-						}
-
-						if (retval >= nextSequence)
-						{
-							nextSequence = retval;
-						}
-						else
-						{
-							columnInfoSeqCache.put(column,
-								new ColumnInfoSequence(nextSequence + sequenceStepSize, sequenceStepSize, seq_cache_size - 1, System.currentTimeMillis()));
-						}
+						nextSequence = Utils.getAsLong(last) + sequenceStepSize;
 					}
 					else
 					{
-						columnInfoSeqCache.put(column,
-							new ColumnInfoSequence(nextSequence + sequenceStepSize, sequenceStepSize, seq_cache_size - 1, System.currentTimeMillis()));
+						nextSequence = Utils.getAsLong(val) + sequenceStepSize;
 					}
 				}
 			}
-			else
-			{
-				ServoyLog.logError("Cannot calculate next sequence because of null column info - " + column, null);
-			}
 		}
 		catch (ServoyException e)
 		{
@@ -199,28 +339,12 @@ public class EclipseSequenceProvider implements ISequenceProvider
 			ServoyLog.logError(e);
 			throw new RepositoryException("error getting next sequence for " + column, e);
 		}
+		return nextSequence;
+	}
 
-
-		//make return value
-		boolean preSequenceEmpty = (preSequenceChars == null || preSequenceChars.trim().length() == 0);
-		boolean postSequenceEmpty = (postSequenceChars == null || postSequenceChars.trim().length() == 0);
-
-		if (preSequenceEmpty && postSequenceEmpty)
-		{
-			return Long.valueOf(nextSequence);
-		}
-
-		StringBuilder sb = new StringBuilder();
-		if (!preSequenceEmpty)
-		{
-			sb.append(preSequenceChars);
-		}
-		sb.append(nextSequence);
-		if (!postSequenceEmpty)
-		{
-			sb.append(postSequenceChars);
-		}
-		return sb.toString();
+	private static String getSequenceKey(Column column)
+	{
+		return column.getTable().getDataSource() + '.' + column.getName();
 	}
 
 	public Object syncSequence(Column column) throws RepositoryException
@@ -279,6 +403,9 @@ public class EclipseSequenceProvider implements ISequenceProvider
 				}
 			}
 
+			// the next block starts from the synced max
+			sequenceBlocks.remove(getSequenceKey(column));
+
 			if (newSequence > 0)
 			{
 				ColumnInfo columnInfo = column.getColumnInfo();
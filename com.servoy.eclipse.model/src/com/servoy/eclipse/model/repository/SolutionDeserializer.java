@@ -88,6 +88,7 @@ import com.servoy.eclipse.model.builder.ServoyBuilder;
 import com.servoy.eclipse.model.extensions.ICalculationTypeInferencer;
 import com.servoy.eclipse.model.extensions.ICalculationTypeInferencerProvider;
 import com.servoy.eclipse.model.nature.ServoyProject;
+import com.servoy.eclipse.model.preferences.SolutionLoadingPreferences;
 import com.servoy.eclipse.model.util.IFileAccess;
 import com.servoy.eclipse.model.util.ModelUtils;
 import com.servoy.eclipse.model.util.ServoyLog;
@@ -154,6 +155,7 @@ public class SolutionDeserializer
 	private final String jsContent;
 	private ICalculationTypeInferencerProvider calculationTypeInferencerProvider;
 	private ICalculationTypeInferencer calculationTypeInferencer;
+	private SolutionFilePreloader preloader;
 
 	public SolutionDeserializer(IDeveloperRepository repository, ErrorKeeper<File, String> errorKeeper)
 	{
@@ -253,7 +255,26 @@ public class SolutionDeserializer
 		HashSet<UUID> solutionUUIDs = getAlreadyUsedUUIDsForSolution(solution.getUUID());
 		solutionUUIDs.clear();
 
-		updateSolution(projectDir, solution, changedFiles, null, true, useFilesForDirtyMark, false);
+		long time = System.currentTimeMillis();
+		SolutionLoadingPreferences loadingPreferences = new SolutionLoadingPreferences();
+		int loadingThreads = loadingPreferences.isParallelLoading() ? loadingPreferences.getLoadingThreads() : 1;
+		if (loadingThreads > 1 && projectDir != null && projectDir.isDirectory())
+		{
+			preloader = SolutionFilePreloader.preload(projectDir, loadingThreads);
+		}
+		try
+		{
+			updateSolution(projectDir, solution, changedFiles, null, true, useFilesForDirtyMark, false);
+		}
+		finally
+		{
+			if (preloader != null)
+			{
+				preloader.dispose();
+				preloader = null;
+			}
+		}
+		ServoyLog.logInfo("Solution '" + smd.getName() + "' read in " + (System.currentTimeMillis() - time) + "ms using " + loadingThreads + " loading thread(s)");
 
 		if (!useFilesForDirtyMark)
 		{
@@ -390,7 +411,8 @@ public class SolutionDeserializer
 							boolean recognized = false;
 							if (SolutionSerializer.isJSONFile(file))
 							{
-								JSONObject json_obj = new ServoyJSONObject(Utils.getTXTFileContent(f, Charset.forName("UTF8")), true);
+								JSONObject json_obj = preloader != null ? preloader.takeJSONObject(f) : null;
+								if (json_obj == null) json_obj = new ServoyJSONObject(Utils.getTXTFileContent(f, Charset.forName("UTF8")), true);
 								if (json_obj.length() == 0)
 								{
 									// empty file just skip this one.
@@ -994,62 +1016,37 @@ public class SolutionDeserializer
 
 	private List<JSONObject> parseJSFile(final File file, boolean markAsChanged) throws JSONException
 	{
-		String fileContent = jsContent;
-		if (jsFile != file)
+		ParsedScript parsedScript = preloader != null && jsFile != file ? preloader.takeScript(file) : null;
+		if (parsedScript == null)
 		{
-			fileContent = Utils.getTXTFileContent(file, Charset.forName("UTF8"));
-		}
-		if (fileContent == null) return Collections.<JSONObject> emptyList();
-
-		StringBuilder sbfileContent = null;
-		int lastIndex = 0;
-		for (int i = 0; i < fileContent.length(); i++)
-		{
-			if (fileContent.charAt(i) == '\r')
+			String content = jsContent;
+			if (jsFile != file)
 			{
-				if (sbfileContent == null)
-				{
-					sbfileContent = new StringBuilder(fileContent.length());
-				}
-				sbfileContent.append(fileContent.substring(lastIndex, i));
-				lastIndex = i + 1;
+				content = Utils.getTXTFileContent(file, Charset.forName("UTF8"));
 			}
+			parsedScript = ParsedScript.parse(content);
 		}
-		if (sbfileContent != null)
-		{
-			sbfileContent.append(fileContent.substring(lastIndex));
-			fileContent = sbfileContent.toString();
-		}
+		final String fileContent = parsedScript.fileContent;
+		if (fileContent == null) return Collections.<JSONObject> emptyList();
+
 		try
 		{
 			List<JSONObject> jsonObjects = new ArrayList<JSONObject>();
-			JavaScriptParser parser = new JavaScriptParser();
-			final List<IProblem> problems = new ArrayList<IProblem>();
-			IProblemReporter reporter = new IProblemReporter()
+			final List<IProblem> problems = parsedScript.problems;
+			for (IProblem problem : problems)
 			{
-				public void reportProblem(IProblem problem)
-				{
-					if (problem.isError())
-					{
-						problems.add(problem);
-						errorKeeper.addError(file, problem.getMessage());
-					}
-				}
-			};
-
-			Script script = null;
-			try
-			{
-				script = parser.parse(fileContent, reporter);
+				errorKeeper.addError(file, problem.getMessage());
 			}
-			catch (Throwable t)
+
+			Script script = parsedScript.script;
+			if (parsedScript.parseError != null)
 			{
-				Debug.error(t);
+				Debug.error(parsedScript.parseError);
 				Debug.error("Parse error with file: " + file +
 					", please check this file for deep recursion like large string concats! ( string + string + string, replace this with string \\ string)");
 				ServoyLog.logError("Parse error with file: " + file +
 					", please check this file for deep recursion like large string concats! ( string + string + string, replace this with string \\ string)",
-					t);
+					parsedScript.parseError);
 			}
 			if (problems.size() > 0)
 			{
@@ -2393,6 +2390,77 @@ public class SolutionDeserializer
 		return false;
 	}
 
+	/**
+	 * The result of reading and parsing a javascript file, this doesn't touch the model so it can be created on any thread.
+	 */
+	static final class ParsedScript
+	{
+		/**
+		 * The file content with all the \\r characters removed.
+		 */
+		final String fileContent;
+		final Script script;
+		final List<IProblem> problems;
+		final Throwable parseError;
+
+		private ParsedScript(String fileContent, Script script, List<IProblem> problems, Throwable parseError)
+		{
+			this.fileContent = fileContent;
+			this.script = script;
+			this.problems = problems;
+			this.parseError = parseError;
+		}
+
+		static ParsedScript parse(String content)
+		{
+			if (content == null) return new ParsedScript(null, null, Collections.<IProblem> emptyList(), null);
+
+			String fileContent = content;
+			StringBuilder sbfileContent = null;
+			int lastIndex = 0;
+			for (int i = 0; i < fileContent.length(); i++)
+			{
+				if (fileContent.charAt(i) == '\r')
+				{
+					if (sbfileContent == null)
+					{
+						sbfileContent = new StringBuilder(fileContent.length());
+					}
+					sbfileContent.append(fileContent.substring(lastIndex, i));
+					lastIndex = i + 1;
+				}
+			}
+			if (sbfileContent != null)
+			{
+				sbfileContent.append(fileContent.substring(lastIndex));
+				fileContent = sbfileContent.toString();
+			}
+
+			final List<IProblem> problems = new ArrayList<IProblem>();
+			IProblemReporter reporter = new IProblemReporter()
+			{
+				public void reportProblem(IProblem problem)
+				{
+					if (problem.isError())
+					{
+						problems.add(problem);
+					}
+				}
+			};
+			Script script = null;
+			Throwable parseError = null;
+			try
+			{
+				script = new JavaScriptParser().parse(fileContent, reporter);
+			}
+			catch (Throwable t)
+			{
+				parseError = t;
+			}
+			return new ParsedScript(fileContent, script, problems, parseError);
+		}
+	}
+
 	/**
 	 * @author jcompagner
 	 *
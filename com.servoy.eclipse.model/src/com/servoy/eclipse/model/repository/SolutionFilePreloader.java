@@ -0,0 +1,188 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.model.repository;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.servoy.eclipse.model.repository.SolutionDeserializer.ParsedScript;
+import com.servoy.j2db.util.ServoyJSONObject;
+import com.servoy.j2db.util.Utils;
+
+/**
+ * Reads and parses the json and javascript files of a solution directory on a shared {@link ForkJoinPool}, ahead of the persist creation in
+ * {@link SolutionDeserializer}.<br>
+ * Only reading the file contents and running the json/javascript parsers is done in parallel. Persist creation, completing the persists and the
+ * duplicate uuid checks still happen on the loading thread in the (sorted) directory order of the deserializer, so the resulting solution is
+ * the same as for a serial load. Files that were not preloaded are just read by the deserializer itself.
+ */
+class SolutionFilePreloader
+{
+	private static ForkJoinPool pool;
+
+	private final Map<File, ForkJoinTask<PreloadedFile>> tasks = new HashMap<File, ForkJoinTask<PreloadedFile>>(1024, 0.9f);
+	private SolutionFilePreloader()
+	{
+	}
+
+	private static synchronized ForkJoinPool getPool(int threads)
+	{
+		if (pool == null || pool.getParallelism() != threads)
+		{
+			if (pool != null) pool.shutdown(); // running tasks will still complete
+			pool = new ForkJoinPool(threads);
+		}
+		return pool;
+	}
+
+	/**
+	 * Start reading all the files of the solution directory that the deserializer will read on a full load.
+	 */
+	static SolutionFilePreloader preload(File solutionDir, int threads)
+	{
+		SolutionFilePreloader preloader = new SolutionFilePreloader();
+		ForkJoinPool forkJoinPool = getPool(threads);
+		String[] files = solutionDir.list();
+		if (files != null)
+		{
+			for (String file : files)
+			{
+				if (file.equals(SolutionSerializer.MEDIAS_DIR) || file.equals(SolutionSerializer.MEDIAS_FILE) || file.equals(SolutionSerializer.ROOT_METADATA))
+				{
+					continue;
+				}
+				File f = new File(solutionDir, file);
+				if (f.isDirectory())
+				{
+					if (SolutionSerializer.FORMS_DIR.equals(file) || SolutionSerializer.RELATIONS_DIR.equals(file) ||
+						SolutionSerializer.VALUELISTS_DIR.equals(file) || SolutionSerializer.DATASOURCES_DIR_NAME.equals(file))
+					{
+						preloader.submitDirectory(forkJoinPool, f);
+					}
+				}
+				else
+				{
+					preloader.submitFile(forkJoinPool, f);
+				}
+			}
+		}
+		return preloader;
+	}
+
+	private void submitDirectory(ForkJoinPool forkJoinPool, File dir)
+	{
+		File[] files = dir.listFiles();
+		if (files == null) return;
+		for (File f : files)
+		{
+			if (f.isDirectory())
+			{
+				submitDirectory(forkJoinPool, f);
+			}
+			else
+			{
+				submitFile(forkJoinPool, f);
+			}
+		}
+	}
+
+	private void submitFile(ForkJoinPool forkJoinPool, final File f)
+	{
+		final String name = f.getName();
+		if (SolutionSerializer.isJSONFile(name))
+		{
+			tasks.put(f, forkJoinPool.submit(() -> {
+				PreloadedFile preloaded = new PreloadedFile();
+				try
+				{
+					preloaded.json = new ServoyJSONObject(Utils.getTXTFileContent(f, Charset.forName("UTF8")), true);
+				}
+				catch (JSONException e)
+				{
+					preloaded.jsonException = e;
+				}
+				return preloaded;
+			}));
+		}
+		else if (name.endsWith(SolutionSerializer.JS_FILE_EXTENSION))
+		{
+			tasks.put(f, forkJoinPool.submit(() -> {
+				PreloadedFile preloaded = new PreloadedFile();
+				preloaded.script = ParsedScript.parse(Utils.getTXTFileContent(f, Charset.forName("UTF8")));
+				return preloaded;
+			}));
+		}
+	}
+
+	private PreloadedFile take(File file)
+	{
+		ForkJoinTask<PreloadedFile> task = tasks.remove(file);
+		return task != null ? task.join() : null;
+	}
+
+	/**
+	 * Get the parsed json object of a file, this can only be taken once.
+	 *
+	 * @return null when the file was not preloaded
+	 * @throws JSONException when the file did not contain valid json
+	 */
+	JSONObject takeJSONObject(File file) throws JSONException
+	{
+		PreloadedFile preloaded = take(file);
+		if (preloaded == null) return null;
+		if (preloaded.jsonException != null) throw preloaded.jsonException;
+		return preloaded.json;
+	}
+
+	/**
+	 * Get the parsed javascript of a file, this can only be taken once.
+	 *
+	 * @return null when the file was not preloaded
+	 */
+	ParsedScript takeScript(File file)
+	{
+		PreloadedFile preloaded = take(file);
+		return preloaded != null ? preloaded.script : null;
+	}
+
+	/**
+	 * Stop the preloading of the files that are not taken (yet).
+	 */
+	void dispose()
+	{
+		for (ForkJoinTask<PreloadedFile> task : tasks.values())
+		{
+			task.cancel(false);
+		}
+		tasks.clear();
+	}
+
+	private static class PreloadedFile
+	{
+		JSONObject json;
+		JSONException jsonException;
+		ParsedScript script;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+import com.servoy.j2db.persistence.IPersist;
+
+/**
+ * Content hashes of the files the repository wrote when a persist of the editing solution was saved.
+ * <p>
+ * The resource delta of such a write does not have to be deserialized, the real solution can be updated from the saved editing persist instead.
+ * A write is only used once and only when the file still has the written content on disk, so a change by another tool (git, a text editor)
+ * that came after the write is still deserialized.
+ *
+ * @since 2021.12
+ */
+public final class WrittenFileHashes
+{
+	// entries that are not consumed by a resource delta (write failed) should not pile up
+	private static final int MAX_ENTRIES = 10000;
+
+	public static final class WrittenFile
+	{
+		private final long length;
+		private final byte[] hash;
+		private final IPersist savedPersist;
+		private final boolean recursive;
+
+		private WrittenFile(long length, byte[] hash, IPersist savedPersist, boolean recursive)
+		{
+			this.length = length;
+			this.hash = hash;
+			this.savedPersist = savedPersist;
+			this.recursive = recursive;
+		}
+
+		/**
+		 * The persist of the editing solution that was saved when the file was written.
+		 */
+		public IPersist getSavedPersist()
+		{
+			return savedPersist;
+		}
+
+		public boolean isRecursive()
+		{
+			return recursive;
+		}
+	}
+
+	private final Map<File, WrittenFile> writtenFiles = new LinkedHashMap<File, WrittenFile>()
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, WrittenFile> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * Record the contents that are written to the file when saving the editing persist, must be called before the file is written.
+	 */
+	public void recordWrite(File file, byte[] contents, IPersist savedPersist, boolean recursive)
+	{
+		if (file == null) return;
+		WrittenFile writtenFile = new WrittenFile(contents.length, hash(contents), savedPersist, recursive);
+		synchronized (writtenFiles)
+		{
+			writtenFiles.put(file, writtenFile);
+		}
+	}
+
+	/**
+	 * Get the write of the file if the file has on disk the contents that were last written to it, the recorded write is forgotten after this call.
+	 *
+	 * @return the write when the file does not have to be deserialized, null otherwise
+	 */
+	public WrittenFile takeUnchangedWrite(File file)
+	{
+		WrittenFile writtenFile;
+		synchronized (writtenFiles)
+		{
+			writtenFile = writtenFiles.remove(file);
+		}
+		if (writtenFile == null || !file.isFile() || file.length() != writtenFile.length) return null;
+		try
+		{
+			return Arrays.equals(writtenFile.hash, hash(Files.readAllBytes(file.toPath()))) ? writtenFile : null;
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError(e);
+			return null;
+		}
+	}
+
+	private static byte[] hash(byte[] contents)
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-1").digest(contents);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// every java platform has SHA-1
+			throw new IllegalStateException(e);
+		}
+	}
+}
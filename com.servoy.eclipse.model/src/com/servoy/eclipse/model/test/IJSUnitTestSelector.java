@@ -0,0 +1,43 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.test;
+
+import java.util.Set;
+
+import com.servoy.j2db.persistence.Solution;
+
+/**
+ * Selects which test cases of a generated jsunit suite are run, see {@link SolutionJSUnitSuiteCodeBuilder#setTestSelector(IJSUnitTestSelector)}.
+ *
+ * @since 2021.12
+ */
+public interface IJSUnitTestSelector
+{
+	/**
+	 * @param solution the solution that is tested
+	 * @param testCaseKeys the keys of all the test cases of the suite, like "solution/forms.formName" or "solution/scopes.scopeName"
+	 *
+	 * @return the keys of the test cases to run
+	 */
+	Set<String> selectTestCases(Solution solution, Set<String> testCaseKeys);
+
+	/**
+	 * Called when the selected test cases have run.
+	 */
+	void testRunFinished(boolean successful);
+}
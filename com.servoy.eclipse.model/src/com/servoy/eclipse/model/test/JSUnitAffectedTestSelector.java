@@ -0,0 +1,629 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.servoy.eclipse.model.Activator;
+import com.servoy.eclipse.model.ServoyModelFinder;
+import com.servoy.eclipse.model.builder.BuilderDependencies;
+import com.servoy.eclipse.model.extensions.IServoyModel;
+import com.servoy.eclipse.model.nature.ServoyProject;
+import com.servoy.eclipse.model.repository.SolutionSerializer;
+import com.servoy.j2db.FlattenedSolution;
+import com.servoy.j2db.persistence.Form;
+import com.servoy.j2db.persistence.IPersist;
+import com.servoy.j2db.persistence.IRepository;
+import com.servoy.j2db.persistence.ISupportScope;
+import com.servoy.j2db.persistence.Media;
+import com.servoy.j2db.persistence.Relation;
+import com.servoy.j2db.persistence.ScriptMethod;
+import com.servoy.j2db.persistence.ScriptVariable;
+import com.servoy.j2db.persistence.Solution;
+import com.servoy.j2db.persistence.ValueList;
+import com.servoy.j2db.util.DataSourceUtils;
+import com.servoy.j2db.util.Debug;
+
+/**
+ * Selects only the jsunit test cases that can reach code that changed, since a git ref or since the last successful run of the affected tests.
+ * <p>
+ * The changed files of the active solution and its modules are mapped to forms, scopes, relations, valuelists, media and datasources. From those the
+ * dependent forms and scopes are followed with the dependencies that the builder keeps (see {@link BuilderDependencies}), the form hierarchy and the
+ * references in the scripts: forms.x and scopes.x, relation names, valuelist names in string literals (like getValueListItems('x')), datasource
+ * strings like 'db:/server/table' and datasources.db.server.table. A test case of a form or scope that is reached is run, the others are skipped.
+ * Names that a script builds at runtime can't be followed.
+ * <p>
+ * All test cases are run when the changes can't be followed: there are no builder dependencies (yet), a changed file can't be mapped (for example
+ * the resources project or the solution settings), a changed persist doesn't exist anymore or the changed files can't be determined.
+ * Files that are deleted since the last run are not seen in that mode, use a git ref if that matters. A sharded run does not keep the time of
+ * the last run, the shards would overwrite each other's time, so it must use a git ref.
+ *
+ * @since 2021.12
+ */
+public final class JSUnitAffectedTestSelector implements IJSUnitTestSelector
+{
+	/**
+	 * System property to only run the affected tests, the value is the git ref to compare the working tree with or {@link #SINCE_LAST_RUN}.
+	 */
+	public static final String AFFECTED_PROPERTY = "servoy.jsunit.affected";
+	public static final String SINCE_LAST_RUN = "last";
+
+	private static final String LAST_RUN_FILE = "jsunit_last_run";
+	private static final long GIT_TIMEOUT_SECONDS = 60;
+	private static final Pattern REFERENCE = Pattern.compile("\\b(forms|scopes)\\.(\\w+)|\\bglobals\\.");
+	private static final Pattern DATASOURCE_REFERENCE = Pattern.compile("\\bdatasources\\.(db\\.(\\w+)\\.(\\w+)|mem\\.(\\w+)|view\\.(\\w+))");
+	private static final Pattern WORD_OR_STRING = Pattern.compile("([A-Za-z_$][\\w$]*)|'([^'\\\\\\r\\n]*)'|\"([^\"\\\\\\r\\n]*)\"");
+
+	private static final String FORMS = "forms.";
+	private static final String SCOPES = "scopes.";
+	private static final String RELATIONS = "relations.";
+	private static final String VALUELISTS = "valuelists.";
+	private static final String MEDIA = "media.";
+	private static final String DATASOURCES = "datasources.";
+
+	private final String since;
+	private final boolean sharded;
+	private long runStarted;
+
+	// why the selection falls back to all test cases
+	private String fallbackReason;
+	// the changed file for a changed node, the node it was reached from for the others
+	private final Map<String, String> reachedFrom = new HashMap<String, String>();
+	// the forms and scopes that reference a node in their scripts or extend it
+	private Map<String, Set<String>> referencedBy;
+	private Set<String> relationNames;
+	private Set<String> valuelistNames;
+
+	/**
+	 * @param since a git ref or {@link #SINCE_LAST_RUN}
+	 * @param sharded true when only a shard of the test cases is run
+	 */
+	public JSUnitAffectedTestSelector(String since, boolean sharded)
+	{
+		this.since = since;
+		this.sharded = sharded;
+	}
+
+	/**
+	 * @param shard the shard that is run, can be null
+	 * @return the selector for the {@link #AFFECTED_PROPERTY} system property, or null if it is not set
+	 */
+	public static JSUnitAffectedTestSelector fromSystemProperties(JSUnitShard shard)
+	{
+		String since = System.getProperty(AFFECTED_PROPERTY);
+		return since == null || since.trim().length() == 0 ? null : new JSUnitAffectedTestSelector(since.trim(), shard != null);
+	}
+
+	@Override
+	public Set<String> selectTestCases(Solution solution, Set<String> testCaseKeys)
+	{
+		runStarted = System.currentTimeMillis();
+		Set<String> affected;
+		try
+		{
+			affected = getAffectedNodes(solution);
+		}
+		catch (LinkageError e)
+		{
+			// a headless run without the eclipse model
+			fallbackReason = "the builder dependencies are not available (" + e + ")";
+			affected = null;
+		}
+		if (affected == null)
+		{
+			Debug.log("Running all " + testCaseKeys.size() + " jsunit test cases, the affected test cases can't be determined: " + fallbackReason);
+			return testCaseKeys;
+		}
+
+		Set<String> selected = new LinkedHashSet<String>();
+		StringBuilder report = new StringBuilder();
+		for (String testCaseKey : testCaseKeys)
+		{
+			String node = testCaseKey.substring(testCaseKey.indexOf('/') + 1);
+			if (affected.contains(node))
+			{
+				selected.add(testCaseKey);
+				report.append("\nrun ").append(testCaseKey).append(": ").append(getPath(node));
+			}
+			else
+			{
+				report.append("\nskip ").append(testCaseKey).append(": it does not depend on a changed file");
+			}
+		}
+		Debug.log("Running " + selected.size() + " of " + testCaseKeys.size() + " jsunit test cases, affected by the changes since " + since + report);
+		return selected;
+	}
+
+	@Override
+	public void testRunFinished(boolean successful)
+	{
+		// the changes of a failed run should be tested again the next time
+		if (!successful || !SINCE_LAST_RUN.equals(since) || sharded || runStarted == 0) return;
+		File lastRunFile = getLastRunFile();
+		if (lastRunFile == null) return;
+		try
+		{
+			Files.write(lastRunFile.toPath(), String.valueOf(runStarted).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException e)
+		{
+			Debug.error("Cannot write the last jsunit run time to " + lastRunFile, e);
+		}
+	}
+
+	/**
+	 * @return the changed forms, scopes, relations etc. and all the ones that depend on them, or null if that can't be determined
+	 */
+	private Set<String> getAffectedNodes(Solution solution)
+	{
+		IServoyModel servoyModel = ServoyModelFinder.getServoyModel();
+		if (servoyModel == null || servoyModel.getActiveProject() == null || !servoyModel.getActiveProject().getProject().getName().equals(solution.getName()))
+		{
+			fallbackReason = "the tested solution is not the active solution";
+			return null;
+		}
+		if (!BuilderDependencies.getInstance().isInitialized())
+		{
+			fallbackReason = "the active solution is not built yet";
+			return null;
+		}
+		FlattenedSolution fs = servoyModel.getFlattenedSolution();
+
+		Deque<String> toVisit = new ArrayDeque<String>();
+		for (ServoyProject module : servoyModel.getModulesOfActiveProject())
+		{
+			List<String> changedFiles = getChangedFiles(module.getProject().getLocation().toFile());
+			if (changedFiles == null) return null;
+			for (String changedFile : changedFiles)
+			{
+				String node = getChangedNode(changedFile);
+				if (node == null)
+				{
+					fallbackReason = "changed file " + module.getProject().getName() + '/' + changedFile + " is not a form, scope, relation, valuelist, media or datasource script";
+					return null;
+				}
+				if (node.length() > 0 && !reachedFrom.containsKey(node))
+				{
+					reachedFrom.put(node, "changed " + module.getProject().getName() + '/' + changedFile);
+					toVisit.add(node);
+				}
+			}
+		}
+		if (servoyModel.getActiveResourcesProject() != null)
+		{
+			List<String> changedFiles = getChangedFiles(servoyModel.getActiveResourcesProject().getProject().getLocation().toFile());
+			if (changedFiles == null) return null;
+			if (!changedFiles.isEmpty())
+			{
+				fallbackReason = "the resources project changed: " + changedFiles.get(0);
+				return null;
+			}
+		}
+
+		Set<String> affected = new HashSet<String>();
+		while (!toVisit.isEmpty())
+		{
+			String node = toVisit.poll();
+			affected.add(node);
+			List<String> dependents = getDependents(node, fs);
+			if (dependents == null) return null;
+			for (String dependent : dependents)
+			{
+				if (!reachedFrom.containsKey(dependent))
+				{
+					reachedFrom.put(dependent, node);
+					toVisit.add(dependent);
+				}
+			}
+		}
+		return affected;
+	}
+
+	/**
+	 * @return the changed files of the project, relative to the project directory, or null if they can't be determined
+	 */
+	private List<String> getChangedFiles(File projectDir)
+	{
+		if (SINCE_LAST_RUN.equals(since))
+		{
+			if (sharded)
+			{
+				fallbackReason = "a sharded run does not keep the time of the last run, use a git ref";
+				return null;
+			}
+			File lastRunFile = getLastRunFile();
+			long lastRun;
+			try
+			{
+				lastRun = lastRunFile != null && lastRunFile.isFile() ? Long.parseLong(new String(Files.readAllBytes(lastRunFile.toPath()),
+					StandardCharsets.UTF_8).trim()) : 0;
+			}
+			catch (IOException | NumberFormatException e)
+			{
+				Debug.error(e);
+				lastRun = 0;
+			}
+			if (lastRun == 0)
+			{
+				fallbackReason = "there is no earlier successful run";
+				return null;
+			}
+			List<String> changedFiles = new ArrayList<String>();
+			collectModifiedFiles(projectDir, "", lastRun, changedFiles);
+			return changedFiles;
+		}
+
+		List<String> changedFiles = runGit(projectDir, "diff", "--name-only", "--relative", since, "--", ".");
+		List<String> untrackedFiles = changedFiles != null ? runGit(projectDir, "ls-files", "--others", "--exclude-standard") : null;
+		if (untrackedFiles == null) return null;
+		changedFiles.addAll(untrackedFiles);
+		return changedFiles;
+	}
+
+	private static void collectModifiedFiles(File dir, String path, long since, List<String> changedFiles)
+	{
+		File[] files = dir.listFiles();
+		if (files == null) return;
+		for (File file : files)
+		{
+			if (file.getName().startsWith(".")) continue;
+			if (file.isDirectory())
+			{
+				collectModifiedFiles(file, path + file.getName() + '/', since, changedFiles);
+			}
+			else if (file.lastModified() > since)
+			{
+				changedFiles.add(path + file.getName());
+			}
+		}
+	}
+
+	private List<String> runGit(File dir, String... arguments)
+	{
+		List<String> command = new ArrayList<String>();
+		command.add("git");
+		command.addAll(Arrays.asList(arguments));
+		try
+		{
+			Process process = new ProcessBuilder(command).directory(dir).start();
+			// both outputs are read while waiting, a full pipe would block git
+			List<String> lines = new ArrayList<String>();
+			List<String> errorLines = new ArrayList<String>();
+			Thread outputReader = readLines(process.getInputStream(), lines);
+			Thread errorReader = readLines(process.getErrorStream(), errorLines);
+			if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+			{
+				process.destroyForcibly();
+				fallbackReason = "git " + arguments[0] + " did not finish in " + GIT_TIMEOUT_SECONDS + " seconds in " + dir;
+				return null;
+			}
+			outputReader.join();
+			errorReader.join();
+			if (process.exitValue() != 0)
+			{
+				fallbackReason = "git " + arguments[0] + " failed in " + dir + ": " + String.join(" ", errorLines);
+				return null;
+			}
+			return lines;
+		}
+		catch (IOException e)
+		{
+			fallbackReason = "git could not be run in " + dir + ": " + e.getMessage();
+			return null;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			fallbackReason = "interrupted while running git";
+			return null;
+		}
+	}
+
+	private static Thread readLines(InputStream is, List<String> lines)
+	{
+		Thread reader = new Thread(() -> {
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8)))
+			{
+				String line;
+				while ((line = in.readLine()) != null)
+				{
+					if (line.trim().length() > 0) lines.add(line.trim());
+				}
+			}
+			catch (IOException e)
+			{
+				// the process was stopped
+			}
+		}, "git output reader");
+		reader.setDaemon(true);
+		reader.start();
+		return reader;
+	}
+
+	/**
+	 * @return the node of the changed file, an empty string when the file does not influence the tests or null when the file can't be mapped
+	 */
+	private static String getChangedNode(String changedFile)
+	{
+		String[] segments = changedFile.split("/");
+		for (String segment : segments)
+		{
+			// .project, .settings and the like
+			if (segment.startsWith(".")) return "";
+		}
+		String fileName = segments[segments.length - 1];
+		if (segments.length == 1)
+		{
+			return fileName.endsWith(SolutionSerializer.JS_FILE_EXTENSION) ? SCOPES + stripExtension(fileName) : null;
+		}
+		if (segments[0].equals(SolutionSerializer.MEDIAS_DIR))
+		{
+			return MEDIA + changedFile.substring(SolutionSerializer.MEDIAS_DIR.length() + 1);
+		}
+		if (segments.length == 2)
+		{
+			if (segments[0].equals(SolutionSerializer.FORMS_DIR) &&
+				(fileName.endsWith(SolutionSerializer.FORM_FILE_EXTENSION) || fileName.endsWith(SolutionSerializer.JS_FILE_EXTENSION)))
+			{
+				return FORMS + stripExtension(fileName);
+			}
+			if (segments[0].equals(SolutionSerializer.RELATIONS_DIR) && fileName.endsWith(SolutionSerializer.RELATION_FILE_EXTENSION))
+			{
+				return RELATIONS + stripExtension(fileName);
+			}
+			if (segments[0].equals(SolutionSerializer.VALUELISTS_DIR) && fileName.endsWith(SolutionSerializer.VALUELIST_FILE_EXTENSION))
+			{
+				return VALUELISTS + stripExtension(fileName);
+			}
+		}
+		if (segments.length == 3 && segments[0].equals(SolutionSerializer.DATASOURCES_DIR_NAME))
+		{
+			// datasources/server/table_calculations.js or datasources/server/table_entity.js
+			String tableName = null;
+			if (fileName.endsWith(SolutionSerializer.CALCULATIONS_POSTFIX))
+			{
+				tableName = fileName.substring(0, fileName.length() - SolutionSerializer.CALCULATIONS_POSTFIX.length());
+			}
+			else if (fileName.endsWith(SolutionSerializer.FOUNDSET_POSTFIX))
+			{
+				tableName = fileName.substring(0, fileName.length() - SolutionSerializer.FOUNDSET_POSTFIX.length());
+			}
+			if (tableName == null) return null;
+			if (DataSourceUtils.INMEM_DATASOURCE.equals(segments[1])) return DATASOURCES + DataSourceUtils.createInmemDataSource(tableName);
+			if (DataSourceUtils.VIEW_DATASOURCE.equals(segments[1])) return DATASOURCES + DataSourceUtils.createViewDataSource(tableName);
+			return DATASOURCES + DataSourceUtils.createDBTableDataSource(segments[1], tableName);
+		}
+		return null;
+	}
+
+	private static String stripExtension(String fileName)
+	{
+		int dot = fileName.lastIndexOf('.');
+		return dot > 0 ? fileName.substring(0, dot) : fileName;
+	}
+
+	/**
+	 * @return the forms and scopes (and relations, valuelists) that use the node, or null if the node can't be found in the solution
+	 */
+	private List<String> getDependents(String node, FlattenedSolution fs)
+	{
+		BuilderDependencies dependencies = BuilderDependencies.getInstance();
+		List< ? extends IPersist> dependentPersists = null;
+		if (node.startsWith(FORMS))
+		{
+			Form form = fs.getForm(node.substring(FORMS.length()));
+			if (form == null) return notFound(node);
+			dependentPersists = dependencies.getFormDependencies(form);
+		}
+		else if (node.startsWith(SCOPES))
+		{
+			if (!fs.getScopeNames().contains(node.substring(SCOPES.length()))) return notFound(node);
+			dependentPersists = dependencies.getScopeDependency(node.substring(SCOPES.length()));
+		}
+		else if (node.startsWith(RELATIONS))
+		{
+			Relation relation = fs.getRelation(node.substring(RELATIONS.length()));
+			if (relation == null) return notFound(node);
+			dependentPersists = dependencies.getRelationDependencies(relation);
+		}
+		else if (node.startsWith(VALUELISTS))
+		{
+			ValueList valuelist = fs.getValueList(node.substring(VALUELISTS.length()));
+			if (valuelist == null) return notFound(node);
+			dependentPersists = dependencies.getValuelistDependencies(valuelist);
+		}
+		else if (node.startsWith(MEDIA))
+		{
+			Media media = fs.getMedia(node.substring(MEDIA.length()));
+			if (media == null) return notFound(node);
+			dependentPersists = dependencies.getMediaDependencies(media);
+		}
+		else if (node.startsWith(DATASOURCES))
+		{
+			dependentPersists = dependencies.getDatasourceDependency(node.substring(DATASOURCES.length()));
+		}
+
+		List<String> dependents = new ArrayList<String>();
+		if (dependentPersists != null)
+		{
+			for (IPersist persist : dependentPersists)
+			{
+				String dependent = getNode(persist);
+				if (dependent != null) dependents.add(dependent);
+			}
+		}
+		Set<String> references = getReferencedBy(fs).get(node);
+		if (references != null) dependents.addAll(references);
+		return dependents;
+	}
+
+	private List<String> notFound(String node)
+	{
+		fallbackReason = node + " changed but it is not in the active solution (anymore)";
+		return null;
+	}
+
+	private static String getNode(IPersist persist)
+	{
+		IPersist form = persist.getAncestor(IRepository.FORMS);
+		if (form instanceof Form) return FORMS + ((Form)form).getName();
+		if (persist instanceof Relation) return RELATIONS + ((Relation)persist).getName();
+		if (persist instanceof ValueList) return VALUELISTS + ((ValueList)persist).getName();
+		if (persist instanceof Media) return MEDIA + ((Media)persist).getName();
+		if (persist instanceof ISupportScope && ((ISupportScope)persist).getScopeName() != null) return SCOPES + ((ISupportScope)persist).getScopeName();
+		return null;
+	}
+
+	/**
+	 * The references in the scripts and the forms that extend a form are not in the builder dependencies.
+	 */
+	private Map<String, Set<String>> getReferencedBy(FlattenedSolution fs)
+	{
+		if (referencedBy == null)
+		{
+			referencedBy = new HashMap<String, Set<String>>();
+			relationNames = new HashSet<String>();
+			Iterator<Relation> relations = fs.getRelations(false);
+			while (relations.hasNext())
+			{
+				relationNames.add(relations.next().getName());
+			}
+			valuelistNames = new HashSet<String>();
+			Iterator<ValueList> valuelists = fs.getValueLists(false);
+			while (valuelists.hasNext())
+			{
+				valuelistNames.add(valuelists.next().getName());
+			}
+			Iterator<Form> forms = fs.getForms(false);
+			while (forms.hasNext())
+			{
+				Form form = forms.next();
+				String node = FORMS + form.getName();
+				if (form.getExtendsID() > 0)
+				{
+					Form parent = fs.getForm(form.getExtendsID());
+					if (parent != null) addReference(FORMS + parent.getName(), node);
+				}
+				addReferences(node, form.getScriptMethods(false), form.getScriptVariables(false));
+			}
+			for (String scopeName : fs.getScopeNames())
+			{
+				addReferences(SCOPES + scopeName, fs.getScriptMethods(scopeName, false), fs.getScriptVariables(scopeName, false));
+			}
+		}
+		return referencedBy;
+	}
+
+	private void addReferences(String node, Iterator<ScriptMethod> methods, Iterator<ScriptVariable> variables)
+	{
+		while (methods.hasNext())
+		{
+			addReferences(node, methods.next().getDeclaration());
+		}
+		while (variables.hasNext())
+		{
+			addReferences(node, variables.next().getDefaultValue());
+		}
+	}
+
+	private void addReferences(String node, String script)
+	{
+		if (script == null) return;
+		Matcher matcher = REFERENCE.matcher(script);
+		while (matcher.find())
+		{
+			String referenced = matcher.group(1) == null ? SCOPES + ScriptVariable.GLOBAL_SCOPE : matcher.group(1) + '.' + matcher.group(2);
+			if (!referenced.equals(node)) addReference(referenced, node);
+		}
+		matcher = DATASOURCE_REFERENCE.matcher(script);
+		while (matcher.find())
+		{
+			String dataSource;
+			if (matcher.group(2) != null) dataSource = DataSourceUtils.createDBTableDataSource(matcher.group(2), matcher.group(3));
+			else if (matcher.group(4) != null) dataSource = DataSourceUtils.createInmemDataSource(matcher.group(4));
+			else dataSource = DataSourceUtils.createViewDataSource(matcher.group(5));
+			addReference(DATASOURCES + dataSource, node);
+		}
+		// relations are used by name (foundset.rel_x, 'rel_x'), valuelists and datasources in strings (getValueListItems('vl'), 'db:/server/table')
+		matcher = WORD_OR_STRING.matcher(script);
+		while (matcher.find())
+		{
+			if (matcher.group(1) != null)
+			{
+				if (relationNames.contains(matcher.group(1))) addReference(RELATIONS + matcher.group(1), node);
+			}
+			else
+			{
+				String string = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+				if (relationNames.contains(string)) addReference(RELATIONS + string, node);
+				if (valuelistNames.contains(string)) addReference(VALUELISTS + string, node);
+				if (string.indexOf(":/") > 0) addReference(DATASOURCES + string, node);
+			}
+		}
+	}
+
+	private void addReference(String referenced, String node)
+	{
+		referencedBy.computeIfAbsent(referenced, key -> new HashSet<String>()).add(node);
+	}
+
+	/**
+	 * @return how the node was reached from a changed file, for the report
+	 */
+	private String getPath(String node)
+	{
+		List<String> path = new ArrayList<String>();
+		Set<String> seen = new HashSet<String>();
+		String current = node;
+		while (current != null && seen.add(current))
+		{
+			path.add(current);
+			current = reachedFrom.get(current);
+		}
+		Collections.reverse(path);
+		return String.join(" -> ", path);
+	}
+
+	private static File getLastRunFile()
+	{
+		Activator activator = Activator.getDefault();
+		if (activator == null) return null;
+		return new File(activator.getStateLocation().toFile(), LAST_RUN_FILE);
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One of the parts in which the jsunit test cases (the test methods of one form or one scope) of a solution are split, so the parts can be run by separate
+ * test clients at the same time.
+ * <p>
+ * Every shard computes the same split on its own: the test cases are assigned, longest first, to the shard that has the least work so far. The work of
+ * a test case is its recorded duration (see {@link JSUnitTestDurations}), or its number of tests times the average test duration when it was not
+ * recorded yet.
+ *
+ * @since 2021.12
+ */
+public final class JSUnitShard
+{
+	/**
+	 * System property with the shard to run, as "index/count", for example "2/4" for the second of four shards.
+	 */
+	public static final String SHARD_PROPERTY = "servoy.jsunit.shard";
+
+	// used for the test cases when there are no durations at all
+	private static final long DEFAULT_TEST_DURATION = 100;
+
+	private final int index;
+	private final int count;
+
+	/**
+	 * @param index the 1 based index of this shard
+	 * @param count the number of shards
+	 */
+	public JSUnitShard(int index, int count)
+	{
+		if (count < 1 || index < 1 || index > count)
+		{
+			throw new IllegalArgumentException("Invalid jsunit shard " + index + "/" + count);
+		}
+		this.index = index;
+		this.count = count;
+	}
+
+	/**
+	 * @return the shard of the {@link #SHARD_PROPERTY} system property, or null if it is not set
+	 */
+	public static JSUnitShard fromSystemProperties()
+	{
+		String shard = System.getProperty(SHARD_PROPERTY);
+		return shard == null || shard.trim().length() == 0 ? null : parse(shard);
+	}
+
+	public static JSUnitShard parse(String shard)
+	{
+		int slash = shard.indexOf('/');
+		try
+		{
+			if (slash > 0)
+			{
+				return new JSUnitShard(Integer.parseInt(shard.substring(0, slash).trim()), Integer.parseInt(shard.substring(slash + 1).trim()));
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			// handled below
+		}
+		throw new IllegalArgumentException("Invalid jsunit shard '" + shard + "', it should be 'index/count'");
+	}
+
+	public int getIndex()
+	{
+		return index;
+	}
+
+	public int getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Select the test cases of this shard.
+	 *
+	 * @param testCases the number of tests per test case key, of all the test cases of the suite
+	 * @param durations the recorded durations, can be null
+	 *
+	 * @return the keys of the test cases that this shard runs
+	 */
+	public Set<String> selectTestCases(Map<String, Integer> testCases, JSUnitTestDurations durations)
+	{
+		long averageTestDuration = DEFAULT_TEST_DURATION;
+		if (durations != null)
+		{
+			long knownDuration = 0;
+			long knownTests = 0;
+			for (Map.Entry<String, Integer> entry : testCases.entrySet())
+			{
+				long duration = durations.getDuration(entry.getKey());
+				if (duration >= 0)
+				{
+					knownDuration += duration;
+					knownTests += entry.getValue().intValue();
+				}
+			}
+			if (knownTests > 0) averageTestDuration = Math.max(1, knownDuration / knownTests);
+		}
+
+		List<String> keys = new ArrayList<String>(testCases.keySet());
+		Map<String, Long> work = new HashMap<String, Long>();
+		for (String key : keys)
+		{
+			long duration = durations != null ? durations.getDuration(key) : -1;
+			work.put(key, Long.valueOf(duration >= 0 ? duration : testCases.get(key).intValue() * averageTestDuration));
+		}
+		// the order must be the same in every shard, so ties are ordered by key
+		keys.sort((key1, key2) -> {
+			int compare = work.get(key2).compareTo(work.get(key1));
+			return compare != 0 ? compare : key1.compareTo(key2);
+		});
+
+		long[] shardWork = new long[count];
+		Set<String> selected = new HashSet<String>();
+		for (String key : keys)
+		{
+			int leastWork = 0;
+			for (int i = 1; i < count; i++)
+			{
+				if (shardWork[i] < shardWork[leastWork]) leastWork = i;
+			}
+			shardWork[leastWork] += work.get(key).longValue();
+			if (leastWork == index - 1) selected.add(key);
+		}
+		return selected;
+	}
+
+	@Override
+	public String toString()
+	{
+		return index + "/" + count;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import com.servoy.j2db.util.Debug;
+
+/**
+ * The durations of the jsunit test cases of earlier runs, in ms by test case key, used to split the test cases over {@link JSUnitShard}s.
+ * <p>
+ * The durations are kept in a properties file. The shards that run at the same time must all split the test cases in the same way, so that file is
+ * only read during a sharded run: every shard writes the durations of its own test cases to a file of its own, and those files are merged into the
+ * durations file after all shards are done, see {@link #merge(File, List)}. A run without shards writes all durations back to the durations file.
+ * <p>
+ * The sharded jsunit launch of the developer starts the shards, collects their results in one test run and merges their durations when they are done;
+ * a build that starts the shard test clients itself calls {@link #merge(File, List)} after they are all done.
+ *
+ * @since 2021.12
+ */
+public final class JSUnitTestDurations
+{
+	/**
+	 * System property with the path of the durations file.
+	 */
+	public static final String DURATIONS_PROPERTY = "servoy.jsunit.durations";
+
+	/**
+	 * System property with the path of the file that the durations of this run are written to. When it is not set a shard writes to the durations
+	 * file path with ".shard&lt;index&gt;" appended, a run without shards writes to the durations file itself.
+	 */
+	public static final String DURATIONS_OUTPUT_PROPERTY = "servoy.jsunit.durations.output";
+
+	private final File file;
+	private final File outputFile;
+	private final Map<String, Long> durations = new HashMap<String, Long>();
+	private final Map<String, Long> recorded = new HashMap<String, Long>();
+
+	/**
+	 * @param file the durations file that is read
+	 * @param outputFile the file the durations of this run are written to, when it is another file than the one that is read only the durations of the test
+	 *            cases that ran are written to it
+	 */
+	public JSUnitTestDurations(File file, File outputFile)
+	{
+		this.file = file;
+		this.outputFile = outputFile;
+		load(file, durations);
+	}
+
+	/**
+	 * @param shard the shard that is run, can be null
+	 * @return the durations of the {@link #DURATIONS_PROPERTY} system property file, or null if it is not set
+	 */
+	public static JSUnitTestDurations fromSystemProperties(JSUnitShard shard)
+	{
+		String path = System.getProperty(DURATIONS_PROPERTY);
+		if (path == null || path.trim().length() == 0) return null;
+
+		File file = new File(path.trim());
+		String outputPath = System.getProperty(DURATIONS_OUTPUT_PROPERTY);
+		File outputFile;
+		if (outputPath != null && outputPath.trim().length() > 0) outputFile = new File(outputPath.trim());
+		else if (shard != null) outputFile = new File(file.getPath() + ".shard" + shard.getIndex());
+		else outputFile = file;
+		return new JSUnitTestDurations(file, outputFile);
+	}
+
+	private static void load(File file, Map<String, Long> durations)
+	{
+		if (file.isFile())
+		{
+			Properties properties = new Properties();
+			try (InputStream is = new FileInputStream(file))
+			{
+				properties.load(is);
+			}
+			catch (IOException e)
+			{
+				Debug.error("Cannot read the jsunit test durations from " + file, e);
+			}
+			for (String key : properties.stringPropertyNames())
+			{
+				try
+				{
+					durations.put(key, Long.valueOf(properties.getProperty(key)));
+				}
+				catch (NumberFormatException e)
+				{
+					// ignore, it is recorded again on the next run
+				}
+			}
+		}
+	}
+
+	private static void store(File file, Map<String, Long> durations)
+	{
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) parent.mkdirs();
+		Properties properties = new Properties();
+		for (Map.Entry<String, Long> entry : durations.entrySet())
+		{
+			properties.setProperty(entry.getKey(), entry.getValue().toString());
+		}
+		try (OutputStream os = new FileOutputStream(file))
+		{
+			properties.store(os, "jsunit test case durations in ms");
+		}
+		catch (IOException e)
+		{
+			Debug.error("Cannot write the jsunit test durations to " + file, e);
+		}
+	}
+
+	/**
+	 * @return the duration in ms of the test case or -1 if it was not recorded yet
+	 */
+	public synchronized long getDuration(String testCaseKey)
+	{
+		Long duration = durations.get(testCaseKey);
+		return duration != null ? duration.longValue() : -1;
+	}
+
+	/**
+	 * Record the duration of a test case run, it is averaged with the earlier duration so one slow run does not move it to another shard right away.
+	 */
+	public synchronized void record(String testCaseKey, long millis)
+	{
+		Long previous = durations.get(testCaseKey);
+		Long duration = Long.valueOf(previous != null ? (previous.longValue() + millis) / 2 : millis);
+		durations.put(testCaseKey, duration);
+		recorded.put(testCaseKey, duration);
+	}
+
+	/**
+	 * Write the durations to the output file. That is all durations when it is the durations file itself, or only the recorded ones when it is the
+	 * output of a shard.
+	 */
+	public synchronized void save()
+	{
+		if (recorded.isEmpty()) return;
+		store(outputFile, outputFile.equals(file) ? durations : recorded);
+	}
+
+	/**
+	 * Merge the outputs of the shards of a run into the durations file, for the next run. Must only be called when all shards are done.
+	 *
+	 * @param file the durations file that the shards read
+	 * @param shardOutputFiles the files the shards wrote their durations to, files that do not exist (a shard without recorded durations) are skipped
+	 */
+	public static void merge(File file, List<File> shardOutputFiles)
+	{
+		Map<String, Long> merged = new HashMap<String, Long>();
+		load(file, merged);
+		for (File shardOutputFile : shardOutputFiles)
+		{
+			load(shardOutputFile, merged);
+		}
+		store(file, merged);
+	}
+}
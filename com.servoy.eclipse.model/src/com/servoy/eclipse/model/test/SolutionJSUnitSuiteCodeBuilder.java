@@ -20,9 +20,13 @@ package com.servoy.eclipse.model.test;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
@@ -68,6 +72,16 @@ public class SolutionJSUnitSuiteCodeBuilder
 	protected String code;
 	protected String rootTestClassName;
 
+	private JSUnitShard shard;
+	private JSUnitTestDurations durations;
+	private IJSUnitTestSelector testSelector;
+	// the number of tests per test case key, only set while the test cases are collected for the selection or the shard
+	private Map<String, Integer> collectedTestCases;
+	// the keys of the test cases to generate, null if all test cases are generated
+	private Set<String> selectedTestCases;
+	// test case key by test case name, by solution suite name
+	private final Map<String, Map<String, String>> testCaseKeys = new HashMap<String, Map<String, String>>();
+
 	/**
 	 * Returns the js unit suite javascript code that was constructed from initialization.
 	 * @return the js unit suite javascript code that was constructed from initialization.
@@ -88,6 +102,36 @@ public class SolutionJSUnitSuiteCodeBuilder
 		return rootTestClassName;
 	}
 
+	/**
+	 * Only generate the test cases of the given shard, must be called before {@link #initializeWithSolution(Solution, FlattenedSolution, TestTarget, boolean)}.
+	 *
+	 * @param durations the durations of the test cases in earlier runs, used to split the test cases; can be null
+	 */
+	public void setShard(JSUnitShard shard, JSUnitTestDurations durations)
+	{
+		this.shard = shard;
+		this.durations = durations;
+	}
+
+	/**
+	 * Only generate the test cases that the selector selects, must be called before {@link #initializeWithSolution(Solution, FlattenedSolution, TestTarget, boolean)}.
+	 * When there is also a shard the selected test cases are split over the shards.
+	 */
+	public void setTestSelector(IJSUnitTestSelector testSelector)
+	{
+		this.testSelector = testSelector;
+	}
+
+	/**
+	 * Returns the keys of the test cases in a solution suite, so the durations of test runs can be recorded by key.
+	 * @param solutionSuiteName the name of the generated solution suite.
+	 * @return the test case keys by test case name or null if there is no solution suite with that name.
+	 */
+	public Map<String, String> getTestCaseKeys(String solutionSuiteName)
+	{
+		return testCaseKeys.get(solutionSuiteName);
+	}
+
 	public void initializeWithSolution(Solution solution, FlattenedSolution flattenedSolution, TestTarget target,
 		boolean spamInTestNamesAsFullTreePathsForDumbToolsThatAreUnAwareOfTestSuiteHierarchy)
 	{
@@ -96,6 +140,39 @@ public class SolutionJSUnitSuiteCodeBuilder
 			initializeWithError("No solution loaded in test client.");
 			return;
 		}
+
+		//* If Test target is null that means the whole active solution.
+		//* If Test target's module to test is the same as active solution that means the whole active solution again.
+		boolean partOfTargetModuleSubtree = target == null ||
+			target.getActiveSolution().getName().equals(target.getModuleToTest() == null ? "" : target.getModuleToTest().getName());
+		if (shard != null || testSelector != null)
+		{
+			// first only collect all the test cases, every shard selects and splits them the same way
+			collectedTestCases = new LinkedHashMap<String, Integer>();
+			try
+			{
+				appendSolutionTestCode(solution, target, new StringBuffer(), new HashSet<Solution>(), flattenedSolution, partOfTargetModuleSubtree, null);
+				if (collectedTestCases.isEmpty())
+				{
+					initializeWithError(
+						"Th" + (target == null ? "is solution" : "e selection") + " does not have jsunit tests" + (target == null ? ": " + solution.getName() : "."));
+					return;
+				}
+				Map<String, Integer> testCases = collectedTestCases;
+				if (testSelector != null)
+				{
+					Set<String> selected = testSelector.selectTestCases(solution, Collections.unmodifiableSet(collectedTestCases.keySet()));
+					testCases = new LinkedHashMap<String, Integer>(collectedTestCases);
+					testCases.keySet().retainAll(selected);
+				}
+				selectedTestCases = shard != null ? shard.selectTestCases(testCases, durations) : testCases.keySet();
+			}
+			finally
+			{
+				collectedTestCases = null;
+			}
+		}
+
 		// build solution test suite code; the structure will look like this:
 		//
 		// Solution suite
@@ -117,12 +194,15 @@ public class SolutionJSUnitSuiteCodeBuilder
 			longTestNamesPrefix.push("test_SOLUTION_");
 		}
 
-		TestIdentifier testIdentifier = appendSolutionTestCode(solution, target, testCode, inspectedModules, flattenedSolution,
-			//* If Test target is null that means the whole active solution.
-			//* If Test target's module to test is the same as active solution that means the whole active solution again.
-			target == null || target.getActiveSolution().getName().equals(target.getModuleToTest() == null ? "" : target.getModuleToTest().getName()),
+		TestIdentifier testIdentifier = appendSolutionTestCode(solution, target, testCode, inspectedModules, flattenedSolution, partOfTargetModuleSubtree,
 			longTestNamesPrefix);
 
+		if (testIdentifier == null && selectedTestCases != null)
+		{
+			// none of the test cases is selected or they all run in other shards
+			testIdentifier = addSolutionSuite(solution, null, Collections.<TestIdentifier> emptyList(), null, testCode);
+		}
+
 		if (testIdentifier == null)
 		{
 			initializeWithError(
@@ -229,7 +309,8 @@ public class SolutionJSUnitSuiteCodeBuilder
 				// prefix the name so that we have no name conflicts with other form/module/global tests
 				List<ScriptMethod> list = Utils.asList(it);
 				Collections.reverse(list);
-				TestIdentifier tmp = addTestCaseIfNecessary(list.iterator(), target, scopeName, "scopes", testCode, longTestNamesPrefix);
+				TestIdentifier tmp = addTestCaseIfNecessary(list, target, scopeName, "scopes", solution.getName() + "/scopes." + scopeName, solution,
+					testCode, longTestNamesPrefix);
 				if (tmp != null) allGlobalIdentifiers.add(tmp);
 
 				if (longTestNamesPrefix != null) longTestNamesPrefix.pop(); // pop for scopeName
@@ -281,7 +362,7 @@ public class SolutionJSUnitSuiteCodeBuilder
 			{
 				if (longTestNamesPrefix != null) longTestNamesPrefix.push(form.getName());
 
-				TestIdentifier formTestIdentifier = addFormTests(flattenedSolution.getFlattenedForm(form), target, testCode, longTestNamesPrefix);
+				TestIdentifier formTestIdentifier = addFormTests(flattenedSolution.getFlattenedForm(form), target, solution, testCode, longTestNamesPrefix);
 				if (formTestIdentifier != null)
 				{
 					allFormTestNames.add(formTestIdentifier);
@@ -295,27 +376,43 @@ public class SolutionJSUnitSuiteCodeBuilder
 		return allFormTestNames;
 	}
 
-	private TestIdentifier addFormTests(Form form, TestTarget target, StringBuffer testCode, Stack<String> longTestNamesPrefix)
+	private TestIdentifier addFormTests(Form form, TestTarget target, Solution solution, StringBuffer testCode, Stack<String> longTestNamesPrefix)
 	{
 		Iterator<ScriptMethod> it = form.getScriptMethods(true);
 		// prefix the name so that we have no name conflicts with other form/module/global tests
 		List<ScriptMethod> list = Utils.asList(it);
 		Collections.reverse(list);
-		return addTestCaseIfNecessary(list.iterator(), target, "Form '" + form.getName() + "' tests", "forms." + form.getName(), testCode, longTestNamesPrefix);
+		return addTestCaseIfNecessary(list, target, "Form '" + form.getName() + "' tests", "forms." + form.getName(),
+			solution.getName() + "/forms." + form.getName(), solution, testCode, longTestNamesPrefix);
 	}
 
-	private TestIdentifier addTestCaseIfNecessary(Iterator<ScriptMethod> it, TestTarget target, String nameOfTest, String callPrefix, StringBuffer testCode,
-		Stack<String> longTestNamesPrefix)
+	private static boolean isTestMethod(ScriptMethod method, TestTarget target)
 	{
+		return (target == null || target.getTestMethodToTest() == null || target.getTestMethodToTest().getID() == method.getID()) &&
+			method.getName().startsWith(TEST_METHOD_PREFIX);
+	}
+
+	private TestIdentifier addTestCaseIfNecessary(List<ScriptMethod> methods, TestTarget target, String nameOfTest, String callPrefix, String testCaseKey,
+		Solution solution, StringBuffer testCode, Stack<String> longTestNamesPrefix)
+	{
+		if (collectedTestCases != null)
+		{
+			int tests = 0;
+			for (ScriptMethod method : methods)
+			{
+				if (isTestMethod(method, target)) tests++;
+			}
+			if (tests > 0) collectedTestCases.put(testCaseKey, Integer.valueOf(tests));
+			return null;
+		}
+		if (selectedTestCases != null && !selectedTestCases.contains(testCaseKey)) return null;
+
 		TestIdentifier testIdentifier = null;
 		boolean testMethodsFound = false;
 		StringBuffer tmp = new StringBuffer();
-		while (it.hasNext())
+		for (ScriptMethod method : methods)
 		{
-			ScriptMethod method = it.next();
-			if (method.getName().equals(SET_UP_METHOD) || method.getName().equals(TEAR_DOWN_METHOD) ||
-				((target == null || target.getTestMethodToTest() == null || target.getTestMethodToTest().getID() == method.getID()) &&
-					method.getName().startsWith(TEST_METHOD_PREFIX)))
+			if (method.getName().equals(SET_UP_METHOD) || method.getName().equals(TEAR_DOWN_METHOD) || isTestMethod(method, target))
 			{
 				if (!testMethodsFound && method.getName().startsWith(TEST_METHOD_PREFIX))
 				{
@@ -382,6 +479,7 @@ public class SolutionJSUnitSuiteCodeBuilder
 			testCode.append(".prototype = new TestCase();\n");
 			testCode.append(testIdentifier.getTestClassName());
 			testCode.append(".glue(this);\n\n");
+			testCaseKeys.computeIfAbsent(getSolutionSuiteName(solution), name -> new HashMap<String, String>()).put(nameOfTest, testCaseKey);
 		}
 		return testMethodsFound ? testIdentifier : null;
 	}
@@ -427,7 +525,7 @@ public class SolutionJSUnitSuiteCodeBuilder
 	private TestIdentifier addSolutionSuite(Solution solution, TestIdentifier globalSuiteId, List<TestIdentifier> formTestCaseIds,
 		TestIdentifier modulesTestSuiteId, StringBuffer testCode)
 	{
-		TestIdentifier suiteId = new TestIdentifier("Solution '" + solution.getName() + "' tests");
+		TestIdentifier suiteId = new TestIdentifier(getSolutionSuiteName(solution));
 		testCode.append("function ");
 		testCode.append(suiteId.getTestClassName());
 		testCode.append("() {\n\tTestSuite.call(this, null);\n\tthis.setName(\"");
@@ -469,6 +567,11 @@ public class SolutionJSUnitSuiteCodeBuilder
 		return suiteId;
 	}
 
+	private static String getSolutionSuiteName(Solution solution)
+	{
+		return "Solution '" + solution.getName() + "' tests";
+	}
+
 	public void initializeWithError(String msg)
 	{
 		StringBuffer error = new StringBuffer(300);
@@ -202,7 +202,7 @@ public class WorkspaceFileAccess implements IFileAccess
 			public void close() throws IOException
 			{
 				super.close();
-				setContents(relativeFilePath, new ByteArrayInputStream(toByteArray()));
+				setContents(relativeFilePath, toByteArray());
 			}
 		};
 	}
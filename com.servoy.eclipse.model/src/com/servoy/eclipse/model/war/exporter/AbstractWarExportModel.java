@@ -91,6 +91,8 @@ public abstract class AbstractWarExportModel implements IWarExportModel
 	private boolean isOverwriteDeployedServoyProperties;
 	private Map<String, String> upgradedLicenses;
 	private boolean skipDatabaseViewsUpdate;
+	private boolean streamingExport;
+	private String exportCacheDir;
 
 	public AbstractWarExportModel(boolean isNGExport)
 	{
@@ -653,4 +655,26 @@ public abstract class AbstractWarExportModel implements IWarExportModel
 	{
 		skipDatabaseViewsUpdate = skip;
 	}
+
+	@Override
+	public boolean isStreamingExport()
+	{
+		return streamingExport;
+	}
+
+	public void setStreamingExport(boolean streamingExport)
+	{
+		this.streamingExport = streamingExport;
+	}
+
+	@Override
+	public String getExportCacheDir()
+	{
+		return exportCacheDir;
+	}
+
+	public void setExportCacheDir(String exportCacheDir)
+	{
+		this.exportCacheDir = exportCacheDir;
+	}
 }
@@ -138,4 +138,14 @@ public interface IWarExportModel extends IExportSolutionModel
 	public Set<String> getExportedPackages();
 
 	public boolean isExportNG2();
+
+	/**
+	 * When true the files that don't need processing are written to the war straight from their source, instead of being copied to a temp dir first.
+	 */
+	public boolean isStreamingExport();
+
+	/**
+	 * The dir of the cache of the grouped resources, compiled less files and extracted packages that is reused by exports with the same inputs, null if not cached.
+	 */
+	public String getExportCacheDir();
 }
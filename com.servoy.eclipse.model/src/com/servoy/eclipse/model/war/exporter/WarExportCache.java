@@ -0,0 +1,243 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.war.exporter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * Cache of war export outputs that are expensive to compute, stored in a directory and keyed by a hash of the content of their inputs.
+ * Exports that run again with the same inputs (like a CI server exporting every merge) reuse the output instead of computing it again.
+ * <p>
+ * An entry is a directory (or a text file) named after its key under a directory per kind of output, entries are written to a temp name first
+ * and then renamed so a cache dir can be shared by exports that run at the same time.
+ *
+ * @since 2021.12
+ */
+class WarExportCache
+{
+	private final File cacheDir;
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+	private final AtomicLong bytesSaved = new AtomicLong();
+
+	WarExportCache(File cacheDir)
+	{
+		this.cacheDir = cacheDir;
+	}
+
+	/**
+	 * Start a key for an output of the given kind, all its inputs should be added to it.
+	 */
+	Key newKey(String kind)
+	{
+		return new Key(kind);
+	}
+
+	/**
+	 * Copy the cached directory of the key to the destination.
+	 * @return true if the key was cached, false if the output has to be computed (and stored)
+	 */
+	boolean restoreDir(String key, File destDir)
+	{
+		File entry = getEntry(key);
+		if (entry.isDirectory())
+		{
+			try
+			{
+				FileUtils.copyDirectory(entry, destDir);
+				hits.incrementAndGet();
+				bytesSaved.addAndGet(FileUtils.sizeOfDirectory(entry));
+				return true;
+			}
+			catch (IOException e)
+			{
+				ServoyLog.logError("Could not restore " + entry + " from the war export cache", e);
+			}
+		}
+		misses.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Store a copy of the directory as the output of the key.
+	 */
+	void storeDir(String key, File sourceDir)
+	{
+		File entry = getEntry(key);
+		if (entry.exists() || !sourceDir.isDirectory()) return;
+		File tmp = new File(entry.getParentFile(), entry.getName() + ".tmp" + System.nanoTime());
+		try
+		{
+			FileUtils.copyDirectory(sourceDir, tmp);
+			if (!tmp.renameTo(entry)) FileUtils.deleteDirectory(tmp);
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError("Could not store " + sourceDir + " in the war export cache", e);
+			FileUtils.deleteQuietly(tmp);
+		}
+	}
+
+	/**
+	 * @return the cached text of the key, null if it is not cached
+	 */
+	String getText(String key)
+	{
+		File entry = getEntry(key);
+		if (entry.isFile())
+		{
+			try
+			{
+				String text = FileUtils.readFileToString(entry, StandardCharsets.UTF_8);
+				hits.incrementAndGet();
+				bytesSaved.addAndGet(entry.length());
+				return text;
+			}
+			catch (IOException e)
+			{
+				ServoyLog.logError("Could not read " + entry + " from the war export cache", e);
+			}
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	void storeText(String key, String text)
+	{
+		File entry = getEntry(key);
+		if (entry.exists()) return;
+		File tmp = new File(entry.getParentFile(), entry.getName() + ".tmp" + System.nanoTime());
+		try
+		{
+			FileUtils.writeStringToFile(tmp, text, StandardCharsets.UTF_8);
+			Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError("Could not store " + entry + " in the war export cache", e);
+			FileUtils.deleteQuietly(tmp);
+		}
+	}
+
+	/**
+	 * @return the hits, misses and the size of the outputs that did not have to be computed again
+	 */
+	String getReport()
+	{
+		return "War export cache " + cacheDir + ": " + hits.get() + " hits, " + misses.get() + " misses, " +
+			FileUtils.byteCountToDisplaySize(bytesSaved.get()) + " reused";
+	}
+
+	private File getEntry(String key)
+	{
+		// key is kind/hash
+		File entry = new File(cacheDir, key);
+		entry.getParentFile().mkdirs();
+		return entry;
+	}
+
+	/**
+	 * A SHA-256 hash over the inputs of an output.
+	 */
+	static final class Key
+	{
+		private final String kind;
+		private final MessageDigest digest;
+		private final byte[] buffer = new byte[64 * 1024];
+
+		private Key(String kind)
+		{
+			this.kind = kind;
+			try
+			{
+				digest = MessageDigest.getInstance("SHA-256");
+			}
+			catch (NoSuchAlgorithmException e)
+			{
+				throw new IllegalStateException(e);
+			}
+			add(kind);
+		}
+
+		Key add(String value)
+		{
+			if (value != null) digest.update(value.getBytes(StandardCharsets.UTF_8));
+			// separator, so that ("ab", "c") and ("a", "bc") are different keys
+			digest.update((byte)0);
+			return this;
+		}
+
+		Key add(byte[] value)
+		{
+			if (value != null) digest.update(value);
+			digest.update((byte)0);
+			return this;
+		}
+
+		/**
+		 * Add the content of the file, a missing file is added as a missing file.
+		 */
+		Key add(File file) throws IOException
+		{
+			if (file.isFile())
+			{
+				try (InputStream in = new FileInputStream(file))
+				{
+					int read;
+					while ((read = in.read(buffer)) != -1)
+					{
+						digest.update(buffer, 0, read);
+					}
+				}
+				add(Long.toString(file.length()));
+			}
+			else
+			{
+				add("<missing>");
+			}
+			return this;
+		}
+
+		/**
+		 * @return the key, kind/hash
+		 */
+		String get()
+		{
+			StringBuilder sb = new StringBuilder(kind).append('/');
+			for (byte b : digest.digest())
+			{
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		}
+	}
+}
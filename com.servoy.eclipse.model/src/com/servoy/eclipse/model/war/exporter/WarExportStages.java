@@ -0,0 +1,225 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.model.war.exporter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * The stages of a war export with the stages they depend on, a stage is started on a thread pool as soon as all its dependencies are done.
+ * <p>
+ * Only the thread that calls {@link #run(SubMonitor, int)} reports progress, the stages get a monitor that only forwards the cancel state.
+ * <p>
+ * The stages are added in the order of a sequential export, {@link #getCurrentStageIndex()} gives the running stage its position in that order.
+ *
+ * @since 2021.12
+ */
+class WarExportStages
+{
+	interface StageAction
+	{
+		void run(IProgressMonitor monitor) throws ExportException;
+	}
+
+	private static final ThreadLocal<Stage> currentStage = new ThreadLocal<>();
+
+	private static final class Stage
+	{
+		private final int index;
+		private final String name;
+		private final int work;
+		private final StageAction action;
+		private final List<Stage> dependents = new ArrayList<>();
+		private int pendingDependencies;
+		private long millis;
+
+		private Stage(int index, String name, int work, StageAction action)
+		{
+			this.index = index;
+			this.name = name;
+			this.work = work;
+			this.action = action;
+		}
+	}
+
+	private static final class StageResult
+	{
+		private final Stage stage;
+		private final Exception exception;
+
+		private StageResult(Stage stage, Exception exception)
+		{
+			this.stage = stage;
+			this.exception = exception;
+		}
+	}
+
+	private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+	/**
+	 * Add a stage, the stages it depends on must already be added; dependencies on stages that are not added (because they are not part of this export) are ignored.
+	 */
+	void add(String name, int work, StageAction action, String... dependsOn)
+	{
+		Stage stage = new Stage(stages.size(), name, work, action);
+		for (String dependency : dependsOn)
+		{
+			Stage dependencyStage = stages.get(dependency);
+			if (dependencyStage != null)
+			{
+				dependencyStage.dependents.add(stage);
+				stage.pendingDependencies++;
+			}
+		}
+		stages.put(name, stage);
+	}
+
+	/**
+	 * @return the index (in the order in which they are added) of the stage that runs on the current thread, or Integer.MAX_VALUE if no stage is running
+	 *         on the current thread (the work after the stages).
+	 */
+	static int getCurrentStageIndex()
+	{
+		Stage stage = currentStage.get();
+		return stage != null ? stage.index : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Run all stages, this returns when all are done or throws the exception of the first stage that failed (after the running stages are done).
+	 */
+	void run(SubMonitor monitor, int threads) throws ExportException
+	{
+		monitor.setWorkRemaining(stages.values().stream().mapToInt(stage -> stage.work).sum());
+		IProgressMonitor stageMonitor = new NullProgressMonitor()
+		{
+			@Override
+			public boolean isCanceled()
+			{
+				return monitor.isCanceled();
+			}
+		};
+
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, stages.size())), runnable -> {
+			Thread thread = new Thread(runnable, "War export stage " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		BlockingQueue<StageResult> done = new LinkedBlockingQueue<>();
+		long start = System.currentTimeMillis();
+		try
+		{
+			int running = 0;
+			for (Stage stage : stages.values())
+			{
+				if (stage.pendingDependencies == 0)
+				{
+					submit(executor, stage, stageMonitor, done);
+					running++;
+				}
+			}
+			ExportException failure = null;
+			while (running > 0)
+			{
+				StageResult result = done.take();
+				running--;
+				Stage stage = result.stage;
+				if (result.exception != null)
+				{
+					if (failure == null)
+					{
+						failure = result.exception instanceof ExportException ? (ExportException)result.exception
+							: new ExportException("War export stage '" + stage.name + "' failed: " + result.exception.getMessage(), result.exception);
+					}
+					continue;
+				}
+				monitor.subTask(stage.name + " done");
+				monitor.worked(stage.work);
+				if (failure != null) continue;
+				for (Stage dependent : stage.dependents)
+				{
+					if (--dependent.pendingDependencies == 0)
+					{
+						submit(executor, dependent, stageMonitor, done);
+						running++;
+					}
+				}
+			}
+			if (failure != null) throw failure;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ExportException("War export was interrupted", e);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		logTimings(System.currentTimeMillis() - start);
+	}
+
+	private static void submit(ExecutorService executor, Stage stage, IProgressMonitor stageMonitor, BlockingQueue<StageResult> done)
+	{
+		executor.execute(() -> {
+			long stageStart = System.currentTimeMillis();
+			Exception exception = null;
+			currentStage.set(stage);
+			try
+			{
+				stage.action.run(stageMonitor);
+			}
+			catch (Exception e)
+			{
+				exception = e;
+			}
+			finally
+			{
+				currentStage.remove();
+			}
+			stage.millis = System.currentTimeMillis() - stageStart;
+			done.add(new StageResult(stage, exception));
+		});
+	}
+
+	private void logTimings(long totalMillis)
+	{
+		StringBuilder sb = new StringBuilder("War export stages done in ").append(totalMillis).append("ms:");
+		long sum = 0;
+		for (Stage stage : stages.values())
+		{
+			sb.append("\n  ").append(stage.name).append(": ").append(stage.millis).append("ms");
+			sum += stage.millis;
+		}
+		sb.append("\n  (").append(sum).append("ms when run one after the other)");
+		ServoyLog.logInfo(sb.toString());
+	}
+}
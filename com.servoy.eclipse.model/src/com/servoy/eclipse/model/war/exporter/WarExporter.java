@@ -37,6 +37,7 @@ import java.net.URI;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -46,14 +47,20 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -148,6 +155,8 @@ public class WarExporter
 			".jar", "org.apache.commons.lang3_*.jar", "org.apache.commons.commons-text_*.jar", "de.inetsoftware.jlessc_*.jar", "com.github.ua-parser.uap-java_*.jar", "org.yaml.snakeyaml_*.jar" };
 
 	private static final String WRO4J_RUNNER = "wro4j-runner-1.8.0";
+	private static final String WRO4J_PROCESSORS = "semicolonAppender,cssDataUri";
+	private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*['\"]?([^'\")]+)['\"]?\\s*\\)");
 	private static final Set<String> EXCLUDED_RESOURCES_BY_NAME;
 
 	static
@@ -165,14 +174,42 @@ public class WarExporter
 		EXCLUDED_RESOURCES_BY_NAME.add("tsconfig.json");
 	}
 
+	/**
+	 * Extensions of files that are already compressed, in a streaming export those are stored in the war instead of deflated again.
+	 */
+	private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(
+		Arrays.asList("jar", "zip", "war", "gz", "tgz", "7z", "png", "jpg", "jpeg", "gif", "ico", "woff", "woff2", "mp3", "mp4", "pdf"));
+
 	private final IWarExportModel exportModel;
+	private final boolean streaming;
+	private File tmpWarDir;
+	/**
+	 * War entry name -> source file, the files that are written to the war straight from their source in a streaming export.
+	 * Only the files that are processed after they are copied (wro4j grouping, NGClient2 build, generated files) are staged in the temp dir.
+	 */
+	private final Map<String, File> streamedEntries = Collections.synchronizedMap(new LinkedHashMap<>());
+	/**
+	 * War entry name -> index of the export stage that added it to {@link #streamedEntries}, guarded by the lock of streamedEntries.
+	 */
+	private final Map<String, Integer> streamedEntryStages = new HashMap<>();
+	/**
+	 * The cache of the wro4j groups, compiled less files and extracted package jars, null if no export cache dir is set.
+	 */
+	private final WarExportCache exportCache;
+	/**
+	 * The war paths of the resources that are grouped in the last generated wro.xml.
+	 */
+	private final List<String> groupedResources = new ArrayList<>();
 	private SpecProviderState componentsSpecProviderState;
 	private SpecProviderState servicesSpecProviderState;
-	private Set<File> pluginFiles = new HashSet<>();
+	// volatile because it is set and read by the export stages that run on other threads
+	private volatile Set<File> pluginFiles = new HashSet<>();
 
 	public WarExporter(IWarExportModel exportModel)
 	{
 		this.exportModel = exportModel;
+		this.streaming = exportModel.isStreamingExport();
+		this.exportCache = exportModel.getExportCacheDir() != null ? new WarExportCache(new File(exportModel.getExportCacheDir())) : null;
 
 		if (exportModel.isNGExport())
 		{
@@ -192,98 +229,87 @@ public class WarExporter
 		File warFile = createNewWarFile();
 		monitor.worked(2);
 		File tmpWarDir = createTempDir();
+		this.tmpWarDir = tmpWarDir;
+		synchronized (streamedEntries)
+		{
+			streamedEntries.clear();
+			streamedEntryStages.clear();
+		}
 		monitor.worked(2);
 		String appServerDir = exportModel.getServoyApplicationServerDir();
-		monitor.subTask("Copy root webapp files");
-		copyRootWebappFiles(tmpWarDir, appServerDir);
-		monitor.worked(2);
-		monitor.subTask("Copy beans");
-		copyBeans(tmpWarDir, appServerDir);
-		monitor.worked(2);
-		monitor.subTask("Copy plugins");
-		copyPlugins(tmpWarDir, appServerDir);
-		monitor.worked(2);
-		monitor.subTask("Copy lafs");
-		copyLafs(tmpWarDir, appServerDir);
-		monitor.worked(2);
-		monitor.subTask("Copy all standard libraries");
-		final File targetLibDir = copyStandardLibs(tmpWarDir, appServerDir);
-		monitor.worked(2);
-		monitor.subTask("Copy Drivers");
-		copyDrivers(appServerDir, targetLibDir);
-		monitor.worked(2);
-		monitor.subTask("Copy images");
-		copyLibImages(tmpWarDir, appServerDir);
-		monitor.worked(2);
-		moveSlf4j(tmpWarDir, targetLibDir);
-		monitor.worked(2);
-		monitor.subTask("Creating web.xml");
-		copyWebXml(tmpWarDir);
-		monitor.worked(2);
-		monitor.subTask("Creating log4j configuration file");
-		copyLog4jConfigurationFile(tmpWarDir);
-		monitor.worked(2);
-		monitor.subTask("Creating context.xml");
-		createTomcatContextXML(tmpWarDir);
-		monitor.worked(2);
-		addServoyProperties(tmpWarDir);
-		monitor.worked(2);
+		final File targetLibDir = new File(tmpWarDir, "WEB-INF/lib");
+
+		// the stages only depend on each other when they write the same files or when one processes the files of the other,
+		// all stages that copy to their own dirs of the war run at the same time
+		WarExportStages stages = new WarExportStages();
+		stages.add("Copy root webapp files", 2, stageMonitor -> copyRootWebappFiles(tmpWarDir, appServerDir));
+		stages.add("Copy beans", 2, stageMonitor -> copyBeans(tmpWarDir, appServerDir));
+		stages.add("Copy plugins", 2, stageMonitor -> copyPlugins(tmpWarDir, appServerDir));
+		stages.add("Copy lafs", 2, stageMonitor -> copyLafs(tmpWarDir, appServerDir));
+		stages.add("Copy all standard libraries", 2, stageMonitor -> copyStandardLibs(tmpWarDir, appServerDir));
+		stages.add("Copy Drivers", 2, stageMonitor -> copyDrivers(appServerDir, targetLibDir), "Copy all standard libraries");
+		stages.add("Copy images", 2, stageMonitor -> copyLibImages(tmpWarDir, appServerDir));
+		stages.add("Move slf4j", 1, stageMonitor -> moveSlf4j(tmpWarDir, targetLibDir), "Copy all standard libraries");
+		stages.add("Creating web.xml", 1, stageMonitor -> copyWebXml(tmpWarDir), "Copy root webapp files");
+		stages.add("Creating log4j configuration file", 1, stageMonitor -> copyLog4jConfigurationFile(tmpWarDir), "Copy root webapp files");
+		stages.add("Creating context.xml", 1, stageMonitor -> createTomcatContextXML(tmpWarDir), "Copy root webapp files");
+		stages.add("Creating servoy.properties", 1, stageMonitor -> addServoyProperties(tmpWarDir), "Copy root webapp files");
+		stages.add("Creating admin user", 1, stageMonitor -> exportAdminUser(tmpWarDir), "Copy root webapp files");
+		stages.add("Creating deploy properties", 1, stageMonitor -> createDeployPropertiesFile(tmpWarDir), "Copy root webapp files");
 		if (exportModel.isExportActiveSolution())
 		{
-			monitor.subTask("Copy the active solution");
-			copyActiveSolution(monitor.newChild(2), tmpWarDir);
-			// TODO this only compiles the less resources of the active project (and its modules) not for the none active solutions that could also be exported
-			compileLessResources(tmpWarDir);
+			stages.add("Copy the active solution", 4, stageMonitor -> {
+				copyActiveSolution(stageMonitor, tmpWarDir);
+				// TODO this only compiles the less resources of the active project (and its modules) not for the none active solutions that could also be exported
+				compileLessResources(tmpWarDir);
+			}, "Copy root webapp files");
 		}
-
-		exportAdminUser(tmpWarDir);
-
-		monitor.setWorkRemaining(exportModel.isNGExport() ? 11 : 4);
 		if (exportModel.isNGExport())
 		{
-			monitor.subTask("Copying NGClient components/services...");
-			copyComponentsAndServicesPlusLibs(monitor.newChild(2), tmpWarDir, targetLibDir);
-			monitor.setWorkRemaining(6);
-			monitor.subTask("Copy exported components");
-			copyExportedComponentsAndServicesPropertyFile(tmpWarDir, m);
-			monitor.worked(2);
-			monitor.subTask("Grouping JS and CSS resources");
-			copyMinifiedAndGrouped(tmpWarDir);
-			monitor.subTask("Compile less resources");
-			monitor.worked(1);
+			stages.add("Copying NGClient components/services", 3,
+				stageMonitor -> copyComponentsAndServicesPlusLibs(stageMonitor, tmpWarDir, targetLibDir), "Copy root webapp files", "Copy all standard libraries",
+				"Copy Drivers", "Move slf4j");
+			stages.add("Copy exported components", 1, stageMonitor -> copyExportedComponentsAndServicesPropertyFile(tmpWarDir, stageMonitor),
+				"Copy root webapp files");
+			stages.add("Grouping JS and CSS resources", 3, stageMonitor -> copyMinifiedAndGrouped(tmpWarDir), "Copying NGClient components/services",
+				"Copy exported components", "Copy the active solution");
 			if (exportModel.isExportNG2())
 			{
-				monitor.subTask("Copy NGClient2 resources");
-				try
-				{
-					copyNGClient2(tmpWarDir, monitor);
-				}
-				catch (RuntimeException e)
-				{
-					throw new ExportException("could not create/copy NGClient2 resources", e);
-				}
+				stages.add("Copy NGClient2 resources", 3, stageMonitor -> {
+					try
+					{
+						copyNGClient2(tmpWarDir, stageMonitor);
+					}
+					catch (RuntimeException e)
+					{
+						throw new ExportException("could not create/copy NGClient2 resources", e);
+					}
+				}, "Copying NGClient components/services", "Copy exported components", "Copy the active solution", "Grouping JS and CSS resources");
 			}
-			monitor.worked(1);
-		}
-		try
-		{
-			// just always copy the nglibs to it even if it is just puur smart client
-			// the log4j libs are always needed.
-			copyNGLibs(targetLibDir, exportModel.isNGExport());
-		}
-		catch (IOException e)
-		{
-			throw new ExportException("Could not copy the libs " + Arrays.toString(NG_LIBS) + ", " + pluginFiles, e);
 		}
-		monitor.worked(1);
-		monitor.subTask("Creating deploy properties");
-		createDeployPropertiesFile(tmpWarDir);
-		monitor.worked(1);
+		stages.add("Copy NG libs", 1, stageMonitor -> {
+			try
+			{
+				// just always copy the nglibs to it even if it is just puur smart client
+				// the log4j libs are always needed.
+				copyNGLibs(targetLibDir, exportModel.isNGExport());
+			}
+			catch (IOException e)
+			{
+				throw new ExportException("Could not copy the libs " + Arrays.toString(NG_LIBS) + ", " + pluginFiles, e);
+			}
+		}, "Copy all standard libraries", "Copy Drivers", "Move slf4j", "Copying NGClient components/services");
+		stages.run(monitor.newChild(32), Runtime.getRuntime().availableProcessors());
+
 		monitor.subTask("Creating/zipping the WAR file");
 		zipDirectory(tmpWarDir, warFile);
-		monitor.worked(2);
+		monitor.worked(3);
 		deleteDirectory(tmpWarDir);
 		monitor.worked(1);
+		if (exportCache != null)
+		{
+			ServoyLog.logInfo(exportCache.getReport());
+		}
 		monitor.done();
 		return;
 	}
@@ -322,13 +348,21 @@ public class WarExporter
 		// not from the none active solutions, problem could be that the none active solutions can have duplicate names..
 		IServoyModel servoyModel = ServoyModelFinder.getServoyModel();
 		FlattenedSolution fs = servoyModel.getFlattenedSolution();
+		// a less file can import any other less media, so the compiled css is cached on the content of all of them
+		byte[] lessMediasHash = exportCache != null ? getLessMediasHash(fs) : null;
 		Iterator<Media> it = fs.getMedias(false);
 		while (it.hasNext())
 		{
 			Media media = it.next();
 			if (media.getName().endsWith(".less"))
 			{
-				String content = LessCompiler.compileSolutionLessFile(media, fs);
+				String cacheKey = lessMediasHash != null ? exportCache.newKey("less").add(lessMediasHash).add(media.getName()).get() : null;
+				String content = cacheKey != null ? exportCache.getText(cacheKey) : null;
+				if (content == null)
+				{
+					content = LessCompiler.compileSolutionLessFile(media, fs);
+					if (content != null && cacheKey != null) exportCache.storeText(cacheKey, content);
+				}
 				if (content != null)
 				{
 					File folder = new File(tmpWarDir, MediaResourcesServlet.SERVOY_SOLUTION_CSS);
@@ -360,6 +394,20 @@ public class WarExporter
 		}
 	}
 
+	private byte[] getLessMediasHash(FlattenedSolution fs)
+	{
+		Map<String, byte[]> lessMedias = new TreeMap<>();
+		Iterator<Media> it = fs.getMedias(false);
+		while (it.hasNext())
+		{
+			Media media = it.next();
+			if (media.getName().endsWith(".less")) lessMedias.put(media.getName(), media.getMediaData());
+		}
+		WarExportCache.Key key = exportCache.newKey("less-medias").add(ClientVersion.getBundleVersionWithPostFix());
+		lessMedias.forEach((name, data) -> key.add(name).add(data));
+		return key.get().getBytes(StandardCharsets.UTF_8);
+	}
+
 	/**
 	 * Group and minify (if checked) the JS and CSS resources.
 	 * @param tmpWarDir
@@ -369,7 +417,20 @@ public class WarExporter
 	{
 		try
 		{
+			//generate servoy-components.js
+			File componentsFile = new File(tmpWarDir, "js/servoy-components.js");
+			StringBuilder sb = ComponentsModuleGenerator.generateComponentsModule(exportModel.getExportedServices(), exportModel.getExportedComponents());
+			FileUtils.copyInputStreamToFile(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)), componentsFile);
+
 			String id = Long.toHexString(System.currentTimeMillis());
+			String cacheKey = null;
+			if (exportCache != null)
+			{
+				// the groups only depend on the content of the grouped resources, use the hash of those as group id so a cached group is the same group
+				generateWroXml(tmpWarDir, "");
+				cacheKey = getGroupedResourcesKey(tmpWarDir);
+				id = cacheKey.substring(cacheKey.indexOf('/') + 1, cacheKey.indexOf('/') + 17);
+			}
 			try
 			{
 				File groupProperties = new File(tmpWarDir, "WEB-INF/groupid.properties");
@@ -386,14 +447,22 @@ public class WarExporter
 				ServoyLog.logError(e);
 			}
 
-			//generate servoy-components.js
-			File componentsFile = new File(tmpWarDir, "js/servoy-components.js");
-			StringBuilder sb = ComponentsModuleGenerator.generateComponentsModule(exportModel.getExportedServices(), exportModel.getExportedComponents());
-			FileUtils.copyInputStreamToFile(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)), componentsFile);
-
 			//generate wro.xml
 			String warDirPath = tmpWarDir.getAbsolutePath();
 			File wroFile = generateWroXml(tmpWarDir, id);
+			File dest = new File(tmpWarDir, "wro");
+			if (cacheKey != null && exportCache.restoreDir(cacheKey, dest))
+			{
+				try
+				{
+					Files.delete(wroFile.toPath());
+				}
+				catch (Exception e)
+				{
+					// ignore will try to delete on exit later on.
+				}
+				return;
+			}
 
 			//copy the wro4j command line runner to the war
 			File jarFile = new File(tmpWarDir, WRO4J_RUNNER);
@@ -419,7 +488,6 @@ public class WarExporter
 			args.add("--contextFolder");
 			args.add(warDirPath);
 			args.add("--destinationFolder");
-			File dest = new File(tmpWarDir, "wro");
 			args.add(dest.getAbsolutePath());
 			args.add("--wroFile");
 			args.add(wroFile.getAbsolutePath());
@@ -427,8 +495,7 @@ public class WarExporter
 			args.add(wroPropertiesFile.getAbsolutePath());
 			args.add("-m");
 			args.add("-c");
-			String processors = "semicolonAppender,cssDataUri";
-			args.add(processors);
+			args.add(WRO4J_PROCESSORS);
 
 			ProcessBuilder builder = new ProcessBuilder(args);
 			builder.redirectErrorStream(true);
@@ -449,6 +516,7 @@ public class WarExporter
 					"Could not group and minify JS and CSS resources. See workspace log for more details and servoy wiki Specification (.spec) file page - on how to exclude Servoy package js or css libraries from grouping using the group property - if needed: " +
 						message.toString());
 			}
+			if (cacheKey != null) exportCache.storeDir(cacheKey, dest);
 
 			//delete unneeded files
 			try
@@ -483,10 +551,38 @@ public class WarExporter
 		}
 	}
 
+	/**
+	 * The key of the wro4j output of the resources of the last generated wro.xml, a hash of the content of the resources and the files their css refers to (those can be inlined as data uri).
+	 */
+	private String getGroupedResourcesKey(File tmpWarDir) throws IOException
+	{
+		WarExportCache.Key key = exportCache.newKey("wro4j").add(WRO4J_RUNNER).add(WRO4J_PROCESSORS).add(ClientVersion.getBundleVersionWithPostFix());
+		for (String path : groupedResources)
+		{
+			File file = new File(tmpWarDir, path);
+			key.add(path).add(file);
+			if (path.toLowerCase().endsWith(".css") && file.isFile())
+			{
+				Matcher matcher = CSS_URL.matcher(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+				while (matcher.find())
+				{
+					String url = matcher.group(1).trim();
+					if (url.startsWith("data:") || url.contains("://")) continue;
+					int queryIndex = url.indexOf('?');
+					if (queryIndex == -1) queryIndex = url.indexOf('#');
+					if (queryIndex != -1) url = url.substring(0, queryIndex);
+					key.add(url).add(url.startsWith("/") ? new File(tmpWarDir, url) : new File(file.getParentFile(), url));
+				}
+			}
+		}
+		return key.get();
+	}
+
 	private File generateWroXml(File tmpWarDir, String id)
 		throws ParserConfigurationException, TransformerFactoryConfigurationError, TransformerConfigurationException, TransformerException
 	{
 		File wroFile = new File(tmpWarDir, "wro.xml");
+		groupedResources.clear();
 		DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
 		DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
 
@@ -610,6 +706,7 @@ public class WarExporter
 		Element element = doc.createElement(suffix);
 		group.appendChild(element);
 		element.setTextContent(path);
+		groupedResources.add(path);
 	}
 
 	/**
@@ -740,7 +837,7 @@ public class WarExporter
 								excludes = new HashSet<String>(EXCLUDED_RESOURCES_BY_NAME);
 								excludes.add(entryDir + '/'); // extractaJar is startsWith because of the jar entries.
 							}
-							extractJar(name, resource, tmpWarDir, allTemplates, excludes);
+							extractCachedJar(name, resource, tmpWarDir, allTemplates, excludes);
 						}
 					}
 				}
@@ -803,7 +900,7 @@ public class WarExporter
 		for (File file : pluginFiles)
 		{
 			if (!includeNGClientLib && file.getName().toLowerCase().startsWith("servoy_ngclient_")) continue;
-			copyFile(file, new File(targetLibDir, file.getName()));
+			copyToWar(file, new File(targetLibDir, file.getName()));
 		}
 	}
 
@@ -826,6 +923,37 @@ public class WarExporter
 		}
 	}
 
+	/**
+	 * Extract the package jar, from the export cache if the same jar was extracted before.
+	 */
+	private void extractCachedJar(String dirName, File file, File tmpWarDir, Map<String, File> allTemplates, Set<String> excludedResourcesByName)
+		throws IOException
+	{
+		if (exportCache == null)
+		{
+			extractJar(dirName, file, tmpWarDir, allTemplates, excludedResourcesByName);
+			return;
+		}
+		WarExportCache.Key key = exportCache.newKey("package").add(new TreeSet<>(excludedResourcesByName).toString()).add(file);
+		String cacheKey = key.get();
+		File destDir = new File(tmpWarDir, dirName);
+		boolean destExists = destDir.exists();
+		if (exportCache.restoreDir(cacheKey, destDir))
+		{
+			try (Stream<Path> files = Files.walk(destDir.toPath()))
+			{
+				files.filter(path -> path.getFileName().toString().endsWith(".html")).forEach(
+					path -> allTemplates.put(dirName + "/" + destDir.toPath().relativize(path).toString().replace('\\', '/'), path.toFile()));
+			}
+		}
+		else
+		{
+			extractJar(dirName, file, tmpWarDir, allTemplates, excludedResourcesByName);
+			// only cache it if the dir has just the content of the jar
+			if (!destExists) exportCache.storeDir(cacheKey, destDir);
+		}
+	}
+
 	private void extractJar(String dirName, File file, File tmpWarDir, Map<String, File> allTemplates, Set<String> excludedResourcesByName)
 	{
 		try (JarFile jarfile = new JarFile(file))
@@ -1216,6 +1344,12 @@ public class WarExporter
 	{
 		// move the slf4j outside of the WEB-INF/lib to /lib/, its only used in the client
 		File slf4j = new File(targetLibDir, "slf4j-jdk14.jar");
+		File streamedSlf4j = removeStreamedEntry(getWarEntryName(slf4j));
+		if (streamedSlf4j != null)
+		{
+			copyToWar(streamedSlf4j, new File(tmpWarDir, "lib/slf4j-jdk14.jar"));
+			return;
+		}
 		copyFile(slf4j, new File(tmpWarDir, "lib/slf4j-jdk14.jar"));
 		slf4j.delete();
 	}
@@ -1231,7 +1365,7 @@ public class WarExporter
 		File libImagesDir = new File(appServerDir, "lib/images");
 		File targetLibImagesDir = new File(tmpWarDir, "lib/images");
 		targetLibImagesDir.mkdirs();
-		copyDir(libImagesDir, targetLibImagesDir, false);
+		copyDirToWar(libImagesDir, targetLibImagesDir, false);
 	}
 
 	/**
@@ -1246,7 +1380,7 @@ public class WarExporter
 		File srcDriverDir = new File(appServerDir, "drivers");
 		for (String driverFileName : drivers)
 		{
-			copyFile(new File(srcDriverDir, driverFileName), new File(targetLibDir, driverFileName));
+			copyToWar(new File(srcDriverDir, driverFileName), new File(targetLibDir, driverFileName));
 		}
 	}
 
@@ -1256,17 +1390,17 @@ public class WarExporter
 		final File libDir = new File(appServerDir, "lib");
 		final File targetLibDir = new File(tmpWarDir, "WEB-INF/lib");
 		targetLibDir.mkdirs();
-		copyDir(libDir, targetLibDir, false);
+		copyDirToWar(libDir, targetLibDir, false);
 
 //		// copy the template handler
 //		copyFile(new File(appServerDir, "server/lib/template-handler.jar"), new File(targetLibDir, "template-handler.jar"));
 
 		// delete the servlet.jar that one isn't allowed.
-		new File(targetLibDir, "servlet-api.jar").delete();
-		new File(targetLibDir, "jsp-api.jar").delete();
+		deleteFromWar(new File(targetLibDir, "servlet-api.jar"));
+		deleteFromWar(new File(targetLibDir, "jsp-api.jar"));
 		// delete the tomcat boostrapper, also not needed in a war file
-		new File(targetLibDir, "server-bootstrap.jar").delete();
-		new File(targetLibDir, "tomcat-juli.jar").delete();
+		deleteFromWar(new File(targetLibDir, "server-bootstrap.jar"));
+		deleteFromWar(new File(targetLibDir, "tomcat-juli.jar"));
 		return targetLibDir;
 	}
 
@@ -1302,7 +1436,7 @@ public class WarExporter
 				for (String f : files)
 				{
 					File sourceFile = new File(lafSourceDir, f);
-					copyFile(sourceFile, new File(lafTargetDir, f));
+					copyToWar(sourceFile, new File(lafTargetDir, f));
 					writeFileEntry(fw, sourceFile, f, writtenFiles);
 				}
 			}
@@ -1342,7 +1476,7 @@ public class WarExporter
 				{
 					writeFileEntry(fw, pluginFile, plugin, writtenFiles);
 
-					copyFile(pluginFile, new File(tmpWarDir, pluginName));
+					copyToWar(pluginFile, new File(tmpWarDir, pluginName));
 
 					copyJnlp(tmpWarDir, appServerDir, pluginName + ".jnlp", fw, writtenFiles);
 
@@ -1361,12 +1495,12 @@ public class WarExporter
 		}
 	}
 
-	private static void copyDir(String dirName, File dirFile, File tmpWarDir, Writer propertiesWriter, Set<File> writtenFiles, boolean recursive)
+	private void copyDir(String dirName, File dirFile, File tmpWarDir, Writer propertiesWriter, Set<File> writtenFiles, boolean recursive)
 		throws ExportException, IOException
 	{
 		if (dirFile.exists() && dirFile.isDirectory())
 		{
-			Set<File> copiedFiles = copyDir(dirFile, new File(tmpWarDir, dirName), recursive);
+			Set<File> copiedFiles = copyDirToWar(dirFile, new File(tmpWarDir, dirName), recursive);
 			for (File file : copiedFiles)
 			{
 				String fileName = file.getAbsolutePath().replace('\\', '/');
@@ -1401,7 +1535,7 @@ public class WarExporter
 					for (ExtensionResource ext : fileNames)
 					{
 						File sourceFile = new File(beanSourceDir, ext.jarFileName);
-						copyFile(sourceFile, new File(beanTargetDir, ext.jarFileName));
+						copyToWar(sourceFile, new File(beanTargetDir, ext.jarFileName));
 						writeFileEntry(fw, sourceFile, ext.jarFileName, writtenFiles);
 					}
 				}
@@ -1417,10 +1551,18 @@ public class WarExporter
 	{
 		File webAppDir = new File(appServerDir, "server/webapps/ROOT");
 		// copy first the standard webapp dir of the app server
-		copyDir(webAppDir, tmpWarDir, true);
+		if (exportModel.isNGExport())
+		{
+			// the wro4j grouping resolves its resources from the temp dir
+			copyDir(webAppDir, tmpWarDir, true);
+		}
+		else
+		{
+			copyDirToWar(webAppDir, tmpWarDir, true);
+		}
 
 		File defaultCss = new File(tmpWarDir, "/servoy-webclient/templates/default/servoy_web_client_default.css");
-		if (!defaultCss.exists())
+		if (!defaultCss.exists() && !streamedEntries.containsKey(getWarEntryName(defaultCss)))
 		{
 			try
 			{
@@ -1722,6 +1864,11 @@ public class WarExporter
 
 	private void zipDirectory(File directory, File zip) throws ExportException
 	{
+		if (streaming)
+		{
+			streamWar(directory, zip);
+			return;
+		}
 		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zip)))
 		{
 			zip(directory, directory, zos);
@@ -1732,6 +1879,85 @@ public class WarExporter
 		}
 	}
 
+	/**
+	 * Writes the war in one pass: the files staged in the temp dir and then the entries that are streamed straight from their source files.
+	 * A staged file wins over a streamed entry with the same name, just like a later copy overwrites an earlier one in the temp dir.
+	 */
+	private void streamWar(File directory, File zip) throws ExportException
+	{
+		try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zip), 64 * 1024)))
+		{
+			byte[] buffer = new byte[64 * 1024];
+			Set<String> writtenEntries = new HashSet<>();
+			streamDirectory(directory, directory, zos, buffer, writtenEntries);
+			for (Map.Entry<String, File> entry : streamedEntries.entrySet())
+			{
+				if (writtenEntries.add(entry.getKey()) && entry.getValue().isFile())
+				{
+					writeZipEntry(zos, entry.getKey(), entry.getValue(), buffer);
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			throw new ExportException("Can't create the war file " + zip, e);
+		}
+	}
+
+	private void streamDirectory(File directory, File base, ZipOutputStream zos, byte[] buffer, Set<String> writtenEntries) throws IOException
+	{
+		File[] files = directory.listFiles();
+		if (files == null) return;
+		for (File file : files)
+		{
+			// skip the WRO4J_RUNNNER if somehow it couldn't be deleted.
+			if (file.getName().equals(WRO4J_RUNNER) || file.getName().equals("wro.xml")) continue;
+			if (file.isDirectory())
+			{
+				streamDirectory(file, base, zos, buffer, writtenEntries);
+			}
+			else
+			{
+				String name = file.getPath().substring(base.getPath().length() + 1).replace('\\', '/');
+				writtenEntries.add(name);
+				writeZipEntry(zos, name, file, buffer);
+			}
+		}
+	}
+
+	private static void writeZipEntry(ZipOutputStream zos, String name, File file, byte[] buffer) throws IOException
+	{
+		ZipEntry entry = new ZipEntry(name);
+		entry.setTime(file.lastModified());
+		if (COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(name).toLowerCase()))
+		{
+			// deflating compressed data only costs time, a stored entry needs its size and crc up front
+			CRC32 crc = new CRC32();
+			try (InputStream in = new FileInputStream(file))
+			{
+				int read;
+				while ((read = in.read(buffer)) != -1)
+				{
+					crc.update(buffer, 0, read);
+				}
+			}
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(file.length());
+			entry.setCompressedSize(file.length());
+			entry.setCrc(crc.getValue());
+		}
+		zos.putNextEntry(entry);
+		try (InputStream in = new FileInputStream(file))
+		{
+			int read;
+			while ((read = in.read(buffer)) != -1)
+			{
+				zos.write(buffer, 0, read);
+			}
+		}
+		zos.closeEntry();
+	}
+
 	private void zip(File directory, File base, ZipOutputStream zos) throws IOException
 	{
 		File[] files = directory.listFiles();
@@ -1769,7 +1995,7 @@ public class WarExporter
 		File pluginJarJnlpFile = new File(appServerDir, pluginJnlpName);
 		if (pluginJarJnlpFile.exists())
 		{
-			copyFile(pluginJarJnlpFile, new File(tmpWarDir, pluginJnlpName));
+			copyToWar(pluginJarJnlpFile, new File(tmpWarDir, pluginJnlpName));
 			// parse the jnlp and copy all the referenced jars over.
 			Document document = getDocument(pluginJarJnlpFile);
 			if (document != null)
@@ -1785,7 +2011,7 @@ public class WarExporter
 					File jarFile = new File(appServerDir, jarName);
 					File jarTargetFile = new File(tmpWarDir, jarName);
 					jarTargetFile.getParentFile().mkdirs();
-					copyFile(jarFile, jarTargetFile);
+					copyToWar(jarFile, jarTargetFile);
 					int index = jarName.indexOf("plugins/");
 					if (index != -1)
 					{
@@ -1919,6 +2145,98 @@ public class WarExporter
 		}
 	}
 
+	/**
+	 * @return the name of the war entry for a file in the temp dir, null if the file is not in the temp dir
+	 */
+	private String getWarEntryName(File destFile)
+	{
+		String base = tmpWarDir.getAbsolutePath();
+		String path = destFile.getAbsolutePath();
+		if (!path.startsWith(base) || path.length() <= base.length() + 1) return null;
+		return path.substring(base.length() + 1).replace('\\', '/');
+	}
+
+	/**
+	 * Copies the file into the temp dir, or in a streaming export only remembers that it should be written to the war.
+	 * Less files are always copied because those are compiled while being copied.
+	 */
+	private void copyToWar(File sourceFile, File destFile) throws ExportException
+	{
+		String name = streaming && !sourceFile.getName().endsWith(".less") ? getWarEntryName(destFile) : null;
+		if (name != null)
+		{
+			if (sourceFile.exists()) addStreamedEntry(name, sourceFile);
+		}
+		else
+		{
+			copyFile(sourceFile, destFile);
+		}
+	}
+
+	/**
+	 * Copies the files of the directory with {@link #copyToWar(File, File)}.
+	 * @return the source files that are copied.
+	 */
+	private Set<File> copyDirToWar(File sourceDir, File destDir, boolean recursive) throws ExportException
+	{
+		if (!streaming) return copyDir(sourceDir, destDir, recursive);
+		Set<File> writtenFiles = new HashSet<File>();
+		copyDirToWar(sourceDir, destDir, recursive, writtenFiles);
+		return writtenFiles;
+	}
+
+	private void copyDirToWar(File sourceDir, File destDir, boolean recursive, Set<File> writtenFiles) throws ExportException
+	{
+		File[] listFiles = sourceDir.listFiles();
+		if (listFiles == null) return;
+		for (File file : listFiles)
+		{
+			if (file.isDirectory())
+			{
+				if (recursive) copyDirToWar(file, new File(destDir, file.getName()), recursive, writtenFiles);
+			}
+			else
+			{
+				copyToWar(file, new File(destDir, file.getName()));
+				writtenFiles.add(file);
+			}
+		}
+	}
+
+	private void deleteFromWar(File destFile)
+	{
+		String name = getWarEntryName(destFile);
+		if (name != null) removeStreamedEntry(name);
+		destFile.delete();
+	}
+
+	/**
+	 * The export stages run at the same time, when 2 stages write the same war entry the stage that comes last in the stage order wins,
+	 * just like when the stages would run one after the other.
+	 */
+	private void addStreamedEntry(String name, File sourceFile)
+	{
+		Integer stage = Integer.valueOf(WarExportStages.getCurrentStageIndex());
+		synchronized (streamedEntries)
+		{
+			Integer previousStage = streamedEntryStages.get(name);
+			if (previousStage == null || previousStage.compareTo(stage) <= 0)
+			{
+				streamedEntries.put(name, sourceFile);
+				streamedEntryStages.put(name, stage);
+			}
+		}
+	}
+
+	private File removeStreamedEntry(String name)
+	{
+		synchronized (streamedEntries)
+		{
+			streamedEntryStages.remove(name);
+			return streamedEntries.remove(name);
+		}
+	}
+
 	private static void copyFile(File sourceFile, File destFile) throws ExportException
 	{
 		if (!sourceFile.exists())
@@ -1972,7 +2290,8 @@ public class WarExporter
 	 */
 	public String searchExportedPlugins()
 	{
-		pluginFiles = new HashSet<File>();
+		// the found files are only published when the search is done, the export stages may read them on other threads
+		Set<File> foundPluginFiles = new HashSet<File>();
 		List<String> pluginLocations = new ArrayList<String>();
 		File eclipseParent = null;
 		File userDir = new File(System.getProperty("user.dir"));
@@ -2032,14 +2351,19 @@ public class WarExporter
 						f = sortedLibs.get(sortedLibs.size() - 1);
 						ServoyLog.logInfo("WAR EXPORT: More versions of lib " + libName + " found, will copy " + f.getAbsolutePath() + " to the war file.");
 					}
-					pluginFiles.add(f);
+					foundPluginFiles.add(f);
 					found = true;
 					break;
 				}
 				i++;
 			}
-			if (!found) return libName;
+			if (!found)
+			{
+				pluginFiles = foundPluginFiles;
+				return libName;
+			}
 		}
+		pluginFiles = foundPluginFiles;
 		return null;
 	}
 
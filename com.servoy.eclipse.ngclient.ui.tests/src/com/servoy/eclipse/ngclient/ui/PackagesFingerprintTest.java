@@ -0,0 +1,164 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.ngclient.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sablo.specification.Package.IPackageReader;
+
+/**
+ * Tests the {@link PackagesFingerprint} that decides if the NG2 target folder needs an npm install and build.
+ *
+ * @since 2021.12
+ */
+public class PackagesFingerprintTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static IPackageReader packageReader(String version, File resource)
+	{
+		return (IPackageReader)Proxy.newProxyInstance(PackagesFingerprintTest.class.getClassLoader(), new Class< ? >[] { IPackageReader.class },
+			(proxy, method, args) -> {
+				switch (method.getName())
+				{
+					case "getVersion" :
+						return version;
+					case "getResource" :
+						return resource;
+					default :
+						return null;
+				}
+			});
+	}
+
+	private static PackagesFingerprint fingerprint(String... namesAndVersions)
+	{
+		PackagesFingerprint fingerprint = new PackagesFingerprint();
+		for (int i = 0; i < namesAndVersions.length; i += 2)
+		{
+			fingerprint.addPackage(namesAndVersions[i], packageReader(namesAndVersions[i + 1], null), "./index");
+		}
+		return fingerprint;
+	}
+
+	private static Set<String> set(String... names)
+	{
+		return new HashSet<String>(Arrays.asList(names));
+	}
+
+	@Test
+	public void sameValuesHaveTheSameHash()
+	{
+		PackagesFingerprint first = fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.1.0");
+		PackagesFingerprint second = fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.1.0");
+		assertEquals(64, first.getHash().length());
+		assertEquals(first.getHash(), second.getHash());
+		assertTrue(first.isSame(second));
+		assertFalse(first.isSame(null));
+	}
+
+	@Test
+	public void otherValuesHaveAnotherHash()
+	{
+		PackagesFingerprint fingerprint = fingerprint("@servoy/bootstrap", "1.0.0");
+		assertFalse(fingerprint.isSame(fingerprint("@servoy/bootstrap", "1.0.1")));
+		assertFalse(fingerprint.isSame(fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.1.0")));
+
+		PackagesFingerprint withCss = fingerprint("@servoy/bootstrap", "1.0.0");
+		withCss.add("css", "bootstrap.css");
+		assertFalse(fingerprint.isSame(withCss));
+	}
+
+	@Test
+	public void valuesAreSeparated()
+	{
+		PackagesFingerprint first = new PackagesFingerprint();
+		first.add("ab", "c");
+		PackagesFingerprint second = new PackagesFingerprint();
+		second.add("a", "bc");
+		assertNotEquals(first.getHash(), second.getHash());
+	}
+
+	@Test
+	public void changedPackageFileIsBumped() throws IOException
+	{
+		File packageFile = folder.newFile("bootstrap.zip");
+		assertTrue(packageFile.setLastModified(1000000000000L));
+		PackagesFingerprint previous = new PackagesFingerprint();
+		previous.addPackage("@servoy/bootstrap", packageReader("1.0.0", packageFile), "./index");
+
+		assertTrue(packageFile.setLastModified(1000000060000L));
+		PackagesFingerprint current = new PackagesFingerprint();
+		current.addPackage("@servoy/bootstrap", packageReader("1.0.0", packageFile), "./index");
+
+		assertFalse(current.isSame(previous));
+		assertEquals(set("@servoy/bootstrap"), current.getChangedPackages(previous));
+	}
+
+	@Test
+	public void changedAndRemovedPackages()
+	{
+		PackagesFingerprint previous = fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.1.0", "@servoy/old", "1.0.0");
+		PackagesFingerprint current = fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.2.0", "@servoy/new", "1.0.0");
+
+		assertEquals(set("@servoy/servoydefault", "@servoy/new"), current.getChangedPackages(previous));
+		assertEquals(set("@servoy/old"), current.getRemovedPackages(previous));
+	}
+
+	@Test
+	public void withoutPreviousEveryPackageIsChanged()
+	{
+		PackagesFingerprint current = fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.1.0");
+		assertEquals(set("@servoy/bootstrap", "@servoy/servoydefault"), current.getChangedPackages(null));
+		assertEquals(Collections.emptySet(), current.getRemovedPackages(null));
+	}
+
+	@Test
+	public void savedFingerprintIsLoaded()
+	{
+		File projectFolder = folder.getRoot();
+		assertNull(PackagesFingerprint.load(projectFolder));
+
+		PackagesFingerprint saved = fingerprint("@servoy/bootstrap", "1.0.0", "@servoy/servoydefault", "2.1.0");
+		saved.save(projectFolder);
+		PackagesFingerprint loaded = PackagesFingerprint.load(projectFolder);
+		assertEquals(saved.getHash(), loaded.getHash());
+		assertTrue(saved.isSame(loaded));
+		assertEquals(Collections.emptySet(), saved.getChangedPackages(loaded));
+		assertEquals(Collections.emptySet(), saved.getRemovedPackages(loaded));
+
+		PackagesFingerprint.delete(projectFolder);
+		assertNull(PackagesFingerprint.load(projectFolder));
+	}
+}
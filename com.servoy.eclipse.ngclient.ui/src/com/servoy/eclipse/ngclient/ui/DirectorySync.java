@@ -22,12 +22,23 @@ import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.apache.commons.io.FileUtils;
@@ -35,100 +46,57 @@ import org.apache.commons.io.FileUtils;
 import com.servoy.j2db.util.Debug;
 
 /**
+ * Keeps a target directory in sync with a source directory.
+ * The watch events are debounced: they are collected until there were no new events for {@link #QUIET_MILLIS} (or for at most {@link #MAX_BATCH_MILLIS})
+ * and then synced as one batch, so a burst like a git checkout is copied at once. Files with the same content as the target are not copied,
+ * and when the watch service lost events (overflow) the whole tree is compared again.
+ *
  * @author jcompagner
  * @since 2021.06
  *
  */
 public class DirectorySync
 {
+	private static final long QUIET_MILLIS = 300;
+	private static final long MAX_BATCH_MILLIS = 3000;
+
+	private final File srcRoot;
+	private final File targetDir;
 	private final Predicate<String> ignoreFilter;
+	private final Consumer<Set<File>> batchListener;
 	private volatile WatchService watchService;
 	private volatile boolean destroy = false;
 	private volatile Thread thread;
 
+	// below is only accessed by the sync thread
+	// the source files and directories that are changed in the current batch
+	private final Set<File> changed = new LinkedHashSet<>();
+	// events were lost, the next batch compares the whole tree
+	private boolean rescan = false;
+	// the digests of the target files as they were copied or read, to skip the copy of files that have the same content
+	private final Map<File, FileDigest> targetDigests = new HashMap<>();
+
 	public DirectorySync(File srcRoot, File targetDir, Predicate<String> ignoreFilter)
 	{
+		this(srcRoot, targetDir, ignoreFilter, null);
+	}
+
+	/**
+	 * @param batchListener called on the sync thread after each batch that changed the target with the target files that are copied or deleted,
+	 *  can be used to trigger a rebuild once per batch
+	 */
+	public DirectorySync(File srcRoot, File targetDir, Predicate<String> ignoreFilter, Consumer<Set<File>> batchListener)
+	{
+		this.srcRoot = srcRoot;
+		this.targetDir = targetDir;
 		this.ignoreFilter = ignoreFilter;
+		this.batchListener = batchListener;
 
 		try
 		{
 			watchService = FileSystems.getDefault().newWatchService();
-			final Path dir = srcRoot.toPath();
 			addAllDirs(srcRoot);
-			thread = new Thread(() -> {
-				while (!destroy)
-				{
-					// wait for key to be signaled
-					WatchKey key;
-					try
-					{
-						key = watchService.take();
-					}
-					catch (InterruptedException x)
-					{
-						continue;
-					}
-					Path parent = (Path)key.watchable();
-					File targetFolder = new File(targetDir, dir.relativize(parent).toString());
-					for (WatchEvent< ? > event : key.pollEvents())
-					{
-						WatchEvent.Kind< ? > kind = event.kind();
-
-						if (kind == StandardWatchEventKinds.OVERFLOW)
-						{
-							continue;
-						}
-						Path localPath = (Path)event.context();
-						Path filename = parent.resolve(localPath);
-
-						File target = new File(targetFolder, localPath.toString());
-						if (kind == StandardWatchEventKinds.ENTRY_DELETE)
-						{
-							FileUtils.deleteQuietly(target);
-						}
-						else if (kind == StandardWatchEventKinds.ENTRY_CREATE || kind == StandardWatchEventKinds.ENTRY_MODIFY)
-						{
-							if (filename.toFile().isDirectory())
-							{
-								if (kind == StandardWatchEventKinds.ENTRY_CREATE)
-								{
-									System.out.println("recreating folder " + filename);
-									// new dir, start watching it.
-									addAllDirs(filename.toFile());
-									createFolder(target);
-									try
-									{
-										FileUtils.copyDirectory(filename.toFile(), target);
-									}
-									catch (IOException e)
-									{
-										Activator.getInstance().getLog().error("Error copy dir " + filename + " to " + target, e);
-									}
-								}
-							}
-							else
-							{
-								System.out.println("copy changed file " + filename);
-								try (InputStream is = new FileInputStream(filename.toFile()))
-								{
-									copyOrCreateFile(localPath.toString(), targetFolder, is);
-								}
-								catch (IOException e)
-								{
-									Activator.getInstance().getLog().error("Error copying file " + filename, e);
-								}
-							}
-						}
-
-					}
-
-					// Reset the key -- this step is critical if you want to receive further watch events.
-					if (key.isValid())
-					{
-						key.reset();
-					}
-				}
-			}, "DirectorySync on " + srcRoot.getCanonicalPath());
+			thread = new Thread(this::watch, "DirectorySync on " + srcRoot.getCanonicalPath());
 			thread.setDaemon(true);
 			thread.start();
 		}
@@ -152,14 +120,206 @@ public class DirectorySync
 		thread.interrupt();
 	}
 
+	private void watch()
+	{
+		while (!destroy)
+		{
+			try
+			{
+				// wait for key to be signaled
+				WatchKey key = watchService.take();
+				long batchStart = System.currentTimeMillis();
+				while (key != null)
+				{
+					collectEvents(key);
+					// wait for more events until it is quiet, but don't let a constant stream of events delay the sync forever
+					long wait = Math.min(QUIET_MILLIS, MAX_BATCH_MILLIS - (System.currentTimeMillis() - batchStart));
+					key = wait > 0 ? watchService.poll(wait, TimeUnit.MILLISECONDS) : null;
+				}
+				syncBatch();
+			}
+			catch (InterruptedException x)
+			{
+				continue;
+			}
+			catch (ClosedWatchServiceException e)
+			{
+				return;
+			}
+		}
+	}
+
+	private void collectEvents(WatchKey key)
+	{
+		Path parent = (Path)key.watchable();
+		for (WatchEvent< ? > event : key.pollEvents())
+		{
+			WatchEvent.Kind< ? > kind = event.kind();
+			if (kind == StandardWatchEventKinds.OVERFLOW)
+			{
+				rescan = true;
+				continue;
+			}
+			File file = parent.resolve((Path)event.context()).toFile();
+			if (file.isDirectory())
+			{
+				// a modify of a directory is just a change of its children, those have their own events
+				if (kind != StandardWatchEventKinds.ENTRY_CREATE) continue;
+				// new dir, start watching it.
+				addAllDirs(file);
+			}
+			changed.add(file);
+		}
+
+		// Reset the key -- this step is critical if you want to receive further watch events.
+		if (key.isValid())
+		{
+			key.reset();
+		}
+	}
+
+	private void syncBatch()
+	{
+		Set<File> targetChanges = new LinkedHashSet<>();
+		if (rescan)
+		{
+			rescan = false;
+			changed.clear();
+			// directories created while events were lost are not watched yet
+			addAllDirs(srcRoot);
+			sync(srcRoot, targetDir, targetChanges);
+		}
+		else
+		{
+			for (File file : changed)
+			{
+				sync(file, new File(targetDir, srcRoot.toPath().relativize(file.toPath()).toString()), targetChanges);
+			}
+			changed.clear();
+		}
+		if (targetChanges.size() > 0 && batchListener != null)
+		{
+			try
+			{
+				batchListener.accept(targetChanges);
+			}
+			catch (RuntimeException e)
+			{
+				Activator.getInstance().getLog().error("Error in the batch listener of the sync of " + srcRoot, e);
+			}
+		}
+	}
+
+	private void sync(File src, File target, Set<File> targetChanges)
+	{
+		if (!src.exists())
+		{
+			delete(target, targetChanges);
+		}
+		else if (src.isDirectory())
+		{
+			if (isIgnored(src)) return;
+			if (target.isFile()) delete(target, targetChanges);
+			createFolder(target);
+
+			Set<String> names = new HashSet<>();
+			File[] children = src.listFiles();
+			if (children != null)
+			{
+				for (File child : children)
+				{
+					names.add(child.getName());
+					sync(child, new File(target, child.getName()), targetChanges);
+				}
+			}
+			// remove what is no longer in the source, but leave what is ignored alone
+			File[] targetChildren = target.listFiles();
+			if (targetChildren != null)
+			{
+				for (File targetChild : targetChildren)
+				{
+					if (!names.contains(targetChild.getName()) && !(targetChild.isDirectory() && isIgnored(new File(src, targetChild.getName()))))
+					{
+						delete(targetChild, targetChanges);
+					}
+				}
+			}
+		}
+		else
+		{
+			try
+			{
+				byte[] digest = digest(src);
+				FileDigest targetDigest = getTargetDigest(target);
+				if (targetDigest != null && Arrays.equals(digest, targetDigest.digest)) return;
+
+				if (target.isDirectory()) delete(target, targetChanges);
+				try (InputStream is = new FileInputStream(src))
+				{
+					copyOrCreateFile(target.getName(), target.getParentFile(), is);
+				}
+				targetDigests.put(target, new FileDigest(target, digest));
+				targetChanges.add(target);
+			}
+			catch (IOException e)
+			{
+				Activator.getInstance().getLog().error("Error copying file " + src, e);
+			}
+		}
+	}
+
+	private void delete(File target, Set<File> targetChanges)
+	{
+		if (target.exists())
+		{
+			FileUtils.deleteQuietly(target);
+			Path path = target.toPath();
+			targetDigests.keySet().removeIf(file -> file.toPath().startsWith(path));
+			targetChanges.add(target);
+		}
+	}
+
+	private FileDigest getTargetDigest(File target) throws IOException
+	{
+		if (!target.isFile()) return null;
+		FileDigest digest = targetDigests.get(target);
+		if (digest == null || digest.length != target.length() || digest.lastModified != target.lastModified())
+		{
+			digest = new FileDigest(target, digest(target));
+			targetDigests.put(target, digest);
+		}
+		return digest;
+	}
+
+	private static byte[] digest(File file) throws IOException
+	{
+		try (InputStream is = new FileInputStream(file))
+		{
+			MessageDigest md = MessageDigest.getInstance("SHA-1");
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1)
+			{
+				md.update(buffer, 0, read);
+			}
+			return md.digest();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// every java platform has SHA-1
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private boolean isIgnored(File dir)
+	{
+		return this.ignoreFilter != null && this.ignoreFilter.test(dir.toURI().getPath());
+	}
+
 	private boolean addAllDirs(File dir)
 	{
-		String filename = dir.toURI().getPath();
-//		int index = filename.indexOf("/node/");
-//		if (index == -1) return false;
-//		filename = filename.substring(index + 5);
 		// skip node modules
-		if (this.ignoreFilter != null && this.ignoreFilter.test(filename)) return false;
+		if (isIgnored(dir)) return false;
 
 		try
 		{
@@ -217,4 +377,18 @@ public class DirectorySync
 		File file = new File(nodeFolder, filename);
 		FileUtils.copyInputStreamToFile(is, file);
 	}
+
+	private static final class FileDigest
+	{
+		private final long length;
+		private final long lastModified;
+		private final byte[] digest;
+
+		private FileDigest(File file, byte[] digest)
+		{
+			this.length = file.length();
+			this.lastModified = file.lastModified();
+			this.digest = digest;
+		}
+	}
 }
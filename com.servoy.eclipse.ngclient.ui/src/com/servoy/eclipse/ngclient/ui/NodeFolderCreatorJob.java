@@ -99,6 +99,8 @@ public class NodeFolderCreatorJob extends Job
 					// delete the source dirs so we start clean
 					FileUtils.deleteQuietly(new File(nodeFolder, "src"));
 					FileUtils.deleteQuietly(new File(nodeFolder, "projects"));
+					// the packages and sources are checked and installed again against the new package.json
+					PackagesFingerprint.delete(nodeFolder);
 				}
 				catch (IOException e)
 				{
@@ -0,0 +1,189 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+*/
+
+package com.servoy.eclipse.ngclient.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.sablo.specification.Package.IPackageReader;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+
+/**
+ * Fingerprint of everything the NG2 target folder is built from: the npm packages (name, version and entry point), the css libraries
+ * and the generated sources. It is stored in the target folder after a successful npm install and build, so a package check that
+ * resolves the same fingerprint can skip npm; the stored npm packages are used to only install or uninstall what was added, removed or bumped.
+ *
+ * @since 2021.12
+ */
+final class PackagesFingerprint
+{
+	private static final String FILE_NAME = ".packages_fingerprint";
+	private static final String HASH_KEY = "fingerprint";
+	private static final String PACKAGE_PREFIX = "npm.";
+
+	private final MessageDigest digest;
+	private final Map<String, String> npmPackages = new TreeMap<>();
+	private String hash;
+
+	PackagesFingerprint()
+	{
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// every java platform has SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private PackagesFingerprint(String hash)
+	{
+		this.digest = null;
+		this.hash = hash;
+	}
+
+	/**
+	 * Add an npm package, the version includes the timestamp of the package file so a changed package without a new version is also seen as bumped.
+	 */
+	void addPackage(String npmPackageName, IPackageReader packageReader, String entryPoint)
+	{
+		File resource = packageReader != null ? packageReader.getResource() : null;
+		String version = (packageReader != null ? packageReader.getVersion() : null) + (resource != null && resource.isFile() ? "#" + resource.lastModified() : "");
+		npmPackages.put(npmPackageName, version);
+		add("package", npmPackageName, version, entryPoint);
+	}
+
+	void add(String... values)
+	{
+		for (String value : values)
+		{
+			digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte)0);
+		}
+		digest.update((byte)'\n');
+	}
+
+	/**
+	 * @return the hex of the digest, no values can be added after this is called
+	 */
+	String getHash()
+	{
+		if (hash == null)
+		{
+			StringBuilder sb = new StringBuilder(64);
+			for (byte b : digest.digest())
+			{
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			hash = sb.toString();
+		}
+		return hash;
+	}
+
+	boolean isSame(PackagesFingerprint other)
+	{
+		return other != null && getHash().equals(other.getHash());
+	}
+
+	/**
+	 * @return the npm packages of the previous fingerprint that are not in this one
+	 */
+	Set<String> getRemovedPackages(PackagesFingerprint previous)
+	{
+		Set<String> removed = new TreeSet<>();
+		if (previous != null)
+		{
+			removed.addAll(previous.npmPackages.keySet());
+			removed.removeAll(npmPackages.keySet());
+		}
+		return removed;
+	}
+
+	/**
+	 * @return the npm packages that are new or have a different version compared to the previous fingerprint
+	 */
+	Set<String> getChangedPackages(PackagesFingerprint previous)
+	{
+		Set<String> changed = new TreeSet<>();
+		npmPackages.forEach((name, version) -> {
+			if (previous == null || !version.equals(previous.npmPackages.get(name))) changed.add(name);
+		});
+		return changed;
+	}
+
+	static PackagesFingerprint load(File projectFolder)
+	{
+		File file = new File(projectFolder, FILE_NAME);
+		if (!file.exists()) return null;
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(file.toPath()))
+		{
+			properties.load(is);
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError(e);
+			return null;
+		}
+		String hash = properties.getProperty(HASH_KEY);
+		if (hash == null) return null;
+		PackagesFingerprint fingerprint = new PackagesFingerprint(hash);
+		for (String key : properties.stringPropertyNames())
+		{
+			if (key.startsWith(PACKAGE_PREFIX)) fingerprint.npmPackages.put(key.substring(PACKAGE_PREFIX.length()), properties.getProperty(key));
+		}
+		return fingerprint;
+	}
+
+	void save(File projectFolder)
+	{
+		Properties properties = new Properties();
+		properties.setProperty(HASH_KEY, getHash());
+		npmPackages.forEach((name, version) -> properties.setProperty(PACKAGE_PREFIX + name, version));
+		try (OutputStream os = Files.newOutputStream(new File(projectFolder, FILE_NAME).toPath()))
+		{
+			properties.store(os, "NGClient2 packages fingerprint");
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError(e);
+		}
+	}
+
+	/**
+	 * Remove the stored fingerprint so the next check does a full npm install and build.
+	 */
+	static void delete(File projectFolder)
+	{
+		new File(projectFolder, FILE_NAME).delete();
+	}
+}
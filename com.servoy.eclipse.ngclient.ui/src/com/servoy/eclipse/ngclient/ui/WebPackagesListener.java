@@ -193,47 +193,23 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 				}
 
 
-				boolean sourceChanged = false;
-				if (ng2Services.size() > 0 || componentPackageSpecToReader.size() > 0)
-				{
-					try
-					{
-						File packageJson = new File(projectFolder, "package.json");
-						String json = FileUtils.readFileToString(packageJson, "UTF-8");
-						JSONObject jsonObject = new JSONObject(json);
-						JSONObject dependencies = jsonObject.optJSONObject("dependencies");
-						ng2Services.entrySet().forEach(entry -> {
-							WebObjectSpecification spec = entry.getKey();
-							NG2Config ng2Config = spec.getNG2Config();
-							String packageName = ng2Config.getPackageName();
-							IPackageReader packageReader = entry.getValue();
-							String entryPoint = ng2Config.getEntryPoint();
-							String pck = checkPackage(dependencies, packageName, packageReader, entryPoint, console);
-							if (pck != null)
-							{
-								writeConsole(console, "need to install package " + pck);
-								packageToInstall.add(pck);
-							}
-						});
-
-						componentPackageSpecToReader.entrySet().forEach(entry -> {
-							PackageSpecification<WebObjectSpecification> spec = entry.getKey();
-							String packageName = spec.getNpmPackageName();
-							IPackageReader packageReader = entry.getValue();
-							String entryPoint = spec.getEntryPoint();
-							String pck = checkPackage(dependencies, packageName, packageReader, entryPoint, console);
-							if (pck != null)
-							{
-								packageToInstall.add(pck);
-							}
-						});
-					}
-					catch (IOException e)
-					{
-						ServoyLog.logError(e);
-					}
-				}
+				// the fingerprint of the resolved packages, the generated sources are added to it below
+				PackagesFingerprint fingerprint = new PackagesFingerprint();
+				ng2Services.forEach((spec, packageReader) -> {
+					NG2Config ng2Config = spec.getNG2Config();
+					fingerprint.addPackage(ng2Config.getPackageName(), packageReader, ng2Config.getEntryPoint());
+					fingerprint.add(spec.getName(), ng2Config.getServiceName(), ng2Config.getModuleName());
+				});
+				componentPackageSpecToReader.forEach((spec, packageReader) -> {
+					fingerprint.addPackage(spec.getNpmPackageName(), packageReader, spec.getEntryPoint());
+					fingerprint.add(spec.getPackageName(), spec.getNg2Module());
+				});
+				cssLibs.forEach(lib -> fingerprint.add("css", lib));
+				structureTagNames.forEach(tag -> fingerprint.add("tag", tag));
 
+				boolean sourceChanged = false;
+				// if a source could not be generated the fingerprint is not stored, so the next check tries again
+				boolean sourceFailed = false;
 				// adjust the allservices.sevice.ts
 				try
 				{
@@ -291,6 +267,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 					content = replace(content, "// generated services start", "// generated services end", services);
 					content = replace(content, "// generated providers start", "// generated providers end", providers);
 					content = replace(content, "// generated modules start", "// generated modules end", modules);
+					fingerprint.add(content);
 					if (!old.equals(content))
 					{
 						sourceChanged = true;
@@ -300,6 +277,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 				}
 				catch (IOException e)
 				{
+					sourceFailed = true;
 					ServoyLog.logError(e);
 				}
 
@@ -340,6 +318,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 							generateStructureTemplate.getLFFormComponentTemplate());
 						lfc = replace(lfc, "// structure viewchild template generate start", "// structure viewchild template generate end",
 							generateStructureTemplate.getViewChilds());
+						fingerprint.add(lfc);
 						if (!oldLFC.equals(lfc))
 						{
 							sourceChanged = true;
@@ -348,6 +327,8 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 						}
 
 					}
+					fingerprint.add(content);
+					fingerprint.add(editorContent);
 					if (!old.equals(content))
 					{
 						sourceChanged = true;
@@ -365,6 +346,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 				}
 				catch (IOException e1)
 				{
+					sourceFailed = true;
 					ServoyLog.logError(e1);
 				}
 
@@ -396,6 +378,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 					});
 					allComponentsModule.append(" ]\n})\nexport class AllComponentsModule { }\n");
 					String current = allComponentsModule.toString();
+					fingerprint.add(current);
 					String content = FileUtils.readFileToString(new File(projectFolder, "src/ngclient/allcomponents.module.ts"), "UTF-8");
 
 					if (!current.equals(content))
@@ -407,6 +390,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 				}
 				catch (IOException e1)
 				{
+					sourceFailed = true;
 					ServoyLog.logError(e1);
 				}
 
@@ -420,6 +404,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 						StringBuilder sb = new StringBuilder();
 						cssLibs.forEach(lib -> sb.append("@import \"").append(lib).append("\";\n"));
 						String imports = sb.toString();
+						fingerprint.add(imports);
 						if (!imports.equals(content.substring(0, index)))
 						{
 							if (index > 0)
@@ -435,25 +420,109 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 				}
 				catch (IOException e)
 				{
+					sourceFailed = true;
 					ServoyLog.logError(e);
 				}
-				if (packageToInstall.size() > 0 || sourceChanged || !new File(projectFolder, "dist").exists() || cleanInstall.get() || warExportModel != null)
+
+				// a full check of all the packages is done once per session (that also creates the source package watchers) and when there is no stored fingerprint,
+				// after that only the packages that are added or bumped compared to the stored fingerprint are checked
+				File distFolder = new File(projectFolder, "dist");
+				PackagesFingerprint previous = warExportModel == null ? PackagesFingerprint.load(projectFolder) : null;
+				boolean fullCheck = previous == null || !packagesChecked || cleanInstall.get() || !distFolder.exists();
+				Set<String> changedPackages = fullCheck ? null : fingerprint.getChangedPackages(previous);
+				Set<String> packagesToRemove = new TreeSet<>();
+				try
 				{
-					// first exeuted npm install with all the packages.
-					// only execute this if a source is changed (should always happens the first time)
-					// or if there are really packages to install.
-					List<String> command = new ArrayList<>();
-					command.add("install");
-					packageToInstall.forEach(packageName -> command.add(packageName));
-					command.add("--legacy-peer-deps");
-					RunNPMCommand npmCommand = Activator.getInstance().createNPMCommand(command);
-					try
+					File packageJson = new File(projectFolder, "package.json");
+					String json = FileUtils.readFileToString(packageJson, "UTF-8");
+					JSONObject jsonObject = new JSONObject(json);
+					JSONObject dependencies = jsonObject.optJSONObject("dependencies");
+					ng2Services.entrySet().forEach(entry -> {
+						WebObjectSpecification spec = entry.getKey();
+						NG2Config ng2Config = spec.getNG2Config();
+						String packageName = ng2Config.getPackageName();
+						if (changedPackages != null && !changedPackages.contains(packageName)) return;
+						IPackageReader packageReader = entry.getValue();
+						String entryPoint = ng2Config.getEntryPoint();
+						String pck = checkPackage(dependencies, packageName, packageReader, entryPoint, console);
+						if (pck != null)
+						{
+							writeConsole(console, "need to install package " + pck);
+							packageToInstall.add(pck);
+						}
+					});
+
+					componentPackageSpecToReader.entrySet().forEach(entry -> {
+						PackageSpecification<WebObjectSpecification> spec = entry.getKey();
+						String packageName = spec.getNpmPackageName();
+						if (changedPackages != null && !changedPackages.contains(packageName)) return;
+						IPackageReader packageReader = entry.getValue();
+						String entryPoint = spec.getEntryPoint();
+						String pck = checkPackage(dependencies, packageName, packageReader, entryPoint, console);
+						if (pck != null)
+						{
+							packageToInstall.add(pck);
+						}
+					});
+
+					if (dependencies != null)
 					{
-						npmCommand.runCommand(monitor);
+						// only the packages that this check installed before are uninstalled, never the ones that the package.json itself has
+						fingerprint.getRemovedPackages(previous).stream().filter(packageName -> !dependencies.has(packageName)).forEach(packagesToRemove::add);
 					}
-					catch (Exception e)
+				}
+				catch (IOException e)
+				{
+					ServoyLog.logError(e);
+				}
+				if (warExportModel == null) packagesChecked = true;
+
+				boolean fingerprintChanged = !fingerprint.isSame(previous);
+				if (packageToInstall.size() > 0 || packagesToRemove.size() > 0 || sourceChanged || fingerprintChanged || !distFolder.exists() ||
+					cleanInstall.get() || warExportModel != null)
+				{
+					boolean failed = false;
+					if (packagesToRemove.size() > 0)
 					{
-						ServoyLog.logError(e);
+						writeConsole(console, "removing packages " + packagesToRemove);
+						List<String> command = new ArrayList<>();
+						command.add("uninstall");
+						command.addAll(packagesToRemove);
+						command.add("--legacy-peer-deps");
+						try
+						{
+							Activator.getInstance().createNPMCommand(command).runCommand(monitor);
+						}
+						catch (Exception e)
+						{
+							failed = true;
+							ServoyLog.logError(e);
+						}
+					}
+					RunNPMCommand npmCommand;
+					// npm install with all the packages when there is no previous state (should always happens the first time)
+					// or only with the packages that are really added or bumped.
+					if (packageToInstall.size() > 0 || previous == null || !distFolder.exists() || !new File(projectFolder, "node_modules").exists() ||
+						cleanInstall.get() || warExportModel != null)
+					{
+						List<String> command = new ArrayList<>();
+						command.add("install");
+						packageToInstall.forEach(packageName -> command.add(packageName));
+						command.add("--legacy-peer-deps");
+						npmCommand = Activator.getInstance().createNPMCommand(command);
+						try
+						{
+							npmCommand.runCommand(monitor);
+						}
+						catch (Exception e)
+						{
+							failed = true;
+							ServoyLog.logError(e);
+						}
+					}
+					else
+					{
+						writeConsole(console, "no packages added or bumped, skipping npm install");
 					}
 					if (cleanInstall.get())
 					{
@@ -465,6 +534,7 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 						}
 						catch (Exception e)
 						{
+							failed = true;
 							ServoyLog.logError(e);
 						}
 					}
@@ -481,9 +551,23 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 						}
 						catch (Exception e)
 						{
+							failed = true;
 							ServoyLog.logError(e);
 						}
 					}
+					if (warExportModel != null)
+					{
+						// the export generated the sources and installed the packages for its own selection of packages
+						PackagesFingerprint.delete(projectFolder);
+					}
+					else if (!failed && !sourceFailed && !monitor.isCanceled())
+					{
+						fingerprint.save(projectFolder);
+					}
+				}
+				else
+				{
+					writeConsole(console, "packages and sources didn't change since the last build, skipping npm install and build");
 				}
 				writeConsole(console, "Total time to check/install NG2 target folder: " + projectFolder + " is " +
 					Math.round((System.currentTimeMillis() - time) / 1000) + "s\n");
@@ -690,7 +774,8 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 										FileUtils.deleteQuietly(packageFolder);
 										File srcDir = file.getLocation().toFile();
 										FileUtils.copyDirectory(srcDir, packageFolder);
-										WebPackagesListener.watchCreated.put(project.getName(), new DirectorySync(srcDir, packageFolder, null));
+										WebPackagesListener.watchCreated.put(project.getName(), new DirectorySync(srcDir, packageFolder, null,
+											changedFiles -> writeToConsole(changedFiles.size() + " changed files of source package " + packageName + " synced to " + packageFolder)));
 									}
 									// also add if this is a src thing to the ts config
 									if (sourcePathJson != null)
@@ -813,6 +898,8 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 
 	private static final AtomicInteger scheduled = new AtomicInteger(0); // 0 == no jobs, 1 == job scheduled, 2  or 3 == job running, 3 == run again.
 	private static final AtomicBoolean cleanInstall = new AtomicBoolean(false);
+	// true when all packages are checked once in this session, only accessed by the (single) PackageCheckerJob
+	private static volatile boolean packagesChecked = false;
 
 	private static final ConcurrentMap<String, DirectorySync> watchCreated = new ConcurrentHashMap<>();
 
@@ -828,6 +915,22 @@ public class WebPackagesListener implements ILoadedNGPackagesListener
 		checkPackages(false);
 	}
 
+	/**
+	 * writes a message to the ngclient console outside of a package check
+	 */
+	private static void writeToConsole(String message)
+	{
+		StringOutputStream console = Activator.getInstance().getConsole().outputStream();
+		try
+		{
+			console.write(message + "\n");
+			console.close();
+		}
+		catch (IOException e)
+		{
+		}
+	}
+
 	/**
 	 * returns true if the given package is enabled, will return falso only when the given package is a ng1 default package mapping
 	 * and the preference says it is disabled
@@ -0,0 +1,311 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.ngclient.startup.resourceprovider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarFile;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+
+import com.servoy.j2db.server.ngclient.less.LessCompiler;
+import com.servoy.j2db.util.HTTPUtils;
+import com.servoy.j2db.util.MimeTypes;
+
+/**
+ * Bounded in memory cache of the resources that the {@link ResourceProvider} serves, by request path.
+ * A cached resource has the bytes (the compiled css for a less file), a gzipped variant for text resources and an ETag of the content.
+ * <p>
+ * Lookups don't lock, the least recently used resources are removed when the cache gets over its size.
+ * Resources that are (in) a file on disk are checked against the timestamp and length of that file on every lookup,
+ * resources of bundles can only change by a package change, then the whole cache is cleared.
+ *
+ * @since 2021.12
+ */
+final class ResourceCache
+{
+	private static final int MAX_RESOURCE_SIZE = 4 * 1024 * 1024;
+	private static final long MAX_CACHE_SIZE = 64 * 1024 * 1024;
+	private static final int MIN_GZIP_SIZE = 1024;
+
+	private final Map<String, CachedResource> resources = new ConcurrentHashMap<>();
+	private final AtomicLong size = new AtomicLong();
+	private final AtomicLong clock = new AtomicLong();
+	// incremented by a clear, so a resource that was read before the clear is not cached
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * @return the cached resource of the path or null if it is not cached or its file is changed
+	 */
+	CachedResource get(String path)
+	{
+		CachedResource resource = resources.get(path);
+		if (resource != null)
+		{
+			if (resource.isChanged())
+			{
+				remove(path, resource);
+				return null;
+			}
+			resource.lastAccess = clock.incrementAndGet();
+		}
+		return resource;
+	}
+
+	/**
+	 * @return the current generation of the cache, to pass to {@link #load(String, URL, long)}
+	 */
+	long getGeneration()
+	{
+		return generation.get();
+	}
+
+	/**
+	 * Read the resource of the url and cache it under the path.
+	 *
+	 * @param readGeneration the generation of the cache from before the url was resolved, the resource is not kept if the cache was cleared since then
+	 *
+	 * @return the resource or null if it is too large to cache, then it should be streamed
+	 */
+	CachedResource load(String path, URL url, long readGeneration) throws IOException
+	{
+		CachedResource resource = read(url);
+		if (resource != null)
+		{
+			resource.lastAccess = clock.incrementAndGet();
+			CachedResource previous = resources.put(path, resource);
+			if (previous != null) size.addAndGet(-previous.getSize());
+			if (size.addAndGet(resource.getSize()) > MAX_CACHE_SIZE) evict();
+			if (readGeneration != generation.get()) remove(path, resource);
+		}
+		return resource;
+	}
+
+	void clear()
+	{
+		generation.incrementAndGet();
+		resources.clear();
+		size.set(0);
+	}
+
+	private void remove(String path, CachedResource resource)
+	{
+		if (resources.remove(path, resource)) size.addAndGet(-resource.getSize());
+	}
+
+	private synchronized void evict()
+	{
+		if (size.get() <= MAX_CACHE_SIZE) return;
+		List<Map.Entry<String, CachedResource>> entries = new ArrayList<>(resources.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+		// remove the least recently used until the cache is at 3/4 of its size, so not every load has to evict
+		for (Map.Entry<String, CachedResource> entry : entries)
+		{
+			if (size.get() <= MAX_CACHE_SIZE * 3 / 4) break;
+			remove(entry.getKey(), entry.getValue());
+		}
+	}
+
+	private static CachedResource read(URL url) throws IOException
+	{
+		String name;
+		long lastModified;
+		byte[] bytes;
+		File file;
+		URLConnection connection = url.openConnection();
+		connection.setUseCaches(false);
+		if (connection instanceof JarURLConnection)
+		{
+			file = FileUtils.toFile(((JarURLConnection)connection).getJarFileURL());
+			JarFile jarFile = ((JarURLConnection)connection).getJarFile();
+			try
+			{
+				name = ((JarURLConnection)connection).getEntryName();
+				ZipEntry entry = jarFile.getEntry(name);
+				if (entry.getSize() > MAX_RESOURCE_SIZE) return null;
+				lastModified = entry.getTime();
+				try (InputStream is = jarFile.getInputStream(entry))
+				{
+					bytes = readBytes(is);
+				}
+			}
+			finally
+			{
+				jarFile.close();
+			}
+		}
+		else
+		{
+			name = url.getFile();
+			file = FileUtils.toFile(url);
+			if (connection.getContentLengthLong() > MAX_RESOURCE_SIZE) return null;
+			lastModified = connection.getLastModified();
+			try (InputStream is = connection.getInputStream())
+			{
+				bytes = readBytes(is);
+			}
+		}
+		if (bytes == null) return null;
+
+		String contentType = MimeTypes.guessContentTypeFromName(name);
+		if (name.toLowerCase().endsWith(".less"))
+		{
+			String css = LessCompiler.compileLess(new ByteArrayInputStream(bytes));
+			if (css != null)
+			{
+				contentType = "text/css";
+				bytes = css.getBytes(StandardCharsets.UTF_8);
+			}
+		}
+		return new CachedResource(bytes, contentType, lastModified, file);
+	}
+
+	/**
+	 * @return the bytes or null if there are more than {@link #MAX_RESOURCE_SIZE}
+	 */
+	private static byte[] readBytes(InputStream is) throws IOException
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = is.read(buffer)) != -1)
+		{
+			baos.write(buffer, 0, read);
+			if (baos.size() > MAX_RESOURCE_SIZE) return null;
+		}
+		return baos.toByteArray();
+	}
+
+	private static boolean isCompressible(String contentType)
+	{
+		return contentType != null && (contentType.startsWith("text/") || contentType.contains("javascript") || contentType.contains("json") ||
+			contentType.contains("xml") || contentType.contains("svg"));
+	}
+
+	static final class CachedResource
+	{
+		private final byte[] bytes;
+		private final byte[] gzipped;
+		private final String contentType;
+		private final long lastModified;
+		private final String etag;
+		// the file (or jar) the resource is read from, null for bundle resources
+		private final File file;
+		private final long fileLastModified;
+		private final long fileLength;
+		private volatile long lastAccess;
+
+		private CachedResource(byte[] bytes, String contentType, long lastModified, File file) throws IOException
+		{
+			this.bytes = bytes;
+			this.contentType = contentType;
+			this.lastModified = lastModified;
+			this.file = file;
+			this.fileLastModified = file != null ? file.lastModified() : 0;
+			this.fileLength = file != null ? file.length() : 0;
+			this.etag = createETag(bytes);
+			this.gzipped = bytes.length >= MIN_GZIP_SIZE && isCompressible(contentType) ? gzip(bytes) : null;
+		}
+
+		private boolean isChanged()
+		{
+			return file != null && (file.lastModified() != fileLastModified || file.length() != fileLength);
+		}
+
+		private long getSize()
+		{
+			return bytes.length + (gzipped != null ? gzipped.length : 0);
+		}
+
+		void write(HttpServletRequest request, HttpServletResponse response) throws IOException
+		{
+			response.setHeader("ETag", etag);
+			String ifNoneMatch = request.getHeader("If-None-Match");
+			if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag)))
+			{
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+			if (HTTPUtils.checkAndSetUnmodified(request, response, lastModified)) return;
+
+			if (contentType != null) response.setContentType(contentType);
+			byte[] content = bytes;
+			if (gzipped != null)
+			{
+				response.setHeader("Vary", "Accept-Encoding");
+				String acceptEncoding = request.getHeader("Accept-Encoding");
+				if (acceptEncoding != null && acceptEncoding.contains("gzip"))
+				{
+					response.setHeader("Content-Encoding", "gzip");
+					content = gzipped;
+				}
+			}
+			response.setContentLength(content.length);
+			response.getOutputStream().write(content);
+		}
+
+		private static String createETag(byte[] bytes)
+		{
+			try
+			{
+				StringBuilder sb = new StringBuilder(42).append('"');
+				for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes))
+				{
+					sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+				}
+				return sb.append('"').toString();
+			}
+			catch (NoSuchAlgorithmException e)
+			{
+				// every java platform has SHA-1
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private static byte[] gzip(byte[] bytes) throws IOException
+		{
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 3);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(baos))
+			{
+				gzip.write(bytes);
+			}
+			// only when it really is smaller
+			return baos.size() < bytes.length ? baos.toByteArray() : null;
+		}
+	}
+}
@@ -86,6 +86,8 @@ public class ResourceProvider implements Filter
 	private static final Map<String, List<IPackageReader>> componentReaders = new ConcurrentHashMap<>();
 	private static final Map<String, List<IPackageReader>> serviceReaders = new ConcurrentHashMap<>();
 	private static final List<String> removePackageNames = new ArrayList<String>();
+	// the resolved resources by request path, cleared when the packages change
+	private static final ResourceCache resourceCache = new ResourceCache();
 
 	private final File templatesDir = new File(ApplicationServerRegistry.get().getServoyApplicationServerDirectory(), "server/webapps/ROOT/templates");
 
@@ -124,6 +126,7 @@ public class ResourceProvider implements Filter
 		}
 		componentReaders.clear();
 		serviceReaders.clear();
+		resourceCache.clear();
 		for (IPackageReader reader : flatten(newPackages))
 		{
 			if (IPackageReader.WEB_SERVICE.equals(reader.getPackageType()))
@@ -178,6 +181,7 @@ public class ResourceProvider implements Filter
 	public synchronized static void updatePackageResources(Collection<IPackageReader> componentsToRemove, Collection<IPackageReader> componentsToAdd,
 		Collection<IPackageReader> servicesToRemove, Collection<IPackageReader> servicesToAdd)
 	{
+		resourceCache.clear();
 		for (IPackageReader reader : componentsToRemove)
 		{
 			List<IPackageReader> list = componentReaders.get(reader.getPackageName());
@@ -226,6 +230,7 @@ public class ResourceProvider implements Filter
 	{
 		removePackageNames.clear();
 		removePackageNames.addAll(packageNames);
+		resourceCache.clear();
 	}
 
 	private synchronized static void initSpecProvider()
@@ -287,19 +292,31 @@ public class ResourceProvider implements Filter
 		if (pathInfo != null && !pathInfo.equals("/"))
 		{
 
+			ResourceCache.CachedResource resource = resourceCache.get(pathInfo);
 			URL url = null;
-			if (pathInfo.startsWith("/templates/"))
+			if (resource == null)
 			{
-				File templateFile = new File(templatesDir, pathInfo.substring("/templates/".length()));
-				if (templateFile.exists())
+				if (pathInfo.startsWith("/templates/"))
 				{
-					url = templateFile.toURI().toURL();
+					File templateFile = new File(templatesDir, pathInfo.substring("/templates/".length()));
+					if (templateFile.exists())
+					{
+						url = templateFile.toURI().toURL();
+					}
 				}
+				// taken before the url is computed, so a url of packages that are changed in the meantime is not cached
+				long cacheGeneration = resourceCache.getGeneration();
+				if (url == null) url = computeURL(pathInfo, Activator.getNClientBundle());
+				if (url != null) resource = resourceCache.load(pathInfo, url, cacheGeneration);
 			}
-			if (url == null) url = computeURL(pathInfo, Activator.getNClientBundle());
 
-			if (url != null)
+			if (resource != null)
+			{
+				resource.write((HttpServletRequest)request, (HttpServletResponse)response);
+			}
+			else if (url != null)
 			{
+				// too large to cache
 				URLConnection connection = url.openConnection();
 				connection.setUseCaches(false);
 				if (connection instanceof JarURLConnection)
@@ -367,6 +384,9 @@ public class ResourceProvider implements Filter
 	}
 
 
+	/**
+	 * Synchronized because the package readers are changed in place when the packages change, this is only called when a resource is not in the cache.
+	 */
 	public synchronized static URL computeURL(String pathInfo, Bundle bundle) throws UnsupportedEncodingException, MalformedURLException
 	{
 		URL url = null;
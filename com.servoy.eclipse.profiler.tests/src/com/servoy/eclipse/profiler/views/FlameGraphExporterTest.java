@@ -0,0 +1,83 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+package com.servoy.eclipse.profiler.views;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the collapsed stacks and speedscope files that {@link FlameGraphExporter} writes for a call tree.
+ *
+ * @since 2021.12
+ */
+public class FlameGraphExporterTest
+{
+	private static final String QUERY = "select * from orders;\n where id = ?";
+
+	private CallTreeNode root;
+
+	/**
+	 * Two top level calls: onLoad that did a query and called helper and idle, and another call of helper.
+	 */
+	@Before
+	public void createCallTree()
+	{
+		root = CallTreeNode.createRoot();
+		root.add(64, 0, 2);
+		CallTreeNode onLoad = root.getChild("forms/orders.js#onLoad", "onLoad", "forms/orders.js", 10, false);
+		onLoad.add(60, 30, 1);
+		onLoad.getChild("sql#" + QUERY, QUERY, "db:/example_data/orders", -1, true).add(20, 20, 1);
+		onLoad.getChild("scopes/globals.js#helper", "helper", "scopes/globals.js", 3, false).add(10, 10, 1);
+		onLoad.getChild("scopes/globals.js#idle", "idle", "scopes/globals.js", 7, false).add(0, 0, 1);
+		root.getChild("scopes/globals.js#helper", "helper", "scopes/globals.js", 3, false).add(4, 4, 1);
+	}
+
+	@Test
+	public void collapsedStacks() throws IOException
+	{
+		StringWriter writer = new StringWriter();
+		FlameGraphExporter.writeCollapsedStacks(root, writer);
+
+		// a call without own time has no stack, the frame separator and newlines in the query are replaced
+		assertEquals("onLoad (orders.js) 30\n" + //
+			"onLoad (orders.js);SQL: select * from orders,  where id = ? 20\n" + //
+			"onLoad (orders.js);helper (globals.js) 10\n" + //
+			"helper (globals.js) 4\n", writer.toString());
+	}
+
+	@Test
+	public void speedscope() throws IOException
+	{
+		StringWriter writer = new StringWriter();
+		FlameGraphExporter.writeSpeedscope(root, "profile of \"orders\"", writer);
+
+		// a sample per call path with own time, the second helper call is the same frame as the first one;
+		// the datasource of a query is not written as its file
+		assertEquals("{\"$schema\":\"https://www.speedscope.app/file-format-schema.json\",\"exporter\":\"Servoy Profiler\",\"name\":\"profile of \\\"orders\\\"\"," + //
+			"\"activeProfileIndex\":0,\"profiles\":[{\"type\":\"sampled\",\"name\":\"profile of \\\"orders\\\"\",\"unit\":\"milliseconds\"," + //
+			"\"startValue\":0,\"endValue\":64,\"samples\":[[0],[0,1],[0,2],[2]],\"weights\":[30,20,10,4]}]," + //
+			"\"shared\":{\"frames\":[{\"name\":\"onLoad (orders.js)\",\"file\":\"forms/orders.js\",\"line\":10}," + //
+			"{\"name\":\"SQL: select * from orders;\\n where id = ?\"}," + //
+			"{\"name\":\"helper (globals.js)\",\"file\":\"scopes/globals.js\",\"line\":3}," + //
+			"{\"name\":\"idle (globals.js)\",\"file\":\"scopes/globals.js\",\"line\":7}]}}", writer.toString());
+	}
+}
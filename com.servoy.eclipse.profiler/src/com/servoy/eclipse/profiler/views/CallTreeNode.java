@@ -0,0 +1,202 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+package com.servoy.eclipse.profiler.views;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.servoy.j2db.debug.DataCallProfileData;
+import com.servoy.j2db.debug.ProfileData;
+
+/**
+ * A node of the merged call tree of all profiled calls: the calls with the same path of methods from the root are added up in one node.
+ * The queries a method did are child nodes of that method, their time is taken out of the own time of the method.
+ * <p>
+ * This is the model of the flame graph and of its exports; unlike the aggregate view (that shows the callers of a method) its children are the callees.
+ *
+ * @since 2021.12
+ */
+final class CallTreeNode
+{
+	private final String methodName;
+
+	private final String sourceName;
+
+	private final int line;
+
+	private final boolean query;
+
+	private long time;
+
+	private long ownTime;
+
+	private int count;
+
+	private final Map<String, CallTreeNode> children = new LinkedHashMap<String, CallTreeNode>();
+
+	private CallTreeNode(String methodName, String sourceName, int line, boolean query)
+	{
+		this.methodName = methodName;
+		this.sourceName = sourceName;
+		this.line = line;
+		this.query = query;
+	}
+
+	/**
+	 * @return the (invisible) root, the profiled top level calls are its children
+	 */
+	static CallTreeNode createRoot()
+	{
+		return new CallTreeNode("all", null, -1, false);
+	}
+
+	/**
+	 * Add a top level call with all the calls it did.
+	 */
+	void addRoot(ProfileData profileData)
+	{
+		time += profileData.getTime();
+		count++;
+		merge(profileData);
+	}
+
+	private void merge(ProfileData profileData)
+	{
+		int[] lineNumbers = profileData.getLineNumbers();
+		int callLine = lineNumbers != null && lineNumbers.length > 0 ? lineNumbers[0] : -1;
+		String key = profileData.getSourceName() + '#' + profileData.getMethodName() + (profileData.isInnerFunction() ? "#" + callLine : "");
+		CallTreeNode child = getChild(key, profileData.getMethodName(), profileData.getSourceName(), callLine, false);
+
+		long queryTime = 0;
+		for (DataCallProfileData dataCall : profileData.getDataCallProfileDatas())
+		{
+			CallTreeNode queryNode = child.getChild("sql#" + dataCall.getQuery(), dataCall.getQuery() != null ? dataCall.getQuery() : dataCall.getName(),
+				dataCall.getDatasource(), -1, true);
+			queryNode.add(dataCall.getTime(), dataCall.getTime(), dataCall.getCount());
+			queryTime += dataCall.getTime();
+		}
+		child.add(profileData.getTime(), Math.max(0, profileData.getOwnTime() - queryTime), 1);
+
+		for (ProfileData callee : profileData.getChildren())
+		{
+			child.merge(callee);
+		}
+	}
+
+	/**
+	 * @return the child with the key, it is created with the method name, source name and line when there is none yet
+	 */
+	CallTreeNode getChild(String key, String childMethodName, String childSourceName, int childLine, boolean childQuery)
+	{
+		CallTreeNode child = children.get(key);
+		if (child == null)
+		{
+			child = new CallTreeNode(childMethodName, childSourceName, childLine, childQuery);
+			children.put(key, child);
+		}
+		return child;
+	}
+
+	void add(long callTime, long callOwnTime, int callCount)
+	{
+		time += callTime;
+		ownTime += callOwnTime;
+		count += callCount;
+	}
+
+	void clear()
+	{
+		time = 0;
+		ownTime = 0;
+		count = 0;
+		children.clear();
+	}
+
+	/**
+	 * A deep copy, to export or paint the tree while calls are still added to this one.
+	 */
+	CallTreeNode copy()
+	{
+		CallTreeNode copy = new CallTreeNode(methodName, sourceName, line, query);
+		copy.time = time;
+		copy.ownTime = ownTime;
+		copy.count = count;
+		for (Map.Entry<String, CallTreeNode> entry : children.entrySet())
+		{
+			copy.children.put(entry.getKey(), entry.getValue().copy());
+		}
+		return copy;
+	}
+
+	/**
+	 * @return the method name, or the query for a query node
+	 */
+	String getMethodName()
+	{
+		return methodName;
+	}
+
+	/**
+	 * @return the source file, or the datasource for a query node
+	 */
+	String getSourceName()
+	{
+		return sourceName;
+	}
+
+	int getLine()
+	{
+		return line;
+	}
+
+	boolean isQuery()
+	{
+		return query;
+	}
+
+	long getTime()
+	{
+		return time;
+	}
+
+	long getOwnTime()
+	{
+		return ownTime;
+	}
+
+	int getCount()
+	{
+		return count;
+	}
+
+	Collection<CallTreeNode> getChildren()
+	{
+		return children.values();
+	}
+
+	/**
+	 * @return the name of a frame in the flame graph and the exports
+	 */
+	String getLabel()
+	{
+		if (query) return "SQL: " + methodName;
+		if (sourceName == null) return methodName;
+		int slash = Math.max(sourceName.lastIndexOf('/'), sourceName.lastIndexOf('\\'));
+		return methodName + " (" + sourceName.substring(slash + 1) + ')';
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+package com.servoy.eclipse.profiler.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.MouseAdapter;
+import org.eclipse.swt.events.MouseEvent;
+import org.eclipse.swt.events.MouseMoveListener;
+import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.ScrollBar;
+
+/**
+ * Icicle graph (a flame graph with the roots at the top) of a {@link CallTreeNode} tree.
+ * Clicking a frame zooms in on it, clicking one of the frames above it zooms out again; frames that contain the search text are highlighted.
+ *
+ * @since 2021.12
+ */
+final class FlameGraphCanvas extends Canvas
+{
+	private static final int FRAME_HEIGHT = 18;
+	private static final int MIN_LABEL_WIDTH = 30;
+
+	private static final class Frame
+	{
+		private final CallTreeNode node;
+		private final Rectangle bounds;
+
+		private Frame(CallTreeNode node, Rectangle bounds)
+		{
+			this.node = node;
+			this.bounds = bounds;
+		}
+	}
+
+	private final CallTreeNode root;
+	// the tree is changed by the profiler while it is painted, all access to it is synchronized on this
+	private final Object lock;
+
+	// root to the zoomed node, the zoomed node is the last
+	private final List<CallTreeNode> zoomPath = new ArrayList<CallTreeNode>();
+	private String search;
+
+	// the frames of the last paint, to find the frame under the mouse
+	private final List<Frame> frames = new ArrayList<Frame>();
+	private CallTreeNode toolTipNode;
+
+	private final Color[] methodColors;
+	private final Color queryColor;
+	private final Color matchColor;
+	private final Color zoomPathColor;
+	private final Color textColor;
+
+	FlameGraphCanvas(Composite parent, CallTreeNode root, Object lock)
+	{
+		super(parent, SWT.DOUBLE_BUFFERED | SWT.V_SCROLL | SWT.NO_BACKGROUND);
+		this.root = root;
+		this.lock = lock;
+		zoomPath.add(root);
+
+		methodColors = new Color[] { new Color(getDisplay(), 242, 140, 40), new Color(getDisplay(), 235, 170, 60), new Color(getDisplay(), 225, 105, 50), new Color(
+			getDisplay(), 245, 195, 80), new Color(getDisplay(), 215, 130, 70) };
+		queryColor = new Color(getDisplay(), 110, 170, 230);
+		matchColor = new Color(getDisplay(), 220, 80, 200);
+		zoomPathColor = new Color(getDisplay(), 200, 200, 200);
+		textColor = getDisplay().getSystemColor(SWT.COLOR_BLACK);
+
+		addPaintListener(this::paint);
+		addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseDown(MouseEvent e)
+			{
+				if (e.button == 1)
+				{
+					Frame frame = getFrame(e.x, e.y);
+					if (frame != null) zoom(frame.node);
+				}
+			}
+		});
+		addMouseMoveListener(new MouseMoveListener()
+		{
+			public void mouseMove(MouseEvent e)
+			{
+				Frame frame = getFrame(e.x, e.y);
+				CallTreeNode node = frame != null ? frame.node : null;
+				if (node != toolTipNode)
+				{
+					toolTipNode = node;
+					setToolTipText(node != null ? getToolTip(node) : null);
+				}
+			}
+		});
+		getVerticalBar().addListener(SWT.Selection, event -> redraw());
+		addListener(SWT.Resize, event -> redraw());
+		addDisposeListener(event -> {
+			for (Color color : methodColors)
+			{
+				color.dispose();
+			}
+			queryColor.dispose();
+			matchColor.dispose();
+			zoomPathColor.dispose();
+		});
+	}
+
+	/**
+	 * Highlight the frames that contain the text (case insensitive), null or empty for none.
+	 */
+	void setSearch(String search)
+	{
+		this.search = search == null || search.length() == 0 ? null : search.toLowerCase();
+		redraw();
+	}
+
+	void resetZoom()
+	{
+		zoomPath.clear();
+		zoomPath.add(root);
+		redraw();
+	}
+
+	private void zoom(CallTreeNode node)
+	{
+		int index = zoomPath.indexOf(node);
+		if (index >= 0)
+		{
+			// zoom out to a frame above the zoomed one
+			zoomPath.subList(index + 1, zoomPath.size()).clear();
+		}
+		else
+		{
+			synchronized (lock)
+			{
+				List<CallTreeNode> path = new ArrayList<CallTreeNode>();
+				if (!findPath(zoomPath.get(zoomPath.size() - 1), node, path)) return;
+				zoomPath.addAll(path);
+			}
+		}
+		getVerticalBar().setSelection(0);
+		redraw();
+	}
+
+	private static boolean findPath(CallTreeNode from, CallTreeNode to, List<CallTreeNode> path)
+	{
+		for (CallTreeNode child : from.getChildren())
+		{
+			path.add(child);
+			if (child == to || findPath(child, to, path)) return true;
+			path.remove(path.size() - 1);
+		}
+		return false;
+	}
+
+	private Frame getFrame(int x, int y)
+	{
+		for (Frame frame : frames)
+		{
+			if (frame.bounds.contains(x, y)) return frame;
+		}
+		return null;
+	}
+
+	private String getToolTip(CallTreeNode node)
+	{
+		synchronized (lock)
+		{
+			StringBuilder sb = new StringBuilder(node.getLabel());
+			if (node.getSourceName() != null) sb.append('\n').append(node.getSourceName());
+			sb.append("\nTime: ").append(node.getTime()).append(" ms");
+			if (root.getTime() > 0) sb.append(" (").append(node.getTime() * 100 / root.getTime()).append("%)");
+			sb.append("\nOwn time: ").append(node.getOwnTime()).append(" ms");
+			sb.append("\nCount: ").append(node.getCount());
+			return sb.toString();
+		}
+	}
+
+	private void paint(PaintEvent e)
+	{
+		GC gc = e.gc;
+		Rectangle area = getClientArea();
+		gc.setBackground(getDisplay().getSystemColor(SWT.COLOR_LIST_BACKGROUND));
+		gc.fillRectangle(area);
+		frames.clear();
+
+		int scroll = getVerticalBar().getSelection();
+		int depth;
+		synchronized (lock)
+		{
+			if (root.getChildren().isEmpty())
+			{
+				gc.setForeground(getDisplay().getSystemColor(SWT.COLOR_DARK_GRAY));
+				gc.drawText("No profile data, start profiling and run some scripts.", 5, 5, true);
+				updateScrollBar(0, area.height);
+				return;
+			}
+
+			int y = -scroll;
+			// the zoom path, full width
+			for (int i = 0; i < zoomPath.size() - 1; i++)
+			{
+				drawFrame(gc, zoomPath.get(i), 0, y, area.width, zoomPathColor);
+				y += FRAME_HEIGHT;
+			}
+			CallTreeNode zoomed = zoomPath.get(zoomPath.size() - 1);
+			depth = zoomPath.size() - 1 + drawTree(gc, zoomed, 0, y, area.width);
+
+			if (search != null)
+			{
+				long matched = getMatchedTime(zoomed);
+				String text = "Matched: " + matched + " ms (" + (zoomed.getTime() > 0 ? matched * 100 / zoomed.getTime() : 0) + "%)";
+				gc.setForeground(textColor);
+				gc.setBackground(getDisplay().getSystemColor(SWT.COLOR_INFO_BACKGROUND));
+				gc.drawText(text, area.width - gc.textExtent(text).x - 5, area.height - FRAME_HEIGHT);
+			}
+		}
+		updateScrollBar(depth * FRAME_HEIGHT, area.height);
+	}
+
+	/**
+	 * @return the depth of the tree that is drawn
+	 */
+	private int drawTree(GC gc, CallTreeNode node, double x, int y, double width)
+	{
+		Color color = matches(node) ? matchColor : node == root ? zoomPathColor : node.isQuery() ? queryColor
+			: methodColors[(node.getMethodName().hashCode() & Integer.MAX_VALUE) % methodColors.length];
+		drawFrame(gc, node, (int)x, y, Math.max(1, (int)width), color);
+
+		int depth = 1;
+		double childX = x;
+		for (CallTreeNode child : node.getChildren())
+		{
+			double childWidth = width * child.getTime() / Math.max(1, node.getTime());
+			// frames of less than a pixel are not drawn
+			if (childWidth >= 1)
+			{
+				depth = Math.max(depth, 1 + drawTree(gc, child, childX, y + FRAME_HEIGHT, childWidth));
+			}
+			childX += childWidth;
+		}
+		return depth;
+	}
+
+	private void drawFrame(GC gc, CallTreeNode node, int x, int y, int width, Color color)
+	{
+		Rectangle bounds = new Rectangle(x, y, width, FRAME_HEIGHT - 1);
+		frames.add(new Frame(node, bounds));
+		if (y + FRAME_HEIGHT < 0 || y > getClientArea().height) return;
+
+		gc.setBackground(color);
+		gc.fillRectangle(bounds);
+		if (width > MIN_LABEL_WIDTH)
+		{
+			gc.setClipping(bounds);
+			gc.setForeground(textColor);
+			gc.drawText(node.getLabel(), x + 2, y + 1, true);
+			gc.setClipping((Rectangle)null);
+		}
+	}
+
+	private boolean matches(CallTreeNode node)
+	{
+		return search != null && node.getLabel().toLowerCase().contains(search);
+	}
+
+	private long getMatchedTime(CallTreeNode node)
+	{
+		if (matches(node)) return node.getTime();
+		long time = 0;
+		for (CallTreeNode child : node.getChildren())
+		{
+			time += getMatchedTime(child);
+		}
+		return time;
+	}
+
+	private void updateScrollBar(int height, int visibleHeight)
+	{
+		ScrollBar bar = getVerticalBar();
+		bar.setMaximum(Math.max(height, 1));
+		bar.setThumb(Math.min(Math.max(height, 1), Math.max(visibleHeight, 1)));
+		bar.setPageIncrement(Math.max(visibleHeight, 1));
+		bar.setIncrement(FRAME_HEIGHT);
+	}
+}
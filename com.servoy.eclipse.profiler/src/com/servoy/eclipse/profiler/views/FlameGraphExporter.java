@@ -0,0 +1,188 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+package com.servoy.eclipse.profiler.views;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link CallTreeNode} tree as collapsed stacks (the input of flamegraph.pl and most flame graph tools)
+ * or as a speedscope (https://www.speedscope.app) json file. Both are written while walking the tree, only the frame table of speedscope is kept in memory.
+ * <p>
+ * The weight of a stack is the own time in ms of its last frame, queries are frames under the method that did them.
+ *
+ * @since 2021.12
+ */
+final class FlameGraphExporter
+{
+	static final String SPEEDSCOPE_EXTENSION = ".speedscope.json";
+	static final String COLLAPSED_EXTENSION = ".collapsed";
+
+	private FlameGraphExporter()
+	{
+	}
+
+	/**
+	 * One line per call path with own time: frame;frame;frame time
+	 */
+	static void writeCollapsedStacks(CallTreeNode root, Writer writer) throws IOException
+	{
+		StringBuilder stack = new StringBuilder();
+		for (CallTreeNode child : root.getChildren())
+		{
+			writeCollapsedStacks(child, stack, writer);
+		}
+	}
+
+	private static void writeCollapsedStacks(CallTreeNode node, StringBuilder stack, Writer writer) throws IOException
+	{
+		int length = stack.length();
+		if (length > 0) stack.append(';');
+		// ; separates the frames and a newline the stacks
+		stack.append(node.getLabel().replace(';', ',').replace('\r', ' ').replace('\n', ' '));
+		if (node.getOwnTime() > 0)
+		{
+			writer.append(stack).append(' ').append(Long.toString(node.getOwnTime())).append('\n');
+		}
+		for (CallTreeNode child : node.getChildren())
+		{
+			writeCollapsedStacks(child, stack, writer);
+		}
+		stack.setLength(length);
+	}
+
+	/**
+	 * A speedscope file with one sampled profile: a sample per call path, weighted with its own time.
+	 */
+	static void writeSpeedscope(CallTreeNode root, String name, Writer writer) throws IOException
+	{
+		Map<String, Integer> frames = new LinkedHashMap<String, Integer>();
+		List<CallTreeNode> frameNodes = new ArrayList<CallTreeNode>();
+		List<Long> weights = new ArrayList<Long>();
+
+		writer.write("{\"$schema\":\"https://www.speedscope.app/file-format-schema.json\",\"exporter\":\"Servoy Profiler\",\"name\":");
+		writeString(name, writer);
+		writer.write(",\"activeProfileIndex\":0,\"profiles\":[{\"type\":\"sampled\",\"name\":");
+		writeString(name, writer);
+		writer.write(",\"unit\":\"milliseconds\",\"startValue\":0,\"endValue\":");
+		writer.write(Long.toString(root.getTime()));
+		writer.write(",\"samples\":[");
+		List<Integer> stack = new ArrayList<Integer>();
+		for (CallTreeNode child : root.getChildren())
+		{
+			writeSamples(child, stack, frames, frameNodes, weights, writer);
+		}
+		writer.write("],\"weights\":[");
+		for (int i = 0; i < weights.size(); i++)
+		{
+			if (i > 0) writer.write(',');
+			writer.write(weights.get(i).toString());
+		}
+		writer.write("]}],\"shared\":{\"frames\":[");
+		for (int i = 0; i < frameNodes.size(); i++)
+		{
+			CallTreeNode node = frameNodes.get(i);
+			if (i > 0) writer.write(',');
+			writer.write("{\"name\":");
+			writeString(node.getLabel(), writer);
+			if (node.getSourceName() != null && !node.isQuery())
+			{
+				writer.write(",\"file\":");
+				writeString(node.getSourceName(), writer);
+				if (node.getLine() >= 0)
+				{
+					writer.write(",\"line\":");
+					writer.write(Integer.toString(node.getLine()));
+				}
+			}
+			writer.write('}');
+		}
+		writer.write("]}}");
+	}
+
+	private static void writeSamples(CallTreeNode node, List<Integer> stack, Map<String, Integer> frames, List<CallTreeNode> frameNodes, List<Long> weights,
+		Writer writer) throws IOException
+	{
+		String frameKey = node.getLabel() + '\u0000' + node.getSourceName() + '\u0000' + node.getLine();
+		Integer frame = frames.get(frameKey);
+		if (frame == null)
+		{
+			frame = Integer.valueOf(frameNodes.size());
+			frames.put(frameKey, frame);
+			frameNodes.add(node);
+		}
+		stack.add(frame);
+		if (node.getOwnTime() > 0)
+		{
+			if (weights.size() > 0) writer.write(',');
+			writer.write('[');
+			for (int i = 0; i < stack.size(); i++)
+			{
+				if (i > 0) writer.write(',');
+				writer.write(stack.get(i).toString());
+			}
+			writer.write(']');
+			weights.add(Long.valueOf(node.getOwnTime()));
+		}
+		for (CallTreeNode child : node.getChildren())
+		{
+			writeSamples(child, stack, frames, frameNodes, weights, writer);
+		}
+		stack.remove(stack.size() - 1);
+	}
+
+	private static void writeString(String s, Writer writer) throws IOException
+	{
+		writer.write('"');
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			switch (c)
+			{
+				case '"' :
+					writer.write("\\\"");
+					break;
+				case '\\' :
+					writer.write("\\\\");
+					break;
+				case '\n' :
+					writer.write("\\n");
+					break;
+				case '\r' :
+					writer.write("\\r");
+					break;
+				case '\t' :
+					writer.write("\\t");
+					break;
+				default :
+					if (c < 0x20)
+					{
+						writer.write(String.format("\\u%04x", Integer.valueOf(c)));
+					}
+					else
+					{
+						writer.write(c);
+					}
+			}
+		}
+		writer.write('"');
+	}
+}
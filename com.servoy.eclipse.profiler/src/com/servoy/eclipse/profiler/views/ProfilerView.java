@@ -16,15 +16,22 @@
  */
 package com.servoy.eclipse.profiler.views;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
-import java.util.ArrayList;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -71,6 +78,7 @@ import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jface.window.Window;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.SashForm;
+import org.eclipse.swt.custom.StackLayout;
 import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.dnd.Transfer;
@@ -87,6 +95,7 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
@@ -176,10 +185,52 @@ public class ProfilerView extends ViewPart
 	public static final int TABLE_WIDTH_DEFAULT = 50;
 	public static final int MAX_NUMBER_OF_ROOTS_DEFAULT = 400;
 
+	// the views are refreshed at most this often (ms) while profile data comes in
+	private static final int REFRESH_INTERVAL = 250;
+
 	private int maxNrOfRoots = MAX_NUMBER_OF_ROOTS_DEFAULT;
 
+	/**
+	 * The identity of an {@link AggregateData}: the method, its source and for inner functions their start line.
+	 */
+	private static final class AggregateKey
+	{
+		private final String methodName;
+
+		private final String sourceName;
+
+		private final int innerFunctionLineStart;
+
+		private AggregateKey(ProfileData pd)
+		{
+			this.methodName = pd.getMethodName();
+			this.sourceName = pd.getSourceName();
+			this.innerFunctionLineStart = pd.isInnerFunction() && pd.getLineNumbers() != null && pd.getLineNumbers().length > 0 ? pd.getLineNumbers()[0]
+				: -1;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return (31 * methodName.hashCode() + sourceName.hashCode()) * 31 + innerFunctionLineStart;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj instanceof AggregateKey)
+			{
+				AggregateKey key = (AggregateKey)obj;
+				return key.methodName.equals(methodName) && key.sourceName.equals(sourceName) && key.innerFunctionLineStart == innerFunctionLineStart;
+			}
+			return false;
+		}
+	}
+
 	private static final class AggregateData
 	{
+		private final AggregateKey key;
+
 		private final String methodName;
 
 		private final String sourceName;
@@ -190,7 +241,7 @@ public class ProfilerView extends ViewPart
 
 		private long ownTime;
 
-		private final List<AggregateData> callees = new ArrayList<AggregateData>();
+		private final Map<AggregateKey, AggregateData> callees = new LinkedHashMap<AggregateKey, AggregateData>();
 
 		private final HashMap<String, DataCallProfileData> dataCallProfileDataMap = new HashMap<String, DataCallProfileData>();
 
@@ -198,19 +249,17 @@ public class ProfilerView extends ViewPart
 
 		private Integer queryCount;
 
-		private int innerFunctionLineStart = -1;
+		private final int innerFunctionLineStart;
 
 		/**
 		 * @param aggregateData
 		 */
-		public AggregateData(ProfileData pd)
+		public AggregateData(AggregateKey key, ProfileData pd)
 		{
-			this.methodName = pd.getMethodName();
-			this.sourceName = pd.getSourceName();
-			if (pd.isInnerFunction() && pd.getLineNumbers() != null && pd.getLineNumbers().length > 0)
-			{
-				this.innerFunctionLineStart = pd.getLineNumbers()[0];
-			}
+			this.key = key;
+			this.methodName = key.methodName;
+			this.sourceName = key.sourceName;
+			this.innerFunctionLineStart = key.innerFunctionLineStart;
 			add(pd);
 		}
 
@@ -253,15 +302,14 @@ public class ProfilerView extends ViewPart
 
 				if (pd.getParent() != null)
 				{
-					AggregateData parent = new AggregateData(pd.getParent());
-					int index = callees.indexOf(parent);
-					if (index == -1)
+					AggregateKey parentKey = new AggregateKey(pd.getParent());
+					AggregateData parent = callees.get(parentKey);
+					if (parent == null)
 					{
-						callees.add(parent);
+						callees.put(parentKey, new AggregateData(parentKey, pd.getParent()));
 					}
 					else
 					{
-						parent = callees.get(index);
 						parent.increaseCount();
 					}
 				}
@@ -280,7 +328,23 @@ public class ProfilerView extends ViewPart
 
 		public AggregateData[] getChildren()
 		{
-			return callees.toArray(new AggregateData[0]);
+			return callees.values().toArray(new AggregateData[callees.size()]);
+		}
+
+		public boolean hasChildren()
+		{
+			return callees.size() > 0;
+		}
+
+		public AggregateKey getKey()
+		{
+			return key;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return key.hashCode();
 		}
 
 		/**
@@ -291,8 +355,7 @@ public class ProfilerView extends ViewPart
 		{
 			if (obj instanceof AggregateData)
 			{
-				AggregateData ad = (AggregateData)obj;
-				return ad.methodName.equals(methodName) && ad.sourceName.equals(sourceName) && ad.innerFunctionLineStart == this.innerFunctionLineStart;
+				return ((AggregateData)obj).key.equals(key);
 			}
 			return false;
 		}
@@ -372,7 +435,7 @@ public class ProfilerView extends ViewPart
 					dataCallProfileData.toXML(sb);
 				}
 			}
-			for (AggregateData child : callees)
+			for (AggregateData child : callees.values())
 			{
 				sb.append('\n');
 				sb.append(childPrefix);
@@ -411,11 +474,72 @@ public class ProfilerView extends ViewPart
 		 */
 		public int compare(AggregateData o1, AggregateData o2)
 		{
-			return (int)(o2.ownTime - o1.ownTime);
+			return Long.compare(o2.ownTime, o1.ownTime);
 		}
 
 	}
 
+	/**
+	 * Fixed capacity buffer of the latest root calls, when it is full a new call overwrites the oldest one.
+	 */
+	private static final class ProfileDataRing
+	{
+		private ProfileData[] items;
+
+		// the index the next call is written to
+		private int head;
+
+		private int size;
+
+		private ProfileDataRing(int capacity)
+		{
+			items = new ProfileData[Math.max(0, capacity)];
+		}
+
+		public void add(ProfileData pd)
+		{
+			if (items.length == 0) return;
+			items[head] = pd;
+			head = (head + 1) % items.length;
+			if (size < items.length) size++;
+		}
+
+		/**
+		 * @return the calls, the latest first
+		 */
+		public ProfileData[] toArray()
+		{
+			ProfileData[] array = new ProfileData[size];
+			for (int i = 0; i < size; i++)
+			{
+				array[i] = items[(head - 1 - i + items.length) % items.length];
+			}
+			return array;
+		}
+
+		/**
+		 * Change the capacity, keeping the latest calls that fit.
+		 */
+		public void setCapacity(int capacity)
+		{
+			ProfileData[] latest = toArray();
+			items = new ProfileData[Math.max(0, capacity)];
+			head = 0;
+			size = 0;
+			for (int i = Math.min(latest.length, items.length) - 1; i >= 0; i--)
+			{
+				add(latest[i]);
+			}
+		}
+
+		public void clear()
+		{
+			Arrays.fill(items, null);
+			head = 0;
+			size = 0;
+		}
+	}
+
 	private static class DataCallProfileDataAggregate extends DataCallProfileData
 	{
 		public DataCallProfileDataAggregate(String name, String datasource, String transaction_id, long startTime, long endTime, String query,
@@ -438,6 +562,10 @@ public class ProfilerView extends ViewPart
 
 	private Action exportData;
 
+	private Action exportFlameGraph;
+
+	private Action toggleFlameGraph;
+
 	private Action configureContents;
 
 	private Action toggleAggregateView;
@@ -456,12 +584,27 @@ public class ProfilerView extends ViewPart
 
 	private TableViewer sqlDataViewer;
 
+	private Composite callsComposite;
+
+	private StackLayout callsLayout;
+
+	private FlameGraphCanvas flameGraph;
+
 	class MethodCallContentProvider implements IStructuredContentProvider, ITreeContentProvider, IProfileListener
 	{
 
-		private final List<ProfileData> invisibleRoot = new ArrayList<ProfileData>();
+		// profile data is added by the script threads and read by the ui thread, all access to these is synchronized on this provider
+		private final ProfileDataRing invisibleRoot = new ProfileDataRing(maxNrOfRoots);
+
+		private final Map<AggregateKey, AggregateData> aggregateData = new HashMap<AggregateKey, AggregateData>();
+
+		// aggregateData sorted on own time, null when it changed since the last sort
+		private AggregateData[] sortedAggregateData;
 
-		private final List<AggregateData> aggregateData = new ArrayList<AggregateData>();
+		// all calls merged by call path, the model of the flame graph
+		private final CallTreeNode callTree = CallTreeNode.createRoot();
+
+		private final AtomicBoolean refreshScheduled = new AtomicBoolean();
 
 		private boolean aggregateView = false;
 
@@ -473,19 +616,55 @@ public class ProfilerView extends ViewPart
 		{
 		}
 
-		public Object[] getElements(Object parent)
+		public synchronized Object[] getElements(Object parent)
 		{
 			if (parent.equals(getViewSite()))
 			{
 				if (aggregateView)
 				{
-					return aggregateData.toArray();
+					return getAggregateData();
 				}
 				return invisibleRoot.toArray();
 			}
 			return getChildren(parent);
 		}
 
+		synchronized AggregateData[] getAggregateData()
+		{
+			if (sortedAggregateData == null)
+			{
+				sortedAggregateData = aggregateData.values().toArray(new AggregateData[aggregateData.size()]);
+				Arrays.sort(sortedAggregateData, AggregateDataComparator.INSTANCE);
+			}
+			return sortedAggregateData.clone();
+		}
+
+		synchronized ProfileData[] getRoots()
+		{
+			return invisibleRoot.toArray();
+		}
+
+		synchronized CallTreeNode copyCallTree()
+		{
+			return callTree.copy();
+		}
+
+		synchronized void setMaxNrOfRoots(int max)
+		{
+			invisibleRoot.setCapacity(max);
+		}
+
+		synchronized void clear(boolean clearAggregateData)
+		{
+			invisibleRoot.clear();
+			callTree.clear();
+			if (clearAggregateData)
+			{
+				aggregateData.clear();
+				sortedAggregateData = null;
+			}
+		}
+
 		public Object getParent(Object child)
 		{
 			if (child instanceof ProfileData)
@@ -495,7 +674,7 @@ public class ProfilerView extends ViewPart
 			return null;
 		}
 
-		public Object[] getChildren(Object parent)
+		public synchronized Object[] getChildren(Object parent)
 		{
 			if (parent instanceof ProfileData)
 			{
@@ -508,10 +687,10 @@ public class ProfilerView extends ViewPart
 			return new Object[0];
 		}
 
-		public boolean hasChildren(Object parent)
+		public synchronized boolean hasChildren(Object parent)
 		{
 			if (parent instanceof ProfileData) return ((ProfileData)parent).getChildren().length > 0;
-			if (parent instanceof AggregateData) return ((AggregateData)parent).getChildren().length > 0;
+			if (parent instanceof AggregateData) return ((AggregateData)parent).hasChildren();
 			return false;
 		}
 
@@ -523,25 +702,25 @@ public class ProfilerView extends ViewPart
 			if (profileData.getMethodName().equals("<eval>") && profileData.getSourceName().equals("internal_anon") &&
 				(profileData.getChildren() == null || profileData.getChildren().length == 0)) return;
 
-			invisibleRoot.add(0, profileData);
-
-			if (invisibleRoot.size() > maxNrOfRoots)
+			synchronized (this)
 			{
-				invisibleRoot.remove(invisibleRoot.size() - 1);
+				invisibleRoot.add(profileData);
+				calculateAggregateData(profileData);
+				sortedAggregateData = null;
+				callTree.addRoot(profileData);
 			}
 
-			calculateAggregateData(profileData);
-			Collections.sort(aggregateData, AggregateDataComparator.INSTANCE);
-
-			Display.getDefault().asyncExec(new Runnable()
+			scheduleRefresh(refreshScheduled, new Runnable()
 			{
-
 				public void run()
 				{
-					methodCallViewer.refresh();
+					if (!methodCallViewer.getControl().isDisposed())
+					{
+						methodCallViewer.refresh();
+						if (callsLayout.topControl == flameGraph) flameGraph.redraw();
+					}
 				}
 			});
-
 		}
 
 		/**
@@ -549,16 +728,15 @@ public class ProfilerView extends ViewPart
 		 */
 		private void calculateAggregateData(ProfileData profileData)
 		{
-			AggregateData ad = new AggregateData(profileData);
-			int index = aggregateData.indexOf(ad);
-			if (index != -1)
+			AggregateKey key = new AggregateKey(profileData);
+			AggregateData ad = aggregateData.get(key);
+			if (ad != null)
 			{
-				ad = aggregateData.get(index);
 				ad.add(profileData);
 			}
 			else
 			{
-				aggregateData.add(ad);
+				aggregateData.put(key, new AggregateData(key, profileData));
 			}
 			ProfileData[] children = profileData.getChildren();
 			for (ProfileData pd : children)
@@ -593,25 +771,24 @@ public class ProfilerView extends ViewPart
 	class DataCallContentProvider implements IStructuredContentProvider, IProfileListener
 	{
 
-		private final List<AggregateData> aggregateData = new ArrayList<AggregateData>();
+		private final Map<AggregateKey, AggregateData> aggregateData = new HashMap<AggregateKey, AggregateData>();
 
 		private boolean aggregateView = false;
 
-		public void addProfileData(ProfileData profileData)
+		public synchronized void addProfileData(ProfileData profileData)
 		{
 			if (profileData.getMethodName().equals("<eval>") && profileData.getSourceName().equals("internal_anon") &&
 				(profileData.getChildren() == null || profileData.getChildren().length == 0)) return;
 
-			AggregateData ad = new AggregateData(profileData);
-			int index = aggregateData.indexOf(ad);
-			if (index != -1)
+			AggregateKey key = new AggregateKey(profileData);
+			AggregateData ad = aggregateData.get(key);
+			if (ad != null)
 			{
-				ad = aggregateData.get(index);
 				ad.add(profileData);
 			}
 			else
 			{
-				aggregateData.add(ad);
+				aggregateData.put(key, new AggregateData(key, profileData));
 			}
 			ProfileData[] children = profileData.getChildren();
 			for (ProfileData pd : children)
@@ -620,6 +797,11 @@ public class ProfilerView extends ViewPart
 			}
 		}
 
+		synchronized void clear()
+		{
+			aggregateData.clear();
+		}
+
 		/*
 		 * (non-Javadoc)
 		 *
@@ -645,7 +827,7 @@ public class ProfilerView extends ViewPart
 		 *
 		 * @see org.eclipse.jface.viewers.IStructuredContentProvider#getElements(java.lang.Object)
 		 */
-		public Object[] getElements(Object inputElement)
+		public synchronized Object[] getElements(Object inputElement)
 		{
 			if (inputElement instanceof ProfileData)
 			{
@@ -655,11 +837,10 @@ public class ProfilerView extends ViewPart
 			{
 				if (aggregateView)
 				{
-					AggregateData ad = (AggregateData)inputElement;
-					int adIndex = aggregateData.indexOf(ad);
-					if (adIndex >= 0)
+					AggregateData ad = aggregateData.get(((AggregateData)inputElement).getKey());
+					if (ad != null)
 					{
-						Collection<DataCallProfileData> dataCallProfilecollection = aggregateData.get(adIndex).getDataCallProfileDataMap();
+						Collection<DataCallProfileData> dataCallProfilecollection = ad.getDataCallProfileDataMap();
 						if (dataCallProfilecollection != null)
 						{
 							DataCallProfileDataAggregate[] dataCallArray = new DataCallProfileDataAggregate[dataCallProfilecollection.size()];
@@ -998,7 +1179,12 @@ public class ProfilerView extends ViewPart
 	public void createPartControl(Composite parent)
 	{
 		sashForm = new SashForm(parent, SWT.NONE);
-		methodCallViewer = new TreeViewer(sashForm, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		// the call tree or the flame graph
+		callsComposite = new Composite(sashForm, SWT.NONE);
+		callsLayout = new StackLayout();
+		callsComposite.setLayout(callsLayout);
+		methodCallViewer = new TreeViewer(callsComposite, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		callsLayout.topControl = methodCallViewer.getControl();
 		drillDownAdapter = new DrillDownAdapter(methodCallViewer);
 		makeActions();
 		hookDoubleClickAction();
@@ -1021,6 +1207,7 @@ public class ProfilerView extends ViewPart
 		maxNrOfRoots = getSavedState(MAX_NUMBER_OF_ROOTS_SETTING, MAX_NUMBER_OF_ROOTS_DEFAULT);
 
 		methodCallContentProvider = new MethodCallContentProvider();
+		flameGraph = new FlameGraphCanvas(callsComposite, methodCallContentProvider.callTree, methodCallContentProvider);
 
 		tree = methodCallViewer.getTree();
 		tree.setHeaderVisible(true);
@@ -1432,7 +1619,10 @@ public class ProfilerView extends ViewPart
 		manager.add(new Separator());
 		manager.add(clearData);
 		manager.add(new Separator());
+		manager.add(toggleFlameGraph);
+		manager.add(new Separator());
 		manager.add(exportData);
+		manager.add(exportFlameGraph);
 		manager.add(new Separator());
 		manager.add(configureContents);
 	}
@@ -1447,8 +1637,10 @@ public class ProfilerView extends ViewPart
 		}
 		manager.add(new Separator());
 		manager.add(toggleAggregateView);
+		manager.add(toggleFlameGraph);
 		manager.add(clearData);
 		manager.add(exportData);
+		manager.add(exportFlameGraph);
 		manager.add(new Separator());
 		manager.add(toggleProfile);
 		manager.add(new Separator());
@@ -1492,6 +1684,7 @@ public class ProfilerView extends ViewPart
 						refreshJob.cancel();
 						filter = searchFld.getText();
 						refreshJob.schedule(400);
+						flameGraph.setSearch(filter);
 					}
 				});
 				return searchFld;
@@ -1519,13 +1712,13 @@ public class ProfilerView extends ViewPart
 			@Override
 			public void run()
 			{
-				methodCallContentProvider.invisibleRoot.clear();
+				methodCallContentProvider.clear(methodCallContentProvider.aggregateView);
 				if (methodCallContentProvider.aggregateView)
 				{
-					methodCallContentProvider.aggregateData.clear();
-					dataCallContentProvider.aggregateData.clear();
+					dataCallContentProvider.clear();
 				}
 				methodCallViewer.refresh();
+				flameGraph.resetZoom();
 			}
 		};
 		clearData.setText("Clear data");
@@ -1544,6 +1737,29 @@ public class ProfilerView extends ViewPart
 		exportData.setToolTipText("Export data to clipboard");
 		exportData.setImageDescriptor(Activator.getImageDescriptor("icons/export.png"));
 
+		exportFlameGraph = new Action()
+		{
+			@Override
+			public void run()
+			{
+				exportFlameGraph();
+			}
+		};
+		exportFlameGraph.setText("Export flame graph...");
+		exportFlameGraph.setToolTipText("Export the calls as collapsed stacks or speedscope file");
+
+		toggleFlameGraph = new Action("Flame Graph", IAction.AS_CHECK_BOX)
+		{
+			@Override
+			public void run()
+			{
+				callsLayout.topControl = toggleFlameGraph.isChecked() ? flameGraph : methodCallViewer.getControl();
+				callsComposite.layout();
+				flameGraph.redraw();
+			}
+		};
+		toggleFlameGraph.setToolTipText("Show all calls since the last clear as a flame graph, click a frame to zoom in");
+
 		toggleAggregateView = new Action("Aggregate View", IAction.AS_CHECK_BOX)
 		{
 			@Override
@@ -1716,16 +1932,18 @@ public class ProfilerView extends ViewPart
 				final StringBuilder sb = new StringBuilder(200);
 				if (exportAggregate)
 				{
-					List<AggregateData> aggregateData = methodCallContentProvider.aggregateData;
-					for (AggregateData ad : aggregateData)
+					// the aggregates are still updated while profiling, serialize them as they are now
+					synchronized (methodCallContentProvider)
 					{
-						ad.toXML(sb);
+						for (AggregateData ad : methodCallContentProvider.getAggregateData())
+						{
+							ad.toXML(sb);
+						}
 					}
 				}
 				else
 				{
-					List<ProfileData> invisibleRoot = methodCallContentProvider.invisibleRoot;
-					for (ProfileData profileData : invisibleRoot)
+					for (ProfileData profileData : methodCallContentProvider.getRoots())
 					{
 						profileData.toXML(sb);
 					}
@@ -1749,6 +1967,58 @@ public class ProfilerView extends ViewPart
 		job.schedule();
 	}
 
+	/**
+	 * Write the merged call tree to a file, as a speedscope json file or as collapsed stacks (depending on the extension).
+	 */
+	protected void exportFlameGraph()
+	{
+		FileDialog dialog = new FileDialog(getSite().getShell(), SWT.SAVE);
+		dialog.setText("Export flame graph");
+		dialog.setFilterExtensions(new String[] { "*" + FlameGraphExporter.SPEEDSCOPE_EXTENSION, "*" + FlameGraphExporter.COLLAPSED_EXTENSION });
+		dialog.setFilterNames(new String[] { "Speedscope (*" + FlameGraphExporter.SPEEDSCOPE_EXTENSION + ")", "Collapsed stacks (*" +
+			FlameGraphExporter.COLLAPSED_EXTENSION + ")" });
+		dialog.setFileName("profile" + FlameGraphExporter.SPEEDSCOPE_EXTENSION);
+		dialog.setOverwrite(true);
+		String fileName = dialog.open();
+		if (fileName == null) return;
+
+		final boolean collapsed = fileName.endsWith(FlameGraphExporter.COLLAPSED_EXTENSION) ||
+			(!fileName.endsWith(FlameGraphExporter.SPEEDSCOPE_EXTENSION) && dialog.getFilterIndex() == 1);
+		if (!fileName.endsWith(FlameGraphExporter.SPEEDSCOPE_EXTENSION) && !fileName.endsWith(FlameGraphExporter.COLLAPSED_EXTENSION))
+		{
+			fileName += collapsed ? FlameGraphExporter.COLLAPSED_EXTENSION : FlameGraphExporter.SPEEDSCOPE_EXTENSION;
+		}
+		final File file = new File(fileName);
+		// a copy, so the profiler can go on adding calls while the file is written
+		final CallTreeNode callTree = methodCallContentProvider.copyCallTree();
+		Job job = new Job("Exporting flame graph to " + file.getName())
+		{
+			@Override
+			protected IStatus run(IProgressMonitor monitor)
+			{
+				try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))
+				{
+					if (collapsed)
+					{
+						FlameGraphExporter.writeCollapsedStacks(callTree, writer);
+					}
+					else
+					{
+						FlameGraphExporter.writeSpeedscope(callTree, file.getName(), writer);
+					}
+				}
+				catch (IOException e)
+				{
+					ServoyLog.logError("Could not export the flame graph to " + file, e);
+					return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Could not export the flame graph to " + file, e);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+
 	private void configureContents()
 	{
 		InputDialog dialog = new InputDialog(null, "Configure Contents", "Set the maximum number of root nodes.", Integer.toString(maxNrOfRoots),
@@ -1775,6 +2045,33 @@ public class ProfilerView extends ViewPart
 		if (dialog.getReturnCode() != Window.CANCEL)
 		{
 			maxNrOfRoots = Integer.parseInt(dialog.getValue());
+			methodCallContentProvider.setMaxNrOfRoots(maxNrOfRoots);
+			methodCallViewer.refresh();
+		}
+	}
+
+	/**
+	 * Run the refresh once after {@link #REFRESH_INTERVAL}, further calls until then are coalesced into that refresh.
+	 */
+	private static void scheduleRefresh(final AtomicBoolean refreshScheduled, final Runnable refresh)
+	{
+		if (refreshScheduled.compareAndSet(false, true))
+		{
+			final Display display = Display.getDefault();
+			display.asyncExec(new Runnable()
+			{
+				public void run()
+				{
+					display.timerExec(REFRESH_INTERVAL, new Runnable()
+					{
+						public void run()
+						{
+							refreshScheduled.set(false);
+							refresh.run();
+						}
+					});
+				}
+			});
 		}
 	}
 
@@ -0,0 +1,101 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.ui.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests the tokens that {@link ReferenceIndex} stores for a file and the token it looks up for a searched literal.
+ * A search can only use the index when the token of the literal is one of the tokens of every file that the search would match.
+ *
+ * @since 2021.12
+ */
+public class ReferenceIndexTest
+{
+	private static final String UUID = "1A2B3C4D-0000-4000-8000-123456789ABC";
+
+	private static Set<String> tokens(String content)
+	{
+		return new HashSet<String>(Arrays.asList(ReferenceIndex.tokenize(content)));
+	}
+
+	@Test
+	public void tokenizeSplitsOnNonWordCharacters()
+	{
+		assertEquals(new HashSet<String>(Arrays.asList("var", "x", "forms", "orders_detail", "foo_1", "\u00e9")),
+			tokens("var x = forms.orders_detail.foo_1(\"\u00e9\");\r\nvar x;"));
+		assertEquals(new HashSet<String>(), tokens(" .;-\n"));
+	}
+
+	@Test
+	public void tokenizeAddsUUIDs()
+	{
+		Set<String> tokens = tokens("\"uuid\":\"" + UUID + "\"");
+		assertTrue(tokens.contains(UUID));
+		assertTrue(tokens.contains("1A2B3C4D"));
+		assertTrue(tokens.contains("123456789ABC"));
+
+		assertTrue("a uuid that follows other words joined by dashes", tokens("x-y-" + UUID + "-z").contains(UUID));
+		assertFalse("words joined by two dashes are no uuid", tokens("1A2B3C4D-0000-4000-8000--123456789ABC").contains(UUID));
+		assertFalse("words of the wrong length are no uuid", tokens("1A2B3C4D-0000-4000-8000-123456789AB").contains("1A2B3C4D-0000-4000-8000-123456789AB"));
+	}
+
+	@Test
+	public void tokenizeSkipsVeryLongWords()
+	{
+		char[] word = new char[513];
+		Arrays.fill(word, 'a');
+		assertEquals(new HashSet<String>(Arrays.asList("short")), tokens(new String(word) + " short"));
+	}
+
+	@Test
+	public void tokenOfUUIDIsTheUUID()
+	{
+		assertEquals(UUID, ReferenceIndex.getToken(UUID, false, false));
+	}
+
+	@Test
+	public void tokenIsTheLongestWordThatIsNotPartOfALongerWord()
+	{
+		assertEquals("orders", ReferenceIndex.getToken("orders", true, true));
+		assertEquals("customers", ReferenceIndex.getToken("orders.customers.id", true, true));
+		// the search literal is a prefix, so the last word can be the start of a longer word in a file
+		assertEquals("example_data", ReferenceIndex.getToken("db:/example_data/orders", true, false));
+		// an unbounded literal can be in the middle of a word, only the words between other characters are whole words
+		assertEquals("bb", ReferenceIndex.getToken("a.bb.c", false, false));
+	}
+
+	@Test
+	public void literalWithoutWholeWordHasNoToken()
+	{
+		assertNull(ReferenceIndex.getToken(null, true, true));
+		assertNull(ReferenceIndex.getToken("orders", false, true));
+		assertNull(ReferenceIndex.getToken("orders", true, false));
+		assertNull(ReferenceIndex.getToken("forms.orders", false, false));
+		assertNull(ReferenceIndex.getToken(".;", true, true));
+	}
+}
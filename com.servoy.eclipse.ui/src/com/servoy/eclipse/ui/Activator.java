@@ -77,6 +77,7 @@ import com.servoy.eclipse.model.util.ServoyLog;
 import com.servoy.eclipse.ui.dialogs.BrowserDialog;
 import com.servoy.eclipse.ui.dialogs.ServoyLoginDialog;
 import com.servoy.eclipse.ui.preferences.StartupPreferences;
+import com.servoy.eclipse.ui.search.ReferenceIndex;
 import com.servoy.eclipse.ui.tweaks.IconPreferences;
 import com.servoy.eclipse.ui.util.IAutomaticImportWPMPackages;
 import com.servoy.j2db.ClientVersion;
@@ -152,6 +153,8 @@ public class Activator extends AbstractUIPlugin
 		// make sure that core is fully initialized; this should also make sure app. server is initialised
 		com.servoy.eclipse.core.Activator.getDefault();
 		com.servoy.eclipse.ngclient.ui.Activator.getInstance().copyNodeFolder();
+		// start building the references index in the background so the first search can use it
+		ReferenceIndex.getInstance();
 
 		// warn if incompatible extensions are found
 //		doExtensionRelatedChecks(); disabled for now as marketplace/extensions are not currently in production
@@ -460,6 +463,7 @@ public class Activator extends AbstractUIPlugin
 		}
 
 		InstanceScope.INSTANCE.getNode(ECLIPSE_CSS_SWT_THEME).removePreferenceChangeListener(themeChangedListener);
+		ReferenceIndex.shutdown();
 
 		plugin = null;
 		super.stop(context);
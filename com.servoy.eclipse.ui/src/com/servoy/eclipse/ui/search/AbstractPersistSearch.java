@@ -21,11 +21,16 @@ package com.servoy.eclipse.ui.search;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.search.core.text.TextSearchEngine;
+import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.IDeveloperServoyModel;
 import com.servoy.eclipse.core.ServoyModelManager;
@@ -145,6 +150,27 @@ public abstract class AbstractPersistSearch implements ISearchQuery
 		return scopes.toArray(new IResource[scopes.size()]);
 	}
 
+	/**
+	 * Text search for the pattern in the files of the scopes that match the file name patterns.
+	 * When the {@link ReferenceIndex} is up to date only the files that contain one of the tokens are searched.
+	 *
+	 * @param tokens the words that every match of the pattern contains, see {@link ReferenceIndex#getToken(String, boolean, boolean)}
+	 */
+	protected void search(IResource[] scopes, String[] fileNamePatterns, TextSearchRequestor collector, Pattern pattern, IProgressMonitor monitor,
+		String... tokens)
+	{
+		IResource[] searchScopes = ReferenceIndex.getInstance().getFiles(scopes, fileNamePatterns, tokens);
+		if (searchScopes == null)
+		{
+			searchScopes = scopes;
+		}
+		else if (searchScopes.length == 0)
+		{
+			return;
+		}
+		TextSearchEngine.create().search(FileTextSearchScope.newSearchScope(searchScopes, fileNamePatterns, true), collector, pattern, monitor);
+	}
+
 	public boolean canRerun()
 	{
 		return true;
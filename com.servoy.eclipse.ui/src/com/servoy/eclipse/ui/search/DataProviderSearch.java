@@ -35,12 +35,10 @@ import org.eclipse.dltk.core.ISourceModule;
 import org.eclipse.dltk.core.ISourceRange;
 import org.eclipse.dltk.javascript.core.JavaScriptNature;
 import org.eclipse.dltk.javascript.typeinfo.model.Element;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchMatchAccess;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.ServoyModelManager;
 import com.servoy.eclipse.model.nature.ServoyProject;
@@ -93,13 +91,13 @@ public class DataProviderSearch extends DLTKSearchEngineSearch
 		TextSearchRequestor collector = getResultCollector();
 
 		//search servoy  resources
-		FileTextSearchScope servoyResourceScope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.val", "*.frm", "*.rel" }, true);
-		TextSearchEngine.create().search(servoyResourceScope, collector, Pattern.compile("(\\b" + dataprovider.getDataProviderID() + "\\b)"), monitor);
+		search(scopes, new String[] { "*.val", "*.frm", "*.rel" }, collector, Pattern.compile("(\\b" + dataprovider.getDataProviderID() + "\\b)"), monitor,
+			ReferenceIndex.getToken(dataprovider.getDataProviderID(), true, true));
 
 		//search js files
 		((DataProviderSearchCollector)collector).setEngine(DLTKLanguageManager.getSelectionEngine(JavaScriptNature.NATURE_ID));
-		FileTextSearchScope scriptScope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js" }, true);
-		TextSearchEngine.create().search(scriptScope, collector, Pattern.compile("\\b" + dataprovider.getName() + "\\b"), monitor);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("\\b" + dataprovider.getName() + "\\b"), monitor,
+			ReferenceIndex.getToken(dataprovider.getName(), true, true));
 
 		return Status.OK_STATUS;
 	}
@@ -34,12 +34,10 @@ import org.eclipse.dltk.core.ISourceRange;
 import org.eclipse.dltk.javascript.core.JavaScriptNature;
 import org.eclipse.dltk.javascript.typeinfo.model.Property;
 import org.eclipse.dltk.javascript.typeinfo.model.Type;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchMatchAccess;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.model.ServoyModelFinder;
 import com.servoy.j2db.persistence.BaseComponent;
@@ -72,9 +70,9 @@ public class ElementSearch extends AbstractPersistSearch
 		IResource[] scopes = getScopes((Solution)component.getRootObject());
 		TextSearchRequestor collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js" }, true);
 		((ElementSearchResultCollector)collector).setEngine(DLTKLanguageManager.getSelectionEngine(JavaScriptNature.NATURE_ID));
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\b" + component.getName() + "\\b"), monitor);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("\\b" + component.getName() + "\\b"), monitor,
+			ReferenceIndex.getToken(component.getName(), true, true));
 
 		return Status.OK_STATUS;
 	}
@@ -26,11 +26,9 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.model.repository.SolutionSerializer;
 import com.servoy.j2db.persistence.Form;
@@ -63,11 +61,10 @@ public class FormSearch extends AbstractPersistSearch
 		IResource[] scopes = getScopes((Solution)form.getRootObject());
 		TextSearchRequestor collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile(form.getUUID().toString()), monitor);
+		search(scopes, new String[] { "*.frm" }, collector, Pattern.compile(form.getUUID().toString()), monitor, form.getUUID().toString());
 
-		scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\bforms." + form.getName() + "\\b"), monitor);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("\\bforms." + form.getName() + "\\b"), monitor,
+			ReferenceIndex.getToken(form.getName(), true, true));
 
 		return Status.OK_STATUS;
 	}
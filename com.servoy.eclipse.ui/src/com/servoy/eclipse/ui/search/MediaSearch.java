@@ -24,9 +24,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.ui.ISearchQuery;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.ServoyModelManager;
 import com.servoy.j2db.persistence.Media;
@@ -61,11 +59,11 @@ public class MediaSearch extends AbstractPersistSearch
 
 		TextSearchResultCollector collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm", "*.js" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile(mediaImage.getUUID().toString()), monitor);
+		search(scopes, new String[] { "*.frm", "*.js" }, collector, Pattern.compile(mediaImage.getUUID().toString()), monitor,
+			mediaImage.getUUID().toString());
 
-		scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js", "*.css", "*.less" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\bmedia:///" + mediaImage.getName() + "\\b"), monitor);
+		search(scopes, new String[] { "*.js", "*.css", "*.less" }, collector, Pattern.compile("\\bmedia:///" + mediaImage.getName() + "\\b"), monitor,
+			ReferenceIndex.getToken(mediaImage.getName(), true, true));
 
 		return Status.OK_STATUS;
 	}
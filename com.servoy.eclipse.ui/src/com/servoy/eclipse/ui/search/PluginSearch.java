@@ -24,10 +24,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.model.ServoyModelFinder;
 
@@ -57,8 +55,8 @@ public class PluginSearch extends AbstractPersistSearch
 		IResource[] scopes = getScopes(ServoyModelFinder.getServoyModel().getActiveProject().getSolution());
 		TextSearchRequestor collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\bplugins." + pluginName + "\\b"), monitor);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("\\bplugins." + pluginName + "\\b"), monitor,
+			ReferenceIndex.getToken(pluginName, true, true));
 
 		return Status.OK_STATUS;
 	}
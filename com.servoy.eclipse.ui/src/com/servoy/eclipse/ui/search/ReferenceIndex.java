@@ -0,0 +1,609 @@
+/*
+ This file belongs to the Servoy development and deployment environment, Copyright (C) 1997-2021 Servoy BV
+
+ This program is free software; you can redistribute it and/or modify it under
+ the terms of the GNU Affero General Public License as published by the Free
+ Software Foundation; either version 3 of the License, or (at your option) any
+ later version.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more details.
+
+ You should have received a copy of the GNU Affero General Public License along
+ with this program; if not, see http://www.gnu.org/licenses or write to the Free
+ Software Foundation,Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301
+ */
+
+package com.servoy.eclipse.ui.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.servoy.eclipse.model.util.ServoyLog;
+import com.servoy.eclipse.ui.Activator;
+
+/**
+ * Workspace wide index of the words (runs of letters, digits and underscores) and uuids in the solution files, per file.
+ * The persist searches use it to only run their text search over the files that contain the name or uuid they look for, instead of over all files in scope.
+ * <p>
+ * The index is built in a background job (from the snapshot of the previous session for files that did not change) and kept up to date from resource deltas.
+ * When it is not built yet or too many files changed since the last update, {@link #getFiles(IResource[], String[], String...)} returns null and the caller searches all files.
+ *
+ * @since 2021.12
+ */
+public class ReferenceIndex implements IResourceChangeListener
+{
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final String SNAPSHOT_FILE = "reference_index.bin";
+	private static final Set<String> INDEXED_EXTENSIONS = new HashSet<>(Arrays.asList("frm", "js", "rel", "val", "tbl", "obj", "dbi", "css", "less"));
+	private static final int MAX_TOKEN_LENGTH = 512;
+	// more changed files than this are indexed by the update job, a search does not wait for them
+	private static final int MAX_STALE_FILES_TO_UPDATE_ON_SEARCH = 100;
+	private static final long UPDATE_DELAY = 500;
+
+	private static ReferenceIndex instance;
+
+	private static final class FileEntry
+	{
+		private final long timestamp;
+		private final String[] tokens;
+
+		private FileEntry(long timestamp, String[] tokens)
+		{
+			this.timestamp = timestamp;
+			this.tokens = tokens;
+		}
+	}
+
+	private final Map<IPath, FileEntry> files = new HashMap<>();
+	private final Map<String, Set<IPath>> tokenFiles = new HashMap<>();
+	private final Set<IPath> staleFiles = new LinkedHashSet<>();
+	private final Set<IProject> staleProjects = new LinkedHashSet<>();
+	// held while files are (re)indexed, a search waits for a running update so it does not see a half updated index
+	private final Object updateLock = new Object();
+	private volatile boolean built;
+
+	private final Job buildJob = new Job("Building the references index")
+	{
+		@Override
+		protected IStatus run(IProgressMonitor monitor)
+		{
+			build(monitor);
+			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+		}
+	};
+
+	private final Job updateJob = new Job("Updating the references index")
+	{
+		@Override
+		protected IStatus run(IProgressMonitor monitor)
+		{
+			if (built) updateStaleFiles();
+			return Status.OK_STATUS;
+		}
+	};
+
+	private ReferenceIndex()
+	{
+		buildJob.setSystem(true);
+		buildJob.setPriority(Job.DECORATE);
+		updateJob.setSystem(true);
+		updateJob.setPriority(Job.DECORATE);
+	}
+
+	public static synchronized ReferenceIndex getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new ReferenceIndex();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+			instance.buildJob.schedule();
+		}
+		return instance;
+	}
+
+	/**
+	 * Stop listening to changes and write the snapshot the next session starts from, when the index was built.
+	 */
+	public static synchronized void shutdown()
+	{
+		if (instance != null)
+		{
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance);
+			instance.buildJob.cancel();
+			instance.updateJob.cancel();
+			if (instance.built) instance.saveSnapshot();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Get the files under the scopes that match the file name patterns and contain one of the tokens.
+	 *
+	 * @param fileNamePatterns the patterns of the text search scope, *.ext or a file name; null for all files
+	 * @param tokens the tokens as returned by {@link #getToken(String, boolean, boolean)}
+	 * @return the files, or null if the index can't answer this and all files in scope have to be searched
+	 */
+	public IResource[] getFiles(IResource[] scopes, String[] fileNamePatterns, String... tokens)
+	{
+		if (!built || tokens.length == 0) return null;
+		for (String token : tokens)
+		{
+			if (token == null) return null;
+		}
+		if (fileNamePatterns != null)
+		{
+			for (String pattern : fileNamePatterns)
+			{
+				if (!INDEXED_EXTENSIONS.contains(getExtension(pattern))) return null;
+			}
+		}
+
+		synchronized (this)
+		{
+			if (staleFiles.size() > MAX_STALE_FILES_TO_UPDATE_ON_SEARCH || !staleProjects.isEmpty())
+			{
+				updateJob.schedule();
+				return null;
+			}
+		}
+		updateStaleFiles();
+
+		Set<IPath> candidates = new HashSet<>();
+		synchronized (this)
+		{
+			for (String token : tokens)
+			{
+				Set<IPath> paths = tokenFiles.get(token);
+				if (paths != null) candidates.addAll(paths);
+			}
+		}
+
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		List<IResource> result = new ArrayList<>();
+		for (IPath path : candidates)
+		{
+			if (isInScope(path, scopes) && matches(path.lastSegment(), fileNamePatterns))
+			{
+				result.add(root.getFile(path));
+			}
+		}
+		return result.toArray(new IResource[result.size()]);
+	}
+
+	/**
+	 * Get the token to look up in the index for a literal text that is searched for.
+	 * That is the uuid if the literal is one, otherwise the longest word of the literal that is not part of a longer word where it is found.
+	 *
+	 * @param boundedStart true when the text search only matches the literal at the start of a word (\b) or after a non word character
+	 * @param boundedEnd true when the text search only matches the literal at the end of a word (\b) or before a non word character
+	 * @return the token, or null if the literal has no such word
+	 */
+	public static String getToken(String literal, boolean boundedStart, boolean boundedEnd)
+	{
+		if (literal == null) return null;
+		if (isUUID(literal, 0, literal.length())) return literal;
+
+		String token = null;
+		int i = 0;
+		while (i < literal.length())
+		{
+			if (!isWordChar(literal.charAt(i)))
+			{
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < literal.length() && isWordChar(literal.charAt(i)))
+			{
+				i++;
+			}
+			if ((start > 0 || boundedStart) && (i < literal.length() || boundedEnd) && (token == null || i - start > token.length()))
+			{
+				token = literal.substring(start, i);
+			}
+		}
+		return token;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event)
+	{
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) return;
+
+		List<IPath> changedFiles = new ArrayList<>();
+		List<IProject> changedProjects = new ArrayList<>();
+		try
+		{
+			delta.accept(resourceDelta -> {
+				IResource resource = resourceDelta.getResource();
+				if (resource.getType() == IResource.PROJECT &&
+					(resourceDelta.getKind() != IResourceDelta.CHANGED || (resourceDelta.getFlags() & IResourceDelta.OPEN) != 0))
+				{
+					changedProjects.add((IProject)resource);
+					return false;
+				}
+				if (resource.getType() == IResource.FILE)
+				{
+					if (INDEXED_EXTENSIONS.contains(resource.getFileExtension()) && (resourceDelta.getKind() != IResourceDelta.CHANGED ||
+						(resourceDelta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0))
+					{
+						changedFiles.add(resource.getFullPath());
+					}
+					return false;
+				}
+				return true;
+			});
+		}
+		catch (CoreException e)
+		{
+			ServoyLog.logError(e);
+		}
+
+		if (!changedFiles.isEmpty() || !changedProjects.isEmpty())
+		{
+			synchronized (this)
+			{
+				staleFiles.addAll(changedFiles);
+				staleProjects.addAll(changedProjects);
+			}
+			updateJob.schedule(UPDATE_DELAY);
+		}
+	}
+
+	private void build(IProgressMonitor monitor)
+	{
+		synchronized (updateLock)
+		{
+			long start = System.currentTimeMillis();
+			Map<IPath, FileEntry> snapshot = loadSnapshot();
+			List<IFile> workspaceFiles = new ArrayList<>();
+			for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects())
+			{
+				collectFiles(project, workspaceFiles);
+			}
+
+			monitor.beginTask(buildJob.getName(), workspaceFiles.size());
+			int reindexed = 0;
+			for (IFile file : workspaceFiles)
+			{
+				if (monitor.isCanceled()) return;
+				FileEntry entry = snapshot.get(file.getFullPath());
+				if (entry != null && entry.timestamp == file.getLocalTimeStamp())
+				{
+					put(file.getFullPath(), entry);
+				}
+				else
+				{
+					index(file);
+					reindexed++;
+				}
+				monitor.worked(1);
+			}
+			monitor.done();
+			built = true;
+			ServoyLog.logInfo("References index built in " + (System.currentTimeMillis() - start) + "ms, " + workspaceFiles.size() + " files of which " +
+				reindexed + " changed since the last session");
+		}
+		updateJob.schedule();
+	}
+
+	private void updateStaleFiles()
+	{
+		synchronized (updateLock)
+		{
+			List<IPath> paths;
+			List<IProject> projects;
+			synchronized (this)
+			{
+				paths = new ArrayList<>(staleFiles);
+				projects = new ArrayList<>(staleProjects);
+				staleFiles.clear();
+				staleProjects.clear();
+			}
+
+			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			for (IProject project : projects)
+			{
+				// the files of a project that is opened, closed or removed are not in the deltas
+				synchronized (this)
+				{
+					for (IPath path : new ArrayList<>(files.keySet()))
+					{
+						if (project.getFullPath().isPrefixOf(path)) remove(path);
+					}
+				}
+				List<IFile> projectFiles = new ArrayList<>();
+				collectFiles(project, projectFiles);
+				for (IFile file : projectFiles)
+				{
+					index(file);
+				}
+			}
+			for (IPath path : paths)
+			{
+				IFile file = root.getFile(path);
+				if (file.exists())
+				{
+					index(file);
+				}
+				else
+				{
+					synchronized (this)
+					{
+						remove(path);
+					}
+				}
+			}
+		}
+	}
+
+	private static void collectFiles(IProject project, List<IFile> result)
+	{
+		if (!project.isOpen()) return;
+		try
+		{
+			project.accept(proxy -> {
+				if (proxy.getType() == IResource.FILE)
+				{
+					String name = proxy.getName();
+					if (INDEXED_EXTENSIONS.contains(getExtension(name))) result.add((IFile)proxy.requestResource());
+					return false;
+				}
+				return !proxy.isDerived();
+			}, IResource.NONE);
+		}
+		catch (CoreException e)
+		{
+			ServoyLog.logError(e);
+		}
+	}
+
+	private void index(IFile file)
+	{
+		long timestamp = file.getLocalTimeStamp();
+		String[] tokens;
+		try (InputStream is = file.getContents(true))
+		{
+			tokens = tokenize(IOUtils.toString(is, Charset.forName(file.getCharset())));
+		}
+		catch (CoreException | IOException e)
+		{
+			// not readable (anymore), the deltas will tell when it is there again
+			tokens = null;
+		}
+
+		synchronized (this)
+		{
+			remove(file.getFullPath());
+			if (tokens != null) put(file.getFullPath(), new FileEntry(timestamp, tokens));
+		}
+	}
+
+	private void put(IPath path, FileEntry entry)
+	{
+		files.put(path, entry);
+		for (String token : entry.tokens)
+		{
+			tokenFiles.computeIfAbsent(token, key -> new HashSet<>(4)).add(path);
+		}
+	}
+
+	private void remove(IPath path)
+	{
+		FileEntry entry = files.remove(path);
+		if (entry != null)
+		{
+			for (String token : entry.tokens)
+			{
+				Set<IPath> paths = tokenFiles.get(token);
+				if (paths != null && paths.remove(path) && paths.isEmpty()) tokenFiles.remove(token);
+			}
+		}
+	}
+
+	/**
+	 * The words of the content and the uuids (five hex words of 8-4-4-4-12 characters joined by dashes).
+	 */
+	static String[] tokenize(String content)
+	{
+		Set<String> tokens = new HashSet<>();
+		int[] wordStarts = new int[5];
+		int[] wordEnds = new int[5];
+		int words = 0;
+		int i = 0;
+		int length = content.length();
+		while (i < length)
+		{
+			if (!isWordChar(content.charAt(i)))
+			{
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < length && isWordChar(content.charAt(i)))
+			{
+				i++;
+			}
+			if (i - start <= MAX_TOKEN_LENGTH) tokens.add(content.substring(start, i));
+
+			// keep the last five words that are joined by single dashes to recognize uuids
+			if (words > 0 && (start != wordEnds[words - 1] + 1 || content.charAt(start - 1) != '-'))
+			{
+				words = 0;
+			}
+			else if (words == 5)
+			{
+				System.arraycopy(wordStarts, 1, wordStarts, 0, 4);
+				System.arraycopy(wordEnds, 1, wordEnds, 0, 4);
+				words = 4;
+			}
+			wordStarts[words] = start;
+			wordEnds[words] = i;
+			words++;
+			if (words == 5 && isUUID(content, wordStarts[0], i))
+			{
+				tokens.add(content.substring(wordStarts[0], i));
+			}
+		}
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+	private static boolean isUUID(String s, int start, int end)
+	{
+		if (end - start != 36) return false;
+		for (int i = start; i < end; i++)
+		{
+			int offset = i - start;
+			char c = s.charAt(i);
+			if (offset == 8 || offset == 13 || offset == 18 || offset == 23)
+			{
+				if (c != '-') return false;
+			}
+			else if (Character.digit(c, 16) == -1)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isWordChar(char c)
+	{
+		return Character.isLetterOrDigit(c) || c == '_';
+	}
+
+	private static String getExtension(String fileName)
+	{
+		int dot = fileName.lastIndexOf('.');
+		return dot == -1 ? null : fileName.substring(dot + 1);
+	}
+
+	private static boolean isInScope(IPath path, IResource[] scopes)
+	{
+		for (IResource scope : scopes)
+		{
+			if (scope.getFullPath().isPrefixOf(path)) return true;
+		}
+		return false;
+	}
+
+	private static boolean matches(String fileName, String[] fileNamePatterns)
+	{
+		if (fileNamePatterns == null) return true;
+		for (String pattern : fileNamePatterns)
+		{
+			if (pattern.startsWith("*.") ? fileName.endsWith(pattern.substring(1)) : fileName.equals(pattern)) return true;
+		}
+		return false;
+	}
+
+	private static File getSnapshotFile()
+	{
+		return Activator.getDefault().getStateLocation().append(SNAPSHOT_FILE).toFile();
+	}
+
+	private Map<IPath, FileEntry> loadSnapshot()
+	{
+		Map<IPath, FileEntry> snapshot = new HashMap<>();
+		File file = getSnapshotFile();
+		if (!file.exists()) return snapshot;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+		{
+			if (in.readInt() != SNAPSHOT_VERSION) return snapshot;
+			int fileCount = in.readInt();
+			for (int f = 0; f < fileCount; f++)
+			{
+				IPath path = Path.fromPortableString(in.readUTF());
+				long timestamp = in.readLong();
+				String[] tokens = new String[in.readInt()];
+				for (int t = 0; t < tokens.length; t++)
+				{
+					tokens[t] = in.readUTF();
+				}
+				snapshot.put(path, new FileEntry(timestamp, tokens));
+			}
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError("Could not read the references index snapshot, it will be rebuilt", e);
+			snapshot.clear();
+		}
+		return snapshot;
+	}
+
+	private void saveSnapshot()
+	{
+		File file = getSnapshotFile();
+		File tmp = new File(file.getParentFile(), SNAPSHOT_FILE + ".tmp");
+		synchronized (this)
+		{
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+			{
+				out.writeInt(SNAPSHOT_VERSION);
+				// files that are still stale have an older timestamp than the file on disk, the next build indexes them again
+				out.writeInt(files.size());
+				for (Map.Entry<IPath, FileEntry> entry : files.entrySet())
+				{
+					out.writeUTF(entry.getKey().toPortableString());
+					out.writeLong(entry.getValue().timestamp);
+					out.writeInt(entry.getValue().tokens.length);
+					for (String token : entry.getValue().tokens)
+					{
+						out.writeUTF(token);
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				ServoyLog.logError("Could not write the references index snapshot", e);
+				return;
+			}
+		}
+		try
+		{
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e)
+		{
+			ServoyLog.logError("Could not write the references index snapshot", e);
+		}
+	}
+}
@@ -33,12 +33,10 @@ import org.eclipse.dltk.core.IModelElement;
 import org.eclipse.dltk.core.ISourceRange;
 import org.eclipse.dltk.javascript.core.JavaScriptNature;
 import org.eclipse.dltk.javascript.typeinfo.model.Element;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchMatchAccess;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.j2db.persistence.Form;
 import com.servoy.j2db.persistence.Relation;
@@ -70,14 +68,14 @@ public class RelationSearch extends AbstractPersistSearch
 		IResource[] scopes = getScopes((Solution)relation.getRootObject());
 		TextSearchRequestor collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm", "*.val" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\b" + relation.getName() + "\\b"), monitor);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\b" + Form.NAMED_FOUNDSET_GLOBAL_RELATION_PREFIX + relation.getName() + "\\b"),
-			monitor);
+		String nameToken = ReferenceIndex.getToken(relation.getName(), true, true);
+		search(scopes, new String[] { "*.frm", "*.val" }, collector, Pattern.compile("\\b" + relation.getName() + "\\b"), monitor, nameToken);
+		search(scopes, new String[] { "*.frm", "*.val" }, collector,
+			Pattern.compile("\\b" + Form.NAMED_FOUNDSET_GLOBAL_RELATION_PREFIX + relation.getName() + "\\b"), monitor,
+			ReferenceIndex.getToken(Form.NAMED_FOUNDSET_GLOBAL_RELATION_PREFIX + relation.getName(), true, true));
 
-		scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js" }, true);
 		((RelationSearchResultCollector)collector).setEngine(DLTKLanguageManager.getSelectionEngine(JavaScriptNature.NATURE_ID));
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\b" + relation.getName() + "\\b"), monitor);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("\\b" + relation.getName() + "\\b"), monitor, nameToken);
 
 		return Status.OK_STATUS;
 	}
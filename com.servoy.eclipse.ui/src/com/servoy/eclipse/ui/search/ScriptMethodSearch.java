@@ -32,9 +32,7 @@ import org.eclipse.dltk.core.DLTKCore;
 import org.eclipse.dltk.core.IMethod;
 import org.eclipse.dltk.core.ISourceModule;
 import org.eclipse.dltk.core.search.IDLTKSearchConstants;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.ui.ISearchQuery;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.ServoyModel;
 import com.servoy.eclipse.model.repository.SolutionSerializer;
@@ -71,24 +69,19 @@ public class ScriptMethodSearch extends DLTKSearchEngineSearch
 		IResource[] scopes = getScopes((Solution)method.getRootObject());
 		final TextSearchResultCollector collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "solution_settings.obj", "*.frm", "*.tbl", "*.val" }, true);
-		TextSearchEngine.create().search(scope, collector, createSearchPattern(new String[] { method.getUUID().toString() }), monitor);
+		String[] uuid = new String[] { method.getUUID().toString() };
+		search(scopes, new String[] { "solution_settings.obj", "*.frm", "*.tbl", "*.val" }, collector, createSearchPattern(uuid), monitor,
+			getSearchTokens(uuid));
 
 		if (method.getParent() instanceof Solution)
 		{
 			// bgcolor usage
-			scope = FileTextSearchScope.newSearchScope(getAllScopesAndActiveResourceProject(), new String[] { "*.frm", "*.tbl", "*.dbi" }, true);
-			if (ScriptVariable.GLOBAL_SCOPE.equals(method.getScopeName()))
-			{
-				// legacy globals.xx, also matches scopes.globals.xx
-				TextSearchEngine.create().search(scope, collector, createSearchPattern(new String[] { ScriptVariable.GLOBALS_DOT_PREFIX + method.getName() }),
-					monitor);
-			}
-			else
-			{
-				// scopes.scopename.xx
-				TextSearchEngine.create().search(scope, collector, createSearchPattern(new String[] { method.getPrefixedName() }), monitor);
-			}
+			IResource[] allScopes = getAllScopesAndActiveResourceProject();
+			String[] fileNamePatterns = new String[] { "*.frm", "*.tbl", "*.dbi" };
+			// legacy globals.xx, also matches scopes.globals.xx; otherwise scopes.scopename.xx
+			String[] fixedStrings = new String[] { ScriptVariable.GLOBAL_SCOPE.equals(method.getScopeName())
+				? ScriptVariable.GLOBALS_DOT_PREFIX + method.getName() : method.getPrefixedName() };
+			search(allScopes, fileNamePatterns, collector, createSearchPattern(fixedStrings), monitor, getSearchTokens(fixedStrings));
 		}
 
 		if (method.getParent() instanceof Form)
@@ -107,9 +100,9 @@ public class ScriptMethodSearch extends DLTKSearchEngineSearch
 			}
 			if (parentMethods.size() > 0)
 			{
-				scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm" }, true);
+				String[] fixedStrings = parentMethods.toArray(new String[0]);
 				collector.setOverrideColecting(true);
-				TextSearchEngine.create().search(scope, collector, createSearchPattern(parentMethods.toArray(new String[0])), monitor);
+				search(scopes, new String[] { "*.frm" }, collector, createSearchPattern(fixedStrings), monitor, getSearchTokens(fixedStrings));
 				collector.setOverrideColecting(false);
 			}
 
@@ -137,6 +130,19 @@ public class ScriptMethodSearch extends DLTKSearchEngineSearch
 		return Pattern.compile(pattern);
 	}
 
+	/**
+	 * The {@link ReferenceIndex} tokens of the fixed strings of a {@link #createSearchPattern(String[])} pattern.
+	 */
+	public static String[] getSearchTokens(String[] fixedString)
+	{
+		String[] tokens = new String[fixedString.length];
+		for (int i = 0; i < fixedString.length; i++)
+		{
+			tokens[i] = ReferenceIndex.getToken(fixedString[i], true, true);
+		}
+		return tokens;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
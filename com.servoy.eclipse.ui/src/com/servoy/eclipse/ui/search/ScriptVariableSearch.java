@@ -31,12 +31,10 @@ import org.eclipse.dltk.core.DLTKCore;
 import org.eclipse.dltk.core.IField;
 import org.eclipse.dltk.core.ISourceModule;
 import org.eclipse.dltk.core.search.IDLTKSearchConstants;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchMatchAccess;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.IDeveloperServoyModel;
 import com.servoy.eclipse.core.ServoyModel;
@@ -100,20 +98,11 @@ public class ScriptVariableSearch extends DLTKSearchEngineSearch
 		}
 		if (variable.getParent() instanceof Solution)
 		{
-			FileTextSearchScope scope = FileTextSearchScope.newSearchScope(getAllScopesAndActiveResourceProject(), new String[] { "*.frm", "*.rel", "*.dbi" },
-				true);
-			if (ScriptVariable.GLOBAL_SCOPE.equals(variable.getScopeName()))
-			{
-				// legacy globals.xx, also matches scopes.globals.xx
-				TextSearchEngine.create().search(scope, collector,
-					ScriptMethodSearch.createSearchPattern(new String[] { ScriptVariable.GLOBALS_DOT_PREFIX + variable.getName() }), monitor);
-			}
-			else
-			{
-				// scopes.scopename.xx
-				TextSearchEngine.create().search(scope, collector,
-					ScriptMethodSearch.createSearchPattern(new String[] { ScopesUtils.getScopeString(variable) }), monitor);
-			}
+			// legacy globals.xx, also matches scopes.globals.xx; otherwise scopes.scopename.xx
+			String[] fixedStrings = new String[] { ScriptVariable.GLOBAL_SCOPE.equals(variable.getScopeName())
+				? ScriptVariable.GLOBALS_DOT_PREFIX + variable.getName() : ScopesUtils.getScopeString(variable) };
+			search(getAllScopesAndActiveResourceProject(), new String[] { "*.frm", "*.rel", "*.dbi" }, collector,
+				ScriptMethodSearch.createSearchPattern(fixedStrings), monitor, ScriptMethodSearch.getSearchTokens(fixedStrings));
 		}
 		else
 		{
@@ -132,8 +121,8 @@ public class ScriptVariableSearch extends DLTKSearchEngineSearch
 				scopes = getScopes((Solution)variable.getRootObject());
 				pattern = new String[] { "*.frm" };
 			}
-			FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, pattern, true);
-			TextSearchEngine.create().search(scope, collector, Pattern.compile("dataProviderID:\"" + variable.getName() + "\""), monitor);
+			search(scopes, pattern, collector, Pattern.compile("dataProviderID:\"" + variable.getName() + "\""), monitor,
+				ReferenceIndex.getToken(variable.getName(), true, true));
 		}
 		if (searchInJavaScript)
 		{
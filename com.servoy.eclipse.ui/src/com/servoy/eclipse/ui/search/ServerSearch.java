@@ -25,10 +25,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.ServoyModelManager;
 import com.servoy.eclipse.model.nature.ServoyProject;
@@ -63,10 +61,10 @@ public class ServerSearch extends DLTKSearchEngineSearch
 		IResource[] scopes = getAllScopes();
 		final TextSearchRequestor collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm", "*.rel", "*.val", "*.js" }, true);
 		try
 		{
-			TextSearchEngine.create().search(scope, collector, Pattern.compile("\\bdb:/" + server.getName() + "/"), monitor);
+			search(scopes, new String[] { "*.frm", "*.rel", "*.val", "*.js" }, collector, Pattern.compile("\\bdb:/" + server.getName() + "/"), monitor,
+				ReferenceIndex.getToken("db:/" + server.getName() + "/", true, true));
 		}
 		catch (RemoteException e)
 		{
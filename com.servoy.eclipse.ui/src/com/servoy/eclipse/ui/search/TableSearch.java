@@ -24,10 +24,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.ui.ISearchQuery;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.core.ServoyModelManager;
 import com.servoy.eclipse.model.nature.ServoyProject;
@@ -61,8 +59,10 @@ public class TableSearch extends DLTKSearchEngineSearch
 		IResource[] scopes = getAllScopes();
 		final TextSearchRequestor collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm", "*.rel", "*.val", "*.js" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("\\bdb:/" + table.getServerName() + "/" + table.getTableName()), monitor);
+		// the table name can be the start of a longer word (other table names), so the index is asked for the server name
+		search(scopes, new String[] { "*.frm", "*.rel", "*.val", "*.js" }, collector,
+			Pattern.compile("\\bdb:/" + table.getServerName() + "/" + table.getTableName()), monitor,
+			ReferenceIndex.getToken("db:/" + table.getServerName() + "/" + table.getTableName(), true, false));
 
 		return Status.OK_STATUS;
 	}
@@ -26,10 +26,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.search.core.text.TextSearchEngine;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
-import org.eclipse.search.ui.text.FileTextSearchScope;
 
 import com.servoy.eclipse.model.repository.SolutionSerializer;
 import com.servoy.j2db.persistence.Solution;
@@ -61,12 +59,12 @@ public class ValueListSearch extends AbstractPersistSearch
 		IResource[] scopes = getScopes((Solution)valueList.getRootObject());
 		TextSearchResultCollector collector = getResultCollector();
 
-		FileTextSearchScope scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.frm", "*.val" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile(valueList.getUUID().toString()), monitor);
+		search(scopes, new String[] { "*.frm", "*.val" }, collector, Pattern.compile(valueList.getUUID().toString()), monitor,
+			valueList.getUUID().toString());
 
-		scope = FileTextSearchScope.newSearchScope(scopes, new String[] { "*.js" }, true);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("etValueList.*\"" + valueList.getName() + "\""), monitor);
-		TextSearchEngine.create().search(scope, collector, Pattern.compile("etValueList.*'" + valueList.getName() + "'"), monitor);
+		String nameToken = ReferenceIndex.getToken(valueList.getName(), true, true);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("etValueList.*\"" + valueList.getName() + "\""), monitor, nameToken);
+		search(scopes, new String[] { "*.js" }, collector, Pattern.compile("etValueList.*'" + valueList.getName() + "'"), monitor, nameToken);
 
 
 		return Status.OK_STATUS;
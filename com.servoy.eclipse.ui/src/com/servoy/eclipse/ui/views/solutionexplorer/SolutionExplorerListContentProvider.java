@@ -39,6 +39,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -68,6 +70,7 @@ import org.eclipse.dltk.javascript.scriptdoc.JavaDoc2HTMLTextReader;
 import org.eclipse.jface.viewers.DecorationOverlayIcon;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Display;
@@ -226,6 +229,15 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 
 	private final Map<ITable, List<Object>> usedTables = new HashMap<ITable, List<Object>>();
 
+	// the job that computes the list of the selected node in the background and the cache key it fills
+	private Job loadingJob;
+	private List<Object> loadingKey;
+	// incremented when the cache is (partially) cleared, a background result that was computed before that is not cached
+	private final AtomicInteger cacheGeneration = new AtomicInteger();
+
+	// specs of which the api docs are already read from the client side js files, the specs are recreated by a package reload
+	private static final Map<WebObjectSpecification, Boolean> apiDocsExtracted = Collections.synchronizedMap(new WeakHashMap<>());
+
 	static
 	{
 		Method[] methods = Object.class.getMethods();
@@ -409,6 +421,8 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 			key = null;
 		}
 
+		cancelLoading(key, mapKey);
+
 		Object lst = leafList.get(key);
 		Object[] lm = null;
 		Map<Object, Object[]> parentMap = null;
@@ -499,7 +513,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 			else if (type == UserNodeType.FORM)
 			{
 				Form currentForm = (Form)un.getRealObject();
-				lm = createFormScripts(currentForm);
+				lm = runInJob(() -> createFormScripts(currentForm), key, mapKey, parentMap);
 			}
 			else if (type == UserNodeType.RELATIONS)
 			{
@@ -517,7 +531,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 			else if (type == UserNodeType.ALL_RELATIONS)
 			{
 				Solution sol = (Solution)un.getRealObject();
-				lm = createAllRelations(sol);
+				lm = runInJob(() -> createAllRelations(sol), key, mapKey, parentMap);
 			}
 			else if (type == UserNodeType.APPLICATION)
 			{
@@ -737,14 +751,17 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 			}
 			else if (type == UserNodeType.PLUGIN)
 			{
-				try
-				{
-					lm = getJSMethods(un.getRealObject(), PLUGIN_PREFIX + "." + un.getName(), null, UserNodeType.PLUGINS_ITEM, null, null);
-				}
-				catch (Exception ex)
-				{
-					ServoyLog.logError(ex);
-				}
+				lm = runInJob(() -> {
+					try
+					{
+						return getJSMethods(un.getRealObject(), PLUGIN_PREFIX + "." + un.getName(), null, UserNodeType.PLUGINS_ITEM, null, null);
+					}
+					catch (Exception ex)
+					{
+						ServoyLog.logError(ex);
+						return null;
+					}
+				}, key, mapKey, parentMap);
 			}
 			else if (type == UserNodeType.RETURNTYPE)
 			{
@@ -768,19 +785,22 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 				{
 					cls = real.getClass();
 				}
-				String elementName = ".";
+				String prefix = ".";
 				if (un.parent.parent != null && un.parent.parent.getType() == UserNodeType.PLUGIN)
 				{
-					elementName = PLUGIN_PREFIX + "." + un.parent.parent.getName() + elementName;
+					prefix = PLUGIN_PREFIX + "." + un.parent.parent.getName() + prefix;
 				}
-				lm = getJSMethods(cls, elementName, null, UserNodeType.RETURNTYPE_ELEMENT, null, null);
+				Class returnType = cls;
+				String elementName = prefix;
+				lm = runInJob(() -> getJSMethods(returnType, elementName, null, UserNodeType.RETURNTYPE_ELEMENT, null, null), key, mapKey, parentMap);
 			}
 			else if (type == UserNodeType.JSLIB)
 			{
 				lm = TreeBuilder.createTypedArray(this, com.servoy.j2db.documentation.scripting.docs.JSLib.class, UserNodeType.JSLIB, null);
 			}
 
-			addToCache(key, mapKey, lm, parentMap);
+			// the list that is loaded in the background is added to the cache by the job
+			if (!isLoading(lm)) addToCache(key, mapKey, lm, parentMap);
 		}
 		if (lm == null)
 		{
@@ -804,21 +824,61 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 		}
 	}
 
+	/**
+	 * Compute the list in a background job, a loading node is shown until the job is done. The result is added to the cache
+	 * and the list is refreshed, so the key must be a cached one. The job is canceled when another list is asked for.
+	 */
 	private Object[] runInJob(Supplier<Object[]> supplier, Object key, Object mapKey, Map<Object, Object[]> map)
 	{
-		Job job = Job.create("Loading solution explorer data...", (ICoreRunnable)monitor -> {
-			Object[] l = supplier.get();
-			addToCache(key, mapKey, l, map);
-			Display.getDefault().asyncExec(() -> {
-				view.getList().refresh();
+		List<Object> jobKey = Arrays.asList(key, mapKey);
+		if (loadingJob == null || !jobKey.equals(loadingKey))
+		{
+			int generation = cacheGeneration.get();
+			Job job = Job.create("Loading solution explorer data...", (ICoreRunnable)monitor -> {
+				Object[] l = supplier.get();
+				if (monitor.isCanceled()) return;
+				Display.getDefault().asyncExec(() -> {
+					// only cache it when the cache was not cleared in the mean time, the list is then computed again
+					if (generation == cacheGeneration.get())
+					{
+						addToCache(key, mapKey, l != null ? l : EMPTY_LIST, map);
+					}
+					if (loadingKey == jobKey)
+					{
+						loadingJob = null;
+						loadingKey = null;
+						StructuredViewer list = view.getList();
+						if (list != null && list.getControl() != null && !list.getControl().isDisposed()) list.refresh();
+					}
+				});
 			});
-		});
-		job.setUser(true);
-		job.setPriority(Job.LONG);
-		job.schedule();
+			job.setUser(true);
+			job.setPriority(Job.LONG);
+			loadingJob = job;
+			loadingKey = jobKey;
+			job.schedule();
+		}
 		return new Object[] { new SimpleUserNode("Loading...", UserNodeType.LOADING) };
 	}
 
+	private static boolean isLoading(Object[] lm)
+	{
+		return lm != null && lm.length == 1 && lm[0] instanceof SimpleUserNode && ((SimpleUserNode)lm[0]).getType() == UserNodeType.LOADING;
+	}
+
+	/**
+	 * Cancel the background loading of a list when another list is asked for, the selection in the tree moved.
+	 */
+	private void cancelLoading(Object key, Object mapKey)
+	{
+		if (loadingJob != null && !Arrays.asList(key, mapKey).equals(loadingKey))
+		{
+			loadingJob.cancel();
+			loadingJob = null;
+			loadingKey = null;
+		}
+	}
+
 	/**
 	 * @param un
 	 * @return
@@ -1759,18 +1819,29 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 	}
 
 	/**
-	 * Extract the docs for angular client side apis.
+	 * Extract the docs for angular client side apis, this is only done once per spec.
 	 * @param readTextFile
 	 */
 	public static void extractApiDocs(WebObjectSpecification spec)
 	{
 		if (spec.getApiFunctions().size() > 0)
 		{
-			extractDocsFromJsFile(spec, spec.getDefinitionURL());
-			extractDocsFromJsFile(spec, spec.getServerScript(Activator.getDefault().getDesignClient().getRuntimeProperties().containsKey("NG2")));
+			apiDocsExtracted.computeIfAbsent(spec, s -> {
+				extractDocsFromJsFile(s, s.getDefinitionURL());
+				extractDocsFromJsFile(s, s.getServerScript(Activator.getDefault().getDesignClient().getRuntimeProperties().containsKey("NG2")));
+				return Boolean.TRUE;
+			});
 		}
 	}
 
+	/**
+	 * Forget for which specs the api docs are extracted, called when the packages are reloaded.
+	 */
+	public static void clearApiDocsCache()
+	{
+		apiDocsExtracted.clear();
+	}
+
 	private static void extractDocsFromJsFile(WebObjectSpecification spec, URL url)
 	{
 		if (spec != null && url != null)
@@ -2398,11 +2469,13 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 
 	public void clearCache()
 	{
+		cacheGeneration.incrementAndGet();
 		leafList.clear();
 	}
 
 	public void clearMediaCache()
 	{
+		cacheGeneration.incrementAndGet();
 		leafList.remove(UserNodeType.MEDIA);
 	}
 
@@ -2414,6 +2487,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 	public void refreshServer(String serverName)
 	{
 		String key = UserNodeType.SERVER.toString() + serverName;
+		cacheGeneration.incrementAndGet();
 		Object previousValue = leafList.remove(key);
 
 		if (previousValue != null)
@@ -2427,7 +2501,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 		if (this.includeModules != includeModules)
 		{
 			this.includeModules = includeModules;
-			leafList.clear();
+			clearCache();
 		}
 	}
 
@@ -2436,7 +2510,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 		if (this.showInheritedMethods != showInheritedMethods)
 		{
 			this.showInheritedMethods = showInheritedMethods;
-			leafList.clear();
+			clearCache();
 		}
 	}
 
@@ -2445,6 +2519,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 	 */
 	public void persistChanges(Collection<IPersist> changes)
 	{
+		cacheGeneration.incrementAndGet();
 		Set<IPersist> processed = new HashSet<IPersist>();
 		for (IPersist persist : changes)
 		{
@@ -2487,6 +2562,7 @@ public class SolutionExplorerListContentProvider implements IStructuredContentPr
 	 */
 	private void flushTable(ITable table)
 	{
+		cacheGeneration.incrementAndGet();
 		leafList.remove(table);
 		List<Object> list = usedTables.get(table);
 		if (list != null)
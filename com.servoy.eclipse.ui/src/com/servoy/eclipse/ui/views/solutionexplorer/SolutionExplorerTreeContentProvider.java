@@ -3731,6 +3731,10 @@ public class SolutionExplorerTreeContentProvider
 	@Override
 	public void ngPackagesChanged(CHANGE_REASON changeReason, boolean loadedPackagesAreTheSameAlthoughReferencingModulesChanged)
 	{
+		// the specs are reloaded, so also the api docs and the lists of the detail view that are created from them
+		SolutionExplorerListContentProvider.clearApiDocsCache();
+		view.refreshList();
+
 		// refreshing tree due to ng component/service package changes...
 		refreshTreeNode(allWebPackagesNode);
 		refreshTreeNode(findChildNode(activeSolutionNode, Messages.TreeStrings_Web_Packages));